@@ -0,0 +1,92 @@
+package uk.ac.qub.eeecs.gage.engine.animation;
+
+import android.graphics.Rect;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the sprite sheet frame table (a real Rect is needed, hence the
+ * instrumented test).
+ */
+@RunWith(AndroidJUnit4.class)
+public class FrameTableTest {
+
+    private static void assertRect(int left, int top, int right, int bottom, Rect rect) {
+        assertEquals(left, rect.left);
+        assertEquals(top, rect.top);
+        assertEquals(right, rect.right);
+        assertEquals(bottom, rect.bottom);
+    }
+
+    @Test
+    public void constructor_SheetLayout_FrameSizeAndCount() {
+        FrameTable frameTable = new FrameTable(256, 96, 3, 4);
+
+        assertEquals(12, frameTable.getNumFrames());
+        assertEquals(64, frameTable.getFrameWidth());
+        assertEquals(32, frameTable.getFrameHeight());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void constructor_NoColumns_Throws() {
+        new FrameTable(256, 96, 3, 0);
+    }
+
+    @Test
+    public void getSourceRect_EachFrame_RowOrderedLocation() {
+        FrameTable frameTable = new FrameTable(256, 96, 3, 4);
+        Rect sourceRect = new Rect();
+
+        for (int frame = 0; frame < frameTable.getNumFrames(); frame++) {
+            frameTable.getSourceRect(frame, false, sourceRect);
+            int left = (frame % 4) * 64;
+            int top = (frame / 4) * 32;
+            assertRect(left, top, left + 64, top + 32, sourceRect);
+        }
+    }
+
+    @Test
+    public void getSourceRect_Mirrored_EdgesSwapped() {
+        FrameTable frameTable = new FrameTable(256, 96, 3, 4);
+        Rect sourceRect = new Rect();
+
+        frameTable.getSourceRect(6, true, sourceRect);
+
+        assertRect(192, 32, 128, 64, sourceRect);
+    }
+
+    @Test
+    public void getSourceRect_SingleFrameSheet_WholeSheet() {
+        FrameTable frameTable = new FrameTable(50, 40, 1, 1);
+        Rect sourceRect = new Rect();
+
+        frameTable.getSourceRect(0, false, sourceRect);
+
+        assertRect(0, 0, 50, 40, sourceRect);
+    }
+
+    @Test
+    public void offsetClippedSourceRect_OffsetOntoFrame() {
+        FrameTable frameTable = new FrameTable(256, 96, 3, 4);
+        Rect sourceRect = new Rect(8, 4, 48, 28);
+
+        frameTable.offsetClippedSourceRect(5, false, sourceRect);
+
+        assertRect(72, 36, 112, 60, sourceRect);
+    }
+
+    @Test
+    public void offsetClippedSourceRect_Mirrored_MirroredWithinFrame() {
+        FrameTable frameTable = new FrameTable(256, 96, 3, 4);
+        Rect sourceRect = new Rect(8, 4, 48, 28);
+
+        frameTable.offsetClippedSourceRect(5, true, sourceRect);
+
+        // The frame spans x 64..128, so clipped x 8..48 mirrors to 120..80
+        assertRect(120, 36, 80, 60, sourceRect);
+    }
+}
@@ -0,0 +1,235 @@
+package uk.ac.qub.eeecs.gage.engine.graphics;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the GL graphics 2D implementation, driven through a recording
+ * device in place of a GL context (real bitmaps are needed, hence the
+ * instrumented test).
+ */
+@RunWith(AndroidJUnit4.class)
+public class GLGraphics2DTest {
+
+    /**
+     * Device that records the requests made of it
+     */
+    private static class RecordingDevice implements IGLDevice {
+        int nextTextureId = 1;
+        int createdTextures = 0;
+        int updatedTextures = 0;
+        List<Integer> deletedTextures = new ArrayList<>();
+        List<Integer> drawTextureIds = new ArrayList<>();
+        List<Integer> drawQuadCounts = new ArrayList<>();
+        List<Integer> blendModes = new ArrayList<>();
+
+        public void initialise(int maxQuads) { }
+        public void setViewport(int width, int height) { }
+        public int createTexture(Bitmap bitmap) {
+            createdTextures++;
+            return nextTextureId++;
+        }
+        public void updateTexture(int textureId, Bitmap bitmap) {
+            updatedTextures++;
+        }
+        public void deleteTexture(int textureId) {
+            deletedTextures.add(textureId);
+        }
+        public void setScissor(Rect clipRegion) { }
+        public void setBlendMode(int blendMode) {
+            blendModes.add(blendMode);
+        }
+        public void clear(int colour) { }
+        public void drawQuads(int textureId, float[] vertexData, int quadCount) {
+            drawTextureIds.add(textureId);
+            drawQuadCounts.add(quadCount);
+        }
+    }
+
+    private RecordingDevice mDevice;
+    private GLGraphics2D mGraphics;
+    private Rect mRect = new Rect(0, 0, 16, 16);
+
+    @Before
+    public void setUp() {
+        mDevice = new RecordingDevice();
+        mGraphics = new GLGraphics2D(mDevice);
+        mGraphics.onSurfaceCreated();
+        mGraphics.setSurfaceSize(320, 240);
+    }
+
+    private void renderFrames(int numFrames) {
+        for (int frame = 0; frame < numFrames; frame++) {
+            mGraphics.beginFrame();
+            mGraphics.endFrame();
+        }
+    }
+
+    @Test
+    public void drawBitmap_SameTexture_BatchedIntoSingleDraw() {
+        Bitmap bitmap = Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888);
+
+        mGraphics.beginFrame();
+        for (int idx = 0; idx < 10; idx++)
+            mGraphics.drawBitmap(bitmap, null, mRect, null);
+        mGraphics.endFrame();
+
+        assertEquals(1, mDevice.createdTextures);
+        assertEquals(1, mDevice.drawQuadCounts.size());
+        assertEquals(10, (int) mDevice.drawQuadCounts.get(0));
+    }
+
+    @Test
+    public void drawBitmap_TextureChange_FlushesBatch() {
+        Bitmap first = Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888);
+        Bitmap second = Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888);
+
+        mGraphics.beginFrame();
+        mGraphics.drawBitmap(first, null, mRect, null);
+        mGraphics.drawBitmap(second, null, mRect, null);
+        mGraphics.drawBitmap(first, null, mRect, null);
+        mGraphics.endFrame();
+
+        assertEquals(2, mDevice.createdTextures);
+        assertEquals(3, mDevice.drawQuadCounts.size());
+    }
+
+    @Test
+    public void drawBitmap_ContentChanged_TextureUpdated() {
+        Bitmap bitmap = Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888);
+
+        mGraphics.beginFrame();
+        mGraphics.drawBitmap(bitmap, null, mRect, null);
+        mGraphics.endFrame();
+        bitmap.eraseColor(Color.RED);
+        mGraphics.beginFrame();
+        mGraphics.drawBitmap(bitmap, null, mRect, null);
+        mGraphics.endFrame();
+
+        assertEquals(1, mDevice.createdTextures);
+        assertEquals(1, mDevice.updatedTextures);
+    }
+
+    @Test
+    public void onSurfaceCreated_AfterAdditiveBatch_BlendModeReset() {
+        Bitmap bitmap = Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888);
+        Paint additive = new Paint();
+        additive.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.ADD));
+
+        mGraphics.beginFrame();
+        mGraphics.drawBitmap(bitmap, null, mRect, additive);
+        mGraphics.endFrame();
+
+        // Following a context loss the device is back in the alpha blend
+        // mode, so the additive mode must be set again
+        mGraphics.onSurfaceCreated();
+        mGraphics.beginFrame();
+        mGraphics.drawBitmap(bitmap, null, mRect, additive);
+        mGraphics.endFrame();
+
+        assertEquals(2, mDevice.blendModes.size());
+        assertEquals(IGLDevice.BLEND_ADDITIVE, (int) mDevice.blendModes.get(0));
+        assertEquals(IGLDevice.BLEND_ADDITIVE, (int) mDevice.blendModes.get(1));
+    }
+
+    @Test
+    public void drawText_RepeatedText_RasterizedOnce() {
+        Paint paint = new Paint();
+        paint.setTextSize(24.0f);
+
+        for (int frame = 0; frame < 5; frame++) {
+            mGraphics.beginFrame();
+            mGraphics.drawText("Score: 100", 10.0f, 50.0f, paint);
+            mGraphics.endFrame();
+        }
+
+        assertEquals(1, mGraphics.getCachedTextCount());
+        assertEquals(1, mDevice.createdTextures);
+        assertEquals(0, mDevice.updatedTextures);
+    }
+
+    @Test
+    public void drawText_DifferentPaint_RasterizedSeparately() {
+        Paint paint = new Paint();
+        paint.setTextSize(24.0f);
+
+        mGraphics.beginFrame();
+        mGraphics.drawText("Score", 10.0f, 50.0f, paint);
+        paint.setColor(Color.RED);
+        mGraphics.drawText("Score", 10.0f, 50.0f, paint);
+        mGraphics.endFrame();
+
+        assertEquals(2, mGraphics.getCachedTextCount());
+    }
+
+    @Test
+    public void drawText_UnusedText_Evicted() {
+        Paint paint = new Paint();
+        paint.setTextSize(24.0f);
+
+        mGraphics.beginFrame();
+        mGraphics.drawText("Score", 10.0f, 50.0f, paint);
+        mGraphics.endFrame();
+        renderFrames(GLGraphics2D.TEXT_EVICTION_FRAMES + GLGraphics2D.EVICTION_INTERVAL_FRAMES);
+
+        assertEquals(0, mGraphics.getCachedTextCount());
+        assertEquals(1, mDevice.deletedTextures.size());
+    }
+
+    @Test
+    public void drawText_ManyStrings_CacheBounded() {
+        Paint paint = new Paint();
+        paint.setTextSize(24.0f);
+
+        for (int frame = 0; frame < GLGraphics2D.MAX_CACHED_TEXT * 2; frame++) {
+            mGraphics.beginFrame();
+            mGraphics.drawText("Frame " + frame, 10.0f, 50.0f, paint);
+            mGraphics.endFrame();
+        }
+
+        assertTrue(mGraphics.getCachedTextCount() <= GLGraphics2D.MAX_CACHED_TEXT);
+    }
+
+    @Test
+    public void recycledBitmap_TextureReleased() {
+        Bitmap bitmap = Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888);
+
+        mGraphics.beginFrame();
+        mGraphics.drawBitmap(bitmap, null, mRect, null);
+        mGraphics.endFrame();
+        int texturesHeld = mGraphics.getTextureCount();
+
+        bitmap.recycle();
+        renderFrames(GLGraphics2D.EVICTION_INTERVAL_FRAMES);
+
+        assertEquals(texturesHeld - 1, mGraphics.getTextureCount());
+        assertEquals(1, mDevice.deletedTextures.size());
+    }
+
+    @Test
+    public void unusedBitmap_TextureReleased() {
+        Bitmap bitmap = Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888);
+
+        mGraphics.beginFrame();
+        mGraphics.drawBitmap(bitmap, null, mRect, null);
+        mGraphics.endFrame();
+        renderFrames(GLGraphics2D.TEXTURE_EVICTION_FRAMES + GLGraphics2D.EVICTION_INTERVAL_FRAMES);
+
+        assertEquals(0, mGraphics.getTextureCount());
+    }
+}
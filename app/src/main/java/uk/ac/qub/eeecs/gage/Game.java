@@ -2,12 +2,19 @@ package uk.ac.qub.eeecs.gage;
 
 import uk.ac.qub.eeecs.gage.engine.AssetManager;
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.Profiler;
 import uk.ac.qub.eeecs.gage.engine.ScreenManager;
 import uk.ac.qub.eeecs.gage.engine.audio.AudioManager;
 import uk.ac.qub.eeecs.gage.engine.graphics.CanvasRenderSurface;
+import uk.ac.qub.eeecs.gage.engine.graphics.GLRenderSurface;
 import uk.ac.qub.eeecs.gage.engine.graphics.IRenderSurface;
+import uk.ac.qub.eeecs.gage.engine.graphics.SurfaceRenderSurface;
 import uk.ac.qub.eeecs.gage.engine.input.Input;
 import uk.ac.qub.eeecs.gage.engine.io.FileIO;
+import uk.ac.qub.eeecs.gage.engine.jobs.JobSystem;
+import uk.ac.qub.eeecs.gage.engine.replay.ReplayPlayer;
+import uk.ac.qub.eeecs.gage.engine.replay.ReplayRecorder;
+import uk.ac.qub.eeecs.gage.util.SeedSource;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
 
 import android.app.Fragment;
@@ -18,6 +25,9 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * Central game class, providing access to core game services and management of
  * the update/render cycle.
@@ -35,6 +45,42 @@ public abstract class Game extends Fragment {
      */
     private boolean mStartInFullscreenImmersiveMode = true;
 
+    /**
+     * Types of render surface that can be used to display the game. The
+     * canvas surface draws on the GUI thread, the surface view surface draws
+     * directly from the game loop thread and the OpenGL surface draws on a
+     * dedicated GL thread.
+     */
+    public enum RenderSurfaceType {
+        Canvas, SurfaceView, OpenGL
+    }
+
+    /**
+     * Type of render surface that will be created when the game's view is
+     * created. Defaults to the canvas render surface.
+     */
+    private RenderSurfaceType mRenderSurfaceType = RenderSurfaceType.Canvas;
+
+    /**
+     * Get the type of render surface used to display the game
+     *
+     * @return Render surface type
+     */
+    public RenderSurfaceType getRenderSurfaceType() {
+        return mRenderSurfaceType;
+    }
+
+    /**
+     * Set the type of render surface used to display the game. This must be
+     * set before the game's view is created (e.g. within onCreate) to take
+     * effect.
+     *
+     * @param renderSurfaceType Render surface type
+     */
+    public void setRenderSurfaceType(RenderSurfaceType renderSurfaceType) {
+        mRenderSurfaceType = renderSurfaceType;
+    }
+
     // /////////////////////////////////////////////////////////////////////////
     // Properties: Frames per Second
     // /////////////////////////////////////////////////////////////////////////
@@ -139,6 +185,95 @@ public abstract class Game extends Fragment {
         return mInput;
     }
 
+    /**
+     * Recorder capturing the timing and input of each frame, and player
+     * replaying a recorded session. At most one of these is active.
+     */
+    private ReplayRecorder mReplayRecorder;
+    private ReplayPlayer mReplayPlayer;
+
+    /**
+     * Start recording the timing and input of each frame to the specified
+     * stream (e.g. obtained from FileIO.writeFile). Any active recording or
+     * replay is stopped.
+     * <p>
+     * A new master random seed is set and recorded. Screens created once
+     * recording has started draw their random seeds from it, so recording
+     * should be started before the screen to be replayed is created.
+     *
+     * @param outputStream Stream to which the replay log is written
+     */
+    public synchronized void startRecording(OutputStream outputStream) {
+        stopRecording();
+        stopReplay();
+        long seed = System.nanoTime();
+        SeedSource.setMasterSeed(seed);
+        mReplayRecorder = new ReplayRecorder(outputStream, seed);
+    }
+
+    /**
+     * Stop any active recording, closing the replay log
+     */
+    public synchronized void stopRecording() {
+        if (mReplayRecorder != null) {
+            mReplayRecorder.close();
+            mReplayRecorder = null;
+        }
+    }
+
+    /**
+     * Start replaying a recorded session from the specified stream (e.g.
+     * obtained from FileIO.readFile). The recorded timing and input replace
+     * the measured timing and device input until the log ends. Any active
+     * recording or replay is stopped.
+     * <p>
+     * The recorded master random seed is restored, so the replay should be
+     * started before the screen to be replayed is created (as when it was
+     * recorded).
+     *
+     * @param inputStream Stream from which the replay log is read
+     * @return Replay player, from which the replayed frame timings can be
+     * obtained
+     */
+    public synchronized ReplayPlayer startReplay(InputStream inputStream) {
+        stopRecording();
+        stopReplay();
+        mReplayPlayer = new ReplayPlayer(inputStream);
+        SeedSource.setMasterSeed(mReplayPlayer.getSeed());
+        return mReplayPlayer;
+    }
+
+    /**
+     * Stop any active replay, returning to the measured timing and device
+     * input
+     */
+    public synchronized void stopReplay() {
+        if (mReplayPlayer != null) {
+            mReplayPlayer.close(mInput);
+            mReplayPlayer = null;
+        }
+    }
+
+    /**
+     * Record the duration of the work (update and draw) carried out for
+     * the current frame with any active replay
+     *
+     * @param duration Duration of the frame's update and draw in ns
+     */
+    private synchronized void recordReplayFrameTime(long duration) {
+        if (mReplayPlayer != null)
+            mReplayPlayer.recordFrameTime(duration);
+    }
+
+    /**
+     * Determine if a recorded session is being replayed
+     *
+     * @return True if a replay is active
+     */
+    public synchronized boolean isReplaying() {
+        return mReplayPlayer != null && !mReplayPlayer.isFinished();
+    }
+
     /**
      * File IO Service
      */
@@ -153,6 +288,94 @@ public abstract class Game extends Fragment {
         return mFileIO;
     }
 
+    /**
+     * Profiler
+     */
+    protected Profiler mProfiler = new Profiler();
+
+    /**
+     * Profiler sections used to time the update and draw steps
+     */
+    private final int mUpdateProfilerSection = mProfiler.registerSection("Game.update");
+    private final int mDrawProfilerSection = mProfiler.registerSection("Game.draw");
+
+    /**
+     * Get the game's profiler
+     *
+     * @return Profiler
+     */
+    public Profiler getProfiler() {
+        return mProfiler;
+    }
+
+    /**
+     * Period (ns) between logging the profiler results, zero if the results
+     * are not logged
+     */
+    private volatile long mProfilerLogPeriod = 0L;
+
+    /**
+     * Time (ns) at which the profiler results were last logged
+     */
+    private long mLastProfilerLogTime;
+
+    /**
+     * Builder used to assemble the logged profiler results
+     */
+    private final StringBuilder mProfilerResults = new StringBuilder();
+
+    /**
+     * Set how often the profiler results are written to the log
+     *
+     * @param seconds Interval between logged results, zero to stop logging
+     */
+    public void setProfilerLogInterval(float seconds) {
+        if (seconds < 0.0f)
+            throw new RuntimeException("Game.setProfilerLogInterval: Invalid interval [" + seconds + "]");
+
+        mProfilerLogPeriod = (long) (seconds * 1000000000.0);
+    }
+
+    /**
+     * Log the profiler results if the log interval has elapsed since they
+     * were last logged
+     *
+     * @param currentTime Current time (ns)
+     */
+    private void logProfilerResults(long currentTime) {
+        long period = mProfilerLogPeriod;
+        if (period == 0L || currentTime - mLastProfilerLogTime < period)
+            return;
+
+        mLastProfilerLogTime = currentTime;
+        mProfilerResults.setLength(0);
+        mProfiler.appendResults(mProfilerResults);
+        if (mProfilerResults.length() > 0) {
+            String profilerTag = getActivity().getResources().getString(
+                    R.string.PROFILER_TAG);
+            Log.i(profilerTag, mProfilerResults.toString());
+        }
+    }
+
+    /**
+     * Job system used to run the job graphs submitted during an update.
+     * Created when first requested.
+     */
+    private JobSystem mJobSystem;
+
+    /**
+     * Get the game's job system. Job graphs submitted during a screen's
+     * update are run in parallel and will have completed before the screen
+     * is drawn.
+     *
+     * @return Job system
+     */
+    public synchronized JobSystem getJobSystem() {
+        if (mJobSystem == null)
+            mJobSystem = new JobSystem();
+        return mJobSystem;
+    }
+
     /**
      * Render Surface
      */
@@ -250,7 +473,18 @@ public abstract class Game extends Fragment {
         // ////////////////////////////////////////////////////////
 
         // Create the output view and associated renderer
-        mRenderSurface = new CanvasRenderSurface(this, getActivity());
+        switch (mRenderSurfaceType) {
+            case SurfaceView:
+                mRenderSurface = new SurfaceRenderSurface(this, getActivity());
+                break;
+            case OpenGL:
+                mRenderSurface = new GLRenderSurface(this, getActivity());
+                break;
+            case Canvas:
+            default:
+                mRenderSurface = new CanvasRenderSurface(this, getActivity());
+                break;
+        }
         View view = mRenderSurface.getAsView();
 
         // Consider immersive mode if requested and get screen metrics
@@ -291,6 +525,10 @@ public abstract class Game extends Fragment {
         if (mScreenManager.getCurrentScreen() != null)
             mScreenManager.getCurrentScreen().resume();
 
+        // If needed, resume the GL thread before the game loop requests a render
+        if (mRenderSurface instanceof GLRenderSurface)
+            ((GLRenderSurface) mRenderSurface).onResume();
+
         // Resume the game loop
         mLoop.resume();
     }
@@ -305,6 +543,10 @@ public abstract class Game extends Fragment {
         // Pause the game loop
         mLoop.pause();
 
+        // If needed, pause the GL thread once the last render has completed
+        if (mRenderSurface instanceof GLRenderSurface)
+            ((GLRenderSurface) mRenderSurface).onPause();
+
         // If needed, pause the current game screen
         if (mScreenManager.getCurrentScreen() != null)
             mScreenManager.getCurrentScreen().pause();
@@ -325,6 +567,18 @@ public abstract class Game extends Fragment {
         // Dispose of audio manager
         mAudioManager.dispose();
 
+        // Close any active recording or replay
+        stopRecording();
+        stopReplay();
+
+        // Stop any job system worker threads
+        synchronized (this) {
+            if (mJobSystem != null) {
+                mJobSystem.shutdown();
+                mJobSystem = null;
+            }
+        }
+
         super.onDestroy();
     }
 
@@ -357,14 +611,28 @@ public abstract class Game extends Fragment {
         // Reset accumulators for keys/touch events for the current frame
         mInput.resetAccumulators();
 
+        // Replace the frame's timing and input if replaying, or otherwise
+        // record them if recording
+        synchronized (this) {
+            if (mReplayPlayer != null)
+                mReplayPlayer.nextFrame(elapsedTime, mInput);
+            else if (mReplayRecorder != null)
+                mReplayRecorder.recordFrame(elapsedTime, mInput);
+        }
+
         // Get and update the current game screen
         GameScreen gameScreen = mScreenManager.getCurrentScreen();
         if (gameScreen != null)
             gameScreen.update(elapsedTime);
 
-        // It is assumed that if the update is multi-threaded then the
-        // method call will not return until all update processes have
-        // completed. Once this happens, notify the game loop.
+        // Wait for any jobs submitted during the update to complete. Once
+        // this happens, notify the game loop.
+        JobSystem jobSystem;
+        synchronized (this) {
+            jobSystem = mJobSystem;
+        }
+        if (jobSystem != null)
+            jobSystem.waitForCompletion();
         notifyUpdateCompleted();
     }
 
@@ -551,6 +819,7 @@ public abstract class Game extends Fragment {
                                     (targetStepPeriod / 1000000000.0) * maximumStepPeriodScale;
 
                         // Trigger an update
+                        mProfiler.begin(mUpdateProfilerSection);
                         synchronized (update) {
                             update.isLocked = true;
                         }
@@ -561,8 +830,10 @@ public abstract class Game extends Fragment {
                                 update.wait();
                             }
                         }
+                        mProfiler.end(mUpdateProfilerSection);
 
                         // Trigger a draw request
+                        mProfiler.begin(mDrawProfilerSection);
                         synchronized (draw) {
                             draw.isLocked = true;
                         }
@@ -575,6 +846,7 @@ public abstract class Game extends Fragment {
                                 draw.wait();
                             }
                         }
+                        mProfiler.end(mDrawProfilerSection);
 
                         // Measure how long the update/draw took to complete and
                         // how long to sleep until the next cycle is due. This may
@@ -583,6 +855,8 @@ public abstract class Game extends Fragment {
                         endStep = System.nanoTime();
                         sleepTime = (targetStepPeriod - (endStep - startStep))
                                 - overSleepTime;
+                        recordReplayFrameTime(endStep - startStep);
+                        logProfilerResults(endStep);
 
                         // If needed put the thread to sleep
                         if (sleepTime > 0) {
@@ -14,6 +14,7 @@ import uk.ac.qub.eeecs.gage.Game;
 import uk.ac.qub.eeecs.gage.engine.animation.AnimationSettings;
 import uk.ac.qub.eeecs.gage.engine.audio.Music;
 import uk.ac.qub.eeecs.gage.engine.audio.Sound;
+import uk.ac.qub.eeecs.gage.engine.graphics.BitmapFont;
 import uk.ac.qub.eeecs.gage.engine.io.FileIO;
 
 /**
@@ -54,6 +55,11 @@ public class AssetManager {
      */
     private HashMap<String, Typeface> mFonts;
 
+    /**
+     * Bitmap font asset store
+     */
+    private HashMap<String, BitmapFont> mBitmapFonts;
+
     /**
      * Animation settings store
      */
@@ -88,6 +94,7 @@ public class AssetManager {
         mMusic = new HashMap<>();
         mSounds = new HashMap<>();
         mFonts = new HashMap<>();
+        mBitmapFonts = new HashMap<>();
         mAnimations = new HashMap<>();
     }
 
@@ -159,6 +166,22 @@ public class AssetManager {
         return true;
     }
 
+    /**
+     * Add the specified bitmap font asset to the manager
+     *
+     * @param assetName Name given to the asset
+     * @param asset     Bitmap font asset to add
+     * @return boolean true if the asset could be added, false it not (e.g. an
+     * asset with the specified name already exists).
+     */
+    public boolean add(String assetName, BitmapFont asset) {
+        if (mBitmapFonts.containsKey(assetName))
+            return false;
+
+        mBitmapFonts.put(assetName, asset);
+        return true;
+    }
+
     /**
      * Add the specified animation settings file to the manager
      *
@@ -259,6 +282,44 @@ public class AssetManager {
         }
     }
 
+    /**
+     * Create and add a bitmap font, rasterized from a font asset that has
+     * already been added to the store
+     *
+     * @param assetName     Name given to the asset
+     * @param fontAssetName Name of the font asset to rasterize (the default
+     *                      typeface is used if null)
+     * @param textSize      Size of the text in pixels
+     * @param colour        Colour of the text
+     * @return boolean true if the asset could be created and added, false if not
+     */
+    public boolean loadAndAddBitmapFont(String assetName, String fontAssetName,
+                                        float textSize, int colour) {
+        if (mBitmapFonts.containsKey(assetName))
+            return false;
+
+        BitmapFont bitmapFont = new BitmapFont(
+                fontAssetName == null ? null : getFont(fontAssetName), textSize, colour);
+        return add(assetName, bitmapFont);
+    }
+
+    /**
+     * Remove the specified bitmap font asset from the manager, releasing the
+     * glyph atlas held by the font
+     *
+     * @param assetName Name of the asset to remove
+     * @return boolean true if the asset was removed, false if not (e.g. no
+     * asset with the specified name exists).
+     */
+    public boolean unloadBitmapFont(String assetName) {
+        BitmapFont bitmapFont = mBitmapFonts.remove(assetName);
+        if (bitmapFont == null)
+            return false;
+
+        bitmapFont.dispose();
+        return true;
+    }
+
     /**
      * Load and add the specified animation settings asset to the store
      *
@@ -275,6 +336,23 @@ public class AssetManager {
         return add(assetName, animationSettings);
     }
 
+    /**
+     * Remove the specified animation settings asset from the manager,
+     * releasing any clips decoded by the settings
+     *
+     * @param assetName Name of the asset to remove
+     * @return boolean true if the asset was removed, false if not (e.g. no
+     * asset with the specified name exists).
+     */
+    public boolean unloadAnimation(String assetName) {
+        AnimationSettings animationSettings = mAnimations.remove(assetName);
+        if (animationSettings == null)
+            return false;
+
+        animationSettings.dispose();
+        return true;
+    }
+
     /**
      * Load in the list of assets from the specified JSON file.
      *
@@ -400,6 +478,20 @@ public class AssetManager {
         return mFonts.get(assetName);
     }
 
+    /**
+     * Retrieve the specified bitmap font asset from the manager
+     *
+     * @param assetName Name of the asset to retrieve
+     * @return Specified bitmap font asset
+     */
+    public BitmapFont getBitmapFont(String assetName) {
+        if(!mBitmapFonts.containsKey(assetName))
+            throw new RuntimeException(
+                    "AssetManager.getBitmapFont: Cannot find [" + assetName + "]");
+
+        return mBitmapFonts.get(assetName);
+    }
+
     /**
      * Retrieve the specified animation settings asset from the manager
      *
@@ -0,0 +1,298 @@
+package uk.ac.qub.eeecs.gage.engine;
+
+import android.os.Trace;
+
+/**
+ * Lightweight timing profiler.
+ * <p>
+ * Code sections are registered once, returning an integer handle, and then
+ * timed by surrounding the section with begin and end calls (or by recording
+ * a measured duration). For each section the last, (weighted) average and
+ * maximum durations are retained alongside the number of samples. Timing
+ * does not create any objects.
+ * <p>
+ * Sections can optionally also be emitted as Android system trace sections
+ * so they appear within systrace/Perfetto captures.
+ * <p>
+ * Sections can be registered from any thread. Storage for a fixed maximum
+ * number of sections is allocated up front, so registration never replaces
+ * the arrays used when timing, and sections can be timed from jobs as well
+ * as the game loop thread. Each section should only be timed by one thread
+ * at a time.
+ * <p>
+ * Whether a section is timed and traced is decided when it begins, and its
+ * end follows that decision, so timing or tracing can be toggled (e.g. from
+ * the UI thread) whilst sections are open without unbalancing the system
+ * trace.
+ *
+ * @version 1.0
+ */
+public class Profiler {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Weighting applied to each new sample when updating the average duration
+     */
+    private static final float AVERAGE_WEIGHTING = 0.1f;
+
+    /**
+     * Maximum number of sections that can be registered
+     */
+    public static final int MAX_SECTIONS = 64;
+
+    /**
+     * Flag determining if timing is carried out
+     */
+    private volatile boolean mEnabled = true;
+
+    /**
+     * Flag determining if sections are also emitted as system trace sections
+     */
+    private volatile boolean mSystemTraceEnabled = false;
+
+    /**
+     * Number of registered sections, alongside their names
+     */
+    private volatile int mSectionCount = 0;
+    private final String[] mNames = new String[MAX_SECTIONS];
+
+    /**
+     * Per section start time (ns) of the current sample and the last,
+     * average and maximum durations (ns), alongside the sample count
+     */
+    private final long[] mStartTimes = new long[MAX_SECTIONS];
+    private final long[] mLastDurations = new long[MAX_SECTIONS];
+    private final float[] mAverageDurations = new float[MAX_SECTIONS];
+    private final long[] mMaxDurations = new long[MAX_SECTIONS];
+    private final long[] mSampleCounts = new long[MAX_SECTIONS];
+
+    /**
+     * Per section flags recording if the current sample is being timed and
+     * if a system trace section was begun for it
+     */
+    private final boolean[] mTiming = new boolean[MAX_SECTIONS];
+    private final boolean[] mTracing = new boolean[MAX_SECTIONS];
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Configuration
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Enable or disable timing. When disabled, begin, end and record do
+     * nothing.
+     *
+     * @param enabled True if timing should be carried out
+     */
+    public void setEnabled(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    /**
+     * Determine if timing is enabled
+     *
+     * @return True if timing is enabled
+     */
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Enable or disable the emission of sections as Android system trace
+     * sections
+     *
+     * @param systemTraceEnabled True if system trace sections should be emitted
+     */
+    public void setSystemTraceEnabled(boolean systemTraceEnabled) {
+        mSystemTraceEnabled = systemTraceEnabled;
+    }
+
+    /**
+     * Register a section, or get the handle of an existing section with the
+     * same name
+     *
+     * @param name Section name
+     * @return Section handle
+     */
+    public synchronized int registerSection(String name) {
+        for (int section = 0; section < mSectionCount; section++)
+            if (mNames[section].equals(name))
+                return section;
+
+        if (mSectionCount == MAX_SECTIONS)
+            throw new RuntimeException(
+                    "Profiler.registerSection: Too many sections [" + name + "]");
+
+        mNames[mSectionCount] = name;
+        return mSectionCount++;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Timing
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Begin timing the specified section
+     *
+     * @param section Section handle
+     */
+    public void begin(int section) {
+        boolean timing = mEnabled;
+        boolean tracing = timing && mSystemTraceEnabled;
+        mTiming[section] = timing;
+        mTracing[section] = tracing;
+        if (!timing)
+            return;
+
+        if (tracing)
+            Trace.beginSection(mNames[section]);
+        mStartTimes[section] = System.nanoTime();
+    }
+
+    /**
+     * End timing the specified section, recording the duration since the
+     * matching begin call. The sample is only recorded, and the system trace
+     * section only ended, if the begin call started them.
+     *
+     * @param section Section handle
+     */
+    public void end(int section) {
+        if (!mTiming[section])
+            return;
+
+        mTiming[section] = false;
+        addSample(section, System.nanoTime() - mStartTimes[section]);
+        if (mTracing[section]) {
+            mTracing[section] = false;
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Record a duration that has been measured for the specified section
+     *
+     * @param section  Section handle
+     * @param duration Duration in ns
+     */
+    public void record(int section, long duration) {
+        if (!mEnabled)
+            return;
+
+        addSample(section, duration);
+    }
+
+    /**
+     * Add a sample of the specified duration to the section's timings
+     *
+     * @param section  Section handle
+     * @param duration Duration of the sample (ns)
+     */
+    private void addSample(int section, long duration) {
+        mLastDurations[section] = duration;
+        if (mSampleCounts[section] == 0)
+            mAverageDurations[section] = duration;
+        else
+            mAverageDurations[section] += AVERAGE_WEIGHTING
+                    * (duration - mAverageDurations[section]);
+        if (duration > mMaxDurations[section])
+            mMaxDurations[section] = duration;
+        mSampleCounts[section]++;
+    }
+
+    /**
+     * Reset the recorded timings of all sections
+     */
+    public void reset() {
+        for (int section = 0; section < mSectionCount; section++) {
+            mLastDurations[section] = 0L;
+            mAverageDurations[section] = 0.0f;
+            mMaxDurations[section] = 0L;
+            mSampleCounts[section] = 0L;
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Results
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the number of registered sections
+     *
+     * @return Number of sections
+     */
+    public int getSectionCount() {
+        return mSectionCount;
+    }
+
+    /**
+     * Get the name of the specified section
+     *
+     * @param section Section handle
+     * @return Section name
+     */
+    public String getName(int section) {
+        return mNames[section];
+    }
+
+    /**
+     * Get the last recorded duration of the specified section
+     *
+     * @param section Section handle
+     * @return Last duration in ms
+     */
+    public float getLastMillis(int section) {
+        return mLastDurations[section] / 1000000.0f;
+    }
+
+    /**
+     * Get the (weighted) average duration of the specified section
+     *
+     * @param section Section handle
+     * @return Average duration in ms
+     */
+    public float getAverageMillis(int section) {
+        return mAverageDurations[section] / 1000000.0f;
+    }
+
+    /**
+     * Get the maximum recorded duration of the specified section
+     *
+     * @param section Section handle
+     * @return Maximum duration in ms
+     */
+    public float getMaxMillis(int section) {
+        return mMaxDurations[section] / 1000000.0f;
+    }
+
+    /**
+     * Get the number of samples recorded for the specified section
+     *
+     * @param section Section handle
+     * @return Number of samples
+     */
+    public long getSampleCount(int section) {
+        return mSampleCounts[section];
+    }
+
+    /**
+     * Append a line for each section that has been sampled, holding the
+     * section's last, average and maximum durations (ms) and sample count
+     *
+     * @param results Builder to which the results are appended
+     */
+    public void appendResults(StringBuilder results) {
+        int sectionCount = mSectionCount;
+        for (int section = 0; section < sectionCount; section++) {
+            if (mSampleCounts[section] == 0)
+                continue;
+
+            results.append(mNames[section])
+                    .append(": last ").append(getLastMillis(section))
+                    .append(" ms, avg ").append(getAverageMillis(section))
+                    .append(" ms, max ").append(getMaxMillis(section))
+                    .append(" ms (").append(mSampleCounts[section]).append(" samples)\n");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package uk.ac.qub.eeecs.gage.engine.animation;
 
 import android.graphics.Bitmap;
+import android.graphics.Paint;
 import android.graphics.Rect;
 
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
@@ -40,21 +41,25 @@ public class Animation {
     private String mName;
 
     /**
-     * Link to the sprite sheet used to draw this animation
+     * Settings and index of this animation, used to obtain the bitmap
+     * holding the animation's frames
      */
-    private Bitmap mSpritesheet;
+    private AnimationSettings mAnimationSettings;
+    private int mAnimationIdx;
 
     /**
-     * Number of rows and columns of frames in the sprite sheet.
+     * Link to the bitmap (the sprite sheet or the decoded rows holding this
+     * animation) used to draw this animation, alongside the y offset of the
+     * bitmap within the sprite sheet. Obtained when first played or drawn.
      */
-    private int mNumRows;
-    private int mNumColumns;
+    private Bitmap mSpritesheet;
+    private int mSpritesheetYOffset;
 
     /**
-     * Pixel width and height of each frame
+     * Source rectangle of each frame in the sprite sheet (shared with the
+     * other animations of the sprite sheet)
      */
-    private int mFrameWidth;
-    private int mFrameHeight;
+    private FrameTable mFrameTable;
 
     /**
      * Start and end frames for the associated animation. It is assumed that
@@ -119,12 +124,9 @@ public class Animation {
     public Animation(AnimationSettings animationSettings, int animationIdx) {
 
         // Store details of the sprite sheet
-        mSpritesheet = animationSettings.spritesheet;
-        mNumRows = animationSettings.numRows;
-        mNumColumns = animationSettings.numColumns;
-
-        mFrameWidth = animationSettings.spritesheet.getWidth() / mNumColumns;
-        mFrameHeight = animationSettings.spritesheet.getHeight() / mNumRows;
+        mAnimationSettings = animationSettings;
+        mAnimationIdx = animationIdx;
+        mFrameTable = animationSettings.frameTable;
 
         // Store details of the selected animation
         mName = animationSettings.name[animationIdx];
@@ -203,12 +205,24 @@ public class Animation {
     public void play(ElapsedTime elapsedTime) {
         // Only commence playback is the animation is not currently playing
         if(!mIsPlaying) {
+            loadFrames();
             mAnimationStartTime = elapsedTime.totalTime;
             mCurrentFrame = mStartFrame;
             mIsPlaying = true;
         }
     }
 
+    /**
+     * Obtain the bitmap holding this animation's frames, decoding the frames
+     * if the sprite sheet's animations are decoded lazily
+     */
+    private void loadFrames() {
+        if (mSpritesheet == null) {
+            mSpritesheet = mAnimationSettings.getClipBitmap(mAnimationIdx);
+            mSpritesheetYOffset = mAnimationSettings.getClipYOffset(mAnimationIdx);
+        }
+    }
+
     /**
      * Stop playback of this animation.
      */
@@ -270,42 +284,45 @@ public class Animation {
     public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
                      GameObject gameObject,
                      LayerViewport layerViewport, ScreenViewport screenViewport) {
+        draw(elapsedTime, graphics2D, gameObject, layerViewport, screenViewport, null);
+    }
+
+    /**
+     * Draw the current frame of the animation using the specified paint
+     * (e.g. to apply an alpha when cross-fading between animations).
+     *
+     * The game object associated with this animation is used to provide
+     * the object bound into which the animation will be drawn.
+     *
+     * @param elapsedTime Elapsed time information
+     * @param graphics2D  Graphics instance
+     * @param gameObject Game object associated with this animation
+     * @param layerViewport Game viewport
+     * @param screenViewport Screen viewport
+     * @param paint Paint to draw with (can be null)
+     */
+    public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
+                     GameObject gameObject,
+                     LayerViewport layerViewport, ScreenViewport screenViewport,
+                     Paint paint) {
 
         // Firstly determine if the game object associated with this animation is
-        // visible and, if so, determine whole bitmap and screen viewport rectangles.
+        // visible and, if so, determine the visible region of a single frame and
+        // the screen viewport rectangle.
         if (GraphicsHelper.getClippedSourceAndScreenRect(
-                gameObject.getBound(), mSpritesheet,
+                gameObject.getBound(),
+                mFrameTable.getFrameWidth(), mFrameTable.getFrameHeight(),
                 layerViewport, screenViewport, sourceRect, screenRect)) {
 
-            // The calculated source rectangle will apply to the entire sprite
-            // sheet, shrink this down to this a single frame
-            sourceRect.left /= mNumColumns;
-            sourceRect.right /= mNumColumns;
-            sourceRect.top /= mNumRows;
-            sourceRect.bottom /= mNumRows;
-
-            // Determine the location of the current frame within the sprite sheet
-            int rowIdx = mCurrentFrame / mNumColumns;
-            int colIdx = mCurrentFrame % mNumColumns;
-
-            // Offset the shrunk source rectangle onto the current frame
-            sourceRect.left = sourceRect.left + colIdx * mFrameWidth;
-            sourceRect.right = sourceRect.right + colIdx * mFrameWidth;
-            sourceRect.top = sourceRect.top + rowIdx * mFrameHeight;
-            sourceRect.bottom = sourceRect.bottom + rowIdx * mFrameHeight;
-
-            // If the facing is to the left, then swap the X source values
-            if (mFacing == Facing.Left) {
-                // Determine frame left and right bound separations
-                int leftGap = sourceRect.left - mFrameWidth * colIdx;
-                int rightGap = mFrameWidth*(colIdx+1)-sourceRect.right;
-                // Swap the left and right bounds maintaining the gaps
-                sourceRect.left = mFrameWidth*(colIdx+1) - leftGap;
-                sourceRect.right = mFrameWidth*colIdx + rightGap;
-            }
+            // Offset the visible region onto the current frame, mirroring it
+            // if the facing is to the left
+            loadFrames();
+            mFrameTable.offsetClippedSourceRect(
+                    mCurrentFrame, mFacing == Facing.Left, sourceRect);
+            sourceRect.offset(0, -mSpritesheetYOffset);
 
             // Draw the frame
-            graphics2D.drawBitmap(mSpritesheet, sourceRect, screenRect, null);
+            graphics2D.drawBitmap(mSpritesheet, sourceRect, screenRect, paint);
         }
     }
 
@@ -332,28 +349,11 @@ public class Animation {
         screenRect.top = (int) objectBound.getBottom();
         screenRect.bottom = (int) objectBound.getTop();
 
-        // Calculate a source rectangle for a single frame
-        sourceRect.left = 0;
-        sourceRect.right = mFrameWidth;
-        sourceRect.top = 0;
-        sourceRect.bottom = mFrameHeight;
-
-        // Determine the location of the current frame within the sprite sheet
-        int rowIdx = mCurrentFrame / mNumColumns;
-        int colIdx = mCurrentFrame % mNumColumns;
-
-        // Offset the shrunk source rectangle onto the current frame
-        sourceRect.left = sourceRect.left + colIdx * mFrameWidth;
-        sourceRect.right = sourceRect.right + colIdx * mFrameWidth;
-        sourceRect.top = sourceRect.top + rowIdx * mFrameHeight;
-        sourceRect.bottom = sourceRect.bottom + rowIdx * mFrameHeight;
-
-        // If the facing is to the left, then swap the X source values
-        if (mFacing == Facing.Left) {
-            int temp = sourceRect.right;
-            sourceRect.right = sourceRect.left;
-            sourceRect.left = temp;
-        }
+        // Look up the source rectangle of the current frame, mirrored if
+        // the facing is to the left
+        loadFrames();
+        mFrameTable.getSourceRect(mCurrentFrame, mFacing == Facing.Left, sourceRect);
+        sourceRect.offset(0, -mSpritesheetYOffset);
 
         // Draw the frame
         graphics2D.drawBitmap(mSpritesheet, sourceRect, screenRect, null);
@@ -0,0 +1,331 @@
+package uk.ac.qub.eeecs.gage.engine.animation;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+import uk.ac.qub.eeecs.gage.util.GraphicsHelper;
+import uk.ac.qub.eeecs.gage.world.LayerViewport;
+import uk.ac.qub.eeecs.gage.world.ScreenViewport;
+
+/**
+ * Animation crowd.
+ * <p>
+ * Plays the animations (clips) of a single sprite sheet for a large number
+ * of instances, e.g. a crowd of characters. The clip data (frames, period,
+ * looping) is held once within the shared animation settings, whilst each
+ * instance only holds its playback state (clip, start time, current frame,
+ * facing) within primitive arrays. All instances are updated in a single
+ * pass.
+ * <p>
+ * Instances are identified by the index returned when they are added and
+ * clips by their index within the animation settings.
+ *
+ * @version 1.0
+ */
+public class AnimationCrowd {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties: Clips
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Shared animation settings holding the clips
+     */
+    private final AnimationSettings mSettings;
+
+    /**
+     * Frame table of the clips, alongside the bitmap holding the frames of
+     * each clip and the y offset of the bitmap within the sprite sheet. Clip
+     * bitmaps are obtained when the clip is first played or drawn.
+     */
+    private final FrameTable mFrameTable;
+    private final Bitmap[] mClipBitmap;
+    private final int[] mClipYOffset;
+
+    /**
+     * Per clip number of frames and inverse period, precomputed to reduce
+     * the per instance update cost
+     */
+    private final int[] mClipFrameCount;
+    private final float[] mClipInversePeriod;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties: Instances
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Number of instances within the crowd
+     */
+    private int mCount = 0;
+
+    /**
+     * Per instance clip, playback start time, current frame, playing flag
+     * and facing (mirrored if facing left)
+     */
+    private int[] mClip;
+    private double[] mStartTime;
+    private int[] mFrame;
+    private boolean[] mPlaying;
+    private boolean[] mMirrored;
+
+    /**
+     * Rects used when drawing, defined as class members to reduce temporary
+     * object creation.
+     */
+    private final Rect mSourceRect = new Rect();
+    private final Rect mScreenRect = new Rect();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new animation crowd
+     *
+     * @param animationSettings Animation settings holding the clips
+     * @param initialCapacity   Number of instances for which storage is
+     *                          initially created
+     */
+    public AnimationCrowd(AnimationSettings animationSettings, int initialCapacity) {
+        mSettings = animationSettings;
+        mFrameTable = animationSettings.frameTable;
+
+        int numClips = animationSettings.numAnimations;
+        mClipBitmap = new Bitmap[numClips];
+        mClipYOffset = new int[numClips];
+        mClipFrameCount = new int[numClips];
+        mClipInversePeriod = new float[numClips];
+        for (int clip = 0; clip < numClips; clip++) {
+            mClipFrameCount[clip] =
+                    animationSettings.endFrame[clip] - animationSettings.startFrame[clip] + 1;
+            mClipInversePeriod[clip] = 1.0f / animationSettings.totalPeriod[clip];
+        }
+
+        int capacity = Math.max(initialCapacity, 1);
+        mClip = new int[capacity];
+        mStartTime = new double[capacity];
+        mFrame = new int[capacity];
+        mPlaying = new boolean[capacity];
+        mMirrored = new boolean[capacity];
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Clips
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the index of the named clip. This should be called once (e.g.
+     * when creating instances) rather than each frame.
+     *
+     * @param clipName Name of the clip
+     * @return Clip index
+     */
+    public int getClipIndex(String clipName) {
+        for (int clip = 0; clip < mSettings.numAnimations; clip++)
+            if (mSettings.name[clip].equals(clipName))
+                return clip;
+        throw new RuntimeException(
+                "AnimationCrowd.getClipIndex: Cannot find animation [" + clipName + "]");
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Instances
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add an instance to the crowd, initially stopped on the first frame of
+     * the specified clip
+     *
+     * @param clip Clip index
+     * @return Instance index
+     */
+    public int add(int clip) {
+        if (mCount == mClip.length)
+            grow();
+
+        int instance = mCount++;
+        mClip[instance] = clip;
+        mStartTime[instance] = 0.0;
+        mFrame[instance] = mSettings.startFrame[clip];
+        mPlaying[instance] = false;
+        mMirrored[instance] = false;
+        return instance;
+    }
+
+    private void grow() {
+        int capacity = mClip.length * 2;
+
+        int[] clip = new int[capacity];
+        System.arraycopy(mClip, 0, clip, 0, mCount);
+        mClip = clip;
+
+        double[] startTime = new double[capacity];
+        System.arraycopy(mStartTime, 0, startTime, 0, mCount);
+        mStartTime = startTime;
+
+        int[] frame = new int[capacity];
+        System.arraycopy(mFrame, 0, frame, 0, mCount);
+        mFrame = frame;
+
+        boolean[] playing = new boolean[capacity];
+        System.arraycopy(mPlaying, 0, playing, 0, mCount);
+        mPlaying = playing;
+
+        boolean[] mirrored = new boolean[capacity];
+        System.arraycopy(mMirrored, 0, mirrored, 0, mCount);
+        mMirrored = mirrored;
+    }
+
+    /**
+     * Get the number of instances within the crowd
+     *
+     * @return Number of instances
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Play the specified clip for an instance. If the clip is already
+     * playing then playback will continue, otherwise playback of the clip
+     * starts from its first frame.
+     *
+     * @param instance    Instance index
+     * @param clip        Clip index
+     * @param elapsedTime Elapsed time information
+     */
+    public void play(int instance, int clip, ElapsedTime elapsedTime) {
+        if (mClip[instance] == clip && mPlaying[instance])
+            return;
+
+        loadClip(clip);
+        mClip[instance] = clip;
+        mStartTime[instance] = elapsedTime.totalTime;
+        mFrame[instance] = mSettings.startFrame[clip];
+        mPlaying[instance] = true;
+    }
+
+    /**
+     * Obtain the bitmap holding the frames of the specified clip, decoding
+     * the frames if the sprite sheet's clips are decoded lazily
+     *
+     * @param clip Clip index
+     */
+    private void loadClip(int clip) {
+        if (mClipBitmap[clip] == null) {
+            mClipBitmap[clip] = mSettings.getClipBitmap(clip);
+            mClipYOffset[clip] = mSettings.getClipYOffset(clip);
+        }
+    }
+
+    /**
+     * Stop playback for an instance, which will remain on its current frame
+     *
+     * @param instance Instance index
+     */
+    public void stop(int instance) {
+        mPlaying[instance] = false;
+    }
+
+    /**
+     * Set the facing of an instance
+     *
+     * @param instance Instance index
+     * @param facing   Animation facing
+     */
+    public void setFacing(int instance, Animation.Facing facing) {
+        mMirrored[instance] = facing == Animation.Facing.Left;
+    }
+
+    /**
+     * Get the clip of an instance
+     *
+     * @param instance Instance index
+     * @return Clip index
+     */
+    public int getClip(int instance) {
+        return mClip[instance];
+    }
+
+    /**
+     * Get the current frame of an instance
+     *
+     * @param instance Instance index
+     * @return Frame index
+     */
+    public int getCurrentFrame(int instance) {
+        return mFrame[instance];
+    }
+
+    /**
+     * Indicate if an instance is currently playing
+     *
+     * @param instance Instance index
+     * @return True if playing, otherwise false
+     */
+    public boolean isPlaying(int instance) {
+        return mPlaying[instance];
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Update and Draw
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Update all instances, selecting the current frame of each playing
+     * instance (see Animation.update)
+     *
+     * @param elapsedTime Elapsed time information
+     */
+    public void update(ElapsedTime elapsedTime) {
+        double totalTime = elapsedTime.totalTime;
+        int[] startFrame = mSettings.startFrame;
+        int[] endFrame = mSettings.endFrame;
+        boolean[] loopAnimation = mSettings.loopAnimation;
+
+        for (int instance = 0; instance < mCount; instance++) {
+            if (!mPlaying[instance])
+                continue;
+
+            int clip = mClip[instance];
+            float animationPosition = (float) (totalTime - mStartTime[instance])
+                    * mClipInversePeriod[clip];
+
+            // If a non-looping clip has ended then remain on its final frame
+            if (animationPosition > 1.0f && !loopAnimation[clip]) {
+                mFrame[instance] = endFrame[clip];
+                mPlaying[instance] = false;
+            } else {
+                animationPosition -= (int) animationPosition;
+                mFrame[instance] = startFrame[clip]
+                        + (int) (mClipFrameCount[clip] * animationPosition);
+            }
+        }
+    }
+
+    /**
+     * Draw the current frame of an instance into the specified bound
+     *
+     * @param instance       Instance index
+     * @param graphics2D     Graphics instance
+     * @param bound          Layer bound into which the frame is drawn
+     * @param layerViewport  Layer viewport
+     * @param screenViewport Screen viewport
+     */
+    public void draw(int instance, IGraphics2D graphics2D, BoundingBox bound,
+                     LayerViewport layerViewport, ScreenViewport screenViewport) {
+        if (GraphicsHelper.getClippedSourceAndScreenRect(bound,
+                mFrameTable.getFrameWidth(), mFrameTable.getFrameHeight(),
+                layerViewport, screenViewport, mSourceRect, mScreenRect)) {
+            int clip = mClip[instance];
+            loadClip(clip);
+            mFrameTable.offsetClippedSourceRect(
+                    mFrame[instance], mMirrored[instance], mSourceRect);
+            mSourceRect.offset(0, -mClipYOffset[clip]);
+            graphics2D.drawBitmap(mClipBitmap[clip], mSourceRect, mScreenRect, null);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package uk.ac.qub.eeecs.gage.engine.animation;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import uk.ac.qub.eeecs.gage.engine.AssetManager;
@@ -27,9 +29,13 @@ public class AnimationManager {
     private GameObject mGameObject;
 
     /**
-     * Collection of animations held within this manager
+     * Collection of animations held within this manager, indexed by their
+     * integer handle, alongside a map from each animation name to its handle.
+     * A removed animation leaves an empty (null) slot so that the handles of
+     * other animations remain valid.
      */
-    private Map<String, Animation> mAnimations = new HashMap<>();
+    private List<Animation> mAnimations = new ArrayList<>();
+    private Map<String, Integer> mAnimationHandles = new HashMap<>();
 
 
     /**
@@ -39,9 +45,10 @@ public class AnimationManager {
     private Animation.Facing mAnimationFacing = Animation.Facing.Right;
 
     /**
-     * Current animation that is being played by the manager
+     * Current animation that is being played by the manager, alongside its handle
      */
     private Animation mCurrentAnimation;
+    private int mCurrentAnimationHandle = -1;
 
 
     // /////////////////////////////////////////////////////////////////////////
@@ -104,9 +111,49 @@ public class AnimationManager {
      * @param animation Animation to add
      */
     public void addAnimation(Animation animation) {
-        mAnimations.put(animation.getName(), animation);
-        if(mCurrentAnimation == null)
+        int handle = mAnimations.size();
+        mAnimations.add(animation);
+        Integer previousHandle = mAnimationHandles.put(animation.getName(), handle);
+        if (previousHandle != null)
+            mAnimations.set(previousHandle, null);
+
+        // Make the animation current if it is the first to be added, or if
+        // it replaces the current animation
+        if(mCurrentAnimation == null
+                || (previousHandle != null && mCurrentAnimationHandle == previousHandle)) {
             mCurrentAnimation = animation;
+            mCurrentAnimationHandle = handle;
+        }
+    }
+
+    /**
+     * Get the integer handle of the named animation. Handles can be used to
+     * control playback without looking up the animation by name each frame.
+     *
+     * @param animationName Name of the animation
+     * @return Animation handle
+     */
+    public int getAnimationHandle(String animationName) {
+        Integer handle = mAnimationHandles.get(animationName);
+        if (handle == null)
+            throw new RuntimeException(
+                "AnimationManager.getAnimationHandle: Cannot find animation [" + animationName + "]");
+        return handle;
+    }
+
+    /**
+     * Get the animation with the specified handle
+     *
+     * @param handle Animation handle
+     * @return Animation
+     */
+    public Animation getAnimation(int handle) {
+        Animation animation = handle >= 0 && handle < mAnimations.size() ?
+                mAnimations.get(handle) : null;
+        if (animation == null)
+            throw new RuntimeException(
+                "AnimationManager.getAnimation: Invalid animation handle [" + handle + "]");
+        return animation;
     }
 
     /**
@@ -118,9 +165,10 @@ public class AnimationManager {
      * @param animationName Name of the animation to use as the current animation
      */
     public void setCurrentAnimation(String animationName) {
-        Animation animation = mAnimations.get(animationName);
-        if(animation != null) {
-            mCurrentAnimation = animation;
+        Integer handle = mAnimationHandles.get(animationName);
+        if(handle != null) {
+            mCurrentAnimation = mAnimations.get(handle);
+            mCurrentAnimationHandle = handle;
             mCurrentAnimation.setFacing(mAnimationFacing);
         } else {
             throw new RuntimeException(
@@ -137,6 +185,15 @@ public class AnimationManager {
         return mCurrentAnimation;
     }
 
+    /**
+     * Return the handle of the current animation
+     *
+     * @return Current animation handle, -1 if no animation has been set as current
+     */
+    public int getCurrentAnimationHandle() {
+        return mCurrentAnimationHandle;
+    }
+
     /**
      * Remove the specified animation from the manager
      *
@@ -144,10 +201,15 @@ public class AnimationManager {
      * @return True if the animation could be found and removed, false otherwise
      */
     public boolean removeAnimation(String animationName ) {
-        if(!mAnimations.containsKey(animationName))
+        Integer handle = mAnimationHandles.remove(animationName);
+        if(handle == null)
             return false;
 
-        mAnimations.remove(mAnimations.get(animationName));
+        mAnimations.set(handle, null);
+        if (mCurrentAnimationHandle == handle) {
+            mCurrentAnimation = null;
+            mCurrentAnimationHandle = -1;
+        }
         return true;
     }
 
@@ -191,17 +253,37 @@ public class AnimationManager {
             return;
 
         // Otherwise, retrieve the named animation, make it current and start playing
-        Animation animation = mAnimations.get(animationName);
-        if(animation != null) {
-            mCurrentAnimation = animation;
-            mCurrentAnimation.setFacing(mAnimationFacing);
-            mCurrentAnimation.play(elapsedTime);
+        Integer handle = mAnimationHandles.get(animationName);
+        if(handle != null) {
+            play(handle, elapsedTime);
         } else {
             throw new RuntimeException(
                 "AnimationManager.play: Cannot find animation [" + animationName + "]");
         }
     }
 
+    /**
+     * Play the animation with the specified handle.
+     *
+     * If the specified animation is currently playing, then playback will continue.
+     * In all other cases, the current animation will be set to the animation to be
+     * played and playback will commence. No name lookup or comparison is made.
+     *
+     * @param handle      Handle of the animation to play
+     * @param elapsedTime Elapsed time information
+     */
+    public void play(int handle, ElapsedTime elapsedTime) {
+        // Return if the animation is already playing
+        if(handle == mCurrentAnimationHandle && mCurrentAnimation.isPlaying())
+            return;
+
+        // Otherwise, make the animation current and start playing
+        mCurrentAnimation = getAnimation(handle);
+        mCurrentAnimationHandle = handle;
+        mCurrentAnimation.setFacing(mAnimationFacing);
+        mCurrentAnimation.play(elapsedTime);
+    }
+
     /**
      * Play the current animation.
      *
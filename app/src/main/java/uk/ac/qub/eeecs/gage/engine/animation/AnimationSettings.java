@@ -1,6 +1,9 @@
 package uk.ac.qub.eeecs.gage.engine.animation;
 
 import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -9,6 +12,7 @@ import org.json.JSONObject;
 import java.io.IOException;
 
 import uk.ac.qub.eeecs.gage.engine.AssetManager;
+import uk.ac.qub.eeecs.gage.engine.io.FileIO;
 
 /**
  * Animation settings.
@@ -24,10 +28,18 @@ public class AnimationSettings {
     // /////////////////////////////////////////////////////////////////////////
 
     /**
-     * Sprite sheet holding the animation frames
+     * Sprite sheet holding the animation frames. If the clips are decoded
+     * lazily then the whole sprite sheet is not loaded and this is null
+     * (see getClipBitmap).
      */
     public Bitmap spritesheet;
 
+    /**
+     * Flag indicating if the frames of each animation (clip) are decoded
+     * separately, and only when the clip is first played
+     */
+    public boolean decodeClipsLazily;
+
     /**
      * Number of rows in the sprite sheet.
      */
@@ -38,6 +50,12 @@ public class AnimationSettings {
      */
     public int numColumns;
 
+    /**
+     * Source rectangle of each frame within the sprite sheet, shared by all
+     * animations drawn from the sheet
+     */
+    public FrameTable frameTable;
+
     /**
      * Number of separate animations contained within the sprite sheet
      */
@@ -70,6 +88,18 @@ public class AnimationSettings {
      */
     public boolean[] loopAnimation;
 
+    /**
+     * Sprite sheet file and file IO used to lazily decode clips, the region
+     * decoder kept open whilst clips remain to be decoded, alongside the
+     * decoded bitmap of each clip and the y offset of each decoded region
+     * within the sprite sheet
+     */
+    private String mSpritesheetFile;
+    private FileIO mFileIO;
+    private BitmapRegionDecoder mDecoder;
+    private Bitmap[] mClipBitmaps;
+    private int[] mClipYOffsets;
+
 
     // /////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -84,6 +114,8 @@ public class AnimationSettings {
          "spritesheet" : string,    // Sprite sheet image
          "numRows" : int,           // Num of rows in sheet
          "numColumns" : int,        // Num of cols in sheet
+         "decodeClipsLazily" : bool,// Optional, decode each animation's frames
+                                    // only when first played (false if omitted)
          "animations": [            // Array of 1, or more animations in sheet
              {
              "name": string,        // Name of this animation
@@ -118,14 +150,29 @@ public class AnimationSettings {
             JSONObject settings = new JSONObject(loadedJSON);
 
             String spritesheetFilename = settings.getString("spritesheet");
-            assetManager.loadAndAddBitmap(spritesheetFilename, spritesheetFilename);
-            spritesheet = assetManager.getBitmap(spritesheetFilename);
-            if(spritesheet == null )
-                throw new IOException("Cannot load ["+spritesheetFilename+"]");
+            decodeClipsLazily = settings.has("decodeClipsLazily")
+                    && settings.getBoolean("decodeClipsLazily");
 
             numRows = settings.getInt("numRows");
             numColumns = settings.getInt("numColumns");
 
+            if (decodeClipsLazily) {
+                // Only read the size of the sprite sheet, the frames of each
+                // clip are decoded when needed
+                mSpritesheetFile = spritesheetFilename;
+                mFileIO = assetManager.getFileIO();
+                BitmapFactory.Options bounds = mFileIO.loadBitmapBounds(spritesheetFilename);
+                frameTable = new FrameTable(
+                        bounds.outWidth, bounds.outHeight, numRows, numColumns);
+            } else {
+                assetManager.loadAndAddBitmap(spritesheetFilename, spritesheetFilename);
+                spritesheet = assetManager.getBitmap(spritesheetFilename);
+                if(spritesheet == null )
+                    throw new IOException("Cannot load ["+spritesheetFilename+"]");
+                frameTable = new FrameTable(
+                        spritesheet.getWidth(), spritesheet.getHeight(), numRows, numColumns);
+            }
+
             // Determine the number of stored animations and create storage space
             JSONArray animations = settings.getJSONArray("animations");
             numAnimations = animations.length();
@@ -150,6 +197,9 @@ public class AnimationSettings {
                 loopAnimation[idx] = animations.getJSONObject(idx).getBoolean("loopAnimation");
             }
 
+            mClipBitmaps = new Bitmap[numAnimations];
+            mClipYOffsets = new int[numAnimations];
+
         } catch (JSONException | IllegalArgumentException e) {
             throw new RuntimeException(
                 "AnimationSettings.constructor: JSON parsing error [" + e.getMessage() + "]");
@@ -158,4 +208,102 @@ public class AnimationSettings {
                 "AnimationSettings.constructor: Could not load sprite sheet[" + e.getMessage() + "]");
         }
     }
-}
\ No newline at end of file
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the bitmap holding the frames of the specified animation (clip).
+     * <p>
+     * If clips are decoded lazily, then the rows of the sprite sheet holding
+     * the clip's frames are decoded on the first request. Clips using the
+     * same rows share the decoded bitmap. Otherwise, the whole sprite sheet
+     * is returned.
+     *
+     * @param animationIdx Index of the animation
+     * @return Bitmap holding the clip's frames
+     */
+    public synchronized Bitmap getClipBitmap(int animationIdx) {
+        if (!decodeClipsLazily)
+            return spritesheet;
+
+        Bitmap clipBitmap = mClipBitmaps[animationIdx];
+        if (clipBitmap != null)
+            return clipBitmap;
+
+        // Determine the rows of the sprite sheet holding the clip
+        int startRow = startFrame[animationIdx] / numColumns;
+        int endRow = endFrame[animationIdx] / numColumns;
+        int top = startRow * frameTable.getFrameHeight();
+        int bottom = (endRow + 1) * frameTable.getFrameHeight();
+
+        // Reuse the bitmap of a decoded clip covering the same rows
+        for (int idx = 0; idx < numAnimations; idx++) {
+            if (mClipBitmaps[idx] != null && mClipYOffsets[idx] == top
+                    && mClipBitmaps[idx].getHeight() == bottom - top) {
+                clipBitmap = mClipBitmaps[idx];
+                break;
+            }
+        }
+
+        if (clipBitmap == null) {
+            try {
+                if (mDecoder == null)
+                    mDecoder = mFileIO.openBitmapRegionDecoder(mSpritesheetFile);
+                clipBitmap = mFileIO.decodeBitmapRegion(mDecoder, mSpritesheetFile,
+                        new Rect(0, top, numColumns * frameTable.getFrameWidth(), bottom),
+                        Bitmap.Config.ARGB_8888);
+            } catch (IOException e) {
+                throw new RuntimeException(
+                    "AnimationSettings.getClipBitmap: Could not decode animation ["
+                            + name[animationIdx] + "]");
+            }
+        }
+
+        mClipBitmaps[animationIdx] = clipBitmap;
+        mClipYOffsets[animationIdx] = top;
+        return clipBitmap;
+    }
+
+    /**
+     * Get the y offset of the specified animation's bitmap (see
+     * getClipBitmap) within the sprite sheet. Frame table source rects
+     * should be moved up by this offset when drawing from the clip bitmap.
+     *
+     * @param animationIdx Index of the animation
+     * @return Pixel y offset (0 unless clips are decoded lazily)
+     */
+    public synchronized int getClipYOffset(int animationIdx) {
+        return decodeClipsLazily ? mClipYOffsets[animationIdx] : 0;
+    }
+
+    /**
+     * Release the lazily decoded clip bitmaps and the region decoder. The
+     * sprite sheet of eagerly decoded settings is held by the asset manager
+     * and is not released.
+     * <p>
+     * Clips requested after disposal are decoded again.
+     */
+    public synchronized void dispose() {
+        if (!decodeClipsLazily)
+            return;
+
+        for (int idx = 0; idx < numAnimations; idx++) {
+            Bitmap clipBitmap = mClipBitmaps[idx];
+            if (clipBitmap == null)
+                continue;
+
+            // Clips covering the same rows share a bitmap
+            for (int sharedIdx = idx; sharedIdx < numAnimations; sharedIdx++)
+                if (mClipBitmaps[sharedIdx] == clipBitmap)
+                    mClipBitmaps[sharedIdx] = null;
+            clipBitmap.recycle();
+        }
+
+        if (mDecoder != null) {
+            mDecoder.recycle();
+            mDecoder = null;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package uk.ac.qub.eeecs.gage.engine.animation;
+
+import android.graphics.Paint;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+import uk.ac.qub.eeecs.gage.world.LayerViewport;
+import uk.ac.qub.eeecs.gage.world.ScreenViewport;
+
+/**
+ * Animation state machine.
+ * <p>
+ * Selects the animation played by an animation manager using a set of
+ * states (each playing an animation), transition rules between states,
+ * frame events and cross-fading between the outgoing and incoming
+ * animations.
+ * <p>
+ * States, animations and events are identified by integer handles, which
+ * are obtained (using names) once when the state machine is built. The
+ * per-frame update only evaluates the transition conditions and compares
+ * integers, i.e. no string hashing or comparison is performed.
+ *
+ * @version 1.0
+ */
+public class AnimationStateMachine {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Conditions and Listeners
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Condition that triggers a transition
+     */
+    public interface Condition {
+        /**
+         * Determine if the transition should be taken
+         *
+         * @return True if the transition should be taken
+         */
+        boolean isMet();
+    }
+
+    /**
+     * Listener notified when a frame holding an event is reached
+     */
+    public interface EventListener {
+        /**
+         * Notify the listener of an event
+         *
+         * @param state   Handle of the state in which the event occurred
+         * @param eventId Event identifier
+         */
+        void onAnimationEvent(int state, int eventId);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * State used to define a transition that can be taken from any state
+     */
+    public static final int ANY_STATE = -1;
+
+    /**
+     * Animation manager holding the played animations
+     */
+    private final AnimationManager mAnimationManager;
+
+    /**
+     * Number of states, alongside the animation handle of each state
+     */
+    private int mStateCount = 0;
+    private int[] mStateAnimation = new int[8];
+
+    /**
+     * Number of transitions, alongside the source and target state,
+     * condition, cross-fade duration and completion requirement of each
+     * transition. Transitions are evaluated in the order they are added.
+     */
+    private int mTransitionCount = 0;
+    private int[] mTransitionFrom = new int[8];
+    private int[] mTransitionTo = new int[8];
+    private Condition[] mTransitionCondition = new Condition[8];
+    private float[] mTransitionFadeDuration = new float[8];
+    private boolean[] mTransitionAwaitsCompletion = new boolean[8];
+
+    /**
+     * Number of frame events, alongside the state, frame and identifier of
+     * each event, and the listener notified of events
+     */
+    private int mEventCount = 0;
+    private int[] mEventState = new int[8];
+    private int[] mEventFrame = new int[8];
+    private int[] mEventId = new int[8];
+    private EventListener mEventListener;
+
+    /**
+     * Current state and the last frame of its animation for which events
+     * have been reported
+     */
+    private int mCurrentState = -1;
+    private int mLastFrame = -1;
+
+    /**
+     * Animation being faded out, alongside the total and remaining duration
+     * of the cross-fade
+     */
+    private Animation mFadingAnimation;
+    private float mFadeDuration;
+    private float mFadeRemaining;
+
+    /**
+     * Paint used to apply the cross-fade alpha, created on the first
+     * cross-fade and retained to reduce temporary object creation.
+     */
+    private Paint mFadePaint;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new animation state machine
+     *
+     * @param animationManager Animation manager holding the animations
+     */
+    public AnimationStateMachine(AnimationManager animationManager) {
+        mAnimationManager = animationManager;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Construction
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add a state playing the named animation. The first state added is the
+     * initial state.
+     *
+     * @param animationName Name of the animation played in this state
+     * @return State handle
+     */
+    public int addState(String animationName) {
+        int animationHandle = mAnimationManager.getAnimationHandle(animationName);
+
+        if (mStateCount == mStateAnimation.length) {
+            int[] stateAnimation = new int[mStateCount * 2];
+            System.arraycopy(mStateAnimation, 0, stateAnimation, 0, mStateCount);
+            mStateAnimation = stateAnimation;
+        }
+        mStateAnimation[mStateCount] = animationHandle;
+        return mStateCount++;
+    }
+
+    /**
+     * Add a transition between two states.
+     * <p>
+     * A transition from a state to itself restarts the state's animation
+     * (without a cross-fade), e.g. to replay a jump triggered whilst already
+     * jumping. An ANY_STATE transition is never taken into the current state,
+     * so a condition that remains met does not restart the animation on each
+     * update.
+     *
+     * @param fromState          State from which the transition is taken,
+     *                           or ANY_STATE
+     * @param toState            State entered by the transition
+     * @param condition          Condition triggering the transition
+     * @param fadeDuration       Duration (in seconds) over which the outgoing
+     *                           animation is cross-faded out (0 for none)
+     * @param awaitsCompletion   If true, the transition is only taken once the
+     *                           animation of the current state has stopped
+     *                           playing (e.g. a non-looping animation ends)
+     */
+    public void addTransition(int fromState, int toState, Condition condition,
+                              float fadeDuration, boolean awaitsCompletion) {
+        if (fromState < ANY_STATE || fromState >= mStateCount)
+            throw new RuntimeException(
+                    "AnimationStateMachine.addTransition: Invalid state [" + fromState + "]");
+        if (toState < 0 || toState >= mStateCount)
+            throw new RuntimeException(
+                    "AnimationStateMachine.addTransition: Invalid state [" + toState + "]");
+
+        if (mTransitionCount == mTransitionFrom.length)
+            growTransitions();
+
+        mTransitionFrom[mTransitionCount] = fromState;
+        mTransitionTo[mTransitionCount] = toState;
+        mTransitionCondition[mTransitionCount] = condition;
+        mTransitionFadeDuration[mTransitionCount] = fadeDuration;
+        mTransitionAwaitsCompletion[mTransitionCount] = awaitsCompletion;
+        mTransitionCount++;
+    }
+
+    private void growTransitions() {
+        int capacity = mTransitionFrom.length * 2;
+
+        int[] from = new int[capacity];
+        System.arraycopy(mTransitionFrom, 0, from, 0, mTransitionCount);
+        mTransitionFrom = from;
+
+        int[] to = new int[capacity];
+        System.arraycopy(mTransitionTo, 0, to, 0, mTransitionCount);
+        mTransitionTo = to;
+
+        Condition[] condition = new Condition[capacity];
+        System.arraycopy(mTransitionCondition, 0, condition, 0, mTransitionCount);
+        mTransitionCondition = condition;
+
+        float[] fadeDuration = new float[capacity];
+        System.arraycopy(mTransitionFadeDuration, 0, fadeDuration, 0, mTransitionCount);
+        mTransitionFadeDuration = fadeDuration;
+
+        boolean[] awaitsCompletion = new boolean[capacity];
+        System.arraycopy(mTransitionAwaitsCompletion, 0, awaitsCompletion, 0, mTransitionCount);
+        mTransitionAwaitsCompletion = awaitsCompletion;
+    }
+
+    /**
+     * Add an event reported whenever the animation of the specified state
+     * reaches the specified frame
+     *
+     * @param state   State handle
+     * @param frame   Sprite sheet frame index
+     * @param eventId Event identifier passed to the listener
+     */
+    public void addFrameEvent(int state, int frame, int eventId) {
+        if (state < 0 || state >= mStateCount)
+            throw new RuntimeException(
+                    "AnimationStateMachine.addFrameEvent: Invalid state [" + state + "]");
+
+        if (mEventCount == mEventState.length) {
+            int capacity = mEventCount * 2;
+            int[] eventState = new int[capacity];
+            System.arraycopy(mEventState, 0, eventState, 0, mEventCount);
+            mEventState = eventState;
+            int[] eventFrame = new int[capacity];
+            System.arraycopy(mEventFrame, 0, eventFrame, 0, mEventCount);
+            mEventFrame = eventFrame;
+            int[] eventIds = new int[capacity];
+            System.arraycopy(mEventId, 0, eventIds, 0, mEventCount);
+            mEventId = eventIds;
+        }
+
+        mEventState[mEventCount] = state;
+        mEventFrame[mEventCount] = frame;
+        mEventId[mEventCount] = eventId;
+        mEventCount++;
+    }
+
+    /**
+     * Set the listener notified of frame events
+     *
+     * @param eventListener Event listener (can be null)
+     */
+    public void setEventListener(EventListener eventListener) {
+        mEventListener = eventListener;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: State
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the current state
+     *
+     * @return Current state handle, -1 if the state machine has not started
+     */
+    public int getCurrentState() {
+        return mCurrentState;
+    }
+
+    /**
+     * Immediately enter the specified state, without a cross-fade. If the
+     * state is the current state, then its animation is restarted.
+     *
+     * @param state       State handle
+     * @param elapsedTime Elapsed time information
+     */
+    public void setState(int state, ElapsedTime elapsedTime) {
+        enterState(state, 0.0f, elapsedTime);
+    }
+
+    /**
+     * Enter the specified state, starting the state's animation and a
+     * cross-fade from the outgoing animation. Re-entering the current state
+     * restarts its animation.
+     */
+    private void enterState(int state, float fadeDuration, ElapsedTime elapsedTime) {
+        Animation outgoing = mAnimationManager.getCurrentAnimation();
+        if (state == mCurrentState)
+            mAnimationManager.stop();
+
+        mAnimationManager.play(mStateAnimation[state], elapsedTime);
+        mCurrentState = state;
+        mLastFrame = -1;
+
+        Animation incoming = mAnimationManager.getCurrentAnimation();
+        if (fadeDuration > 0.0f && outgoing != null && outgoing != incoming) {
+            mFadingAnimation = outgoing;
+            mFadeDuration = fadeDuration;
+            mFadeRemaining = fadeDuration;
+        } else {
+            mFadingAnimation = null;
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Update and Draw
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Update the state machine: take the first transition whose condition is
+     * met, update the animations and report any frame events
+     *
+     * @param elapsedTime Elapsed time information
+     */
+    public void update(ElapsedTime elapsedTime) {
+        if (mCurrentState == -1) {
+            if (mStateCount == 0)
+                return;
+            setState(0, elapsedTime);
+        }
+
+        // Take the first transition from the current state whose condition is
+        // met. Transitions from any state do not re-enter the current state.
+        boolean currentPlaying = mAnimationManager.isAnimationPlaying();
+        for (int idx = 0; idx < mTransitionCount; idx++) {
+            int fromState = mTransitionFrom[idx];
+            if ((fromState == mCurrentState
+                    || (fromState == ANY_STATE && mTransitionTo[idx] != mCurrentState))
+                    && !(mTransitionAwaitsCompletion[idx] && currentPlaying)
+                    && mTransitionCondition[idx].isMet()) {
+                enterState(mTransitionTo[idx], mTransitionFadeDuration[idx], elapsedTime);
+                break;
+            }
+        }
+
+        // Update the current and any fading animation
+        mAnimationManager.update(elapsedTime);
+        if (mFadingAnimation != null) {
+            mFadeRemaining -= (float) elapsedTime.stepTime;
+            if (mFadeRemaining <= 0.0f)
+                mFadingAnimation = null;
+            else
+                mFadingAnimation.update(elapsedTime);
+        }
+
+        // Report events for any frames reached since the last update
+        int frame = mAnimationManager.getCurrentAnimation().getCurrentFrame();
+        if (frame != mLastFrame) {
+            if (mEventListener != null)
+                reportEvents(mLastFrame, frame);
+            mLastFrame = frame;
+        }
+    }
+
+    /**
+     * Report the events of the current state lying after the last frame and
+     * up to (and including) the current frame, allowing for looping
+     */
+    private void reportEvents(int lastFrame, int frame) {
+        for (int idx = 0; idx < mEventCount; idx++) {
+            if (mEventState[idx] != mCurrentState)
+                continue;
+
+            int eventFrame = mEventFrame[idx];
+            boolean reached;
+            if (lastFrame == -1)
+                reached = eventFrame == frame;
+            else if (frame > lastFrame)
+                reached = eventFrame > lastFrame && eventFrame <= frame;
+            else
+                reached = eventFrame > lastFrame || eventFrame <= frame;
+
+            if (reached)
+                mEventListener.onAnimationEvent(mCurrentState, mEventId[idx]);
+        }
+    }
+
+    /**
+     * Draw the current animation, cross-faded with any outgoing animation
+     *
+     * @param elapsedTime    Elapsed time information
+     * @param graphics2D     Graphics instance
+     * @param layerViewport  Layer viewport
+     * @param screenViewport Screen viewport
+     */
+    public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
+                     LayerViewport layerViewport, ScreenViewport screenViewport) {
+        if (mFadingAnimation == null) {
+            mAnimationManager.draw(elapsedTime, graphics2D, layerViewport, screenViewport);
+            return;
+        }
+
+        // Draw the outgoing animation fading out and the incoming fading in
+        int incomingAlpha = (int) (255.0f * (1.0f - mFadeRemaining / mFadeDuration));
+
+        if (mFadePaint == null)
+            mFadePaint = new Paint();
+
+        mFadePaint.setAlpha(255 - incomingAlpha);
+        mFadingAnimation.draw(elapsedTime, graphics2D, mAnimationManager.getGameObject(),
+                layerViewport, screenViewport, mFadePaint);
+
+        mFadePaint.setAlpha(incomingAlpha);
+        mAnimationManager.getCurrentAnimation().draw(elapsedTime, graphics2D,
+                mAnimationManager.getGameObject(), layerViewport, screenViewport, mFadePaint);
+    }
+}
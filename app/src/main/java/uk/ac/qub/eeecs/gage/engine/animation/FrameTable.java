@@ -0,0 +1,140 @@
+package uk.ac.qub.eeecs.gage.engine.animation;
+
+import android.graphics.Rect;
+
+/**
+ * Frame table.
+ * <p>
+ * Immutable table holding the source rectangle of each frame within a
+ * row-ordered sprite sheet. The table is built once per sprite sheet (see
+ * AnimationSettings) and shared by all animations drawn from the sheet, so
+ * selecting a frame's source region is a lookup rather than a division and
+ * modulus by the number of columns.
+ * <p>
+ * Mirrored frames (e.g. used for a Left facing) are obtained by swapping
+ * the left and right edges of the frame, which Canvas draws flipped.
+ *
+ * @version 1.0
+ */
+public final class FrameTable {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Number of frames within the table
+     */
+    private final int mNumFrames;
+
+    /**
+     * Pixel width and height of each frame
+     */
+    private final int mFrameWidth;
+    private final int mFrameHeight;
+
+    /**
+     * Left and top pixel location of each frame within the sprite sheet
+     */
+    private final int[] mFrameLeft;
+    private final int[] mFrameTop;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Build the frame table for a sprite sheet
+     *
+     * @param sheetWidth  Pixel width of the sprite sheet
+     * @param sheetHeight Pixel height of the sprite sheet
+     * @param numRows     Number of rows of frames
+     * @param numColumns  Number of columns of frames
+     */
+    public FrameTable(int sheetWidth, int sheetHeight, int numRows, int numColumns) {
+        if (numRows <= 0 || numColumns <= 0)
+            throw new RuntimeException("FrameTable.constructor: Invalid sheet layout ["
+                    + numRows + " x " + numColumns + "]");
+
+        mNumFrames = numRows * numColumns;
+        mFrameWidth = sheetWidth / numColumns;
+        mFrameHeight = sheetHeight / numRows;
+
+        mFrameLeft = new int[mNumFrames];
+        mFrameTop = new int[mNumFrames];
+        for (int frame = 0; frame < mNumFrames; frame++) {
+            mFrameLeft[frame] = (frame % numColumns) * mFrameWidth;
+            mFrameTop[frame] = (frame / numColumns) * mFrameHeight;
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the number of frames within the table
+     *
+     * @return Number of frames
+     */
+    public int getNumFrames() {
+        return mNumFrames;
+    }
+
+    /**
+     * Get the pixel width of each frame
+     *
+     * @return Frame width
+     */
+    public int getFrameWidth() {
+        return mFrameWidth;
+    }
+
+    /**
+     * Get the pixel height of each frame
+     *
+     * @return Frame height
+     */
+    public int getFrameHeight() {
+        return mFrameHeight;
+    }
+
+    /**
+     * Get the source rectangle of the specified frame
+     *
+     * @param frame      Frame index
+     * @param mirrored   True if the frame should be mirrored along the x-axis
+     * @param sourceRect Output source rectangle
+     */
+    public void getSourceRect(int frame, boolean mirrored, Rect sourceRect) {
+        int left = mFrameLeft[frame];
+        int top = mFrameTop[frame];
+        if (mirrored)
+            sourceRect.set(left + mFrameWidth, top, left, top + mFrameHeight);
+        else
+            sourceRect.set(left, top, left + mFrameWidth, top + mFrameHeight);
+    }
+
+    /**
+     * Offset a clipped source rectangle, expressed relative to the top-left
+     * corner of a frame (see GraphicsHelper.getClippedSourceAndScreenRect),
+     * onto the specified frame. If mirrored, the clipped region is mirrored
+     * within the frame.
+     *
+     * @param frame      Frame index
+     * @param mirrored   True if the frame should be mirrored along the x-axis
+     * @param sourceRect Clipped source rectangle, updated to the sprite sheet
+     */
+    public void offsetClippedSourceRect(int frame, boolean mirrored, Rect sourceRect) {
+        int left = mFrameLeft[frame];
+        int top = mFrameTop[frame];
+        if (mirrored) {
+            int right = left + mFrameWidth;
+            sourceRect.set(right - sourceRect.left, top + sourceRect.top,
+                    right - sourceRect.right, top + sourceRect.bottom);
+        } else {
+            sourceRect.set(left + sourceRect.left, top + sourceRect.top,
+                    left + sourceRect.right, top + sourceRect.bottom);
+        }
+    }
+}
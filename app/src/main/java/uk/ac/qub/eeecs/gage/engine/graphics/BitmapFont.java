@@ -0,0 +1,427 @@
+package uk.ac.qub.eeecs.gage.engine.graphics;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+
+/**
+ * Bitmap font providing fast, garbage free, text rendering.
+ * <p>
+ * The printable ASCII glyphs of a typeface are rasterized once, at a fixed
+ * size and colour, into a glyph atlas. Text is then drawn as a sequence of
+ * atlas sub-images, avoiding the per-call glyph shaping and rasterization of
+ * IGraphics2D.drawText (and permitting the draws to be batched by graphics
+ * implementations that support batching). Text can be drawn from a
+ * CharSequence (e.g. a reused StringBuilder) or a char array, and numbers can
+ * be drawn without the creation of temporary String objects.
+ * <p>
+ * Characters outside of the printable ASCII range are drawn using the glyph
+ * for '?'.
+ *
+ * @version 1.0
+ */
+public class BitmapFont {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Range of characters held within the glyph atlas
+     */
+    private static final char FIRST_CHAR = ' ';
+    private static final char LAST_CHAR = '~';
+    private static final char UNKNOWN_CHAR = '?';
+
+    /**
+     * Padding (in pixels) placed around each glyph within the atlas to
+     * accommodate glyphs that extend beyond their advance
+     */
+    private static final int GLYPH_PADDING = 2;
+
+    /**
+     * Glyph atlas
+     */
+    private Bitmap mAtlas;
+
+    /**
+     * Atlas location, width and advance of each glyph, indexed by
+     * character - FIRST_CHAR
+     */
+    private int[] mGlyphLeft;
+    private int[] mGlyphTop;
+    private int[] mGlyphWidth;
+    private float[] mGlyphAdvance;
+
+    /**
+     * Height of each glyph cell and the offset from the top of the cell
+     * to the baseline
+     */
+    private int mGlyphHeight;
+    private float mBaseline;
+
+    /**
+     * Size of the font when rasterized
+     */
+    private float mTextSize;
+
+    /**
+     * Scale applied when drawing (a value of 1 draws the text at the
+     * rasterized size)
+     */
+    private float mScale = 1.0f;
+
+    /**
+     * Horizontal alignment of the drawn text relative to the draw location
+     */
+    private Paint.Align mTextAlign = Paint.Align.LEFT;
+
+    /**
+     * Buffer used to convert numbers into characters, defined as a class
+     * member to reduce temporary object creation (large enough to hold any
+     * long value alongside a sign and decimal places).
+     */
+    private char[] mNumberBuffer = new char[48];
+
+    /**
+     * Source and destination rects used to draw glyphs, defined as class
+     * members to reduce temporary object creation.
+     */
+    private Rect mSourceRect = new Rect();
+    private Rect mDestinationRect = new Rect();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new bitmap font, rasterizing the glyph atlas
+     *
+     * @param typeface Typeface to rasterize (the default typeface is used if null)
+     * @param textSize Size of the text in pixels
+     * @param colour   Colour of the text
+     */
+    public BitmapFont(Typeface typeface, float textSize, int colour) {
+        mTextSize = textSize;
+
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        if (typeface != null)
+            paint.setTypeface(typeface);
+        paint.setTextSize(textSize);
+        paint.setColor(colour);
+        paint.setTextAlign(Paint.Align.LEFT);
+
+        // Determine the glyph cell height and baseline
+        Paint.FontMetrics fontMetrics = paint.getFontMetrics();
+        mGlyphHeight = (int) Math.ceil(fontMetrics.bottom - fontMetrics.top) + 2 * GLYPH_PADDING;
+        mBaseline = GLYPH_PADDING - fontMetrics.top;
+
+        // Measure each glyph and lay the glyphs out in rows across an atlas
+        // that is, approximately, square
+        int numGlyphs = LAST_CHAR - FIRST_CHAR + 1;
+        mGlyphLeft = new int[numGlyphs];
+        mGlyphTop = new int[numGlyphs];
+        mGlyphWidth = new int[numGlyphs];
+        mGlyphAdvance = new float[numGlyphs];
+
+        char[] glyph = new char[1];
+        int totalWidth = 0;
+        for (int idx = 0; idx < numGlyphs; idx++) {
+            glyph[0] = (char) (FIRST_CHAR + idx);
+            mGlyphAdvance[idx] = paint.measureText(glyph, 0, 1);
+            mGlyphWidth[idx] = (int) Math.ceil(mGlyphAdvance[idx]) + 2 * GLYPH_PADDING;
+            totalWidth += mGlyphWidth[idx];
+        }
+
+        int atlasWidth = Math.max((int) Math.ceil(Math.sqrt(totalWidth * mGlyphHeight)), 1);
+        int x = 0, y = 0;
+        for (int idx = 0; idx < numGlyphs; idx++) {
+            atlasWidth = Math.max(atlasWidth, mGlyphWidth[idx]);
+            if (x + mGlyphWidth[idx] > atlasWidth) {
+                x = 0;
+                y += mGlyphHeight;
+            }
+            mGlyphLeft[idx] = x;
+            mGlyphTop[idx] = y;
+            x += mGlyphWidth[idx];
+        }
+
+        // Rasterize each glyph into the atlas
+        mAtlas = Bitmap.createBitmap(atlasWidth, y + mGlyphHeight, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(mAtlas);
+        for (int idx = 0; idx < numGlyphs; idx++) {
+            glyph[0] = (char) (FIRST_CHAR + idx);
+            canvas.drawText(glyph, 0, 1, mGlyphLeft[idx] + GLYPH_PADDING,
+                    mGlyphTop[idx] + mBaseline, paint);
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Configuration
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the size of the text when rasterized
+     *
+     * @return Size of the text in pixels
+     */
+    public float getTextSize() {
+        return mTextSize;
+    }
+
+    /**
+     * Get the draw scale
+     *
+     * @return Scale applied when drawing
+     */
+    public float getScale() {
+        return mScale;
+    }
+
+    /**
+     * Set the draw scale (values other than 1 will result in the glyphs
+     * being scaled when drawn)
+     *
+     * @param scale Scale applied when drawing
+     */
+    public void setScale(float scale) {
+        mScale = scale;
+    }
+
+    /**
+     * Get the horizontal alignment of drawn text
+     *
+     * @return Text alignment
+     */
+    public Paint.Align getTextAlign() {
+        return mTextAlign;
+    }
+
+    /**
+     * Set the horizontal alignment of drawn text relative to the draw location
+     *
+     * @param textAlign Text alignment
+     */
+    public void setTextAlign(Paint.Align textAlign) {
+        mTextAlign = textAlign;
+    }
+
+    /**
+     * Get the glyph atlas
+     *
+     * @return Glyph atlas bitmap
+     */
+    public Bitmap getAtlas() {
+        return mAtlas;
+    }
+
+    /**
+     * Release the glyph atlas
+     */
+    public void dispose() {
+        mAtlas.recycle();
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Measure
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the glyph index for the specified character
+     */
+    private int getGlyphIndex(char character) {
+        return (character < FIRST_CHAR || character > LAST_CHAR ?
+                UNKNOWN_CHAR : character) - FIRST_CHAR;
+    }
+
+    /**
+     * Measure the width of the specified text
+     *
+     * @param text  Text to measure
+     * @param start Index of the first character
+     * @param end   Index after the last character
+     * @return Width of the text when drawn
+     */
+    public float measureText(CharSequence text, int start, int end) {
+        float width = 0.0f;
+        for (int idx = start; idx < end; idx++)
+            width += mGlyphAdvance[getGlyphIndex(text.charAt(idx))];
+        return width * mScale;
+    }
+
+    /**
+     * Measure the width of the specified text
+     *
+     * @param text  Text to measure
+     * @param start Index of the first character
+     * @param count Number of characters
+     * @return Width of the text when drawn
+     */
+    public float measureText(char[] text, int start, int count) {
+        float width = 0.0f;
+        for (int idx = start; idx < start + count; idx++)
+            width += mGlyphAdvance[getGlyphIndex(text[idx])];
+        return width * mScale;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Draw
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Draw the specified text
+     *
+     * @param graphics2D Graphics instance
+     * @param text       Text to draw
+     * @param x          Location of text on x-axis
+     * @param y          Location of the text baseline on y-axis
+     * @param paint      Paint used to draw the glyphs (can be null)
+     */
+    public void drawText(IGraphics2D graphics2D, CharSequence text,
+                         float x, float y, Paint paint) {
+        drawText(graphics2D, text, 0, text.length(), x, y, paint);
+    }
+
+    /**
+     * Draw the specified range of text
+     *
+     * @param graphics2D Graphics instance
+     * @param text       Text to draw
+     * @param start      Index of the first character
+     * @param end        Index after the last character
+     * @param x          Location of text on x-axis
+     * @param y          Location of the text baseline on y-axis
+     * @param paint      Paint used to draw the glyphs (can be null)
+     */
+    public void drawText(IGraphics2D graphics2D, CharSequence text, int start, int end,
+                         float x, float y, Paint paint) {
+        float penX = getAlignedStart(x, measureText(text, start, end));
+        for (int idx = start; idx < end; idx++)
+            penX = drawGlyph(graphics2D, getGlyphIndex(text.charAt(idx)), penX, y, paint);
+    }
+
+    /**
+     * Draw the specified range of characters
+     *
+     * @param graphics2D Graphics instance
+     * @param text       Characters to draw
+     * @param start      Index of the first character
+     * @param count      Number of characters
+     * @param x          Location of text on x-axis
+     * @param y          Location of the text baseline on y-axis
+     * @param paint      Paint used to draw the glyphs (can be null)
+     */
+    public void drawText(IGraphics2D graphics2D, char[] text, int start, int count,
+                         float x, float y, Paint paint) {
+        float penX = getAlignedStart(x, measureText(text, start, count));
+        for (int idx = start; idx < start + count; idx++)
+            penX = drawGlyph(graphics2D, getGlyphIndex(text[idx]), penX, y, paint);
+    }
+
+    /**
+     * Draw the specified integer value
+     *
+     * @param graphics2D Graphics instance
+     * @param value      Value to draw
+     * @param x          Location of text on x-axis
+     * @param y          Location of the text baseline on y-axis
+     * @param paint      Paint used to draw the glyphs (can be null)
+     */
+    public void drawNumber(IGraphics2D graphics2D, long value, float x, float y, Paint paint) {
+        int start = formatNumber(value, 0);
+        drawText(graphics2D, mNumberBuffer, start, mNumberBuffer.length - start, x, y, paint);
+    }
+
+    /**
+     * Draw the specified value, rounded to the specified number of decimal
+     * places
+     *
+     * @param graphics2D    Graphics instance
+     * @param value         Value to draw
+     * @param decimalPlaces Number of decimal places (0 to 9)
+     * @param x             Location of text on x-axis
+     * @param y             Location of the text baseline on y-axis
+     * @param paint         Paint used to draw the glyphs (can be null)
+     */
+    public void drawNumber(IGraphics2D graphics2D, double value, int decimalPlaces,
+                           float x, float y, Paint paint) {
+        if (decimalPlaces < 0 || decimalPlaces > 9)
+            throw new RuntimeException(
+                    "BitmapFont.drawNumber: Unsupported decimal places [" + decimalPlaces + "]");
+
+        long scale = 1;
+        for (int idx = 0; idx < decimalPlaces; idx++)
+            scale *= 10;
+
+        int start = formatNumber(Math.round(value * scale), decimalPlaces);
+        drawText(graphics2D, mNumberBuffer, start, mNumberBuffer.length - start, x, y, paint);
+    }
+
+    /**
+     * Write the specified fixed point value into the end of the number
+     * buffer
+     *
+     * @param value         Value, scaled by 10^decimalPlaces
+     * @param decimalPlaces Number of decimal places held in the value
+     * @return Index of the first character within the number buffer
+     */
+    private int formatNumber(long value, int decimalPlaces) {
+        // Digits are extracted from a non-positive value so that
+        // Long.MIN_VALUE can be handled
+        boolean negative = value < 0;
+        long remaining = negative ? value : -value;
+
+        int idx = mNumberBuffer.length;
+        int digitCount = 0;
+        do {
+            mNumberBuffer[--idx] = (char) ('0' - (remaining % 10));
+            remaining /= 10;
+            if (++digitCount == decimalPlaces)
+                mNumberBuffer[--idx] = '.';
+        } while (remaining != 0 || digitCount <= decimalPlaces);
+
+        if (negative)
+            mNumberBuffer[--idx] = '-';
+        return idx;
+    }
+
+    /**
+     * Determine the start of the text given the current alignment
+     */
+    private float getAlignedStart(float x, float width) {
+        if (mTextAlign == Paint.Align.CENTER)
+            return x - width * 0.5f;
+        else if (mTextAlign == Paint.Align.RIGHT)
+            return x - width;
+        return x;
+    }
+
+    /**
+     * Draw the specified glyph with its baseline origin at the pen location
+     *
+     * @return Pen location following the glyph
+     */
+    private float drawGlyph(IGraphics2D graphics2D, int glyphIdx,
+                            float penX, float baselineY, Paint paint) {
+        // Nothing needs to be drawn for a space
+        if (glyphIdx == ' ' - FIRST_CHAR)
+            return penX + mGlyphAdvance[glyphIdx] * mScale;
+
+        int left = mGlyphLeft[glyphIdx];
+        int top = mGlyphTop[glyphIdx];
+        int width = mGlyphWidth[glyphIdx];
+
+        mSourceRect.set(left, top, left + width, top + mGlyphHeight);
+
+        float destinationLeft = penX - GLYPH_PADDING * mScale;
+        float destinationTop = baselineY - mBaseline * mScale;
+        mDestinationRect.set((int) destinationLeft, (int) destinationTop,
+                (int) (destinationLeft + width * mScale),
+                (int) (destinationTop + mGlyphHeight * mScale));
+
+        graphics2D.drawBitmap(mAtlas, mSourceRect, mDestinationRect, paint);
+        return penX + mGlyphAdvance[glyphIdx] * mScale;
+    }
+}
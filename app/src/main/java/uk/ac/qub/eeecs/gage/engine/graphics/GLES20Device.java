@@ -0,0 +1,358 @@
+package uk.ac.qub.eeecs.gage.engine.graphics;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.opengl.GLES20;
+import android.opengl.GLUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * GL device implementation that issues calls to OpenGL ES 2.0.
+ * <p>
+ * A single shader program is used to render textured, tinted quads. Quads are
+ * drawn as indexed triangles using a static index buffer, with the vertex
+ * data streamed from a direct buffer on each draw call.
+ * <p>
+ * All methods must be called from the GL thread.
+ *
+ * @version 1.0
+ */
+public class GLES20Device implements IGLDevice {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties: Shaders
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Vertex shader - transform the pixel position into clip space and pass
+     * through the texture coordinates and tint
+     */
+    private static final String VERTEX_SHADER =
+            "uniform mat4 uProjection;\n" +
+            "attribute vec2 aPosition;\n" +
+            "attribute vec2 aTexCoord;\n" +
+            "attribute vec4 aColour;\n" +
+            "varying vec2 vTexCoord;\n" +
+            "varying vec4 vColour;\n" +
+            "void main() {\n" +
+            "    vTexCoord = aTexCoord;\n" +
+            "    vColour = aColour;\n" +
+            "    gl_Position = uProjection * vec4(aPosition, 0.0, 1.0);\n" +
+            "}\n";
+
+    /**
+     * Fragment shader - modulate the (premultiplied) texel with the tint
+     */
+    private static final String FRAGMENT_SHADER =
+            "precision mediump float;\n" +
+            "uniform sampler2D uTexture;\n" +
+            "varying vec2 vTexCoord;\n" +
+            "varying vec4 vColour;\n" +
+            "void main() {\n" +
+            "    gl_FragColor = texture2D(uTexture, vTexCoord) * vColour;\n" +
+            "}\n";
+
+    /**
+     * Shader program and attribute/uniform locations
+     */
+    private int mProgram;
+    private int mPositionLocation;
+    private int mTexCoordLocation;
+    private int mColourLocation;
+    private int mProjectionLocation;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties: Buffers and State
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Streamed vertex buffer and static quad index buffer
+     */
+    private FloatBuffer mVertexBuffer;
+    private ShortBuffer mIndexBuffer;
+
+    /**
+     * Orthographic projection mapping pixel coordinates (top-left origin)
+     * onto clip space
+     */
+    private float[] mProjection = new float[16];
+
+    /**
+     * Height of the render target, used to flip scissor regions into GL's
+     * bottom-left origin
+     */
+    private int mHeight;
+
+    /**
+     * Scratch array used to generate and delete textures, defined as a
+     * class member to reduce temporary object creation.
+     */
+    private int[] mHandle = new int[1];
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Device Creation
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGLDevice#initialise(int)
+     */
+    @Override
+    public void initialise(int maxQuads) {
+        // Indices are held as shorts, limiting the number of addressable vertices
+        if (maxQuads * 4 > 65536)
+            throw new RuntimeException(
+                    "GLES20Device.initialise: Too many quads requested [" + maxQuads + "]");
+
+        // Build the shader program and look up the attribute/uniform locations
+        mProgram = createProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        mPositionLocation = GLES20.glGetAttribLocation(mProgram, "aPosition");
+        mTexCoordLocation = GLES20.glGetAttribLocation(mProgram, "aTexCoord");
+        mColourLocation = GLES20.glGetAttribLocation(mProgram, "aColour");
+        mProjectionLocation = GLES20.glGetUniformLocation(mProgram, "uProjection");
+
+        GLES20.glUseProgram(mProgram);
+        GLES20.glUniform1i(GLES20.glGetUniformLocation(mProgram, "uTexture"), 0);
+        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
+
+        // Create the vertex buffer and a static index buffer describing two
+        // triangles (0,1,2 and 2,3,0) for each quad
+        mVertexBuffer = ByteBuffer.allocateDirect(maxQuads * QUAD_SIZE * 4)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        mIndexBuffer = ByteBuffer.allocateDirect(maxQuads * 6 * 2)
+                .order(ByteOrder.nativeOrder()).asShortBuffer();
+        for (int quadIdx = 0; quadIdx < maxQuads; quadIdx++) {
+            short vertex = (short) (quadIdx * 4);
+            mIndexBuffer.put(vertex);
+            mIndexBuffer.put((short) (vertex + 1));
+            mIndexBuffer.put((short) (vertex + 2));
+            mIndexBuffer.put((short) (vertex + 2));
+            mIndexBuffer.put((short) (vertex + 3));
+            mIndexBuffer.put(vertex);
+        }
+        mIndexBuffer.position(0);
+
+        GLES20.glEnableVertexAttribArray(mPositionLocation);
+        GLES20.glEnableVertexAttribArray(mTexCoordLocation);
+        GLES20.glEnableVertexAttribArray(mColourLocation);
+
+        // 2D rendering - no depth testing or culling, with premultiplied
+        // alpha blending enabled by default
+        GLES20.glDisable(GLES20.GL_DEPTH_TEST);
+        GLES20.glDisable(GLES20.GL_CULL_FACE);
+        GLES20.glEnable(GLES20.GL_BLEND);
+        setBlendMode(BLEND_ALPHA);
+    }
+
+    /**
+     * Compile and link the specified shader program
+     *
+     * @param vertexSource   Vertex shader source
+     * @param fragmentSource Fragment shader source
+     * @return Program handle
+     */
+    private int createProgram(String vertexSource, String fragmentSource) {
+        int vertexShader = compileShader(GLES20.GL_VERTEX_SHADER, vertexSource);
+        int fragmentShader = compileShader(GLES20.GL_FRAGMENT_SHADER, fragmentSource);
+
+        int program = GLES20.glCreateProgram();
+        GLES20.glAttachShader(program, vertexShader);
+        GLES20.glAttachShader(program, fragmentShader);
+        GLES20.glLinkProgram(program);
+
+        int[] status = new int[1];
+        GLES20.glGetProgramiv(program, GLES20.GL_LINK_STATUS, status, 0);
+        if (status[0] == 0) {
+            String log = GLES20.glGetProgramInfoLog(program);
+            GLES20.glDeleteProgram(program);
+            throw new RuntimeException(
+                    "GLES20Device.createProgram: Cannot link program [" + log + "]");
+        }
+
+        // The shaders are no longer needed once linked into the program
+        GLES20.glDeleteShader(vertexShader);
+        GLES20.glDeleteShader(fragmentShader);
+        return program;
+    }
+
+    /**
+     * Compile the specified shader
+     *
+     * @param type   Shader type
+     * @param source Shader source
+     * @return Shader handle
+     */
+    private int compileShader(int type, String source) {
+        int shader = GLES20.glCreateShader(type);
+        GLES20.glShaderSource(shader, source);
+        GLES20.glCompileShader(shader);
+
+        int[] status = new int[1];
+        GLES20.glGetShaderiv(shader, GLES20.GL_COMPILE_STATUS, status, 0);
+        if (status[0] == 0) {
+            String log = GLES20.glGetShaderInfoLog(shader);
+            GLES20.glDeleteShader(shader);
+            throw new RuntimeException(
+                    "GLES20Device.compileShader: Cannot compile shader [" + log + "]");
+        }
+        return shader;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Render State
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGLDevice#setViewport(int, int)
+     */
+    @Override
+    public void setViewport(int width, int height) {
+        mHeight = height;
+        GLES20.glViewport(0, 0, width, height);
+
+        // Column-major orthographic projection with a top-left origin
+        for (int idx = 0; idx < mProjection.length; idx++)
+            mProjection[idx] = 0.0f;
+        mProjection[0] = 2.0f / width;
+        mProjection[5] = -2.0f / height;
+        mProjection[10] = 1.0f;
+        mProjection[12] = -1.0f;
+        mProjection[13] = 1.0f;
+        mProjection[15] = 1.0f;
+
+        GLES20.glUseProgram(mProgram);
+        GLES20.glUniformMatrix4fv(mProjectionLocation, 1, false, mProjection, 0);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGLDevice#setScissor(android.graphics.Rect)
+     */
+    @Override
+    public void setScissor(Rect clipRegion) {
+        if (clipRegion == null) {
+            GLES20.glDisable(GLES20.GL_SCISSOR_TEST);
+        } else {
+            GLES20.glEnable(GLES20.GL_SCISSOR_TEST);
+            GLES20.glScissor(clipRegion.left, mHeight - clipRegion.bottom,
+                    clipRegion.width(), clipRegion.height());
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGLDevice#setBlendMode(int)
+     */
+    @Override
+    public void setBlendMode(int blendMode) {
+        // Android bitmaps hold premultiplied alpha
+        if (blendMode == BLEND_ADDITIVE)
+            GLES20.glBlendFunc(GLES20.GL_ONE, GLES20.GL_ONE);
+        else
+            GLES20.glBlendFunc(GLES20.GL_ONE, GLES20.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGLDevice#clear(int)
+     */
+    @Override
+    public void clear(int colour) {
+        GLES20.glClearColor(Color.red(colour) / 255.0f, Color.green(colour) / 255.0f,
+                Color.blue(colour) / 255.0f, 1.0f);
+        GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Textures
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGLDevice#createTexture(android.graphics.Bitmap)
+     */
+    @Override
+    public int createTexture(Bitmap bitmap) {
+        GLES20.glGenTextures(1, mHandle, 0);
+        int textureId = mHandle[0];
+
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D,
+                GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D,
+                GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D,
+                GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
+        GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D,
+                GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
+        GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmap, 0);
+
+        return textureId;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGLDevice#updateTexture(int, android.graphics.Bitmap)
+     */
+    @Override
+    public void updateTexture(int textureId, Bitmap bitmap) {
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId);
+        GLUtils.texSubImage2D(GLES20.GL_TEXTURE_2D, 0, 0, 0, bitmap);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGLDevice#deleteTexture(int)
+     */
+    @Override
+    public void deleteTexture(int textureId) {
+        mHandle[0] = textureId;
+        GLES20.glDeleteTextures(1, mHandle, 0);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Draw
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGLDevice#drawQuads(int, float[], int)
+     */
+    @Override
+    public void drawQuads(int textureId, float[] vertexData, int quadCount) {
+        // Stream the vertex data into the direct buffer
+        mVertexBuffer.clear();
+        mVertexBuffer.put(vertexData, 0, quadCount * QUAD_SIZE);
+
+        // Point each attribute at its offset within the interleaved data
+        int stride = VERTEX_SIZE * 4;
+        mVertexBuffer.position(0);
+        GLES20.glVertexAttribPointer(mPositionLocation, 2,
+                GLES20.GL_FLOAT, false, stride, mVertexBuffer);
+        mVertexBuffer.position(2);
+        GLES20.glVertexAttribPointer(mTexCoordLocation, 2,
+                GLES20.GL_FLOAT, false, stride, mVertexBuffer);
+        mVertexBuffer.position(4);
+        GLES20.glVertexAttribPointer(mColourLocation, 4,
+                GLES20.GL_FLOAT, false, stride, mVertexBuffer);
+
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId);
+        GLES20.glDrawElements(GLES20.GL_TRIANGLES, quadCount * 6,
+                GLES20.GL_UNSIGNED_SHORT, mIndexBuffer);
+    }
+}
@@ -0,0 +1,696 @@
+package uk.ac.qub.eeecs.gage.engine.graphics;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Graphics2D class that provides batched, GPU rasterized drawing through an
+ * OpenGL ES device.
+ * <p>
+ * Bitmaps are uploaded to textures the first time they are drawn (and again
+ * should their content change). Consecutive draws that share a texture and
+ * blend mode are accumulated into a single batch of quads, with the batch
+ * submitted to the device whenever the texture, blend mode or clip region
+ * changes, the batch is full, or the frame ends.
+ * <p>
+ * As with the canvas implementation, bitmaps are only modulated by the alpha
+ * of the specified paint, whilst rectangles are drawn using the paint colour.
+ * A paint containing a transfer mode is assumed to request additive blending
+ * (as used by the particle system).
+ * <p>
+ * Text is rasterized once per distinct string and paint, and the resulting
+ * bitmap cached and drawn as a textured quad. Cached text, and the textures
+ * of bitmaps, that have not been drawn for a number of frames are released,
+ * as are the textures of bitmaps that have been recycled.
+ *
+ * @version 1.0
+ */
+public class GLGraphics2D implements IGraphics2D {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Maximum number of quads that can be held within a single batch
+     */
+    public static final int MAX_BATCH_QUADS = 2048;
+
+    /**
+     * Number of frames between checks for unused textures and text, alongside
+     * the number of frames a texture or text may go undrawn before it is
+     * released
+     */
+    public static final int EVICTION_INTERVAL_FRAMES = 60;
+    public static final int TEXTURE_EVICTION_FRAMES = 600;
+    public static final int TEXT_EVICTION_FRAMES = 120;
+
+    /**
+     * Maximum number of cached text bitmaps. If exceeded, all text that has
+     * not been drawn in the current frame is released.
+     */
+    public static final int MAX_CACHED_TEXT = 64;
+
+    /**
+     * Device to which batched draw requests will be submitted
+     */
+    private IGLDevice mDevice;
+
+    /**
+     * Height and width of the render surface
+     */
+    private int mWidth;
+    private int mHeight;
+
+    /**
+     * Texture information held for each uploaded bitmap
+     */
+    private static class Texture {
+        int textureId;
+        int generationId;
+        int lastUsedFrame;
+    }
+
+    /**
+     * Textures that have been uploaded, keyed by source bitmap
+     */
+    private Map<Bitmap, Texture> mTextures = new HashMap<>();
+
+    /**
+     * Interleaved vertex data for the current batch
+     */
+    private float[] mVertexData = new float[MAX_BATCH_QUADS * IGLDevice.QUAD_SIZE];
+
+    /**
+     * Number of quads within the current batch, alongside the texture and
+     * blend mode shared by the batch
+     */
+    private int mQuadCount = 0;
+    private int mBatchTextureId = -1;
+    private int mBatchBlendMode = IGLDevice.BLEND_ALPHA;
+
+    /**
+     * Current clip region (null if no clip region is in place)
+     */
+    private Rect mClipRegion = null;
+    private Rect mClipRect = new Rect();
+
+    /**
+     * Single white pixel used to draw solid rectangles
+     */
+    private Bitmap mWhitePixel;
+
+    /**
+     * Paint properties that determine the appearance of rasterized text,
+     * used to identify cached text
+     */
+    private static class TextKey {
+        String text;
+        float textSize;
+        int colour;
+        Typeface typeface;
+        int flags;
+        Paint.Style style;
+        float strokeWidth;
+        float textScaleX;
+        float textSkewX;
+
+        void set(String text, Paint paint) {
+            this.text = text;
+            textSize = paint.getTextSize();
+            colour = paint.getColor();
+            typeface = paint.getTypeface();
+            flags = paint.getFlags();
+            style = paint.getStyle();
+            strokeWidth = paint.getStrokeWidth();
+            textScaleX = paint.getTextScaleX();
+            textSkewX = paint.getTextSkewX();
+        }
+
+        TextKey copy() {
+            TextKey key = new TextKey();
+            key.text = text;
+            key.textSize = textSize;
+            key.colour = colour;
+            key.typeface = typeface;
+            key.flags = flags;
+            key.style = style;
+            key.strokeWidth = strokeWidth;
+            key.textScaleX = textScaleX;
+            key.textSkewX = textSkewX;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof TextKey))
+                return false;
+            TextKey key = (TextKey) object;
+            return text.equals(key.text) && textSize == key.textSize
+                    && colour == key.colour && typeface == key.typeface
+                    && flags == key.flags && style == key.style
+                    && strokeWidth == key.strokeWidth && textScaleX == key.textScaleX
+                    && textSkewX == key.textSkewX;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = text.hashCode();
+            hash = 31 * hash + Float.floatToIntBits(textSize);
+            hash = 31 * hash + colour;
+            hash = 31 * hash + flags;
+            return hash;
+        }
+    }
+
+    /**
+     * Rasterized text alongside the offset from the baseline to the top of
+     * the text and the frame in which the text was last drawn
+     */
+    private static class CachedText {
+        Bitmap bitmap;
+        float top;
+        int lastUsedFrame;
+    }
+
+    /**
+     * Cached text, alongside the key used to look up text (defined as a
+     * class member to reduce temporary object creation)
+     */
+    private Map<TextKey, CachedText> mTextCache = new HashMap<>();
+    private TextKey mTextLookupKey = new TextKey();
+
+    /**
+     * Objects used to rasterize and draw text
+     */
+    private Paint mTextPaint = new Paint();
+    private Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+    private Rect mTextDesRect = new Rect();
+
+    /**
+     * Number of frames that have been rendered
+     */
+    private int mFrameCount = 0;
+
+    /**
+     * Scratch matrix values and corner positions, defined as class members to
+     * reduce temporary object creation.
+     */
+    private float[] mMatrixValues = new float[9];
+    private float[] mCorners = new float[8];
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new GL graphics instance
+     *
+     * @param device Device to which draw requests will be submitted
+     */
+    public GLGraphics2D(IGLDevice device) {
+        mDevice = device;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Surface and Frame Management
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Initialise the device following the creation of a new GL context. Any
+     * previously uploaded textures are assumed to have been lost and will be
+     * uploaded again when next drawn.
+     */
+    public void onSurfaceCreated() {
+        mDevice.initialise(MAX_BATCH_QUADS);
+        mTextures.clear();
+        mQuadCount = 0;
+        mBatchTextureId = -1;
+        // The device starts in the alpha blend mode
+        mBatchBlendMode = IGLDevice.BLEND_ALPHA;
+
+        if (mWhitePixel == null) {
+            mWhitePixel = Bitmap.createBitmap(1, 1, Bitmap.Config.ARGB_8888);
+            mWhitePixel.eraseColor(Color.WHITE);
+        }
+    }
+
+    /**
+     * Set the size of the render surface
+     *
+     * @param width  Width of the render surface
+     * @param height Height of the render surface
+     */
+    public void setSurfaceSize(int width, int height) {
+        mWidth = width;
+        mHeight = height;
+        mDevice.setViewport(width, height);
+    }
+
+    /**
+     * Prepare for the rendering of a new frame
+     */
+    public void beginFrame() {
+        // The clip region is reset for each frame, as for a new canvas
+        mClipRegion = null;
+        mDevice.setScissor(null);
+        mQuadCount = 0;
+    }
+
+    /**
+     * Complete the rendering of the current frame, submitting any batched
+     * quads to the device. Unused textures and text are periodically
+     * released.
+     */
+    public void endFrame() {
+        flush();
+
+        mFrameCount++;
+        if (mFrameCount % EVICTION_INTERVAL_FRAMES == 0) {
+            evictText(TEXT_EVICTION_FRAMES);
+            evictTextures();
+        }
+    }
+
+    /**
+     * Release the texture held for the specified bitmap (if any). Should be
+     * called from the GL thread if a drawn bitmap is to be discarded.
+     *
+     * @param bitmap Bitmap whose texture is to be released
+     */
+    public void releaseTexture(Bitmap bitmap) {
+        Texture texture = mTextures.remove(bitmap);
+        if (texture != null) {
+            if (texture.textureId == mBatchTextureId)
+                flush();
+            mDevice.deleteTexture(texture.textureId);
+        }
+    }
+
+    /**
+     * Get the number of textures currently held
+     *
+     * @return Number of textures
+     */
+    public int getTextureCount() {
+        return mTextures.size();
+    }
+
+    /**
+     * Get the number of rasterized text bitmaps currently cached
+     *
+     * @return Number of cached text bitmaps
+     */
+    public int getCachedTextCount() {
+        return mTextCache.size();
+    }
+
+    /**
+     * Release the textures of bitmaps that have been recycled or have not
+     * been drawn within the texture eviction period
+     */
+    private void evictTextures() {
+        Iterator<Map.Entry<Bitmap, Texture>> iterator = mTextures.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Bitmap, Texture> entry = iterator.next();
+            Texture texture = entry.getValue();
+            if (entry.getKey() != mWhitePixel && (entry.getKey().isRecycled()
+                    || mFrameCount - texture.lastUsedFrame > TEXTURE_EVICTION_FRAMES)) {
+                if (texture.textureId == mBatchTextureId)
+                    flush();
+                mDevice.deleteTexture(texture.textureId);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Release cached text that has not been drawn within the specified
+     * number of frames
+     *
+     * @param maxUnusedFrames Maximum number of frames text may go undrawn
+     */
+    private void evictText(int maxUnusedFrames) {
+        Iterator<CachedText> iterator = mTextCache.values().iterator();
+        while (iterator.hasNext()) {
+            CachedText cachedText = iterator.next();
+            if (mFrameCount - cachedText.lastUsedFrame > maxUnusedFrames) {
+                releaseTexture(cachedText.bitmap);
+                cachedText.bitmap.recycle();
+                iterator.remove();
+            }
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Batching
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Submit any batched quads to the device
+     */
+    private void flush() {
+        if (mQuadCount > 0) {
+            mDevice.drawQuads(mBatchTextureId, mVertexData, mQuadCount);
+            mQuadCount = 0;
+        }
+    }
+
+    /**
+     * Get the texture for the specified bitmap, uploading the bitmap if it
+     * has not been seen before or if its content has changed
+     *
+     * @param bitmap Bitmap to be drawn
+     * @return Texture handle
+     */
+    private int getTextureId(Bitmap bitmap) {
+        Texture texture = mTextures.get(bitmap);
+        if (texture == null) {
+            texture = new Texture();
+            texture.textureId = mDevice.createTexture(bitmap);
+            texture.generationId = bitmap.getGenerationId();
+            mTextures.put(bitmap, texture);
+        } else if (texture.generationId != bitmap.getGenerationId()) {
+            // Make sure any queued draws use the old content before updating
+            if (texture.textureId == mBatchTextureId)
+                flush();
+            mDevice.updateTexture(texture.textureId, bitmap);
+            texture.generationId = bitmap.getGenerationId();
+        }
+        texture.lastUsedFrame = mFrameCount;
+        return texture.textureId;
+    }
+
+    /**
+     * Prepare the batch to accept quads using the specified texture and
+     * blend mode, flushing the current batch if needed
+     *
+     * @param textureId Texture handle
+     * @param blendMode Blend mode
+     * @param numQuads  Number of quads that will be added
+     */
+    private void prepareBatch(int textureId, int blendMode, int numQuads) {
+        if (mQuadCount > 0 && (textureId != mBatchTextureId ||
+                blendMode != mBatchBlendMode || mQuadCount + numQuads > MAX_BATCH_QUADS))
+            flush();
+
+        if (blendMode != mBatchBlendMode) {
+            mDevice.setBlendMode(blendMode);
+            mBatchBlendMode = blendMode;
+        }
+        mBatchTextureId = textureId;
+    }
+
+    /**
+     * Add a quad to the current batch. The corners array holds the
+     * top-left, top-right, bottom-right and bottom-left positions.
+     *
+     * @param corners Corner positions
+     * @param u0      Left texture coordinate
+     * @param v0      Top texture coordinate
+     * @param u1      Right texture coordinate
+     * @param v1      Bottom texture coordinate
+     * @param colour  ARGB tint
+     */
+    private void addQuad(float[] corners, float u0, float v0, float u1, float v1, int colour) {
+        // Premultiply the tint to match the premultiplied texture content
+        float a = Color.alpha(colour) / 255.0f;
+        float r = Color.red(colour) / 255.0f * a;
+        float g = Color.green(colour) / 255.0f * a;
+        float b = Color.blue(colour) / 255.0f * a;
+
+        int offset = mQuadCount * IGLDevice.QUAD_SIZE;
+        offset = putVertex(offset, corners[0], corners[1], u0, v0, r, g, b, a);
+        offset = putVertex(offset, corners[2], corners[3], u1, v0, r, g, b, a);
+        offset = putVertex(offset, corners[4], corners[5], u1, v1, r, g, b, a);
+        putVertex(offset, corners[6], corners[7], u0, v1, r, g, b, a);
+        mQuadCount++;
+    }
+
+    /**
+     * Write a single vertex into the batch
+     *
+     * @return Offset of the next vertex
+     */
+    private int putVertex(int offset, float x, float y, float u, float v,
+                          float r, float g, float b, float a) {
+        float[] data = mVertexData;
+        data[offset] = x;
+        data[offset + 1] = y;
+        data[offset + 2] = u;
+        data[offset + 3] = v;
+        data[offset + 4] = r;
+        data[offset + 5] = g;
+        data[offset + 6] = b;
+        data[offset + 7] = a;
+        return offset + IGLDevice.VERTEX_SIZE;
+    }
+
+    /**
+     * Store an axis-aligned rectangle within the corners array
+     */
+    private void setCorners(float left, float top, float right, float bottom) {
+        mCorners[0] = left;
+        mCorners[1] = top;
+        mCorners[2] = right;
+        mCorners[3] = top;
+        mCorners[4] = right;
+        mCorners[5] = bottom;
+        mCorners[6] = left;
+        mCorners[7] = bottom;
+    }
+
+    /**
+     * Determine the blend mode requested by the specified paint
+     */
+    private int getBlendMode(Paint paint) {
+        return paint != null && paint.getXfermode() != null ?
+                IGLDevice.BLEND_ADDITIVE : IGLDevice.BLEND_ALPHA;
+    }
+
+    /**
+     * Determine the bitmap tint for the specified paint (only the paint's
+     * alpha is applied to bitmaps)
+     */
+    private int getBitmapTint(Paint paint) {
+        return paint == null ? Color.WHITE : Color.argb(paint.getAlpha(), 255, 255, 255);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Draw
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawBitmap(android.graphics
+     * .Bitmap, android.graphics.Rect, android.graphics.Rect,
+     * android.graphics.Paint)
+     */
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect srcRect, Rect desRect, Paint paint) {
+        int textureId = getTextureId(bitmap);
+        prepareBatch(textureId, getBlendMode(paint), 1);
+
+        float width = bitmap.getWidth();
+        float height = bitmap.getHeight();
+        float u0 = 0.0f, v0 = 0.0f, u1 = 1.0f, v1 = 1.0f;
+        if (srcRect != null) {
+            u0 = srcRect.left / width;
+            v0 = srcRect.top / height;
+            u1 = srcRect.right / width;
+            v1 = srcRect.bottom / height;
+        }
+
+        setCorners(desRect.left, desRect.top, desRect.right, desRect.bottom);
+        addQuad(mCorners, u0, v0, u1, v1, getBitmapTint(paint));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawBitmap(android.graphics
+     * .Bitmap, android.graphics.Matrix, android.graphics.Paint)
+     */
+    @Override
+    public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
+        int textureId = getTextureId(bitmap);
+        prepareBatch(textureId, getBlendMode(paint), 1);
+
+        // Transform the bitmap corners using the affine part of the matrix
+        matrix.getValues(mMatrixValues);
+        float scaleX = mMatrixValues[Matrix.MSCALE_X];
+        float skewX = mMatrixValues[Matrix.MSKEW_X];
+        float transX = mMatrixValues[Matrix.MTRANS_X];
+        float skewY = mMatrixValues[Matrix.MSKEW_Y];
+        float scaleY = mMatrixValues[Matrix.MSCALE_Y];
+        float transY = mMatrixValues[Matrix.MTRANS_Y];
+
+        float width = bitmap.getWidth();
+        float height = bitmap.getHeight();
+        mCorners[0] = transX;
+        mCorners[1] = transY;
+        mCorners[2] = scaleX * width + transX;
+        mCorners[3] = skewY * width + transY;
+        mCorners[4] = scaleX * width + skewX * height + transX;
+        mCorners[5] = skewY * width + scaleY * height + transY;
+        mCorners[6] = skewX * height + transX;
+        mCorners[7] = scaleY * height + transY;
+
+        addQuad(mCorners, 0.0f, 0.0f, 1.0f, 1.0f, getBitmapTint(paint));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawRect(java.lang.float,
+     * float, float, float, android.graphics.Paint)
+     */
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        int textureId = getTextureId(mWhitePixel);
+        int colour = paint.getColor();
+
+        if (paint.getStyle() == Paint.Style.STROKE) {
+            prepareBatch(textureId, getBlendMode(paint), 4);
+            // Draw the outline as four thin quads centred on the edges
+            float halfStroke = Math.max(1.0f, paint.getStrokeWidth()) * 0.5f;
+            setCorners(left - halfStroke, top - halfStroke, right + halfStroke, top + halfStroke);
+            addQuad(mCorners, 0.0f, 0.0f, 1.0f, 1.0f, colour);
+            setCorners(left - halfStroke, bottom - halfStroke, right + halfStroke, bottom + halfStroke);
+            addQuad(mCorners, 0.0f, 0.0f, 1.0f, 1.0f, colour);
+            setCorners(left - halfStroke, top + halfStroke, left + halfStroke, bottom - halfStroke);
+            addQuad(mCorners, 0.0f, 0.0f, 1.0f, 1.0f, colour);
+            setCorners(right - halfStroke, top + halfStroke, right + halfStroke, bottom - halfStroke);
+            addQuad(mCorners, 0.0f, 0.0f, 1.0f, 1.0f, colour);
+        } else {
+            prepareBatch(textureId, getBlendMode(paint), 1);
+            setCorners(left, top, right, bottom);
+            addQuad(mCorners, 0.0f, 0.0f, 1.0f, 1.0f, colour);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#drawText(java.lang.String,
+     * float, float, android.graphics.Paint)
+     */
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        // Retrieve the rasterized text, rasterizing it if needed
+        mTextLookupKey.set(text, paint);
+        CachedText cachedText = mTextCache.get(mTextLookupKey);
+        if (cachedText == null) {
+            cachedText = rasterizeText(text, paint);
+            if (cachedText == null)
+                return;
+            if (mTextCache.size() >= MAX_CACHED_TEXT)
+                evictText(0);
+            mTextCache.put(mTextLookupKey.copy(), cachedText);
+        }
+        cachedText.lastUsedFrame = mFrameCount;
+
+        // Draw the rasterized text, honouring the requested alignment
+        Bitmap bitmap = cachedText.bitmap;
+        float left = x;
+        if (paint.getTextAlign() == Paint.Align.CENTER)
+            left -= bitmap.getWidth() * 0.5f;
+        else if (paint.getTextAlign() == Paint.Align.RIGHT)
+            left -= bitmap.getWidth();
+
+        int top = (int) (y + cachedText.top);
+        mTextDesRect.set((int) left, top, (int) left + bitmap.getWidth(), top + bitmap.getHeight());
+        drawBitmap(bitmap, null, mTextDesRect, null);
+    }
+
+    /**
+     * Rasterize the specified text, left aligned, into a new bitmap
+     *
+     * @param text  Text to rasterize
+     * @param paint Paint used to draw the text
+     * @return Rasterized text, or null if the text is empty
+     */
+    private CachedText rasterizeText(String text, Paint paint) {
+        paint.getFontMetrics(mFontMetrics);
+        int textWidth = (int) Math.ceil(paint.measureText(text));
+        int textHeight = (int) Math.ceil(mFontMetrics.bottom - mFontMetrics.top);
+        if (textWidth <= 0 || textHeight <= 0)
+            return null;
+
+        CachedText cachedText = new CachedText();
+        cachedText.bitmap = Bitmap.createBitmap(textWidth, textHeight, Bitmap.Config.ARGB_8888);
+        cachedText.top = mFontMetrics.top;
+
+        mTextPaint.set(paint);
+        mTextPaint.setTextAlign(Paint.Align.LEFT);
+        new Canvas(cachedText.bitmap).drawText(text, 0.0f, -mFontMetrics.top, mTextPaint);
+        return cachedText;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#clear(int)
+     */
+    @Override
+    public void clear(int colour) {
+        flush();
+        mDevice.clear(colour);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Configuration
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     * @see uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D#clipRect(android.graphics.Rect)
+     */
+    @Override
+    public void clipRect(Rect clipRegion) {
+        flush();
+
+        // As with a canvas, the clip region is intersected with any existing clip
+        if (mClipRegion == null) {
+            mClipRect.set(clipRegion);
+            mClipRegion = mClipRect;
+        } else if (!mClipRegion.intersect(clipRegion)) {
+            mClipRegion.set(0, 0, 0, 0);
+        }
+        mDevice.setScissor(mClipRegion);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#getSurfaceWidth()
+     */
+    @Override
+    public int getSurfaceWidth() {
+        return mWidth;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.interfaces.IGraphics2D#getSurfaceHeight()
+     */
+    @Override
+    public int getSurfaceHeight() {
+        return mHeight;
+    }
+}
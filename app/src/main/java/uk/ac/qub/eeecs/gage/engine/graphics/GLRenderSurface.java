@@ -0,0 +1,175 @@
+package uk.ac.qub.eeecs.gage.engine.graphics;
+
+import uk.ac.qub.eeecs.gage.Game;
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.world.GameScreen;
+
+import android.content.Context;
+import android.opengl.GLSurfaceView;
+import android.view.View;
+
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.opengles.GL10;
+
+/**
+ * OpenGL ES based implementation of the render surface interface.
+ * <p>
+ * Render requests are passed to the GL thread managed by the GLSurfaceView,
+ * where the game screen will draw itself using a GLGraphics2D instance. As
+ * with the canvas render surface the game loop is notified once the draw has
+ * completed, with the GPU performing all rasterization.
+ * <p>
+ * The owning game must forward pause/resume events to this surface (see
+ * GLSurfaceView#onPause and GLSurfaceView#onResume).
+ *
+ * @version 1.0
+ */
+public class GLRenderSurface extends GLSurfaceView implements IRenderSurface, GLSurfaceView.Renderer {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Graphics2D implementation that will be issued to the gamescreen to enable
+     * drawing onto this surface
+     */
+    private GLGraphics2D mGLGraphics2D;
+
+    /**
+     * Game instance to which this render surface belongs
+     */
+    protected Game mGame;
+
+    /**
+     * Gamescreen instance that will be asked to render itself onto this surface
+     */
+    protected volatile GameScreen mScreenToRender;
+
+    /**
+     * Elapsed time information that will be provided to the game screen to
+     * sequence its render
+     */
+    protected volatile ElapsedTime mElapsedTime;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new OpenGL ES render surface for the specified game and Android
+     * context
+     *
+     * @param game    Game which will use this render surface
+     * @param context Context onto which the surface will be rendered
+     */
+    public GLRenderSurface(Game game, Context context) {
+        this(game, context, new GLES20Device());
+    }
+
+    /**
+     * Create a new OpenGL ES render surface that will draw using the
+     * specified GL device
+     *
+     * @param game    Game which will use this render surface
+     * @param context Context onto which the surface will be rendered
+     * @param device  GL device to which draw requests will be submitted
+     */
+    public GLRenderSurface(Game game, Context context, IGLDevice device) {
+        super(context);
+        mGame = game;
+
+        // Create a new Graphics2D instance for drawing on this surface
+        mGLGraphics2D = new GLGraphics2D(device);
+
+        // Request an OpenGL ES 2.0 context, retained across pauses if
+        // possible to avoid the need to upload all textures again, and only
+        // render when a render request has been received from the game loop
+        setEGLContextClientVersion(2);
+        setPreserveEGLContextOnPause(true);
+        setRenderer(this);
+        setRenderMode(GLSurfaceView.RENDERMODE_WHEN_DIRTY);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Interface Implementation
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.interfaces.IRenderSurface#getAsView()
+     */
+    @Override
+    public View getAsView() {
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * uk.ac.qub.eeecs.gage.interfaces.IRenderSurface#render(uk.ac.qub.eeecs
+     * .gage.engine.ElapsedTime, uk.ac.qub.eeecs.gage.engine.GameScreen)
+     */
+    @Override
+    public void render(ElapsedTime elapsedTime, GameScreen screenToRender) {
+
+        // Store render target + time info
+        mElapsedTime = elapsedTime;
+        mScreenToRender = screenToRender;
+
+        // Request a render - which will result in the onDrawFrame method
+        // being called by the GL thread
+        requestRender();
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Renderer
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see android.opengl.GLSurfaceView.Renderer#onSurfaceCreated(javax.
+     * microedition.khronos.opengles.GL10, javax.microedition.khronos.egl.EGLConfig)
+     */
+    @Override
+    public void onSurfaceCreated(GL10 unused, EGLConfig config) {
+        mGLGraphics2D.onSurfaceCreated();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see android.opengl.GLSurfaceView.Renderer#onSurfaceChanged(javax.
+     * microedition.khronos.opengles.GL10, int, int)
+     */
+    @Override
+    public void onSurfaceChanged(GL10 unused, int width, int height) {
+        mGLGraphics2D.setSurfaceSize(width, height);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see android.opengl.GLSurfaceView.Renderer#onDrawFrame(javax.
+     * microedition.khronos.opengles.GL10)
+     */
+    @Override
+    public void onDrawFrame(GL10 unused) {
+        // A frame might be drawn by the view before any render request
+        GameScreen screenToRender = mScreenToRender;
+        if (screenToRender == null)
+            return;
+
+        // Request that the game screen render itself to this surface
+        // using the available graphics 2D instance
+        mGLGraphics2D.beginFrame();
+        screenToRender.draw(mElapsedTime, mGLGraphics2D);
+        mGLGraphics2D.endFrame();
+
+        // Notify the game that the render has been completed
+        mGame.notifyDrawCompleted();
+    }
+}
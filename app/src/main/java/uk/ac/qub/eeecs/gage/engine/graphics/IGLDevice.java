@@ -0,0 +1,111 @@
+package uk.ac.qub.eeecs.gage.engine.graphics;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+
+/**
+ * The GL device interface defines the small set of GPU operations needed by
+ * the OpenGL ES graphics 2D implementation.
+ * <p>
+ * All batching, texture management and geometry generation is performed by
+ * GLGraphics2D, with this interface providing the point at which the actual
+ * GL calls are issued. This permits the GL graphics 2D implementation to be
+ * driven by a software GL or a mock context when testing.
+ * <p>
+ * Vertex data is supplied as interleaved quads, each quad consisting of four
+ * vertices (top-left, top-right, bottom-right, bottom-left) with each vertex
+ * holding VERTEX_SIZE floats: screen x, screen y, texture u, texture v and a
+ * premultiplied red, green, blue, alpha tint.
+ *
+ * @version 1.0
+ */
+public interface IGLDevice {
+
+    /**
+     * Number of floats held for each vertex
+     */
+    int VERTEX_SIZE = 8;
+
+    /**
+     * Number of floats held for each quad
+     */
+    int QUAD_SIZE = VERTEX_SIZE * 4;
+
+    /**
+     * Blend modes supported by the device
+     */
+    int BLEND_ALPHA = 0;
+    int BLEND_ADDITIVE = 1;
+
+    /**
+     * Create the device resources (shader programs, index buffers, etc.). This
+     * will be called whenever a new GL context has been created, with any
+     * previously created textures assumed to have been lost.
+     *
+     * @param maxQuads Maximum number of quads that will be submitted in a
+     *                 single draw call
+     */
+    void initialise(int maxQuads);
+
+    /**
+     * Set the size of the render target in pixels
+     *
+     * @param width  Width of the render target
+     * @param height Height of the render target
+     */
+    void setViewport(int width, int height);
+
+    /**
+     * Create a new texture containing the specified bitmap
+     *
+     * @param bitmap Bitmap to upload
+     * @return Texture handle
+     */
+    int createTexture(Bitmap bitmap);
+
+    /**
+     * Replace the contents of an existing texture with the specified bitmap
+     *
+     * @param textureId Texture handle
+     * @param bitmap    Bitmap to upload
+     */
+    void updateTexture(int textureId, Bitmap bitmap);
+
+    /**
+     * Release the specified texture
+     *
+     * @param textureId Texture handle
+     */
+    void deleteTexture(int textureId);
+
+    /**
+     * Set the scissor region, expressed in screen (top-left origin)
+     * coordinates
+     *
+     * @param clipRegion Clip region, or null to disable scissoring
+     */
+    void setScissor(Rect clipRegion);
+
+    /**
+     * Set the blend mode
+     *
+     * @param blendMode Blend mode (BLEND_ALPHA or BLEND_ADDITIVE)
+     */
+    void setBlendMode(int blendMode);
+
+    /**
+     * Clear the render target (subject to the scissor region)
+     *
+     * @param colour ARGB formatted colour
+     */
+    void clear(int colour);
+
+    /**
+     * Draw the specified quads using the specified texture
+     *
+     * @param textureId  Texture handle
+     * @param vertexData Interleaved quad vertex data
+     * @param quadCount  Number of quads to draw
+     */
+    void drawQuads(int textureId, float[] vertexData, int quadCount);
+}
@@ -0,0 +1,199 @@
+package uk.ac.qub.eeecs.gage.engine.graphics;
+
+import uk.ac.qub.eeecs.gage.Game;
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.world.GameScreen;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.os.Build;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+import android.view.View;
+
+/**
+ * SurfaceView based implementation of the render surface interface.
+ * <p>
+ * Unlike the canvas render surface, render requests are carried out directly
+ * on the calling (game loop) thread by locking the surface's canvas, drawing
+ * the game screen and posting the result. This avoids the hop to, and
+ * competition with, the GUI thread, with the game loop owning the frame
+ * timing. On devices that support it (API 23+) a hardware accelerated canvas
+ * is used, otherwise the draw falls back to a software canvas.
+ *
+ * @version 1.0
+ */
+public class SurfaceRenderSurface extends SurfaceView implements IRenderSurface, SurfaceHolder.Callback {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Graphics2D implementation that will be issued to the gamescreen to enable
+     * drawing onto this surface
+     */
+    private CanvasGraphics2D mCanvasGraphics2D;
+
+    /**
+     * Game instance to which this render surface belongs
+     */
+    protected Game mGame;
+
+    /**
+     * Surface holder providing access to the underlying surface
+     */
+    protected SurfaceHolder mSurfaceHolder;
+
+    /**
+     * Flag indicating if the surface is available to be drawn on
+     */
+    private boolean mSurfaceAvailable = false;
+
+    /**
+     * Lock used to ensure the surface is not destroyed whilst a draw is
+     * in progress
+     */
+    private final Object mSurfaceLock = new Object();
+
+    /**
+     * Flag indicating if the current canvas was locked through the surface as
+     * a hardware canvas (true) or through the surface holder (false)
+     */
+    private boolean mHardwareCanvasLocked = false;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new surface render surface for the specified game and Android
+     * context
+     *
+     * @param game    Game which will use this render surface
+     * @param context Context onto which the surface will be rendered
+     */
+    public SurfaceRenderSurface(Game game, Context context) {
+        super(context);
+        mGame = game;
+
+        // Create a new Graphics2D instance for drawing on this surface
+        mCanvasGraphics2D = new CanvasGraphics2D(context.getAssets());
+
+        // Listen for the creation/destruction of the surface
+        mSurfaceHolder = getHolder();
+        mSurfaceHolder.addCallback(this);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Interface Implementation
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.interfaces.IRenderSurface#getAsView()
+     */
+    @Override
+    public View getAsView() {
+        return this;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * uk.ac.qub.eeecs.gage.interfaces.IRenderSurface#render(uk.ac.qub.eeecs
+     * .gage.engine.ElapsedTime, uk.ac.qub.eeecs.gage.engine.GameScreen)
+     */
+    @Override
+    public void render(ElapsedTime elapsedTime, GameScreen screenToRender) {
+        synchronized (mSurfaceLock) {
+            // If the surface is not yet (or no longer) available then the
+            // frame is skipped
+            if (mSurfaceAvailable) {
+                Canvas canvas = lockCanvas();
+                if (canvas != null) {
+                    try {
+                        // Request that the game screen render itself to this
+                        // surface using the available graphics 2D instance
+                        mCanvasGraphics2D.setCanvas(canvas);
+                        screenToRender.draw(elapsedTime, mCanvasGraphics2D);
+                    } finally {
+                        unlockCanvasAndPost(canvas);
+                    }
+                }
+            }
+        }
+
+        // Notify the game that the render has been completed
+        mGame.notifyDrawCompleted();
+    }
+
+    /**
+     * Lock the surface's canvas, using a hardware accelerated canvas if
+     * available
+     *
+     * @return Locked canvas, or null if the canvas could not be locked
+     */
+    private Canvas lockCanvas() {
+        mHardwareCanvasLocked = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+        if (mHardwareCanvasLocked)
+            return mSurfaceHolder.getSurface().lockHardwareCanvas();
+        else
+            return mSurfaceHolder.lockCanvas();
+    }
+
+    /**
+     * Unlock and post the canvas, using the same object through which the
+     * canvas was locked
+     *
+     * @param canvas Canvas to unlock
+     */
+    private void unlockCanvasAndPost(Canvas canvas) {
+        if (mHardwareCanvasLocked)
+            mSurfaceHolder.getSurface().unlockCanvasAndPost(canvas);
+        else
+            mSurfaceHolder.unlockCanvasAndPost(canvas);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Surface Callbacks
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see android.view.SurfaceHolder.Callback#surfaceCreated(android.view.SurfaceHolder)
+     */
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        synchronized (mSurfaceLock) {
+            mSurfaceAvailable = true;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see android.view.SurfaceHolder.Callback#surfaceChanged(android.view.SurfaceHolder,
+     * int, int, int)
+     */
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        // The canvas size is picked up from the canvas on each render
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see android.view.SurfaceHolder.Callback#surfaceDestroyed(android.view.SurfaceHolder)
+     */
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // Block until any in-progress draw has completed
+        synchronized (mSurfaceLock) {
+            mSurfaceAvailable = false;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import android.view.View;
 
 import java.util.List;
 
+import uk.ac.qub.eeecs.gage.util.PoolStats;
+
 /**
  * Touch, key, accelerometer and compass input support.
  *
@@ -21,6 +23,12 @@ public class Input {
     private TouchHandler mTouchHandler;
     private CompassHandler mCompassHandler;
 
+    /**
+     * Snapshot from which input queries are answered, e.g. whilst a
+     * recorded session is being replayed. If null, the device input is used.
+     */
+    private volatile InputSnapshot mSnapshot;
+
     /**
      * Create a new input manager for the specified content view
      *
@@ -44,7 +52,12 @@ public class Input {
      * @param pointerId Touch pointer ID to test for
      * @return true if there is an ongoing touch event, otherwise false
      */
-    public boolean existsTouch(int pointerId) { return mTouchHandler.existsTouch(pointerId); }
+    public boolean existsTouch(int pointerId) {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return snapshot.existsTouch[pointerId];
+        return mTouchHandler.existsTouch(pointerId);
+    }
 
     /**
      * Get the x-coordinate for the specified pointer ID.
@@ -54,7 +67,12 @@ public class Input {
      * @param pointerId Touch pointer ID to retrieve
      * @return x touch location
      */
-    public float getTouchX(int pointerId) { return mTouchHandler.getTouchX(pointerId); }
+    public float getTouchX(int pointerId) {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return snapshot.existsTouch[pointerId] ? snapshot.touchX[pointerId] : Float.NaN;
+        return mTouchHandler.getTouchX(pointerId);
+    }
 
     /**
      * Get the y-coordinate for the specified pointer ID.
@@ -64,14 +82,24 @@ public class Input {
      * @param pointerId Touch pointer ID to retrieve
      * @return y touch location
      */
-    public float getTouchY(int pointerId) { return mTouchHandler.getTouchY(pointerId); }
+    public float getTouchY(int pointerId) {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return snapshot.existsTouch[pointerId] ? snapshot.touchY[pointerId] : Float.NaN;
+        return mTouchHandler.getTouchY(pointerId);
+    }
 
     /**
      * Return a list of captured touch events occurring for this update tick.
      *
      * @return List of captured touch events
      */
-    public List<TouchEvent> getTouchEvents() { return mTouchHandler.getTouchEvents(); }
+    public List<TouchEvent> getTouchEvents() {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return snapshot.touchEvents;
+        return mTouchHandler.getTouchEvents();
+    }
 
     // /////////////////////////////////////////////////////////////////////////
     // Accelerometer Input Events //
@@ -83,6 +111,9 @@ public class Input {
      * @return Accelerative force along the x-axis
      */
     public float getAccelX() {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return snapshot.accelX;
         return mAccelHandler.getAccelX();
     }
 
@@ -92,6 +123,9 @@ public class Input {
      * @return Accelerative force along the y-axis
      */
     public float getAccelY() {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return snapshot.accelY;
         return mAccelHandler.getAccelY();
     }
 
@@ -101,6 +135,9 @@ public class Input {
      * @return Accelerative force along the z-axis
      */
     public float getAccelZ() {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return snapshot.accelZ;
         return mAccelHandler.getAccelZ();
     }
 
@@ -114,6 +151,9 @@ public class Input {
      * @return Compass bearing
      */
     public float getAzimuth() {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return snapshot.azimuth;
         return mCompassHandler.getAzimuth();
     }
 
@@ -128,6 +168,10 @@ public class Input {
      * @return Boolean true if the key is currently pressed, otherwise false
      */
     public boolean isKeyPressed(int keyCode) {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return keyCode >= 0 && keyCode < KeyHandler.MAX_KEYCODES
+                    && snapshot.pressedKeys[keyCode];
         return mKeyHandler.isKeyPressed(keyCode);
     }
 
@@ -137,6 +181,9 @@ public class Input {
      * @return List of captured touch events
      */
     public List<KeyEvent> getKeyEvents() {
+        InputSnapshot snapshot = mSnapshot;
+        if (snapshot != null)
+            return snapshot.keyEvents;
         return mKeyHandler.getKeyEvents();
     }
 
@@ -156,4 +203,42 @@ public class Input {
         mTouchHandler.resetAccumulator();
         mKeyHandler.resetAccumulator();
     }
+
+    /**
+     * Answer all input queries from the specified snapshot rather than from
+     * the device, e.g. to replay a recorded session. The device input
+     * continues to be accumulated but is not returned.
+     *
+     * @param snapshot Snapshot to use, or null to return to device input
+     */
+    public void setSnapshot(InputSnapshot snapshot) {
+        mSnapshot = snapshot;
+    }
+
+    /**
+     * Get the snapshot from which input queries are currently answered
+     *
+     * @return Current snapshot, or null if device input is used
+     */
+    public InputSnapshot getSnapshot() {
+        return mSnapshot;
+    }
+
+    /**
+     * Store the usage statistics of the touch event pool
+     *
+     * @param stats Snapshot into which the statistics are stored
+     */
+    public void getTouchPoolStats(PoolStats stats) {
+        mTouchHandler.getEventPoolStats(stats);
+    }
+
+    /**
+     * Store the usage statistics of the key event pool
+     *
+     * @param stats Snapshot into which the statistics are stored
+     */
+    public void getKeyPoolStats(PoolStats stats) {
+        mKeyHandler.getEventPoolStats(stats);
+    }
 }
@@ -0,0 +1,44 @@
+package uk.ac.qub.eeecs.gage.engine.input;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of the input state for a single frame, e.g. as read back from a
+ * recorded replay.
+ * <p>
+ * When a snapshot is set on the Input, all touch, key, accelerometer and
+ * compass queries are answered from the snapshot rather than from the
+ * device. Snapshot fields are public for speed of access.
+ *
+ * @version 1.0
+ */
+public class InputSnapshot {
+
+    /**
+     * Touch and key events occurring for the frame
+     */
+    public final List<TouchEvent> touchEvents = new ArrayList<>();
+    public final List<KeyEvent> keyEvents = new ArrayList<>();
+
+    /**
+     * Occurred and position information for each touch pointer
+     */
+    public final boolean[] existsTouch = new boolean[TouchHandler.MAX_TOUCHPOINTS];
+    public final float[] touchX = new float[TouchHandler.MAX_TOUCHPOINTS];
+    public final float[] touchY = new float[TouchHandler.MAX_TOUCHPOINTS];
+
+    /**
+     * Key down flags - indexed by android.view.KeyEvent.KEYCODE_XXX
+     * (ranged from 0-127)
+     */
+    public final boolean[] pressedKeys = new boolean[KeyHandler.MAX_KEYCODES];
+
+    /**
+     * Accelerometer and compass readings
+     */
+    public float accelX;
+    public float accelY;
+    public float accelZ;
+    public float azimuth;
+}
@@ -9,6 +9,7 @@ import java.util.List;
 
 import uk.ac.qub.eeecs.gage.R;
 import uk.ac.qub.eeecs.gage.util.Pool;
+import uk.ac.qub.eeecs.gage.util.PoolStats;
 
 public class KeyHandler implements OnKeyListener {
 
@@ -16,11 +17,16 @@ public class KeyHandler implements OnKeyListener {
     // Methods: Properties
     // /////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Number of key codes whose pressed state is tracked
+     */
+    public static final int MAX_KEYCODES = 128;
+
     /**
      * Array of key down boolean flags - indexed by
      * android.view.KeyEvent.KEYCODE_XXX (ranged from 0-127)
      */
-    private boolean[] mPressedKeys = new boolean[128];
+    private boolean[] mPressedKeys = new boolean[MAX_KEYCODES];
 
     /**
      * Key event pool and lists of current (for this frame) and unconsumed
@@ -157,4 +163,15 @@ public class KeyHandler implements OnKeyListener {
             mUnconsumedKeyEvents.clear();
         }
     }
+
+    /**
+     * Store the usage statistics of the key event pool
+     *
+     * @param stats Snapshot into which the statistics are stored
+     */
+    public void getEventPoolStats(PoolStats stats) {
+        synchronized (this) {
+            mKeyEventPool.getStats(stats);
+        }
+    }
 }
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import uk.ac.qub.eeecs.gage.util.Pool;
+import uk.ac.qub.eeecs.gage.util.PoolStats;
 
 /**
  * Touch handler.
@@ -289,4 +290,15 @@ public class TouchHandler implements OnTouchListener {
             mUnconsumedTouchEvents.clear();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Store the usage statistics of the touch event pool
+     *
+     * @param stats Snapshot into which the statistics are stored
+     */
+    public void getEventPoolStats(PoolStats stats) {
+        synchronized (this) {
+            mPool.getStats(stats);
+        }
+    }
+}
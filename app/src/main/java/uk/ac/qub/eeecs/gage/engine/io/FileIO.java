@@ -7,6 +7,8 @@ import android.content.res.AssetManager;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.BitmapFactory.Options;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
 import android.graphics.Typeface;
 import android.media.SoundPool;
 import android.os.Environment;
@@ -120,6 +122,105 @@ public class FileIO {
         return bitmap;
     }
 
+    /**
+     * Determine the pixel size of the specified bitmap in the APK file
+     * without decoding the bitmap.
+     *
+     * @param fileName Name of the bitmap
+     * @return Options holding the bitmap size (outWidth and outHeight)
+     * @throws IOException if the asset cannot be opened or read.
+     */
+    public Options loadBitmapBounds(String fileName) throws IOException {
+        Options options = new Options();
+        options.inJustDecodeBounds = true;
+        InputStream in = null;
+        try {
+            in = mAndroidIO.open(fileName);
+            BitmapFactory.decodeStream(in, null, options);
+            if (options.outWidth <= 0 || options.outHeight <= 0)
+                throw new IOException("Could not read bitmap bounds [" + fileName + "]");
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                }
+            }
+        }
+
+        return options;
+    }
+
+    /**
+     * Decode only the specified region of a bitmap in the APK file, using
+     * the specified format. This avoids decoding (and holding) the whole
+     * bitmap when only part of it is needed.
+     *
+     * @param fileName Name of the bitmap
+     * @param region   Region of the bitmap to decode
+     * @param format   Bitmap format to be used when decoding the region
+     * @return Bitmap holding the decoded region
+     * @throws IOException if the asset cannot be opened or read.
+     */
+    public Bitmap loadBitmapRegion(String fileName, Rect region, Bitmap.Config format)
+            throws IOException {
+
+        BitmapRegionDecoder decoder = openBitmapRegionDecoder(fileName);
+        try {
+            return decodeBitmapRegion(decoder, fileName, region, format);
+        } finally {
+            decoder.recycle();
+        }
+    }
+
+    /**
+     * Open a region decoder for the specified bitmap in the APK file, allowing
+     * several regions of the bitmap to be decoded without reopening it. The
+     * decoder should be recycled once no further regions are needed.
+     *
+     * @param fileName Name of the bitmap
+     * @return Region decoder for the bitmap
+     * @throws IOException if the asset cannot be opened or read.
+     */
+    public BitmapRegionDecoder openBitmapRegionDecoder(String fileName) throws IOException {
+        InputStream in = null;
+        try {
+            in = mAndroidIO.open(fileName);
+            BitmapRegionDecoder decoder = BitmapRegionDecoder.newInstance(in, false);
+            if (decoder == null)
+                throw new IOException("Could not open bitmap region decoder [" + fileName + "]");
+            return decoder;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Decode the specified region of a bitmap using an open region decoder
+     * (see openBitmapRegionDecoder), using the specified format.
+     *
+     * @param decoder  Region decoder for the bitmap
+     * @param fileName Name of the bitmap, used when reporting errors
+     * @param region   Region of the bitmap to decode
+     * @param format   Bitmap format to be used when decoding the region
+     * @return Bitmap holding the decoded region
+     * @throws IOException if the region cannot be decoded.
+     */
+    public Bitmap decodeBitmapRegion(BitmapRegionDecoder decoder, String fileName,
+                                     Rect region, Bitmap.Config format) throws IOException {
+        Options options = new Options();
+        options.inPreferredConfig = format;
+        Bitmap bitmap = decoder.decodeRegion(region, options);
+        if (bitmap == null)
+            throw new IOException("Could not decode bitmap region [" + fileName + "]");
+        return bitmap;
+    }
+
     /**
      * Load in the specified music file.
      *
@@ -0,0 +1,21 @@
+package uk.ac.qub.eeecs.gage.engine.jobs;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+
+/**
+ * Unit of work run as part of a job graph.
+ * <p>
+ * Jobs may be run on any of the job system's worker threads and concurrently
+ * with any job that they do not (directly or indirectly) depend on.
+ *
+ * @version 1.0
+ */
+public interface Job {
+
+    /**
+     * Run the job
+     *
+     * @param elapsedTime Elapsed time information for the current frame
+     */
+    void run(ElapsedTime elapsedTime);
+}
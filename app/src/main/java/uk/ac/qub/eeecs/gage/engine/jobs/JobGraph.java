@@ -0,0 +1,286 @@
+package uk.ac.qub.eeecs.gage.engine.jobs;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+
+/**
+ * Graph of jobs and the dependencies between them.
+ * <p>
+ * A job graph is normally built once (e.g. when a screen is created) and
+ * then submitted to the job system each frame. A job is only started once
+ * all of the jobs it depends on have completed, with independent jobs run
+ * in parallel. As a job can only depend on jobs that were added before it,
+ * the graph cannot contain cycles.
+ * <p>
+ * The per job tasks are created when the job is added and reused each time
+ * the graph is run to reduce temporary object creation. A graph can only be
+ * running once at any time.
+ *
+ * @version 1.0
+ */
+public class JobGraph {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Job Task
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reusable fork/join task used to run a single job
+     */
+    private class JobTask extends RecursiveAction {
+        final int handle;
+
+        JobTask(int handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (mFailure == null)
+                    mJobs[handle].run(mElapsedTime);
+            } catch (Throwable e) {
+                recordFailure(handle, e);
+            } finally {
+                // Start any dependent job that is now free to run. This
+                // task is running on a worker thread, so the forked tasks
+                // are placed on its own queue, from which idle workers steal.
+                int[] dependents = mDependents[handle];
+                for (int idx = 0; idx < mDependentCounts[handle]; idx++) {
+                    int dependent = dependents[idx];
+                    if (mRemainingDependencies.decrementAndGet(dependent) == 0)
+                        mTasks[dependent].fork();
+                }
+                mJobSystem.jobCompleted();
+            }
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Number of jobs within the graph
+     */
+    private int mJobCount = 0;
+
+    /**
+     * Job names, jobs and tasks, indexed by job handle
+     */
+    private String[] mNames = new String[8];
+    private Job[] mJobs = new Job[8];
+    private JobTask[] mTasks = new JobTask[8];
+
+    /**
+     * Number of jobs each job depends on, alongside the handles (and number)
+     * of the jobs that depend on each job
+     */
+    private int[] mDependencyCounts = new int[8];
+    private int[][] mDependents = new int[8][];
+    private int[] mDependentCounts = new int[8];
+
+    /**
+     * Number of uncompleted dependencies of each job whilst the graph runs
+     */
+    private AtomicIntegerArray mRemainingDependencies;
+
+    /**
+     * Job system, alongside the elapsed time, of the current run
+     */
+    private JobSystem mJobSystem;
+    private ElapsedTime mElapsedTime;
+
+    /**
+     * First failure encountered whilst running the graph. Once a job fails
+     * the remaining jobs are skipped.
+     */
+    private volatile Throwable mFailure;
+    private volatile String mFailedJobName;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Construction
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add a job to the graph
+     *
+     * @param name         Job name (used when reporting failures)
+     * @param job          Job to run
+     * @param dependencies Handles of the jobs that must complete before this
+     *                     job is started
+     * @return Handle of the added job
+     */
+    public int addJob(String name, Job job, int... dependencies) {
+        if (mJobSystem != null)
+            throw new RuntimeException(
+                    "JobGraph.addJob: Cannot add a job whilst the graph is running [" + name + "]");
+
+        int handle = mJobCount;
+        for (int dependency : dependencies)
+            if (dependency < 0 || dependency >= handle)
+                throw new RuntimeException(
+                        "JobGraph.addJob: Invalid dependency [" + dependency + "]");
+
+        if (handle == mJobs.length)
+            grow();
+
+        mNames[handle] = name;
+        mJobs[handle] = job;
+        mTasks[handle] = new JobTask(handle);
+        mDependencyCounts[handle] = dependencies.length;
+        mDependentCounts[handle] = 0;
+        for (int dependency : dependencies)
+            addDependent(dependency, handle);
+
+        mJobCount++;
+        return handle;
+    }
+
+    /**
+     * Record that the specified job depends on another job
+     */
+    private void addDependent(int handle, int dependent) {
+        int[] dependents = mDependents[handle];
+        int count = mDependentCounts[handle];
+        if (dependents == null) {
+            dependents = new int[4];
+            mDependents[handle] = dependents;
+        } else if (count == dependents.length) {
+            int[] grown = new int[dependents.length * 2];
+            System.arraycopy(dependents, 0, grown, 0, count);
+            dependents = grown;
+            mDependents[handle] = dependents;
+        }
+        dependents[count] = dependent;
+        mDependentCounts[handle] = count + 1;
+    }
+
+    private void grow() {
+        int capacity = mJobs.length * 2;
+
+        String[] names = new String[capacity];
+        System.arraycopy(mNames, 0, names, 0, mJobCount);
+        mNames = names;
+
+        Job[] jobs = new Job[capacity];
+        System.arraycopy(mJobs, 0, jobs, 0, mJobCount);
+        mJobs = jobs;
+
+        JobTask[] tasks = new JobTask[capacity];
+        System.arraycopy(mTasks, 0, tasks, 0, mJobCount);
+        mTasks = tasks;
+
+        int[] dependencyCounts = new int[capacity];
+        System.arraycopy(mDependencyCounts, 0, dependencyCounts, 0, mJobCount);
+        mDependencyCounts = dependencyCounts;
+
+        int[][] dependents = new int[capacity][];
+        System.arraycopy(mDependents, 0, dependents, 0, mJobCount);
+        mDependents = dependents;
+
+        int[] dependentCounts = new int[capacity];
+        System.arraycopy(mDependentCounts, 0, dependentCounts, 0, mJobCount);
+        mDependentCounts = dependentCounts;
+    }
+
+    /**
+     * Get the number of jobs within the graph
+     *
+     * @return Number of jobs
+     */
+    public int getJobCount() {
+        return mJobCount;
+    }
+
+    /**
+     * Get the name of the specified job
+     *
+     * @param handle Job handle
+     * @return Job name
+     */
+    public String getName(int handle) {
+        return mNames[handle];
+    }
+
+    /**
+     * Determine if the graph is currently running
+     *
+     * @return True if the graph is running
+     */
+    public boolean isRunning() {
+        return mJobSystem != null;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Execution
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Prepare the graph to be run by the specified job system
+     *
+     * @param jobSystem   Job system running the graph
+     * @param elapsedTime Elapsed time information passed to each job
+     */
+    void start(JobSystem jobSystem, ElapsedTime elapsedTime) {
+        if (mJobSystem != null)
+            throw new RuntimeException("JobGraph.start: The graph is already running");
+
+        mJobSystem = jobSystem;
+        mElapsedTime = elapsedTime;
+        mFailure = null;
+        mFailedJobName = null;
+        if (mRemainingDependencies == null || mRemainingDependencies.length() < mJobCount)
+            mRemainingDependencies = new AtomicIntegerArray(mJobs.length);
+        for (int handle = 0; handle < mJobCount; handle++) {
+            mRemainingDependencies.set(handle, mDependencyCounts[handle]);
+            mTasks[handle].reinitialize();
+        }
+    }
+
+    /**
+     * Get the task of the specified job if it has no dependencies, i.e. it
+     * can be started as soon as the graph is run
+     *
+     * @param handle Job handle
+     * @return Task to start, or null if the job has dependencies
+     */
+    RecursiveAction getRootTask(int handle) {
+        return mDependencyCounts[handle] == 0 ? mTasks[handle] : null;
+    }
+
+    /**
+     * Record the completion of the graph, returning any failure
+     *
+     * @return First failure encountered whilst running, or null
+     */
+    Throwable finish() {
+        // Each job signals its completion just before its task returns, so
+        // wait for the tasks themselves to complete before they can be
+        // reinitialised by the next run
+        for (int handle = 0; handle < mJobCount; handle++)
+            mTasks[handle].quietlyJoin();
+
+        mJobSystem = null;
+        mElapsedTime = null;
+        return mFailure;
+    }
+
+    /**
+     * Get the name of the job that first failed during the last run
+     *
+     * @return Job name, or null if no job failed
+     */
+    String getFailedJobName() {
+        return mFailedJobName;
+    }
+
+    private synchronized void recordFailure(int handle, Throwable failure) {
+        if (mFailure == null) {
+            mFailedJobName = mNames[handle];
+            mFailure = failure;
+        }
+    }
+}
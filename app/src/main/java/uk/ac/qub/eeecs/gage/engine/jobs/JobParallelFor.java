@@ -0,0 +1,144 @@
+package uk.ac.qub.eeecs.gage.engine.jobs;
+
+import java.util.concurrent.RecursiveAction;
+
+import uk.ac.qub.eeecs.gage.util.ParallelFor;
+
+/**
+ * Splits a loop over a range of indices into contiguous sub-ranges that
+ * are processed in parallel on the worker threads of a job system.
+ * <p>
+ * Unlike ParallelFor, this can be safely executed from within a job. The
+ * calling thread processes the first sub-range itself and then waits for
+ * the other sub-ranges. A worker thread does not block whilst waiting but
+ * instead runs queued work (including any sub-ranges not yet taken by
+ * other workers), so nested loops cannot starve the job system of threads.
+ * <p>
+ * The sub-range tasks are created once and reused to reduce temporary
+ * object creation. A job parallel for instance should only be executed
+ * from one thread at a time.
+ *
+ * @version 1.0
+ */
+public class JobParallelFor {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Range Action
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reusable fork/join task used to process one sub-range
+     */
+    private static class RangeAction extends RecursiveAction {
+        ParallelFor.RangeTask task;
+        int start;
+        int end;
+
+        @Override
+        protected void compute() {
+            task.run(start, end);
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Job system providing the worker threads
+     */
+    private final JobSystem mJobSystem;
+
+    /**
+     * Tasks used to process all but the first sub-range
+     */
+    private final RangeAction[] mRangeActions;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new job parallel for
+     *
+     * @param jobSystem Job system whose worker threads will process the
+     *                  sub-ranges
+     */
+    public JobParallelFor(JobSystem jobSystem) {
+        mJobSystem = jobSystem;
+
+        mRangeActions = new RangeAction[Math.max(jobSystem.getParallelism() - 1, 0)];
+        for (int idx = 0; idx < mRangeActions.length; idx++)
+            mRangeActions[idx] = new RangeAction();
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the maximum number of sub-ranges a range can be split into
+     *
+     * @return Maximum number of sub-ranges
+     */
+    public int getParallelism() {
+        return mRangeActions.length + 1;
+    }
+
+    /**
+     * Run the specified task over indices 0 to count-1, splitting the range
+     * across the worker threads. Ranges smaller than the specified minimum
+     * are not split. If any sub-range fails then the first failure is
+     * rethrown once all sub-ranges have completed.
+     *
+     * @param count        Number of indices to process
+     * @param minRangeSize Minimum number of indices in each sub-range
+     * @param task         Task to run
+     */
+    public void execute(int count, int minRangeSize, ParallelFor.RangeTask task) {
+        int numRanges = Math.min(getParallelism(),
+                count / Math.max(minRangeSize, 1));
+        if (numRanges <= 1) {
+            if (count > 0)
+                task.run(0, count);
+            return;
+        }
+
+        int rangeSize = (count + numRanges - 1) / numRanges;
+
+        // Queue all but the first sub-range
+        for (int range = 1; range < numRanges; range++) {
+            RangeAction action = mRangeActions[range - 1];
+            action.reinitialize();
+            action.task = task;
+            action.start = range * rangeSize;
+            action.end = Math.min(count, action.start + rangeSize);
+            mJobSystem.fork(action);
+        }
+
+        // Process the first sub-range on this thread and then wait for the
+        // others. The sub-ranges are joined in reverse order, as the most
+        // recently queued sub-range is the most likely to still be on this
+        // worker's own queue, in which case it is run directly.
+        RuntimeException failure = null;
+        try {
+            task.run(0, Math.min(count, rangeSize));
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        for (int range = numRanges - 1; range >= 1; range--) {
+            RangeAction action = mRangeActions[range - 1];
+            try {
+                action.join();
+            } catch (RuntimeException e) {
+                if (failure == null)
+                    failure = e;
+            }
+            action.task = null;
+        }
+
+        if (failure != null)
+            throw failure;
+    }
+}
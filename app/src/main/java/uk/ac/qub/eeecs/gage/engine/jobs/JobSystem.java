@@ -0,0 +1,189 @@
+package uk.ac.qub.eeecs.gage.engine.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+
+/**
+ * Job system running job graphs on a work-stealing pool of worker threads.
+ * <p>
+ * During an update a game screen can submit one or more job graphs (e.g.
+ * holding entity, AI, particle and physics jobs). The submitted graphs run
+ * in the background whilst the update continues. The game waits for all
+ * submitted jobs to complete once the screen's update returns and before
+ * the draw is started, so jobs should not modify anything used by the draw
+ * after they have completed.
+ * <p>
+ * Each worker thread holds its own queue of jobs: jobs started by a
+ * completing job are placed on the worker's queue, with idle workers
+ * stealing work from the other queues.
+ * <p>
+ * A job that needs to split a loop across threads should use a
+ * JobParallelFor, rather than a ParallelFor, so that the worker running the
+ * job helps to process the loop instead of blocking.
+ * <p>
+ * Note: Graphs should be submitted and waited on from the game loop thread.
+ *
+ * @version 1.0
+ */
+public class JobSystem {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Work-stealing pool providing the worker threads
+     */
+    private final ForkJoinPool mPool;
+
+    /**
+     * Graphs submitted since the last wait
+     */
+    private final List<JobGraph> mSubmittedGraphs = new ArrayList<>();
+
+    /**
+     * Number of submitted jobs that have not yet completed, alongside the
+     * lock used to wait for their completion
+     */
+    private final AtomicInteger mPendingJobs = new AtomicInteger();
+    private final Object mCompletionLock = new Object();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new job system using one worker thread per available processor
+     */
+    public JobSystem() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new job system
+     *
+     * @param numWorkerThreads Number of worker threads
+     */
+    public JobSystem(int numWorkerThreads) {
+        mPool = new ForkJoinPool(Math.max(numWorkerThreads, 1));
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the number of worker threads
+     *
+     * @return Number of worker threads
+     */
+    public int getParallelism() {
+        return mPool.getParallelism();
+    }
+
+    /**
+     * Start running the specified job graph. The method returns once the
+     * jobs without dependencies have been queued.
+     *
+     * @param graph       Job graph to run
+     * @param elapsedTime Elapsed time information passed to each job. This
+     *                    should not be modified until the jobs have completed.
+     */
+    public void submit(JobGraph graph, ElapsedTime elapsedTime) {
+        int jobCount = graph.getJobCount();
+        if (jobCount == 0)
+            return;
+
+        graph.start(this, elapsedTime);
+        mSubmittedGraphs.add(graph);
+        mPendingJobs.addAndGet(jobCount);
+
+        for (int handle = 0; handle < jobCount; handle++) {
+            RecursiveAction rootTask = graph.getRootTask(handle);
+            if (rootTask != null)
+                mPool.execute(rootTask);
+        }
+    }
+
+    /**
+     * Determine if all submitted jobs have completed
+     *
+     * @return True if no jobs are pending
+     */
+    public boolean isIdle() {
+        return mPendingJobs.get() == 0;
+    }
+
+    /**
+     * Wait until all submitted jobs have completed. If any job failed then
+     * the first failure is rethrown once all jobs have completed.
+     */
+    public void waitForCompletion() {
+        synchronized (mCompletionLock) {
+            boolean interrupted = false;
+            while (mPendingJobs.get() > 0) {
+                try {
+                    mCompletionLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+
+        // Release the graphs, reporting the first failure
+        RuntimeException failure = null;
+        for (int idx = 0; idx < mSubmittedGraphs.size(); idx++) {
+            JobGraph graph = mSubmittedGraphs.get(idx);
+            String failedJobName = graph.getFailedJobName();
+            Throwable graphFailure = graph.finish();
+            if (graphFailure != null && failure == null)
+                failure = new RuntimeException(
+                        "JobSystem.waitForCompletion: Job failed [" + failedJobName + "]",
+                        graphFailure);
+        }
+        mSubmittedGraphs.clear();
+
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Queue the specified task. If called from one of this job system's
+     * worker threads then the task is placed on the worker's own queue,
+     * otherwise it is submitted to the pool.
+     *
+     * @param task Task to queue
+     */
+    void fork(RecursiveAction task) {
+        if (ForkJoinTask.getPool() == mPool)
+            task.fork();
+        else
+            mPool.execute(task);
+    }
+
+    /**
+     * Record the completion of a job
+     */
+    void jobCompleted() {
+        if (mPendingJobs.decrementAndGet() == 0) {
+            synchronized (mCompletionLock) {
+                mCompletionLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Stop the worker threads. The job system should not be used afterwards.
+     */
+    public void shutdown() {
+        mPool.shutdown();
+    }
+}
@@ -2,9 +2,9 @@ package uk.ac.qub.eeecs.gage.engine.particle;
 
 import android.graphics.RectF;
 
-import java.util.Random;
-
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.util.FastRandom;
+import uk.ac.qub.eeecs.gage.util.MathsHelper;
 import uk.ac.qub.eeecs.gage.util.Vector2;
 
 /**
@@ -73,6 +73,32 @@ public class Emitter {
      */
     private RectF mEmitterVisibleRange = new RectF();
 
+    /**
+     * Priority of this emitter, alongside the emission rate and particle
+     * lifetime scales set by the particle system manager's quality
+     * controller (and visibility culling)
+     */
+    private EmitterSettings.Priority mPriority;
+    private float mEmissionScale = 1.0f;
+    private float mLifespanScale = 1.0f;
+
+    /**
+     * Flag indicating if the emitter is suspended, alongside the time for
+     * which it has been suspended and the longest remaining lifetime of its
+     * particles when it was suspended
+     */
+    private boolean mSuspended = false;
+    private float mSuspendedTime;
+    private float mSuspendedLifetime;
+
+    /**
+     * Age of the emitter, used as the clock against which the birth time of
+     * analytically evaluated particles is measured. Held as a double, as a
+     * continuous emitter that always has particles alive never restarts its
+     * clock, and a float clock would lose the precision needed to resolve a
+     * frame step within minutes.
+     */
+    private double mAge = 0.0;
 
     // /////////////////////////////////////////////////////////////////////////
     // Constructors
@@ -107,6 +133,8 @@ public class Emitter {
         mEmitterSettings = emitterSettings;
         mPosition.set(position);
         mLastPosition.set(position);
+        mEmitterVisibleRange.set(position.x, position.y, position.x, position.y);
+        mPriority = emitterSettings.priority;
 
         // Determine the maximum number of particles associated with this emitter
         // This comprises a full set of live particle alongside sufficient storage
@@ -164,7 +192,13 @@ public class Emitter {
      * and recently expired particles that have yet to be released).
      * <p>
      * Note: The getNumParticles() method should be used to determine the
-     * safe iteration size of this array.
+     * safe iteration size of this array. The array and the particles it
+     * holds may be reused once the emitter next updates, so neither should
+     * be retained: use the particle handles instead.
+     * <p>
+     * If the emitter is analytic (see isAnalytic) only the particles' ages
+     * are kept up to date; evaluateParticle should be called before any
+     * other particle values are used.
      *
      * @return Array of Particles
      */
@@ -172,6 +206,19 @@ public class Emitter {
         return mParticleStorage;
     }
 
+    /**
+     * Get the handle of the particle held at the specified storage index.
+     * The handle can be retained and later resolved using the particle
+     * system manager's getParticle method, which returns null once the
+     * particle has been released.
+     *
+     * @param particleIdx Particle storage index
+     * @return Particle handle
+     */
+    public int getParticleHandle(int particleIdx) {
+        return mParticleStorage[particleIdx].handle;
+    }
+
     /**
      * Return the emitter settings
      *
@@ -193,6 +240,40 @@ public class Emitter {
         return mEmitterVisibleRange;
     }
 
+    /**
+     * Set the priority of this emitter, overriding the priority defined
+     * within the emitter settings
+     *
+     * @param priority Emitter priority
+     */
+    public void setPriority(EmitterSettings.Priority priority) {
+        mPriority = priority;
+    }
+
+    /**
+     * Get the priority of this emitter
+     *
+     * @return Emitter priority
+     */
+    public EmitterSettings.Priority getPriority() {
+        return mPriority;
+    }
+
+    /**
+     * Set the scales applied to the emission rate (or burst size) and the
+     * lifetime of new particles.
+     * <p>
+     * Note: This method is used by the particle system manager to apply the
+     * current particle quality.
+     *
+     * @param emissionScale Emission scale (0 to 1)
+     * @param lifespanScale Lifetime scale (0 to 1)
+     */
+    public void setQualityScales(float emissionScale, float lifespanScale) {
+        mEmissionScale = emissionScale;
+        mLifespanScale = lifespanScale;
+    }
+
 
     // /////////////////////////////////////////////////////////////////////////
     // Methods: Update Particles
@@ -216,9 +297,19 @@ public class Emitter {
      */
     public int update(ElapsedTime elapsedTime) {
 
+        // Catch up on any time spent suspended
+        if (mSuspended) {
+            fastForward(mSuspendedTime);
+            mSuspended = false;
+        }
+
         // Add particles if needed
         considerAddingParticles((float)elapsedTime.stepTime);
 
+        // Analytic particles only need their age to be updated
+        if (mEmitterSettings.analytic)
+            return updateAnalytic((float) elapsedTime.stepTime);
+
         // Apply gravity to the managed particles if needed
         if (mEmitterSettings.applyGravity) {
             Vector2 gravity = mParticleSystemManager.getGravity();
@@ -260,6 +351,219 @@ public class Emitter {
         return numUpdatedParticles;
     }
 
+    /**
+     * Update the emitter's analytically evaluated particles. Only the age of
+     * each particle is updated: particles are evaluated when drawn (see
+     * evaluateParticle). The visible range is extended when particles are
+     * added to cover their full paths, and so only needs to be recomputed
+     * when expired particles are removed.
+     *
+     * @param dt Elapsed time step since last update
+     * @return Number of alive particles
+     */
+    private int updateAnalytic(float dt) {
+        mAge += dt;
+
+        int numAliveParticles = 0;
+        for (int particleIdx = 0; particleIdx < mNumParticles; particleIdx++) {
+            Particle particle = mParticleStorage[particleIdx];
+            particle.timeSinceBirth = (float) (mAge - particle.birthTime);
+            if (particle.isAlive())
+                numAliveParticles++;
+        }
+
+        int numParticles = mNumParticles;
+        considerRemovingParticles(numAliveParticles);
+        if (mNumParticles != numParticles)
+            updateAnalyticVisibleRange();
+
+        // Restart the clock once all particles have been removed
+        if (mNumParticles == 0)
+            mAge = 0.0;
+
+        mLastPosition.set(mPosition);
+
+        return numAliveParticles;
+    }
+
+    /**
+     * Evaluate the specified (analytically evaluated) particle at its current
+     * age, e.g. before it is drawn
+     *
+     * @param particle Particle to evaluate
+     */
+    public void evaluateParticle(Particle particle) {
+        particle.evaluate(particle.timeSinceBirth);
+    }
+
+    /**
+     * Determine if this emitter's particles are analytically evaluated
+     *
+     * @return True if particles are evaluated from their age when drawn
+     */
+    public boolean isAnalytic() {
+        return mEmitterSettings.analytic;
+    }
+
+    /**
+     * Recompute the visible range of analytically evaluated particles from
+     * the remaining path of each alive particle
+     */
+    private void updateAnalyticVisibleRange() {
+        mEmitterVisibleRange.set(mPosition.x, mPosition.y, mPosition.x, mPosition.y);
+        for (int particleIdx = 0; particleIdx < mNumParticles; particleIdx++) {
+            Particle particle = mParticleStorage[particleIdx];
+            if (particle.isAlive())
+                extendVisibleRange(particle, particle.timeSinceBirth);
+        }
+    }
+
+    /**
+     * Extend the visible range to cover the path of the specified particle
+     * from the specified age until it expires
+     *
+     * @param particle Analytically evaluated particle
+     * @param fromAge  Age from which the path is covered
+     */
+    private void extendVisibleRange(Particle particle, float fromAge) {
+        float halfWidth = particle.size.x / 2.0f, halfHeight = particle.size.y / 2.0f;
+        float fromX = pathPosition(particle.spawnPosition.x,
+                particle.spawnVelocity.x, particle.acceleration.x, fromAge);
+        float toX = pathPosition(particle.spawnPosition.x,
+                particle.spawnVelocity.x, particle.acceleration.x, particle.lifeSpan);
+        float extremeX = pathExtreme(particle.spawnPosition.x,
+                particle.spawnVelocity.x, particle.acceleration.x, fromAge, particle.lifeSpan, fromX);
+        float fromY = pathPosition(particle.spawnPosition.y,
+                particle.spawnVelocity.y, particle.acceleration.y, fromAge);
+        float toY = pathPosition(particle.spawnPosition.y,
+                particle.spawnVelocity.y, particle.acceleration.y, particle.lifeSpan);
+        float extremeY = pathExtreme(particle.spawnPosition.y,
+                particle.spawnVelocity.y, particle.acceleration.y, fromAge, particle.lifeSpan, fromY);
+
+        mEmitterVisibleRange.left = Math.min(mEmitterVisibleRange.left,
+                Math.min(Math.min(fromX, toX), extremeX) - halfWidth);
+        mEmitterVisibleRange.right = Math.max(mEmitterVisibleRange.right,
+                Math.max(Math.max(fromX, toX), extremeX) + halfWidth);
+        mEmitterVisibleRange.bottom = Math.min(mEmitterVisibleRange.bottom,
+                Math.min(Math.min(fromY, toY), extremeY) - halfHeight);
+        mEmitterVisibleRange.top = Math.max(mEmitterVisibleRange.top,
+                Math.max(Math.max(fromY, toY), extremeY) + halfHeight);
+    }
+
+    /**
+     * Return the position along one axis of a path under constant acceleration
+     */
+    private static float pathPosition(float position, float velocity, float acceleration, float age) {
+        return position + velocity * age + 0.5f * acceleration * age * age;
+    }
+
+    /**
+     * Return the position along one axis at which a path under constant
+     * acceleration turns, if it turns between the specified ages, otherwise
+     * the specified default position
+     */
+    private static float pathExtreme(float position, float velocity, float acceleration,
+                                     float fromAge, float toAge, float defaultPosition) {
+        if (acceleration == 0.0f)
+            return defaultPosition;
+        float turningAge = -velocity / acceleration;
+        if (turningAge <= fromAge || turningAge >= toAge)
+            return defaultPosition;
+        return pathPosition(position, velocity, acceleration, turningAge);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Suspension
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Update the emitter whilst suspended (e.g. when it is well outside of
+     * the visible region). No particles are simulated or emitted; instead the
+     * suspended time is accumulated and caught up on by the next update.
+     * <p>
+     * Once all of the particles would have expired they are released. A burst
+     * emitter then removes itself from the particle manager.
+     *
+     * @param elapsedTime Elapsed time information
+     */
+    public void updateSuspended(ElapsedTime elapsedTime) {
+        if (!mSuspended) {
+            mSuspended = true;
+            mSuspendedTime = 0.0f;
+
+            // Determine when the last of the particles will expire
+            mSuspendedLifetime = 0.0f;
+            for (int particleIdx = 0; particleIdx < mNumParticles; particleIdx++) {
+                Particle particle = mParticleStorage[particleIdx];
+                float remainingLifetime = particle.lifeSpan - particle.timeSinceBirth;
+                if (remainingLifetime > mSuspendedLifetime)
+                    mSuspendedLifetime = remainingLifetime;
+            }
+        }
+
+        mSuspendedTime += (float) elapsedTime.stepTime;
+        if (mNumParticles > 0 && mSuspendedTime >= mSuspendedLifetime)
+            releaseAllParticles();
+
+        if (mEmitterSettings.emitterMode == EmitterSettings.EmitterMode.Burst
+                && mNumParticles == 0)
+            mParticleSystemManager.removeEmitter(this);
+    }
+
+    /**
+     * Determine if this emitter is currently suspended
+     *
+     * @return True if suspended
+     */
+    public boolean isSuspended() {
+        return mSuspended;
+    }
+
+    /**
+     * Fast-forward the emitter by the specified time. Existing particles are
+     * advanced analytically in a single step. Continuous emitters are then
+     * re-seeded with the particles that would have been emitted (at the
+     * emitter's current position) and remain alive, each advanced by a
+     * random age. The emitter is treated as having been stationary at its
+     * current position throughout, so the next update does not emit
+     * particles along the path from its position before the suspension.
+     * <p>
+     * Note: Gravity is not accumulated during the fast-forward.
+     *
+     * @param time Time to fast-forward by (in seconds)
+     */
+    private void fastForward(float time) {
+        if (mEmitterSettings.analytic) {
+            // Analytic particles follow the emitter's clock
+            mAge += time;
+        } else {
+            for (int particleIdx = 0; particleIdx < mNumParticles; particleIdx++) {
+                Particle particle = mParticleStorage[particleIdx];
+                if (particle.isAlive())
+                    particle.advance(time);
+            }
+        }
+
+        mLastPosition.set(mPosition);
+
+        if (mEmitterSettings.emitterMode == EmitterSettings.EmitterMode.Continuous) {
+            float seedTime = Math.min(time, mEmitterSettings.particleSettings.maxLifespan);
+            int numParticlesToSeed = (int) (randomBetween(mEmitterSettings.minParticleDensity,
+                    mEmitterSettings.maxParticleDensity) * seedTime * mEmissionScale);
+            if (numParticlesToSeed > 0) {
+                int firstSeededIdx = mNumParticles;
+                addParticles(seedTime, numParticlesToSeed);
+                for (int particleIdx = firstSeededIdx; particleIdx < mNumParticles; particleIdx++) {
+                    float age = mRandom.nextFloat() * seedTime;
+                    if (mEmitterSettings.analytic)
+                        mParticleStorage[particleIdx].birthTime -= age;
+                    else
+                        mParticleStorage[particleIdx].advance(age);
+                }
+            }
+        }
+    }
+
     // /////////////////////////////////////////////////////////////////////////
     // Methods: Add, Create and Remove Particles
     // /////////////////////////////////////////////////////////////////////////
@@ -276,11 +580,11 @@ public class Emitter {
         if (mEmitterSettings.emitterMode == EmitterSettings.EmitterMode.Burst) {
             if (mNumParticles == 0)
                 addParticles(dt,
-                        (int) randomBetween(mEmitterSettings.minParticleDensity,
-                                mEmitterSettings.maxParticleDensity));
+                        (int) (randomBetween(mEmitterSettings.minParticleDensity,
+                                mEmitterSettings.maxParticleDensity) * mEmissionScale));
         } else {
             numParticlesToAddAccumulator += randomBetween(mEmitterSettings.minParticleDensity,
-                    mEmitterSettings.maxParticleDensity) * dt;
+                    mEmitterSettings.maxParticleDensity) * dt * mEmissionScale;
             if (numParticlesToAddAccumulator > 1.0) {
                 addParticles(dt, (int) numParticlesToAddAccumulator);
                 numParticlesToAddAccumulator = numParticlesToAddAccumulator % 1.0f;
@@ -340,6 +644,18 @@ public class Emitter {
             initialiseParticle(particle, particlePosition, particleVelocityBias);
             mParticleStorage[mNumParticles++] = particle;
 
+            // Analytic particles apply gravity as a constant acceleration and
+            // have their full path added to the visible range
+            if (mEmitterSettings.analytic) {
+                if (mEmitterSettings.applyGravity) {
+                    Vector2 gravity = mParticleSystemManager.getGravity();
+                    particle.acceleration.x += gravity.x;
+                    particle.acceleration.y += gravity.y;
+                }
+                particle.birthTime = mAge;
+                extendVisibleRange(particle, 0.0f);
+            }
+
             particlePosition.x += particleOffset.x;
             particlePosition.y += particleOffset.y;
         }
@@ -431,7 +747,7 @@ public class Emitter {
 
         // Determine the life span
         float lifeSpan = randomBetween(
-                particleSettings.minLifespan, particleSettings.maxLifespan);
+                particleSettings.minLifespan, particleSettings.maxLifespan) * mLifespanScale;
 
         // Determine the fade in and out values
         float fadeInBy = randomBetween(
@@ -506,9 +822,20 @@ public class Emitter {
     }
 
     /**
-     * Static random instance used by all emitters to configure their particles
+     * Random number generator used by this emitter to configure its particles
+     */
+    private FastRandom mRandom = new FastRandom();
+
+    /**
+     * Seed the emitter's random number generator. An emitter seeded with the
+     * same value and updated with the same time steps will create the same
+     * particles, e.g. to make effects reproducible.
+     *
+     * @param seed Seed
      */
-    private static Random random = new Random();
+    public void setRandomSeed(long seed) {
+        mRandom.setSeed(seed);
+    }
 
     /**
      * Return a random between between the specified min and max
@@ -517,8 +844,8 @@ public class Emitter {
      * @param max Maximum value
      * @return Value in the specified range
      */
-    private static float randomBetween(float min, float max) {
-        return min + random.nextFloat() * (max - min);
+    private float randomBetween(float min, float max) {
+        return mRandom.nextFloat(min, max);
     }
 
     /**
@@ -528,11 +855,9 @@ public class Emitter {
      * @param max          Maximum value
      * @param outputVector Vector within which the direction will be stored
      */
-    private static void pickRandomDirection(float min, float max, Vector2 outputVector) {
-        float angle = randomBetween(min, max);
-        // our settings angles are in degrees, so we must convert to radians
-        angle = (float) Math.toRadians(angle);
-        outputVector.set((float) Math.cos(angle), (float) Math.sin(angle));
+    private void pickRandomDirection(float min, float max, Vector2 outputVector) {
+        // Our settings angles are in degrees, which index the direction tables
+        MathsHelper.directionFromDegrees(randomBetween(min, max), outputVector);
     }
 }
 
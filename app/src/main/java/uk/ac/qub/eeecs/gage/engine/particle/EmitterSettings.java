@@ -47,6 +47,15 @@ public class EmitterSettings {
         Aligned, NonAligned
     }
 
+    /**
+     * Define the emitter priority - under frame time pressure lower priority
+     * emitters have their emission reduced first (see
+     * ParticleQualityController).
+     */
+    public enum Priority {
+        Low, Medium, High
+    }
+
 
     // /////////////////////////////////////////////////////////////////////////
     // Properties: Declared public for speed of access
@@ -107,6 +116,19 @@ public class EmitterSettings {
      */
     public boolean applyGravity;
 
+    /**
+     * Priority - determines how strongly emission is reduced under frame
+     * time pressure.
+     */
+    public Priority priority;
+
+    /**
+     * Analytic evaluation - if set to true then particles are not updated
+     * step by step, but instead evaluated directly from their spawn values
+     * and age when drawn. Gravity is applied as a constant acceleration.
+     */
+    public boolean analytic;
+
 
     // /////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -126,7 +148,9 @@ public class EmitterSettings {
      "blendMode": string,           // BlendMode type
      "accelerationMode": string,    // AccelerationMode type
      "velocityBias": float,         // Velocity bias
-     "applyGravity": bool           // True to apply gravity acceleration
+     "applyGravity": bool,          // True to apply gravity acceleration
+     "priority": string,            // Optional Priority type (default Medium)
+     "analytic": bool               // Optional analytic evaluation (default false)
      }     *
      *
      * @param assetManager            Game asset manager
@@ -165,6 +189,10 @@ public class EmitterSettings {
 
             applyGravity = settings.getBoolean("applyGravity");
 
+            priority = Priority.valueOf(settings.optString("priority", Priority.Medium.name()));
+
+            analytic = settings.optBoolean("analytic", false);
+
         } catch (JSONException | IllegalArgumentException e) {
             throw new RuntimeException(
                 "EmitterSettings.constructor: JSON parsing error [" + e.getMessage() + "]");
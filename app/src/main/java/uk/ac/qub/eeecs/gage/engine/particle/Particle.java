@@ -2,6 +2,7 @@ package uk.ac.qub.eeecs.gage.engine.particle;
 
 import android.graphics.Bitmap;
 
+import uk.ac.qub.eeecs.gage.util.HandleAllocator;
 import uk.ac.qub.eeecs.gage.util.Vector2;
 
 /**
@@ -87,6 +88,24 @@ public class Particle {
      */
     public Bitmap bitmap;
 
+    /**
+     * Handle of this particle whilst it is managed by an emitter, or
+     * HandleAllocator.INVALID_HANDLE whilst pooled. The handle, unlike a
+     * reference, is detected as stale once the particle is released.
+     */
+    public int handle = HandleAllocator.INVALID_HANDLE;
+
+    /**
+     * Spawn position, velocity, orientation and scale, alongside the birth
+     * time (measured using the emitter's clock). Used to evaluate the
+     * particle directly from its age (see evaluate).
+     */
+    public Vector2 spawnPosition = new Vector2();
+    public Vector2 spawnVelocity = new Vector2();
+    public float spawnOrientation;
+    public float spawnScale;
+    public double birthTime;
+
 	// /////////////////////////////////////////////////////////////////////////
 	// Methods: 
 	// /////////////////////////////////////////////////////////////////////////
@@ -137,6 +156,13 @@ public class Particle {
         this.fade = 0.0f;
 
         this.bitmap = bitmap;
+
+        this.spawnPosition.x = position.x;
+        this.spawnPosition.y = position.y;
+        this.spawnVelocity.x = velocity.x;
+        this.spawnVelocity.y = velocity.y;
+        this.spawnOrientation = orientation;
+        this.spawnScale = scale;
 	}
 
 	/**
@@ -157,11 +183,70 @@ public class Particle {
 
 		timeSinceBirth += dt;
 
+        updateFade();
+	}
+
+    /**
+     * Advance the particle by the specified time in a single step, using the
+     * closed-form motion under the particle's (constant) acceleration. This
+     * can be used to fast-forward a particle whose updates were skipped.
+     * <p>
+     * Note: The result closely matches, but will not exactly equal, that of
+     * repeated update calls covering the same time.
+     *
+     * @param time Amount of time (in seconds) to advance the particle by
+     */
+    public void advance(float time) {
+        float halfTimePow2 = 0.5f * time * time;
+        position.x += velocity.x * time + acceleration.x * halfTimePow2;
+        position.y += velocity.y * time + acceleration.y * halfTimePow2;
+
+        velocity.x += acceleration.x * time;
+        velocity.y += acceleration.y * time;
+
+        orientation += angularVelocity * time;
+
+        scale += scaleGrowth * time;
+
+        timeSinceBirth += time;
+
+        updateFade();
+    }
+
+    /**
+     * Evaluate the particle at the specified age directly from its spawn
+     * values, using the closed-form motion under the particle's (constant)
+     * acceleration. The result is independent of how often, or with what
+     * time steps, the particle is evaluated.
+     *
+     * @param age Time (in seconds) since the birth of the particle
+     */
+    public void evaluate(float age) {
+        float halfAgePow2 = 0.5f * age * age;
+        position.x = spawnPosition.x + spawnVelocity.x * age + acceleration.x * halfAgePow2;
+        position.y = spawnPosition.y + spawnVelocity.y * age + acceleration.y * halfAgePow2;
+
+        velocity.x = spawnVelocity.x + acceleration.x * age;
+        velocity.y = spawnVelocity.y + acceleration.y * age;
+
+        orientation = spawnOrientation + angularVelocity * age;
+
+        scale = spawnScale + scaleGrowth * age;
+
+        timeSinceBirth = age;
+
+        updateFade();
+    }
+
+    /**
+     * Update the fade value based on the time since birth
+     */
+    private void updateFade() {
         float percentageTimeSinceBirth = timeSinceBirth / lifeSpan;
         fade = percentageTimeSinceBirth < fadeInBy ? percentageTimeSinceBirth / fadeInBy : 1.0f;
         if (percentageTimeSinceBirth > fadeOutFrom)
             fade = 1.0f - (percentageTimeSinceBirth - fadeOutFrom) / (1.0f - fadeOutFrom);
-	}
+    }
 
     /**
      * Determine if this particle is still alive
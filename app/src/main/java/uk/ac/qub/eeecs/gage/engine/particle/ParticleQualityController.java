@@ -0,0 +1,145 @@
+package uk.ac.qub.eeecs.gage.engine.particle;
+
+import uk.ac.qub.eeecs.gage.Game;
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+
+/**
+ * Adaptive particle quality controller.
+ * <p>
+ * Watches the frame time and maintains a quality level between a minimum
+ * and 1. Whilst frames take longer than the game's target step period the
+ * quality is quickly reduced, and once frames are back on target it slowly
+ * recovers. The quality is converted into emission rate and particle
+ * lifetime scales for each emitter priority:
+ * <p>
+ * High priority emitters (e.g. the player's effects) are never scaled.
+ * Medium priority emitters are scaled by the quality. Low priority emitters
+ * are scaled by the square of the quality, so are reduced first.
+ * <p>
+ * Lifetimes are scaled less aggressively than emission rates, so reduced
+ * effects thin out rather than visibly shorten.
+ *
+ * @version 1.0
+ */
+public class ParticleQualityController {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Fraction by which the (smoothed) frame time may exceed the target
+     * before the quality is reduced
+     */
+    private static final float FRAME_TIME_TOLERANCE = 0.1f;
+
+    /**
+     * Weighting applied to each new frame time when smoothing
+     */
+    private static final float FRAME_TIME_WEIGHTING = 0.2f;
+
+    /**
+     * Rate (per second) at which quality is reduced and recovered
+     */
+    private static final float QUALITY_DECREASE_RATE = 1.0f;
+    private static final float QUALITY_INCREASE_RATE = 0.25f;
+
+    /**
+     * Game whose target frame rate is maintained
+     */
+    private Game mGame;
+
+    /**
+     * Current and minimum quality levels
+     */
+    private float mQuality = 1.0f;
+    private float mMinQuality = 0.2f;
+
+    /**
+     * Smoothed frame time in seconds
+     */
+    private float mFrameTime = 0.0f;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new quality controller
+     *
+     * @param game Game whose target frame rate should be maintained
+     */
+    public ParticleQualityController(Game game) {
+        mGame = game;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Set the minimum quality level
+     *
+     * @param minQuality Minimum quality (0 to 1)
+     */
+    public void setMinQuality(float minQuality) {
+        mMinQuality = Math.max(0.0f, Math.min(minQuality, 1.0f));
+        if (mQuality < mMinQuality)
+            mQuality = mMinQuality;
+    }
+
+    /**
+     * Get the current quality level
+     *
+     * @return Quality (minimum quality to 1)
+     */
+    public float getQuality() {
+        return mQuality;
+    }
+
+    /**
+     * Update the quality level using the frame time of the last step
+     *
+     * @param elapsedTime Elapsed time information
+     */
+    public void update(ElapsedTime elapsedTime) {
+        float stepTime = (float) elapsedTime.stepTime;
+        if (mFrameTime == 0.0f)
+            mFrameTime = stepTime;
+        else
+            mFrameTime += FRAME_TIME_WEIGHTING * (stepTime - mFrameTime);
+
+        float targetFrameTime = 1.0f / mGame.getTargetFramesPerSecond();
+        if (mFrameTime > targetFrameTime * (1.0f + FRAME_TIME_TOLERANCE))
+            mQuality = Math.max(mMinQuality, mQuality - QUALITY_DECREASE_RATE * stepTime);
+        else
+            mQuality = Math.min(1.0f, mQuality + QUALITY_INCREASE_RATE * stepTime);
+    }
+
+    /**
+     * Get the emission rate scale for emitters of the specified priority
+     *
+     * @param priority Emitter priority
+     * @return Emission scale (0 to 1)
+     */
+    public float getEmissionScale(EmitterSettings.Priority priority) {
+        switch (priority) {
+            case High:
+                return 1.0f;
+            case Low:
+                return mQuality * mQuality;
+            default:
+                return mQuality;
+        }
+    }
+
+    /**
+     * Get the particle lifetime scale for emitters of the specified priority
+     *
+     * @param priority Emitter priority
+     * @return Lifetime scale (0.5 to 1)
+     */
+    public float getLifespanScale(EmitterSettings.Priority priority) {
+        return 0.5f + 0.5f * getEmissionScale(priority);
+    }
+}
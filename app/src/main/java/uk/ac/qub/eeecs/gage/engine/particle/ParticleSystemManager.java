@@ -13,7 +13,10 @@ import java.util.Iterator;
 import uk.ac.qub.eeecs.gage.Game;
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+import uk.ac.qub.eeecs.gage.util.HandleAllocator;
+import uk.ac.qub.eeecs.gage.util.HandleRegistry;
 import uk.ac.qub.eeecs.gage.util.Pool;
+import uk.ac.qub.eeecs.gage.util.PoolStats;
 import uk.ac.qub.eeecs.gage.util.Vector2;
 import uk.ac.qub.eeecs.gage.util.ViewportHelper;
 import uk.ac.qub.eeecs.gage.world.LayerViewport;
@@ -60,6 +63,22 @@ public class ParticleSystemManager {
      */
     private Vector2 mGravity = new Vector2();
 
+    /**
+     * Optional controller used to scale emission under frame time pressure
+     */
+    private ParticleQualityController mQualityController;
+
+    /**
+     * Fraction of the layer viewport's half width and height by which the
+     * viewport is expanded when culling emitters
+     */
+    private float mCullMargin = 0.5f;
+
+    /**
+     * Record the number of emitters culled within the last update
+     */
+    private int mNumCulledEmitters;
+
 
     // /////////////////////////////////////////////////////////////////////////
     // Constructors
@@ -128,6 +147,44 @@ public class ParticleSystemManager {
         return mGravity;
     }
 
+    /**
+     * Set the quality controller used to scale emitter emission rates and
+     * particle lifetimes
+     *
+     * @param qualityController Quality controller, or null to disable scaling
+     */
+    public void setQualityController(ParticleQualityController qualityController) {
+        mQualityController = qualityController;
+    }
+
+    /**
+     * Get the quality controller used by this manager
+     *
+     * @return Quality controller (can be null)
+     */
+    public ParticleQualityController getQualityController() {
+        return mQualityController;
+    }
+
+    /**
+     * Set the margin by which the layer viewport is expanded when culling
+     * emitters, as a fraction of the viewport's half width and height
+     *
+     * @param cullMargin Cull margin
+     */
+    public void setCullMargin(float cullMargin) {
+        mCullMargin = Math.max(cullMargin, 0.0f);
+    }
+
+    /**
+     * Return the number of emitters culled within the latest update
+     *
+     * @return Number of culled emitters
+     */
+    public int getNumCulledEmitters() {
+        return mNumCulledEmitters;
+    }
+
     /**
      * Get the game instance for this manager
      */
@@ -179,13 +236,74 @@ public class ParticleSystemManager {
      * @param elapsedTime Elapsed time since the last update
      */
     public void update(ElapsedTime elapsedTime) {
+        update(elapsedTime, null);
+    }
+
+    /**
+     * Update all added emitters, culling emitters whose particles are
+     * outside of the (expanded) layer viewport. Culled emitters are
+     * suspended: neither their particles are simulated nor new particles
+     * emitted. Once back within the expanded viewport, a suspended emitter
+     * fast-forwards over the time it was suspended.
+     *
+     * @param elapsedTime   Elapsed time since the last update
+     * @param layerViewport Layer viewport used to cull emitters (or null
+     *                      if emitters should not be culled)
+     */
+    public void update(ElapsedTime elapsedTime, LayerViewport layerViewport) {
+        if (mQualityController != null)
+            mQualityController.update(elapsedTime);
+
         mNumUpdatedParticles = 0;
-        Iterator<Emitter> iterator = mEmitters.iterator();
-        while (iterator.hasNext()) {
-            Emitter emitter = iterator.next();
-            mNumUpdatedParticles += emitter.update(elapsedTime);
+        mNumCulledEmitters = 0;
+        int emitterIdx = 0;
+        while (emitterIdx < mEmitters.size()) {
+            Emitter emitter = mEmitters.get(emitterIdx);
+
+            if (layerViewport != null && !isInCullRegion(emitter, layerViewport)) {
+                emitter.updateSuspended(elapsedTime);
+                mNumCulledEmitters++;
+            } else {
+                if (mQualityController != null)
+                    emitter.setQualityScales(
+                            mQualityController.getEmissionScale(emitter.getPriority()),
+                            mQualityController.getLifespanScale(emitter.getPriority()));
+                mNumUpdatedParticles += emitter.update(elapsedTime);
+            }
+
+            // Burst emitters remove themselves once their particles expire
+            if (emitterIdx < mEmitters.size() && mEmitters.get(emitterIdx) == emitter)
+                emitterIdx++;
         }
-   }
+    }
+
+    /**
+     * Determine if the specified emitter, or any of its particles, lies
+     * within the expanded layer viewport. The emitter's current position
+     * is considered alongside its particle range, as the range is not
+     * updated whilst the emitter is suspended.
+     *
+     * @param emitter       Emitter to test
+     * @param layerViewport Layer viewport
+     * @return True if the emitter lies within the expanded viewport
+     */
+    private boolean isInCullRegion(Emitter emitter, LayerViewport layerViewport) {
+        float marginX = layerViewport.halfWidth * mCullMargin;
+        float marginY = layerViewport.halfHeight * mCullMargin;
+        float left = layerViewport.getLeft() - marginX;
+        float right = layerViewport.getRight() + marginX;
+        float bottom = layerViewport.getBottom() - marginY;
+        float top = layerViewport.getTop() + marginY;
+
+        Vector2 position = emitter.getPosition();
+        if (position.x >= left && position.x <= right
+                && position.y >= bottom && position.y <= top)
+            return true;
+
+        RectF range = emitter.getEmitterVisibleRange();
+        return !(range.left > right || range.right < left ||
+                range.bottom > top || range.top < bottom);
+    }
 
 
     // /////////////////////////////////////////////////////////////////////////
@@ -254,10 +372,15 @@ public class ParticleSystemManager {
 
             // Draw all active particles for this emitter
             Particle[] particles = emitter.getParticleStorage();
+            boolean analytic = emitter.isAnalytic();
             for( int particleIdx = 0; particleIdx < emitter.getNumParticles(); particleIdx++) {
                 if (particles[particleIdx].isAlive()) {
                     Particle particle = particles[particleIdx];
 
+                    // Evaluate analytic particles at their current age
+                    if (analytic)
+                        emitter.evaluateParticle(particle);
+
                     // Use the particle's alpha value
                     paint.setAlpha((int) (particle.fade * 255.0f));
 
@@ -338,10 +461,15 @@ public class ParticleSystemManager {
 
             // Draw all active particles for this emitter
             Particle[] particles = emitter.getParticleStorage();
+            boolean analytic = emitter.isAnalytic();
             for( int particleIdx = 0; particleIdx < emitter.getNumParticles(); particleIdx++) {
                 if (particles[particleIdx].isAlive()) {
                     Particle particle = particles[particleIdx];
 
+                    // Evaluate analytic particles at their current age
+                    if (analytic)
+                        emitter.evaluateParticle(particle);
+
                     // Use the particle's alpha value
                     paint.setAlpha((int) (particle.fade * 255.0f));
 
@@ -388,7 +516,13 @@ public class ParticleSystemManager {
     private Pool<Particle> mParticlePool;
 
     /**
-     * Get a particle from the pool.
+     * Handles of the particles currently taken from the pool
+     */
+    private HandleRegistry<Particle> mParticleHandles =
+            new HandleRegistry<>(PARTICLE_POOL_INITIAL_POPULATION);
+
+    /**
+     * Get a particle from the pool, assigning it a new handle.
      *
      * Note: The particle may be 'dirty' containing data from its last
      * use. Any returned particle should be initialised once retrieved.
@@ -396,18 +530,37 @@ public class ParticleSystemManager {
      * @return Particle instance
      */
     public Particle getParticleFromPool() {
-        return mParticlePool.get();
+        Particle particle = mParticlePool.get();
+        particle.handle = mParticleHandles.add(particle);
+        return particle;
     }
 
     /**
-     * Return an expired particle back into the pool to be reused
+     * Return an expired particle back into the pool to be reused. The
+     * particle's handle becomes stale.
      *
      * @param particle Particle to reuse
      */
     public void returnParticleToPool(Particle particle) {
+        if (mParticleHandles.remove(particle.handle) != particle)
+            throw new RuntimeException(
+                    "ParticleSystemManager.returnParticleToPool: Particle is not live ["
+                            + particle.handle + "]");
+        particle.handle = HandleAllocator.INVALID_HANDLE;
         mParticlePool.add(particle);
     }
 
+    /**
+     * Get the particle referred to by the specified handle
+     *
+     * @param handle Particle handle
+     * @return Particle, or null if the particle has since been returned to
+     * the pool
+     */
+    public Particle getParticle(int handle) {
+        return mParticleHandles.get(handle);
+    }
+
     /**
      * Setup the particle pool using the defined maximum and initial values
      *
@@ -423,9 +576,16 @@ public class ParticleSystemManager {
         }, particlePoolMaximumSize);
 
         // Introduce an initial batch of particles into the pool
-        for (int i = 0; i < PARTICLE_POOL_INITIAL_POPULATION; i++) {
-            Particle particle = new Particle();
-            mParticlePool.add(particle);
-        }
+        mParticlePool.prewarm(PARTICLE_POOL_INITIAL_POPULATION);
+    }
+
+    /**
+     * Store the usage statistics of the particle pool, e.g. to determine
+     * suitable initial and maximum pool sizes.
+     *
+     * @param stats Snapshot into which the statistics are stored
+     */
+    public void getParticlePoolStats(PoolStats stats) {
+        mParticlePool.getStats(stats);
     }
 }
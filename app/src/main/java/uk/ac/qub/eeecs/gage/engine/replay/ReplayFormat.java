@@ -0,0 +1,38 @@
+package uk.ac.qub.eeecs.gage.engine.replay;
+
+/**
+ * Binary layout of a replay log.
+ * <p>
+ * A log starts with the magic number and format version (ints) and the
+ * master random seed (long), followed by one record per frame and
+ * terminated by an end marker. Each frame record holds:
+ * <p>
+ * - frame marker (byte), step and total time (doubles)<br>
+ * - accelerometer x, y, z and compass azimuth (floats)<br>
+ * - pointer mask (short) followed by the x, y location (floats) of each
+ * pointer within the mask<br>
+ * - pressed key mask (two longs covering key codes 0-127)<br>
+ * - touch event count (short) followed by each event's type, pointer
+ * (bytes) and x, y, dx, dy (floats)<br>
+ * - key event count (short) followed by each event's type (byte), key
+ * code (short) and key character (char)
+ *
+ * @version 1.0
+ */
+final class ReplayFormat {
+
+    /**
+     * Magic number ('GRPL') and format version written at the start of a log
+     */
+    static final int MAGIC = 0x4752504C;
+    static final int VERSION = 2;
+
+    /**
+     * Markers preceding each frame record and ending the log
+     */
+    static final byte FRAME_MARKER = 1;
+    static final byte END_MARKER = 0;
+
+    private ReplayFormat() {
+    }
+}
@@ -0,0 +1,344 @@
+package uk.ac.qub.eeecs.gage.engine.replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.input.Input;
+import uk.ac.qub.eeecs.gage.engine.input.InputSnapshot;
+import uk.ac.qub.eeecs.gage.engine.input.KeyEvent;
+import uk.ac.qub.eeecs.gage.engine.input.KeyHandler;
+import uk.ac.qub.eeecs.gage.engine.input.TouchEvent;
+import uk.ac.qub.eeecs.gage.engine.input.TouchHandler;
+import uk.ac.qub.eeecs.gage.util.Pool;
+
+/**
+ * Replays a log written by a ReplayRecorder.
+ * <p>
+ * For each frame the recorded elapsed time replaces the measured elapsed
+ * time and the recorded input is fed back through the Input (as an input
+ * snapshot), so the session is rerun identically. The real duration of the
+ * work (update and draw) carried out for each replayed frame, as reported
+ * by the game loop, is retained, allowing frame timings to be compared
+ * between builds. Time the loop spends sleeping between frames is excluded,
+ * as is a frame cut short by closing the replay. The recorded master random
+ * seed is also available, so the game's random generators can be reseeded.
+ *
+ * @version 1.0
+ */
+public class ReplayPlayer {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Stream from which the log is read
+     */
+    private final DataInputStream mInput;
+
+    /**
+     * Snapshot holding the input of the current frame
+     */
+    private final InputSnapshot mSnapshot = new InputSnapshot();
+
+    /**
+     * Touch and key event pools used to populate the snapshot
+     */
+    private final Pool<TouchEvent> mTouchEventPool;
+    private final Pool<KeyEvent> mKeyEventPool;
+
+    /**
+     * Master random seed used by the recorded session
+     */
+    private final long mSeed;
+
+    /**
+     * Flags indicating if the end of the log has been reached and if the
+     * replay has been closed
+     */
+    private boolean mFinished = false;
+    private boolean mClosed = false;
+
+    /**
+     * Number of frames replayed and the number whose duration has been
+     * recorded, alongside the real duration (ns) of each replayed frame
+     */
+    private int mFrameCount = 0;
+    private int mTimedFrameCount = 0;
+    private long[] mFrameDurations = new long[1024];
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new replay player reading from the specified stream
+     *
+     * @param inputStream Stream from which the log is read
+     */
+    public ReplayPlayer(InputStream inputStream) {
+        mInput = new DataInputStream(new BufferedInputStream(inputStream));
+        try {
+            int magic = mInput.readInt();
+            int version = mInput.readInt();
+            if (magic != ReplayFormat.MAGIC || version != ReplayFormat.VERSION)
+                throw new RuntimeException(
+                        "ReplayPlayer.constructor: Unsupported replay [" + version + "]");
+            mSeed = mInput.readLong();
+        } catch (IOException e) {
+            throw new RuntimeException(
+                    "ReplayPlayer.constructor: Cannot read replay header", e);
+        }
+
+        mTouchEventPool = new Pool<>(new Pool.ObjectFactory<TouchEvent>() {
+            public TouchEvent createObject() {
+                return new TouchEvent();
+            }
+        }, 100);
+        mKeyEventPool = new Pool<>(new Pool.ObjectFactory<KeyEvent>() {
+            public KeyEvent createObject() {
+                return new KeyEvent();
+            }
+        }, 100);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Replay
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Replay the next frame, overwriting the elapsed time and setting the
+     * input snapshot. Once the end of the log is reached the input snapshot
+     * is cleared and false is returned.
+     * <p>
+     * This method should be called once per frame, after the input
+     * accumulators have been reset and before the frame is updated.
+     *
+     * @param elapsedTime Elapsed time to overwrite with the recorded time
+     * @param input       Input through which the recorded input is fed
+     * @return True if a frame was replayed, false if the log has ended
+     */
+    public boolean nextFrame(ElapsedTime elapsedTime, Input input) {
+        if (mFinished)
+            return false;
+
+        try {
+            if (mInput.readByte() != ReplayFormat.FRAME_MARKER) {
+                finish(input);
+                return false;
+            }
+
+            elapsedTime.stepTime = mInput.readDouble();
+            elapsedTime.totalTime = mInput.readDouble();
+
+            mSnapshot.accelX = mInput.readFloat();
+            mSnapshot.accelY = mInput.readFloat();
+            mSnapshot.accelZ = mInput.readFloat();
+            mSnapshot.azimuth = mInput.readFloat();
+
+            readPointers();
+            readPressedKeys();
+            readTouchEvents();
+            readKeyEvents();
+        } catch (IOException e) {
+            finish(input);
+            throw new RuntimeException("ReplayPlayer.nextFrame: Cannot read frame ["
+                    + mFrameCount + "]", e);
+        }
+
+        input.setSnapshot(mSnapshot);
+        mFrameCount++;
+        return true;
+    }
+
+    private void readPointers() throws IOException {
+        int pointerMask = mInput.readUnsignedShort();
+        for (int pointer = 0; pointer < TouchHandler.MAX_TOUCHPOINTS; pointer++) {
+            boolean exists = (pointerMask & (1 << pointer)) != 0;
+            mSnapshot.existsTouch[pointer] = exists;
+            if (exists) {
+                mSnapshot.touchX[pointer] = mInput.readFloat();
+                mSnapshot.touchY[pointer] = mInput.readFloat();
+            }
+        }
+    }
+
+    private void readPressedKeys() throws IOException {
+        long lowMask = mInput.readLong();
+        long highMask = mInput.readLong();
+        for (int keyCode = 0; keyCode < 64; keyCode++)
+            mSnapshot.pressedKeys[keyCode] = (lowMask & (1L << keyCode)) != 0;
+        for (int keyCode = 64; keyCode < KeyHandler.MAX_KEYCODES; keyCode++)
+            mSnapshot.pressedKeys[keyCode] = (highMask & (1L << (keyCode - 64))) != 0;
+    }
+
+    private void readTouchEvents() throws IOException {
+        List<TouchEvent> touchEvents = mSnapshot.touchEvents;
+        for (int idx = 0; idx < touchEvents.size(); idx++)
+            mTouchEventPool.add(touchEvents.get(idx));
+        touchEvents.clear();
+
+        int count = mInput.readUnsignedShort();
+        for (int idx = 0; idx < count; idx++) {
+            TouchEvent touchEvent = mTouchEventPool.get();
+            touchEvent.type = mInput.readByte();
+            touchEvent.pointer = mInput.readByte();
+            touchEvent.x = mInput.readFloat();
+            touchEvent.y = mInput.readFloat();
+            touchEvent.dx = mInput.readFloat();
+            touchEvent.dy = mInput.readFloat();
+            touchEvents.add(touchEvent);
+        }
+    }
+
+    private void readKeyEvents() throws IOException {
+        List<KeyEvent> keyEvents = mSnapshot.keyEvents;
+        for (int idx = 0; idx < keyEvents.size(); idx++)
+            mKeyEventPool.add(keyEvents.get(idx));
+        keyEvents.clear();
+
+        int count = mInput.readUnsignedShort();
+        for (int idx = 0; idx < count; idx++) {
+            KeyEvent keyEvent = mKeyEventPool.get();
+            keyEvent.type = mInput.readByte();
+            keyEvent.keyCode = mInput.readShort();
+            keyEvent.keyChar = mInput.readChar();
+            keyEvents.add(keyEvent);
+        }
+    }
+
+    /**
+     * Mark the replay as finished and return the input to device input
+     */
+    private void finish(Input input) {
+        mFinished = true;
+        if (input.getSnapshot() == mSnapshot)
+            input.setSnapshot(null);
+    }
+
+    /**
+     * Get the master random seed used by the recorded session
+     *
+     * @return Master seed
+     */
+    public long getSeed() {
+        return mSeed;
+    }
+
+    /**
+     * Determine if the end of the log has been reached
+     *
+     * @return True if the replay has finished
+     */
+    public boolean isFinished() {
+        return mFinished;
+    }
+
+    /**
+     * Stop the replay, returning the input to device input, and close the
+     * stream. If the last replayed frame has yet to be timed it is dropped,
+     * as its work was cut short and its duration would skew the timings.
+     *
+     * @param input Input through which the replay was fed
+     */
+    public void close(Input input) {
+        mClosed = true;
+        finish(input);
+        try {
+            mInput.close();
+        } catch (IOException e) {
+            throw new RuntimeException("ReplayPlayer.close: Cannot close replay", e);
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Frame Timings
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Record the real duration of the work carried out for the last
+     * replayed frame. This should be called by the game loop once the
+     * frame's update and draw have completed. Calls made once the last
+     * replayed frame has been timed (e.g. following the end of the log)
+     * or once the replay has been closed are ignored.
+     *
+     * @param duration Duration of the frame's update and draw in ns
+     */
+    public void recordFrameTime(long duration) {
+        if (mClosed || mTimedFrameCount >= mFrameCount)
+            return;
+
+        if (mTimedFrameCount == mFrameDurations.length) {
+            long[] durations = new long[mFrameDurations.length * 2];
+            System.arraycopy(mFrameDurations, 0, durations, 0, mFrameDurations.length);
+            mFrameDurations = durations;
+        }
+        mFrameDurations[mTimedFrameCount++] = duration;
+    }
+
+    /**
+     * Get the number of frames replayed
+     *
+     * @return Number of frames
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * Get the number of replayed frames whose real duration has been
+     * recorded (i.e. excluding any frame currently being run)
+     *
+     * @return Number of timed frames
+     */
+    public int getTimedFrameCount() {
+        return mTimedFrameCount;
+    }
+
+    /**
+     * Get the real duration of the specified replayed frame
+     *
+     * @param frame Frame index
+     * @return Frame duration in ms
+     */
+    public float getFrameMillis(int frame) {
+        if (frame < 0 || frame >= getTimedFrameCount())
+            throw new RuntimeException(
+                    "ReplayPlayer.getFrameMillis: Invalid frame [" + frame + "]");
+        return mFrameDurations[frame] / 1000000.0f;
+    }
+
+    /**
+     * Get the average real duration of the replayed frames
+     *
+     * @return Average frame duration in ms
+     */
+    public float getAverageFrameMillis() {
+        int count = getTimedFrameCount();
+        if (count == 0)
+            return 0.0f;
+
+        long total = 0L;
+        for (int frame = 0; frame < count; frame++)
+            total += mFrameDurations[frame];
+        return total / (count * 1000000.0f);
+    }
+
+    /**
+     * Get the maximum real duration of the replayed frames
+     *
+     * @return Maximum frame duration in ms
+     */
+    public float getMaxFrameMillis() {
+        int count = getTimedFrameCount();
+        long max = 0L;
+        for (int frame = 0; frame < count; frame++)
+            if (mFrameDurations[frame] > max)
+                max = mFrameDurations[frame];
+        return max / 1000000.0f;
+    }
+}
@@ -0,0 +1,171 @@
+package uk.ac.qub.eeecs.gage.engine.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.input.Input;
+import uk.ac.qub.eeecs.gage.engine.input.KeyEvent;
+import uk.ac.qub.eeecs.gage.engine.input.KeyHandler;
+import uk.ac.qub.eeecs.gage.engine.input.TouchEvent;
+import uk.ac.qub.eeecs.gage.engine.input.TouchHandler;
+
+/**
+ * Records the timing and input of each frame into a compact binary log
+ * (see ReplayFormat) that can be replayed using a ReplayPlayer.
+ * <p>
+ * A frame should be recorded once the input accumulators have been reset
+ * and before the frame is updated, i.e. capturing exactly the time and
+ * input that the update will see. The log's header also holds the master
+ * seed from which the game's random generators are seeded (see
+ * SeedSource.setMasterSeed), so random behaviour can be replayed.
+ *
+ * @version 1.0
+ */
+public class ReplayRecorder {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Stream to which the log is written
+     */
+    private final DataOutputStream mOutput;
+
+    /**
+     * Number of frames recorded
+     */
+    private int mFrameCount = 0;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new replay recorder writing to the specified stream
+     *
+     * @param outputStream Stream to which the log is written
+     * @param seed         Master random seed used by the recorded session
+     */
+    public ReplayRecorder(OutputStream outputStream, long seed) {
+        mOutput = new DataOutputStream(new BufferedOutputStream(outputStream));
+        try {
+            mOutput.writeInt(ReplayFormat.MAGIC);
+            mOutput.writeInt(ReplayFormat.VERSION);
+            mOutput.writeLong(seed);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                    "ReplayRecorder.constructor: Cannot write replay header", e);
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Record the timing and input of a frame
+     *
+     * @param elapsedTime Elapsed time information for the frame
+     * @param input       Input for the frame
+     */
+    public void recordFrame(ElapsedTime elapsedTime, Input input) {
+        try {
+            mOutput.writeByte(ReplayFormat.FRAME_MARKER);
+            mOutput.writeDouble(elapsedTime.stepTime);
+            mOutput.writeDouble(elapsedTime.totalTime);
+
+            mOutput.writeFloat(input.getAccelX());
+            mOutput.writeFloat(input.getAccelY());
+            mOutput.writeFloat(input.getAccelZ());
+            mOutput.writeFloat(input.getAzimuth());
+
+            writePointers(input);
+            writePressedKeys(input);
+            writeTouchEvents(input.getTouchEvents());
+            writeKeyEvents(input.getKeyEvents());
+        } catch (IOException e) {
+            throw new RuntimeException("ReplayRecorder.recordFrame: Cannot write frame ["
+                    + mFrameCount + "]", e);
+        }
+        mFrameCount++;
+    }
+
+    private void writePointers(Input input) throws IOException {
+        int pointerMask = 0;
+        for (int pointer = 0; pointer < TouchHandler.MAX_TOUCHPOINTS; pointer++)
+            if (input.existsTouch(pointer))
+                pointerMask |= 1 << pointer;
+
+        mOutput.writeShort(pointerMask);
+        for (int pointer = 0; pointer < TouchHandler.MAX_TOUCHPOINTS; pointer++) {
+            if ((pointerMask & (1 << pointer)) != 0) {
+                mOutput.writeFloat(input.getTouchX(pointer));
+                mOutput.writeFloat(input.getTouchY(pointer));
+            }
+        }
+    }
+
+    private void writePressedKeys(Input input) throws IOException {
+        long lowMask = 0L, highMask = 0L;
+        for (int keyCode = 0; keyCode < 64; keyCode++)
+            if (input.isKeyPressed(keyCode))
+                lowMask |= 1L << keyCode;
+        for (int keyCode = 64; keyCode < KeyHandler.MAX_KEYCODES; keyCode++)
+            if (input.isKeyPressed(keyCode))
+                highMask |= 1L << (keyCode - 64);
+
+        mOutput.writeLong(lowMask);
+        mOutput.writeLong(highMask);
+    }
+
+    private void writeTouchEvents(List<TouchEvent> touchEvents) throws IOException {
+        int count = touchEvents.size();
+        mOutput.writeShort(count);
+        for (int idx = 0; idx < count; idx++) {
+            TouchEvent touchEvent = touchEvents.get(idx);
+            mOutput.writeByte(touchEvent.type);
+            mOutput.writeByte(touchEvent.pointer);
+            mOutput.writeFloat(touchEvent.x);
+            mOutput.writeFloat(touchEvent.y);
+            mOutput.writeFloat(touchEvent.dx);
+            mOutput.writeFloat(touchEvent.dy);
+        }
+    }
+
+    private void writeKeyEvents(List<KeyEvent> keyEvents) throws IOException {
+        int count = keyEvents.size();
+        mOutput.writeShort(count);
+        for (int idx = 0; idx < count; idx++) {
+            KeyEvent keyEvent = keyEvents.get(idx);
+            mOutput.writeByte(keyEvent.type);
+            mOutput.writeShort(keyEvent.keyCode);
+            mOutput.writeChar(keyEvent.keyChar);
+        }
+    }
+
+    /**
+     * Get the number of frames recorded
+     *
+     * @return Number of frames
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * Write the end of the log and close the stream
+     */
+    public void close() {
+        try {
+            mOutput.writeByte(ReplayFormat.END_MARKER);
+            mOutput.close();
+        } catch (IOException e) {
+            throw new RuntimeException("ReplayRecorder.close: Cannot close replay", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+
+/**
+ * Axis-aligned box collision shape
+ *
+ * @version 1.0
+ */
+public class AABBShape extends Shape {
+
+    /**
+     * Half width and half height of the box
+     */
+    public float halfWidth;
+    public float halfHeight;
+
+    /**
+     * Create a new axis-aligned box shape
+     *
+     * @param halfWidth  Half width of the box
+     * @param halfHeight Half height of the box
+     */
+    public AABBShape(float halfWidth, float halfHeight) {
+        super(Type.AABB);
+        this.halfWidth = halfWidth;
+        this.halfHeight = halfHeight;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.physics.Shape#computeBound(float, float,
+     * uk.ac.qub.eeecs.gage.util.BoundingBox)
+     */
+    @Override
+    public void computeBound(float x, float y, BoundingBox bound) {
+        bound.set(x, y, halfWidth, halfHeight);
+    }
+}
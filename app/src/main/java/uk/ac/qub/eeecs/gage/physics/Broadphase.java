@@ -0,0 +1,161 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+
+/**
+ * Sort and sweep broadphase.
+ * <p>
+ * Bodies are kept sorted by the left edge of their bound. Pairs whose
+ * bounds overlap are then found with a single sweep along the x-axis,
+ * only comparing each body with the following bodies that start before
+ * it ends. As bodies typically move little between steps, the sort is
+ * an insertion sort over the previous order, which is close to linear.
+ * <p>
+ * Pairs in which neither body is movable are not reported.
+ *
+ * @version 1.0
+ */
+public class Broadphase {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Bodies sorted by the left edge of their bound
+     */
+    private RigidBody[] mSortedBodies = new RigidBody[16];
+    private int mBodyCount = 0;
+
+    /**
+     * Candidate pairs found by the last update
+     */
+    private RigidBody[] mPairA = new RigidBody[64];
+    private RigidBody[] mPairB = new RigidBody[64];
+    private int mPairCount = 0;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add a body to the broadphase
+     *
+     * @param body Body to add
+     */
+    public void add(RigidBody body) {
+        if (mBodyCount == mSortedBodies.length) {
+            RigidBody[] bodies = new RigidBody[mSortedBodies.length * 2];
+            System.arraycopy(mSortedBodies, 0, bodies, 0, mBodyCount);
+            mSortedBodies = bodies;
+        }
+        mSortedBodies[mBodyCount++] = body;
+    }
+
+    /**
+     * Remove a body from the broadphase
+     *
+     * @param body Body to remove
+     */
+    public void remove(RigidBody body) {
+        for (int idx = 0; idx < mBodyCount; idx++) {
+            if (mSortedBodies[idx] == body) {
+                // Shift the following bodies down to retain the sort order
+                System.arraycopy(mSortedBodies, idx + 1, mSortedBodies, idx, mBodyCount - idx - 1);
+                mSortedBodies[--mBodyCount] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Find the candidate pairs between the bodies held in the broadphase.
+     * The bounds of the bodies should have been updated.
+     */
+    public void update() {
+        sortBodies();
+
+        mPairCount = 0;
+        for (int idx = 0; idx < mBodyCount; idx++) {
+            RigidBody bodyA = mSortedBodies[idx];
+            BoundingBox boundA = bodyA.mBound;
+            float rightA = boundA.x + boundA.halfWidth;
+            boolean movableA = bodyA.isMovable();
+
+            for (int otherIdx = idx + 1; otherIdx < mBodyCount; otherIdx++) {
+                RigidBody bodyB = mSortedBodies[otherIdx];
+                BoundingBox boundB = bodyB.mBound;
+                if (boundB.x - boundB.halfWidth > rightA)
+                    break;
+
+                if ((movableA || bodyB.isMovable())
+                        && boundA.y - boundA.halfHeight < boundB.y + boundB.halfHeight
+                        && boundA.y + boundA.halfHeight > boundB.y - boundB.halfHeight)
+                    addPair(bodyA, bodyB);
+            }
+        }
+    }
+
+    /**
+     * Get the number of candidate pairs found by the last update
+     *
+     * @return Number of candidate pairs
+     */
+    public int getPairCount() {
+        return mPairCount;
+    }
+
+    /**
+     * Get the first body of the specified candidate pair
+     *
+     * @param pairIdx Pair index
+     * @return First body
+     */
+    public RigidBody getPairBodyA(int pairIdx) {
+        return mPairA[pairIdx];
+    }
+
+    /**
+     * Get the second body of the specified candidate pair
+     *
+     * @param pairIdx Pair index
+     * @return Second body
+     */
+    public RigidBody getPairBodyB(int pairIdx) {
+        return mPairB[pairIdx];
+    }
+
+    /**
+     * Insertion sort the bodies by the left edge of their bound
+     */
+    private void sortBodies() {
+        for (int idx = 1; idx < mBodyCount; idx++) {
+            RigidBody body = mSortedBodies[idx];
+            float left = body.mBound.x - body.mBound.halfWidth;
+            int insertIdx = idx - 1;
+            while (insertIdx >= 0 && mSortedBodies[insertIdx].mBound.x
+                    - mSortedBodies[insertIdx].mBound.halfWidth > left) {
+                mSortedBodies[insertIdx + 1] = mSortedBodies[insertIdx];
+                insertIdx--;
+            }
+            mSortedBodies[insertIdx + 1] = body;
+        }
+    }
+
+    /**
+     * Record a candidate pair, growing the pair storage if needed
+     */
+    private void addPair(RigidBody bodyA, RigidBody bodyB) {
+        if (mPairCount == mPairA.length) {
+            RigidBody[] pairA = new RigidBody[mPairA.length * 2];
+            RigidBody[] pairB = new RigidBody[mPairB.length * 2];
+            System.arraycopy(mPairA, 0, pairA, 0, mPairCount);
+            System.arraycopy(mPairB, 0, pairB, 0, mPairCount);
+            mPairA = pairA;
+            mPairB = pairB;
+        }
+        mPairA[mPairCount] = bodyA;
+        mPairB[mPairCount] = bodyB;
+        mPairCount++;
+    }
+}
@@ -0,0 +1,37 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+
+/**
+ * Circular collision shape
+ *
+ * @version 1.0
+ */
+public class CircleShape extends Shape {
+
+    /**
+     * Radius of the circle
+     */
+    public float radius;
+
+    /**
+     * Create a new circle shape
+     *
+     * @param radius Radius of the circle
+     */
+    public CircleShape(float radius) {
+        super(Type.Circle);
+        this.radius = radius;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.physics.Shape#computeBound(float, float,
+     * uk.ac.qub.eeecs.gage.util.BoundingBox)
+     */
+    @Override
+    public void computeBound(float x, float y, BoundingBox bound) {
+        bound.set(x, y, radius, radius);
+    }
+}
@@ -0,0 +1,111 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+/**
+ * Map from body pair key to contact, used to find the contact between a
+ * pair of bodies from the previous step when warm starting the solver.
+ * <p>
+ * Uses open addressing over primitive keys to avoid the boxing and entry
+ * objects that a HashMap would create.
+ *
+ * @version 1.0
+ */
+class ContactCache {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Pair keys and contacts. A null contact denotes an empty slot.
+     */
+    private long[] mKeys;
+    private ContactManifold[] mContacts;
+
+    /**
+     * Number of held contacts
+     */
+    private int mSize = 0;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new contact cache
+     */
+    ContactCache() {
+        allocate(64);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the contact held against the specified pair key
+     *
+     * @param key Pair key
+     * @return Contact, or null if there is no contact for the pair
+     */
+    ContactManifold get(long key) {
+        int mask = mKeys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            ContactManifold contact = mContacts[slot];
+            if (contact == null)
+                return null;
+            if (mKeys[slot] == key)
+                return contact;
+        }
+    }
+
+    /**
+     * Store a contact against the specified pair key. Each key should only
+     * be stored once between clears.
+     *
+     * @param key     Pair key
+     * @param contact Contact
+     */
+    void put(long key, ContactManifold contact) {
+        if ((mSize + 1) * 2 > mKeys.length)
+            grow();
+
+        int mask = mKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (mContacts[slot] != null)
+            slot = (slot + 1) & mask;
+        mKeys[slot] = key;
+        mContacts[slot] = contact;
+        mSize++;
+    }
+
+    /**
+     * Remove all contacts
+     */
+    void clear() {
+        if (mSize > 0) {
+            for (int slot = 0; slot < mContacts.length; slot++)
+                mContacts[slot] = null;
+            mSize = 0;
+        }
+    }
+
+    private void allocate(int capacity) {
+        mKeys = new long[capacity];
+        mContacts = new ContactManifold[capacity];
+    }
+
+    private void grow() {
+        long[] keys = mKeys;
+        ContactManifold[] contacts = mContacts;
+        allocate(keys.length * 2);
+        mSize = 0;
+        for (int slot = 0; slot < keys.length; slot++)
+            if (contacts[slot] != null)
+                put(keys[slot], contacts[slot]);
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,94 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+/**
+ * Contact between a pair of rigid bodies.
+ * <p>
+ * As shapes do not rotate, a single contact normal and penetration depth
+ * fully describe the contact. The accumulated normal and tangent impulses
+ * are retained between steps to warm start the solver.
+ *
+ * @version 1.0
+ */
+public class ContactManifold {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Bodies in contact
+     */
+    public RigidBody bodyA;
+    public RigidBody bodyB;
+
+    /**
+     * Contact normal, pointing from body A to body B, alongside the
+     * penetration depth along the normal
+     */
+    public float normalX;
+    public float normalY;
+    public float penetration;
+
+    /**
+     * Impulses accumulated along the normal and tangent
+     */
+    public float normalImpulse;
+    public float tangentImpulse;
+
+    /**
+     * Solver values determined prior to iteration
+     */
+    float mInverseMassA;
+    float mInverseMassB;
+    float mEffectiveMass;
+    float mVelocityBias;
+    float mRestitution;
+    float mFriction;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Define the geometry of this contact, resetting the accumulated impulses
+     *
+     * @param bodyA       First body
+     * @param bodyB       Second body
+     * @param normalX     Contact normal x component (from A to B)
+     * @param normalY     Contact normal y component (from A to B)
+     * @param penetration Penetration depth
+     */
+    public void set(RigidBody bodyA, RigidBody bodyB,
+                    float normalX, float normalY, float penetration) {
+        this.bodyA = bodyA;
+        this.bodyB = bodyB;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.penetration = penetration;
+        normalImpulse = 0.0f;
+        tangentImpulse = 0.0f;
+    }
+
+    /**
+     * Get the key identifying the pair of bodies in this contact
+     *
+     * @return Pair key
+     */
+    public long getPairKey() {
+        return getPairKey(bodyA, bodyB);
+    }
+
+    /**
+     * Get the key identifying the specified pair of bodies. The key does
+     * not depend upon the order of the bodies.
+     *
+     * @param bodyA First body
+     * @param bodyB Second body
+     * @return Pair key
+     */
+    public static long getPairKey(RigidBody bodyA, RigidBody bodyB) {
+        int idA = Math.min(bodyA.mId, bodyB.mId);
+        int idB = Math.max(bodyA.mId, bodyB.mId);
+        return ((long) idA << 32) | (idB & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,138 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+/**
+ * Narrowphase collision tests between pairs of shapes. Each test determines
+ * if the shapes of two bodies overlap and, if so, defines the contact
+ * normal (from the first to the second body) and penetration depth.
+ *
+ * @version 1.0
+ */
+public final class Narrowphase {
+
+    /**
+     * Not instantiable
+     */
+    private Narrowphase() {
+    }
+
+    /**
+     * Determine if the specified bodies are in contact
+     *
+     * @param bodyA   First body
+     * @param bodyB   Second body
+     * @param contact Contact to define if the bodies are in contact
+     * @return True if the bodies are in contact
+     */
+    public static boolean collide(RigidBody bodyA, RigidBody bodyB, ContactManifold contact) {
+        Shape shapeA = bodyA.shape;
+        Shape shapeB = bodyB.shape;
+
+        if (shapeA.getType() == Shape.Type.Circle) {
+            if (shapeB.getType() == Shape.Type.Circle)
+                return circleCircle(bodyA, (CircleShape) shapeA, bodyB, (CircleShape) shapeB, contact);
+            else
+                return circleAABB(bodyA, (CircleShape) shapeA, bodyB, (AABBShape) shapeB, contact);
+        } else {
+            if (shapeB.getType() == Shape.Type.Circle) {
+                // Test with the bodies swapped and then reverse the contact
+                if (!circleAABB(bodyB, (CircleShape) shapeB, bodyA, (AABBShape) shapeA, contact))
+                    return false;
+                contact.set(bodyA, bodyB, -contact.normalX, -contact.normalY, contact.penetration);
+                return true;
+            } else {
+                return aabbAABB(bodyA, (AABBShape) shapeA, bodyB, (AABBShape) shapeB, contact);
+            }
+        }
+    }
+
+    /**
+     * Circle against circle test
+     */
+    private static boolean circleCircle(RigidBody bodyA, CircleShape circleA,
+                                        RigidBody bodyB, CircleShape circleB,
+                                        ContactManifold contact) {
+        float dx = bodyB.sprite.position.x - bodyA.sprite.position.x;
+        float dy = bodyB.sprite.position.y - bodyA.sprite.position.y;
+        float radii = circleA.radius + circleB.radius;
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared >= radii * radii)
+            return false;
+
+        // Use an arbitrary normal if the centres coincide
+        float distance = (float) Math.sqrt(distanceSquared);
+        if (distance > 0.0f)
+            contact.set(bodyA, bodyB, dx / distance, dy / distance, radii - distance);
+        else
+            contact.set(bodyA, bodyB, 1.0f, 0.0f, radii);
+        return true;
+    }
+
+    /**
+     * Circle against axis-aligned box test
+     */
+    private static boolean circleAABB(RigidBody bodyA, CircleShape circle,
+                                      RigidBody bodyB, AABBShape box,
+                                      ContactManifold contact) {
+        float circleX = bodyA.sprite.position.x;
+        float circleY = bodyA.sprite.position.y;
+        float boxX = bodyB.sprite.position.x;
+        float boxY = bodyB.sprite.position.y;
+
+        // Determine the closest point on the box to the circle centre
+        float closestX = Math.max(boxX - box.halfWidth, Math.min(boxX + box.halfWidth, circleX));
+        float closestY = Math.max(boxY - box.halfHeight, Math.min(boxY + box.halfHeight, circleY));
+
+        float dx = closestX - circleX;
+        float dy = closestY - circleY;
+        float distanceSquared = dx * dx + dy * dy;
+
+        if (distanceSquared > 0.0f) {
+            // Circle centre outside of the box
+            if (distanceSquared >= circle.radius * circle.radius)
+                return false;
+            float distance = (float) Math.sqrt(distanceSquared);
+            contact.set(bodyA, bodyB, dx / distance, dy / distance, circle.radius - distance);
+        } else {
+            // Circle centre inside the box, separate through the nearest face
+            float left = circleX - (boxX - box.halfWidth);
+            float right = (boxX + box.halfWidth) - circleX;
+            float bottom = circleY - (boxY - box.halfHeight);
+            float top = (boxY + box.halfHeight) - circleY;
+            float minDistance = Math.min(Math.min(left, right), Math.min(bottom, top));
+
+            if (minDistance == left)
+                contact.set(bodyA, bodyB, 1.0f, 0.0f, circle.radius + left);
+            else if (minDistance == right)
+                contact.set(bodyA, bodyB, -1.0f, 0.0f, circle.radius + right);
+            else if (minDistance == bottom)
+                contact.set(bodyA, bodyB, 0.0f, 1.0f, circle.radius + bottom);
+            else
+                contact.set(bodyA, bodyB, 0.0f, -1.0f, circle.radius + top);
+        }
+        return true;
+    }
+
+    /**
+     * Axis-aligned box against axis-aligned box test
+     */
+    private static boolean aabbAABB(RigidBody bodyA, AABBShape boxA,
+                                    RigidBody bodyB, AABBShape boxB,
+                                    ContactManifold contact) {
+        float dx = bodyB.sprite.position.x - bodyA.sprite.position.x;
+        float dy = bodyB.sprite.position.y - bodyA.sprite.position.y;
+
+        float overlapX = boxA.halfWidth + boxB.halfWidth - Math.abs(dx);
+        if (overlapX <= 0.0f)
+            return false;
+        float overlapY = boxA.halfHeight + boxB.halfHeight - Math.abs(dy);
+        if (overlapY <= 0.0f)
+            return false;
+
+        // Separate along the axis of least penetration
+        if (overlapX < overlapY)
+            contact.set(bodyA, bodyB, dx < 0.0f ? -1.0f : 1.0f, 0.0f, overlapX);
+        else
+            contact.set(bodyA, bodyB, 0.0f, dy < 0.0f ? -1.0f : 1.0f, overlapY);
+        return true;
+    }
+}
@@ -0,0 +1,230 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.Profiler;
+
+/**
+ * Fixed rate physics scheduler.
+ * <p>
+ * Decouples the rate at which physics (e.g. integration and collision) is
+ * run from the rate of the update/draw loop. The time reported by each
+ * update is accumulated and consumed in fixed length substeps, running as
+ * many substeps as are due (possibly none). Physics accuracy is then set
+ * by the substep rate, independently of the frame rate.
+ * <p>
+ * To avoid a 'spiral of death', in which long substeps result in longer
+ * frames and hence more substeps, the number of substeps run within an
+ * update is capped. Any time beyond the cap is dropped, i.e. the physics
+ * will run slower than real time until the frame rate recovers.
+ * <p>
+ * The duration of each substep is recorded within the specified profiler.
+ *
+ * @version 1.0
+ */
+public class PhysicsScheduler {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Substep Listener
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Listener that carries out the work of each substep
+     */
+    public interface SubstepListener {
+        /**
+         * Run a single substep
+         *
+         * @param substepTime Substep timing information. The step time is
+         *                    the fixed substep period and the total time is
+         *                    the total simulated time.
+         */
+        void onSubstep(ElapsedTime substepTime);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Default substep rate (Hz) and cap on the number of substeps per update
+     */
+    public static final float DEFAULT_SUBSTEP_RATE = 120.0f;
+    public static final int DEFAULT_MAX_SUBSTEPS = 8;
+
+    /**
+     * Substep period in seconds
+     */
+    private double mSubstepPeriod;
+
+    /**
+     * Maximum number of substeps run within a single update
+     */
+    private int mMaxSubsteps;
+
+    /**
+     * Time accumulated but not yet consumed by substeps
+     */
+    private double mAccumulator = 0.0;
+
+    /**
+     * Timing information passed to each substep, defined as a class member
+     * to reduce temporary object creation.
+     */
+    private ElapsedTime mSubstepTime = new ElapsedTime();
+
+    /**
+     * Number of substeps run by the last update and the total time dropped
+     * due to the substep cap
+     */
+    private int mLastSubstepCount = 0;
+    private double mDroppedTime = 0.0;
+
+    /**
+     * Profiler used to record the substep durations, alongside the
+     * profiler section
+     */
+    private Profiler mProfiler;
+    private int mProfilerSection;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new physics scheduler using the default substep rate and cap
+     *
+     * @param profiler Profiler used to record substep durations (can be null)
+     */
+    public PhysicsScheduler(Profiler profiler) {
+        this(DEFAULT_SUBSTEP_RATE, DEFAULT_MAX_SUBSTEPS, profiler);
+    }
+
+    /**
+     * Create a new physics scheduler
+     *
+     * @param substepRate Number of substeps per second
+     * @param maxSubsteps Maximum number of substeps run within an update
+     * @param profiler    Profiler used to record substep durations (can be null)
+     */
+    public PhysicsScheduler(float substepRate, int maxSubsteps, Profiler profiler) {
+        setSubstepRate(substepRate);
+        setMaxSubsteps(maxSubsteps);
+
+        mProfiler = profiler;
+        if (mProfiler != null)
+            mProfilerSection = mProfiler.registerSection("Physics.substep");
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Configuration
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Set the number of substeps per second
+     *
+     * @param substepRate Number of substeps per second
+     */
+    public void setSubstepRate(float substepRate) {
+        if (substepRate <= 0.0f)
+            throw new RuntimeException(
+                    "PhysicsScheduler.setSubstepRate: Invalid substep rate [" + substepRate + "]");
+        mSubstepPeriod = 1.0 / substepRate;
+    }
+
+    /**
+     * Get the substep period
+     *
+     * @return Substep period in seconds
+     */
+    public double getSubstepPeriod() {
+        return mSubstepPeriod;
+    }
+
+    /**
+     * Set the maximum number of substeps run within a single update
+     *
+     * @param maxSubsteps Maximum number of substeps
+     */
+    public void setMaxSubsteps(int maxSubsteps) {
+        mMaxSubsteps = Math.max(maxSubsteps, 1);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Update
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Run the substeps that are due following the elapsed update time
+     *
+     * @param elapsedTime Elapsed time information
+     * @param listener    Listener that carries out each substep
+     * @return Number of substeps run
+     */
+    public int update(ElapsedTime elapsedTime, SubstepListener listener) {
+        mAccumulator += elapsedTime.stepTime;
+
+        int substeps = 0;
+        while (mAccumulator >= mSubstepPeriod && substeps < mMaxSubsteps) {
+            mSubstepTime.stepTime = mSubstepPeriod;
+            mSubstepTime.totalTime += mSubstepPeriod;
+
+            if (mProfiler != null)
+                mProfiler.begin(mProfilerSection);
+            try {
+                listener.onSubstep(mSubstepTime);
+            } finally {
+                if (mProfiler != null)
+                    mProfiler.end(mProfilerSection);
+            }
+
+            mAccumulator -= mSubstepPeriod;
+            substeps++;
+        }
+
+        // Drop any time that could not be consumed within the cap
+        if (mAccumulator >= mSubstepPeriod) {
+            double dropped = mAccumulator - (mAccumulator % mSubstepPeriod);
+            mDroppedTime += dropped;
+            mAccumulator -= dropped;
+        }
+
+        mLastSubstepCount = substeps;
+        return substeps;
+    }
+
+    /**
+     * Get the fraction of a substep that has been accumulated but not yet
+     * simulated. This can be used to interpolate drawn positions between
+     * the last two substeps.
+     *
+     * @return Fraction of a substep (0 to 1)
+     */
+    public float getInterpolationAlpha() {
+        return (float) (mAccumulator / mSubstepPeriod);
+    }
+
+    /**
+     * Get the number of substeps run by the last update
+     *
+     * @return Number of substeps
+     */
+    public int getLastSubstepCount() {
+        return mLastSubstepCount;
+    }
+
+    /**
+     * Get the total time dropped due to the substep cap
+     *
+     * @return Dropped time in seconds
+     */
+    public double getDroppedTime() {
+        return mDroppedTime;
+    }
+
+    /**
+     * Discard any accumulated time, e.g. following a screen change
+     */
+    public void reset() {
+        mAccumulator = 0.0;
+    }
+}
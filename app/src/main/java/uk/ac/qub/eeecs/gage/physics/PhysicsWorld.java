@@ -0,0 +1,335 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.qub.eeecs.gage.util.Pool;
+import uk.ac.qub.eeecs.gage.util.Vector2;
+
+/**
+ * Rigid body physics world.
+ * <p>
+ * Each step resolves the contacts between the world's bodies, using the
+ * positions and velocities of their sprites following the sprites' own
+ * update (which applies acceleration and velocity):
+ * <p>
+ * 1. Candidate pairs are found using a sort and sweep broadphase.
+ * 2. Contacts are determined for each candidate pair. Contacts persisting
+ * from the previous step keep their accumulated impulses (warm starting).
+ * 3. An iterative sequential impulse solver removes the approaching
+ * velocity along each contact normal, applying restitution and friction.
+ * 4. Any remaining penetration is corrected by moving the bodies apart in
+ * proportion to their inverse masses.
+ * <p>
+ * Sleeping sprites are woken on contact with a movable body.
+ *
+ * @version 1.0
+ */
+public class PhysicsWorld {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Default number of solver iterations
+     */
+    public static final int DEFAULT_VELOCITY_ITERATIONS = 8;
+
+    /**
+     * Penetration that is permitted without correction, helping to keep
+     * resting contacts (and their warm started impulses) stable
+     */
+    public static final float PENETRATION_SLOP = 0.5f;
+
+    /**
+     * Fraction of the penetration (beyond the slop) corrected on each step
+     */
+    public static final float POSITION_CORRECTION = 0.8f;
+
+    /**
+     * Approaching velocity below which restitution is not applied
+     */
+    public static final float RESTITUTION_THRESHOLD = 1.0f;
+
+    /**
+     * Maximum number of contacts retained for reuse
+     */
+    private static final int MAX_POOLED_CONTACTS = 1024;
+
+    /**
+     * Bodies held within the world
+     */
+    private List<RigidBody> mBodies = new ArrayList<>();
+
+    /**
+     * Next body id to be assigned
+     */
+    private int mNextBodyId = 0;
+
+    /**
+     * Broadphase used to find candidate pairs
+     */
+    private Broadphase mBroadphase = new Broadphase();
+
+    /**
+     * Contacts found by the current and previous steps, alongside the
+     * caches mapping body pairs to them
+     */
+    private List<ContactManifold> mContacts = new ArrayList<>();
+    private List<ContactManifold> mPreviousContacts = new ArrayList<>();
+    private ContactCache mContactCache = new ContactCache();
+    private ContactCache mPreviousContactCache = new ContactCache();
+
+    /**
+     * Pool of reusable contacts
+     */
+    private Pool<ContactManifold> mContactPool = new Pool<>(
+            new Pool.ObjectFactory<ContactManifold>() {
+                @Override
+                public ContactManifold createObject() {
+                    return new ContactManifold();
+                }
+            }, MAX_POOLED_CONTACTS);
+
+    /**
+     * Number of solver iterations carried out on each step
+     */
+    private int mVelocityIterations = DEFAULT_VELOCITY_ITERATIONS;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Bodies
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add a body to the world
+     *
+     * @param body Body to add
+     */
+    public void add(RigidBody body) {
+        if (body.mId != -1)
+            throw new RuntimeException("PhysicsWorld.add: Body already added [" + body.mId + "]");
+
+        body.mId = mNextBodyId++;
+        body.shape.computeBound(body.sprite.position.x, body.sprite.position.y, body.mBound);
+        mBodies.add(body);
+        mBroadphase.add(body);
+    }
+
+    /**
+     * Remove a body from the world
+     *
+     * @param body Body to remove
+     */
+    public void remove(RigidBody body) {
+        if (mBodies.remove(body)) {
+            mBroadphase.remove(body);
+            body.mId = -1;
+        }
+    }
+
+    /**
+     * Get the bodies held within the world
+     *
+     * @return Bodies held within the world
+     */
+    public List<RigidBody> getBodies() {
+        return mBodies;
+    }
+
+    /**
+     * Get the contacts found by the last step
+     *
+     * @return Contacts found by the last step
+     */
+    public List<ContactManifold> getContacts() {
+        return mContacts;
+    }
+
+    /**
+     * Set the number of solver iterations carried out on each step. More
+     * iterations improve the accuracy of stacked or crowded contacts.
+     *
+     * @param velocityIterations Number of solver iterations
+     */
+    public void setVelocityIterations(int velocityIterations) {
+        mVelocityIterations = Math.max(velocityIterations, 1);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Step
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Resolve contacts between the bodies held within the world
+     *
+     * @param dt Step time in seconds
+     */
+    public void step(float dt) {
+        if (dt <= 0.0f)
+            return;
+
+        // Update the bounds of the bodies and apply damping
+        for (int idx = 0; idx < mBodies.size(); idx++) {
+            RigidBody body = mBodies.get(idx);
+            Vector2 position = body.sprite.position;
+            body.shape.computeBound(position.x, position.y, body.mBound);
+            if (body.linearDamping > 0.0f && body.isMovable())
+                body.sprite.velocity.multiply(1.0f / (1.0f + dt * body.linearDamping));
+        }
+
+        findContacts();
+
+        for (int idx = 0; idx < mContacts.size(); idx++)
+            prepareContact(mContacts.get(idx));
+
+        for (int iteration = 0; iteration < mVelocityIterations; iteration++)
+            for (int idx = 0; idx < mContacts.size(); idx++)
+                solveContact(mContacts.get(idx));
+
+        for (int idx = 0; idx < mContacts.size(); idx++)
+            correctPosition(mContacts.get(idx));
+    }
+
+    /**
+     * Find the contacts between the candidate pairs determined by the
+     * broadphase, carrying across accumulated impulses from the previous step
+     */
+    private void findContacts() {
+        // Swap the current and previous contacts
+        List<ContactManifold> contacts = mPreviousContacts;
+        mPreviousContacts = mContacts;
+        mContacts = contacts;
+        ContactCache contactCache = mPreviousContactCache;
+        mPreviousContactCache = mContactCache;
+        mContactCache = contactCache;
+
+        mBroadphase.update();
+        for (int pairIdx = 0; pairIdx < mBroadphase.getPairCount(); pairIdx++) {
+            RigidBody bodyA = mBroadphase.getPairBodyA(pairIdx);
+            RigidBody bodyB = mBroadphase.getPairBodyB(pairIdx);
+
+            ContactManifold contact = mContactPool.get();
+            if (!Narrowphase.collide(bodyA, bodyB, contact)) {
+                mContactPool.add(contact);
+                continue;
+            }
+
+            // Wake any sleeping body in contact with a movable body
+            bodyA.sprite.wake();
+            bodyB.sprite.wake();
+
+            // Warm start using the impulses from the previous step
+            long key = contact.getPairKey();
+            ContactManifold previous = mPreviousContactCache.get(key);
+            if (previous != null) {
+                contact.normalImpulse = previous.normalImpulse;
+                contact.tangentImpulse = previous.tangentImpulse;
+            }
+
+            mContacts.add(contact);
+            mContactCache.put(key, contact);
+        }
+
+        // Release the previous contacts
+        for (int idx = 0; idx < mPreviousContacts.size(); idx++)
+            mContactPool.add(mPreviousContacts.get(idx));
+        mPreviousContacts.clear();
+        mPreviousContactCache.clear();
+    }
+
+    /**
+     * Determine the solver values for a contact and apply the warm start
+     * impulses
+     */
+    private void prepareContact(ContactManifold contact) {
+        RigidBody bodyA = contact.bodyA;
+        RigidBody bodyB = contact.bodyB;
+
+        contact.mInverseMassA = bodyA.getEffectiveInverseMass();
+        contact.mInverseMassB = bodyB.getEffectiveInverseMass();
+        float inverseMassSum = contact.mInverseMassA + contact.mInverseMassB;
+        contact.mEffectiveMass = inverseMassSum > 0.0f ? 1.0f / inverseMassSum : 0.0f;
+        contact.mRestitution = Math.max(bodyA.restitution, bodyB.restitution);
+        contact.mFriction = (float) Math.sqrt(bodyA.friction * bodyB.friction);
+
+        // Determine the bounce velocity to be targeted along the normal
+        Vector2 velocityA = bodyA.sprite.velocity;
+        Vector2 velocityB = bodyB.sprite.velocity;
+        float normalVelocity = (velocityB.x - velocityA.x) * contact.normalX
+                + (velocityB.y - velocityA.y) * contact.normalY;
+        contact.mVelocityBias = normalVelocity < -RESTITUTION_THRESHOLD
+                ? -contact.mRestitution * normalVelocity : 0.0f;
+
+        // Apply the accumulated impulses from the previous step
+        float impulseX = contact.normalX * contact.normalImpulse
+                - contact.normalY * contact.tangentImpulse;
+        float impulseY = contact.normalY * contact.normalImpulse
+                + contact.normalX * contact.tangentImpulse;
+        applyImpulse(contact, impulseX, impulseY);
+    }
+
+    /**
+     * Solve the normal and friction constraints of a contact
+     */
+    private void solveContact(ContactManifold contact) {
+        if (contact.mEffectiveMass == 0.0f)
+            return;
+
+        Vector2 velocityA = contact.bodyA.sprite.velocity;
+        Vector2 velocityB = contact.bodyB.sprite.velocity;
+        float normalX = contact.normalX;
+        float normalY = contact.normalY;
+
+        // Normal impulse, clamped so the accumulated impulse only pushes apart
+        float relativeX = velocityB.x - velocityA.x;
+        float relativeY = velocityB.y - velocityA.y;
+        float normalVelocity = relativeX * normalX + relativeY * normalY;
+        float lambda = contact.mEffectiveMass * (contact.mVelocityBias - normalVelocity);
+        float normalImpulse = Math.max(contact.normalImpulse + lambda, 0.0f);
+        lambda = normalImpulse - contact.normalImpulse;
+        contact.normalImpulse = normalImpulse;
+        applyImpulse(contact, normalX * lambda, normalY * lambda);
+
+        // Friction impulse along the tangent, clamped by the normal impulse
+        relativeX = velocityB.x - velocityA.x;
+        relativeY = velocityB.y - velocityA.y;
+        float tangentVelocity = -relativeX * normalY + relativeY * normalX;
+        float maxFriction = contact.mFriction * contact.normalImpulse;
+        float tangentImpulse = Math.max(-maxFriction, Math.min(maxFriction,
+                contact.tangentImpulse - contact.mEffectiveMass * tangentVelocity));
+        lambda = tangentImpulse - contact.tangentImpulse;
+        contact.tangentImpulse = tangentImpulse;
+        applyImpulse(contact, -normalY * lambda, normalX * lambda);
+    }
+
+    /**
+     * Apply an impulse to the bodies of a contact, with the impulse pushing
+     * body B along, and body A against, the specified direction
+     */
+    private static void applyImpulse(ContactManifold contact, float impulseX, float impulseY) {
+        Vector2 velocityA = contact.bodyA.sprite.velocity;
+        Vector2 velocityB = contact.bodyB.sprite.velocity;
+        velocityA.x -= impulseX * contact.mInverseMassA;
+        velocityA.y -= impulseY * contact.mInverseMassA;
+        velocityB.x += impulseX * contact.mInverseMassB;
+        velocityB.y += impulseY * contact.mInverseMassB;
+    }
+
+    /**
+     * Move the bodies of a contact apart to correct the remaining penetration
+     */
+    private void correctPosition(ContactManifold contact) {
+        float correction = Math.max(contact.penetration - PENETRATION_SLOP, 0.0f)
+                * POSITION_CORRECTION * contact.mEffectiveMass;
+        if (correction == 0.0f)
+            return;
+
+        Vector2 positionA = contact.bodyA.sprite.position;
+        Vector2 positionB = contact.bodyB.sprite.position;
+        positionA.x -= contact.normalX * correction * contact.mInverseMassA;
+        positionA.y -= contact.normalY * correction * contact.mInverseMassA;
+        positionB.x += contact.normalX * correction * contact.mInverseMassB;
+        positionB.y += contact.normalY * correction * contact.mInverseMassB;
+    }
+}
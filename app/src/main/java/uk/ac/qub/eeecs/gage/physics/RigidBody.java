@@ -0,0 +1,131 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+import uk.ac.qub.eeecs.gage.world.Sprite;
+
+/**
+ * Rigid body used by the physics world.
+ * <p>
+ * A rigid body adds a collision shape and mass properties to a sprite. The
+ * sprite's position and velocity are used (and updated) directly by the
+ * physics world. Static sprites, or bodies with zero mass, are immovable.
+ * Sleeping sprites are treated as immovable until woken by a contact.
+ *
+ * @version 1.0
+ */
+public class RigidBody {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Sprite represented by this body
+     */
+    public final Sprite sprite;
+
+    /**
+     * Collision shape of the body
+     */
+    public Shape shape;
+
+    /**
+     * Inverse mass of the body (zero if the body is immovable)
+     */
+    public float inverseMass;
+
+    /**
+     * Coefficient of restitution (0 = no bounce, 1 = fully elastic)
+     */
+    public float restitution = 0.0f;
+
+    /**
+     * Coefficient of friction applied along the contact surface
+     */
+    public float friction = 0.2f;
+
+    /**
+     * Linear damping applied to the body's velocity on each step (per second)
+     */
+    public float linearDamping = 0.0f;
+
+    /**
+     * Unique id assigned by the physics world, used to identify contacts
+     * between pairs of bodies over successive steps
+     */
+    int mId = -1;
+
+    /**
+     * Bound of the body's shape, updated on each step
+     */
+    final BoundingBox mBound = new BoundingBox();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new rigid body
+     *
+     * @param sprite Sprite represented by this body
+     * @param shape  Collision shape
+     * @param mass   Mass of the body (zero for an immovable body)
+     */
+    public RigidBody(Sprite sprite, Shape shape, float mass) {
+        this.sprite = sprite;
+        this.shape = shape;
+        setMass(mass);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Set the mass of the body
+     *
+     * @param mass Mass of the body (zero for an immovable body)
+     */
+    public void setMass(float mass) {
+        if (mass < 0.0f)
+            throw new RuntimeException("RigidBody.setMass: Invalid mass [" + mass + "]");
+        inverseMass = mass == 0.0f ? 0.0f : 1.0f / mass;
+    }
+
+    /**
+     * Get the mass of the body
+     *
+     * @return Mass of the body (zero if the body is immovable)
+     */
+    public float getMass() {
+        return inverseMass == 0.0f ? 0.0f : 1.0f / inverseMass;
+    }
+
+    /**
+     * Determine if the body can currently be moved by the physics world
+     *
+     * @return True if the body is movable
+     */
+    public boolean isMovable() {
+        return inverseMass > 0.0f && !sprite.isStatic() && !sprite.isSleeping();
+    }
+
+    /**
+     * Get the inverse mass of the body used when solving contacts, which is
+     * zero if the body is not currently movable
+     *
+     * @return Effective inverse mass
+     */
+    float getEffectiveInverseMass() {
+        return isMovable() ? inverseMass : 0.0f;
+    }
+
+    /**
+     * Get the bound of the body as of the last physics step
+     *
+     * @return Bound of the body
+     */
+    public BoundingBox getBound() {
+        return mBound;
+    }
+}
@@ -0,0 +1,51 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+
+/**
+ * Collision shape of a rigid body. Shapes are centred on the position of
+ * the body's sprite and do not rotate.
+ *
+ * @version 1.0
+ */
+public abstract class Shape {
+
+    /**
+     * Type of shape, used to select the appropriate narrowphase test
+     */
+    public enum Type {
+        Circle, AABB
+    }
+
+    /**
+     * Type of this shape
+     */
+    private final Type mType;
+
+    /**
+     * Create a new shape of the specified type
+     *
+     * @param type Shape type
+     */
+    protected Shape(Type type) {
+        mType = type;
+    }
+
+    /**
+     * Get the type of this shape
+     *
+     * @return Shape type
+     */
+    public Type getType() {
+        return mType;
+    }
+
+    /**
+     * Determine the bound of this shape when centred on the specified location
+     *
+     * @param x     Centre x location
+     * @param y     Centre y location
+     * @param bound Bounding box in which to store the bound
+     */
+    public abstract void computeBound(float x, float y, BoundingBox bound);
+}
@@ -16,6 +16,32 @@ public class CollisionDetector {
         None, Top, Bottom, Left, Right
     }
 
+    /**
+     * Overlap (along the axis of first contact) that is tolerated when
+     * determining the time of impact of a swept bounding box. Permits
+     * objects resting in contact, e.g. following a previous resolution,
+     * to be correctly swept despite floating point error.
+     */
+    public static final float SWEEP_CONTACT_TOLERANCE = 0.01f;
+
+    /**
+     * Result of a swept collision test, holding the earliest time of impact
+     * found, expressed as a fraction of the displacement, alongside the type
+     * of collision (defined as for determineCollisionType).
+     */
+    public static class SweepResult {
+        public float time = 1.0f;
+        public CollisionType collisionType = CollisionType.None;
+
+        /**
+         * Reset the result to no impact
+         */
+        public void reset() {
+            time = 1.0f;
+            collisionType = CollisionType.None;
+        }
+    }
+
     /**
      * Determine if the two specified bounding boxes are in collision
      *
@@ -95,10 +121,25 @@ public class CollisionDetector {
      */
     public static CollisionType determineAndResolveCollision(
             GameObject gameObjectOne, GameObject gameObjectTwo) {
+        return determineAndResolveCollision(gameObjectOne, gameObjectTwo.getBound());
+    }
+
+    /**
+     * Determine the type of collision between the game object and the
+     * specified (fixed) bound, e.g. a tile. If the two overlap, then the game
+     * object is repositioned to remove the overlap.
+     * <p>
+     * CollisionType.None is returned if there are no collisions.
+     *
+     * @param gameObjectOne Game object
+     * @param two           Fixed bounding box
+     * @return Collision type
+     */
+    public static CollisionType determineAndResolveCollision(
+            GameObject gameObjectOne, BoundingBox two) {
         CollisionType collisionType = CollisionType.None;
 
         BoundingBox one = gameObjectOne.getBound();
-        BoundingBox two = gameObjectTwo.getBound();
 
         if (isCollision(one, two)) {
             // Determine the side of *least intersection*
@@ -155,4 +196,88 @@ public class CollisionDetector {
 
         return collisionType;
     }
-}
\ No newline at end of file
+
+    /**
+     * Determine if the moving bounding box, displaced by (dx, dy), will
+     * collide with the fixed bounding box before the time of impact already
+     * held in the sweep result. If so, then the result is updated with the
+     * new time of impact and collision type.
+     * <p>
+     * Unlike the overlap tests, swept testing will detect collisions with
+     * thin objects that the moving box would pass completely through within
+     * a single (long) update. Boxes that already overlap (beyond the contact
+     * tolerance) are not reported and should be resolved using the
+     * overlap based methods.
+     *
+     * @param moving Moving bounding box, at its starting position
+     * @param dx     Displacement along the x-axis
+     * @param dy     Displacement along the y-axis
+     * @param fixed  Fixed bounding box
+     * @param result Sweep result to be updated
+     * @return True if an earlier impact was found
+     */
+    public static boolean sweep(BoundingBox moving, float dx, float dy,
+                                BoundingBox fixed, SweepResult result) {
+
+        float xEntry, xExit, xEntryGap;
+        if (dx > 0.0f) {
+            xEntryGap = (fixed.x - fixed.halfWidth) - (moving.x + moving.halfWidth);
+            xEntry = xEntryGap / dx;
+            xExit = ((fixed.x + fixed.halfWidth) - (moving.x - moving.halfWidth)) / dx;
+        } else if (dx < 0.0f) {
+            xEntryGap = (moving.x - moving.halfWidth) - (fixed.x + fixed.halfWidth);
+            xEntry = xEntryGap / -dx;
+            xExit = ((moving.x + moving.halfWidth) - (fixed.x - fixed.halfWidth)) / -dx;
+        } else {
+            // No movement along x, the boxes must already overlap along x
+            if (moving.x + moving.halfWidth <= fixed.x - fixed.halfWidth
+                    || moving.x - moving.halfWidth >= fixed.x + fixed.halfWidth)
+                return false;
+            xEntryGap = Float.NEGATIVE_INFINITY;
+            xEntry = Float.NEGATIVE_INFINITY;
+            xExit = Float.POSITIVE_INFINITY;
+        }
+
+        float yEntry, yExit, yEntryGap;
+        if (dy > 0.0f) {
+            yEntryGap = (fixed.y - fixed.halfHeight) - (moving.y + moving.halfHeight);
+            yEntry = yEntryGap / dy;
+            yExit = ((fixed.y + fixed.halfHeight) - (moving.y - moving.halfHeight)) / dy;
+        } else if (dy < 0.0f) {
+            yEntryGap = (moving.y - moving.halfHeight) - (fixed.y + fixed.halfHeight);
+            yEntry = yEntryGap / -dy;
+            yExit = ((moving.y + moving.halfHeight) - (fixed.y - fixed.halfHeight)) / -dy;
+        } else {
+            // No movement along y, the boxes must already overlap along y
+            if (moving.y + moving.halfHeight <= fixed.y - fixed.halfHeight
+                    || moving.y - moving.halfHeight >= fixed.y + fixed.halfHeight)
+                return false;
+            yEntryGap = Float.NEGATIVE_INFINITY;
+            yEntry = Float.NEGATIVE_INFINITY;
+            yExit = Float.POSITIVE_INFINITY;
+        }
+
+        // The boxes collide over the interval during which they overlap
+        // along both axes. The time of impact is the latest entry time.
+        boolean entryAlongX = xEntry > yEntry;
+        float entry = entryAlongX ? xEntry : yEntry;
+        float exit = Math.min(xExit, yExit);
+        if (entry > exit || exit <= 0.0f || entry >= result.time)
+            return false;
+
+        // Reject boxes that already overlap beyond the contact tolerance
+        if (entry < 0.0f) {
+            float entryGap = entryAlongX ? xEntryGap : yEntryGap;
+            if (entryGap < -SWEEP_CONTACT_TOLERANCE)
+                return false;
+            entry = 0.0f;
+        }
+
+        result.time = entry;
+        if (entryAlongX)
+            result.collisionType = dx > 0.0f ? CollisionType.Right : CollisionType.Left;
+        else
+            result.collisionType = dy < 0.0f ? CollisionType.Top : CollisionType.Bottom;
+        return true;
+    }
+}
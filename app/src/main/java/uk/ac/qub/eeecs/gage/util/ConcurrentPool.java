@@ -0,0 +1,243 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free object pool that can be shared by any number of threads.
+ * <p>
+ * Pooled objects are held within a bounded multi-producer, multi-consumer
+ * ring buffer. Each slot holds a sequence number which tells a thread if
+ * the slot is ready to be written (by an add) or read (by a get), so each
+ * operation only needs a single compare-and-set on the shared write or
+ * read position. Neither get nor add ever block: a get from an empty pool
+ * creates a new object and an add to a full pool drops the object.
+ * <p>
+ * The maximum pool size is rounded up to a power of two.
+ *
+ * @version 1.0
+ */
+public class ConcurrentPool<T> implements IPool<T> {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Object factory used to populate this pool
+     */
+    private final Pool.ObjectFactory<T> mFactory;
+
+    /**
+     * Ring buffer slots alongside the sequence number of each slot. A slot
+     * can be written at position p when its sequence equals p, and read
+     * at position p when its sequence equals p + 1.
+     */
+    private final AtomicReferenceArray<T> mSlots;
+    private final AtomicLongArray mSequences;
+    private final int mMask;
+
+    /**
+     * Next positions to be written (added) and read (got)
+     */
+    private final AtomicLong mAddPosition = new AtomicLong();
+    private final AtomicLong mGetPosition = new AtomicLong();
+
+    /**
+     * Usage statistics
+     */
+    private final AtomicLong mHits = new AtomicLong();
+    private final AtomicLong mMisses = new AtomicLong();
+    private final AtomicLong mDrops = new AtomicLong();
+    private final AtomicInteger mHighWaterMark = new AtomicInteger();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a concurrent object pool using the specified factory and
+     * maximum pool size.
+     *
+     * @param factory     Object factory used to populate the pool
+     * @param maxPoolSize Maximum number of objects that can be stored in the
+     *                    pool (rounded up to a power of two)
+     */
+    public ConcurrentPool(Pool.ObjectFactory<T> factory, int maxPoolSize) {
+        if (maxPoolSize < 1 || maxPoolSize > (1 << 30))
+            throw new RuntimeException(
+                    "ConcurrentPool.constructor: Invalid maximum pool size [" + maxPoolSize + "]");
+
+        int capacity = Integer.highestOneBit(maxPoolSize);
+        if (capacity < maxPoolSize)
+            capacity <<= 1;
+
+        mFactory = factory;
+        mMask = capacity - 1;
+        mSlots = new AtomicReferenceArray<>(capacity);
+        mSequences = new AtomicLongArray(capacity);
+        for (int idx = 0; idx < capacity; idx++)
+            mSequences.set(idx, idx);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Pooling
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get an object instance.
+     * <p>
+     * Note: The object instance may be either a new instance or a 'reused'
+     * instance taken from the pool. The callee should ensure that the object is
+     * adequately initialised taking into account the object may contain 'dirty'
+     * data.
+     *
+     * @return Object instance (potentially dirty)
+     */
+    @Override
+    public T get() {
+        T object = poll();
+        if (object != null) {
+            mHits.incrementAndGet();
+            return object;
+        }
+
+        mMisses.incrementAndGet();
+        return mFactory.createObject();
+    }
+
+    /**
+     * Add the object to the pool.
+     * <p>
+     * Note: When added to the pool the callee should ensure that the object is
+     * not further accessed through whatever reference was being used.
+     *
+     * @param object instance to be added to the pool
+     */
+    @Override
+    public void add(T object) {
+        if (!offer(object))
+            mDrops.incrementAndGet();
+    }
+
+    /**
+     * Pre-warm the pool, creating objects until it holds the specified
+     * number of objects (or is full)
+     *
+     * @param count Number of objects the pool should hold
+     */
+    @Override
+    public void prewarm(int count) {
+        while (getSize() < Math.min(count, getMaxSize()))
+            if (!offer(mFactory.createObject()))
+                break;
+    }
+
+    /**
+     * Take an object from the pool without creating a new object or
+     * recording any statistics
+     *
+     * @return Pooled object, or null if the pool is empty
+     */
+    T poll() {
+        long position = mGetPosition.get();
+        int slot;
+        for (; ; ) {
+            slot = (int) (position & mMask);
+            long difference = mSequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                if (mGetPosition.compareAndSet(position, position + 1))
+                    break;
+                position = mGetPosition.get();
+            } else if (difference < 0) {
+                // The slot has not been written: the pool is empty
+                return null;
+            } else {
+                // Another thread has taken this position
+                position = mGetPosition.get();
+            }
+        }
+
+        T object = mSlots.get(slot);
+        mSlots.lazySet(slot, null);
+        mSequences.lazySet(slot, position + mMask + 1);
+        return object;
+    }
+
+    /**
+     * Place an object into the pool without recording a drop if the pool
+     * is full
+     *
+     * @param object Object to pool
+     * @return True if the object was pooled, false if the pool is full
+     */
+    boolean offer(T object) {
+        long position = mAddPosition.get();
+        int slot;
+        for (; ; ) {
+            slot = (int) (position & mMask);
+            long difference = mSequences.get(slot) - position;
+            if (difference == 0) {
+                if (mAddPosition.compareAndSet(position, position + 1))
+                    break;
+                position = mAddPosition.get();
+            } else if (difference < 0) {
+                // The slot has not yet been read: the pool is full
+                return false;
+            } else {
+                // Another thread has taken this position
+                position = mAddPosition.get();
+            }
+        }
+
+        mSlots.lazySet(slot, object);
+        mSequences.lazySet(slot, position + 1);
+
+        // Update the high-water mark
+        int size = getSize();
+        int highWaterMark = mHighWaterMark.get();
+        while (size > highWaterMark && !mHighWaterMark.compareAndSet(highWaterMark, size))
+            highWaterMark = mHighWaterMark.get();
+        return true;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Statistics
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the number of objects currently held within the pool. Whilst other
+     * threads are using the pool this is an estimate.
+     *
+     * @return Number of pooled objects
+     */
+    public int getSize() {
+        long size = mAddPosition.get() - mGetPosition.get();
+        return size < 0 ? 0 : (size > mMask + 1 ? mMask + 1 : (int) size);
+    }
+
+    @Override
+    public int getMaxSize() {
+        return mMask + 1;
+    }
+
+    @Override
+    public void getStats(PoolStats stats) {
+        stats.hits = mHits.get();
+        stats.misses = mMisses.get();
+        stats.drops = mDrops.get();
+        stats.highWaterMark = mHighWaterMark.get();
+        stats.size = getSize();
+        stats.maxSize = getMaxSize();
+    }
+
+    @Override
+    public void resetStats() {
+        mHits.set(0L);
+        mMisses.set(0L);
+        mDrops.set(0L);
+        mHighWaterMark.set(getSize());
+    }
+}
@@ -0,0 +1,112 @@
+package uk.ac.qub.eeecs.gage.util;
+
+/**
+ * Fast, non thread safe, pseudo random number generator.
+ * <p>
+ * Uses the SplitMix64 generator: a 64-bit counter advanced by a fixed odd
+ * increment and passed through a mixing function. Unlike java.util.Random
+ * no atomic operations are needed, so each user (e.g. an emitter) should
+ * hold its own instance. Generators created with the same seed return the
+ * same sequence of values. Generators created without a seed are seeded
+ * from the SeedSource, so follow any recorded master seed.
+ *
+ * @version 1.0
+ */
+public class FastRandom {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Increment applied to the state on each step (the golden ratio)
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Generator state
+     */
+    private long mState;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new generator using the next seed from the seed source
+     */
+    public FastRandom() {
+        this(SeedSource.nextSeed());
+    }
+
+    /**
+     * Create a new generator using the specified seed
+     *
+     * @param seed Seed
+     */
+    public FastRandom(long seed) {
+        mState = seed;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reset the generator to the start of the sequence for the specified seed
+     *
+     * @param seed Seed
+     */
+    public void setSeed(long seed) {
+        mState = seed;
+    }
+
+    /**
+     * Return the next pseudo random long value
+     *
+     * @return Random long value
+     */
+    public long nextLong() {
+        mState += GOLDEN_GAMMA;
+        return mix(mState);
+    }
+
+    /**
+     * Return the next pseudo random int value
+     *
+     * @return Random int value
+     */
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    /**
+     * Return the next pseudo random float value between 0 (inclusive) and
+     * 1 (exclusive)
+     *
+     * @return Random float value
+     */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Return a pseudo random float value between the specified min and max
+     *
+     * @param min Minimum value
+     * @param max Maximum value
+     * @return Value in the specified range
+     */
+    public float nextFloat(float min, float max) {
+        return min + nextFloat() * (max - min);
+    }
+
+    /**
+     * SplitMix64 mixing function
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
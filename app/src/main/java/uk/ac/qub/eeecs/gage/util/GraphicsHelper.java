@@ -136,6 +136,31 @@ public final class GraphicsHelper {
     public static boolean getClippedSourceAndScreenRect(BoundingBox bound, Bitmap bitmap,
                                                               LayerViewport layerViewport, ScreenViewport screenViewport,
                                                               Rect sourceRect, Rect screenRect) {
+        return getClippedSourceAndScreenRect(bound, bitmap.getWidth(), bitmap.getHeight(),
+                layerViewport, screenViewport, sourceRect, screenRect);
+    }
+
+    /**
+     * Determine a source Rect and destination screen Rect if the specified
+     * game object bound falls within the layer's viewport, where the source
+     * is a region of the specified size (e.g. a single sprite sheet frame).
+     * <p>
+     * The returned Rects are clipped against the layer and screen viewport.
+     * The source Rect is relative to the top-left corner of the source region.
+     *
+     * @param bound          Game object bound to be considered
+     * @param sourceWidth    Pixel width of the source region
+     * @param sourceHeight   Pixel height of the source region
+     * @param layerViewport  Layer viewport region to check the entity against
+     * @param screenViewport Screen viewport region that will be used to draw the
+     * @param sourceRect     Output Rect holding the part of the source region to draw
+     * @param screenRect     Output Rect holding the region of the screen to draw to
+     * @return True if the specified object is visible, False otherwise
+     */
+    public static boolean getClippedSourceAndScreenRect(BoundingBox bound,
+                                                              int sourceWidth, int sourceHeight,
+                                                              LayerViewport layerViewport, ScreenViewport screenViewport,
+                                                              Rect sourceRect, Rect screenRect) {
 
         // Determine if the bound falls within the layer viewport
         if (bound.x - bound.halfWidth < layerViewport.x + layerViewport.halfWidth &&
@@ -152,25 +177,25 @@ public final class GraphicsHelper {
                     (bound.y + bound.halfHeight)
                             - (layerViewport.y + layerViewport.halfHeight));
 
-            float sourceWidth = ((bound.halfWidth * 2 - sourceX) - Math
+            float clippedWidth = ((bound.halfWidth * 2 - sourceX) - Math
                     .max(0.0f, (bound.x + bound.halfWidth)
                             - (layerViewport.x + layerViewport.halfWidth)));
-            float sourceHeight = ((bound.halfHeight * 2 - sourceY) - Math
+            float clippedHeight = ((bound.halfHeight * 2 - sourceY) - Math
                     .max(0.0f, (layerViewport.y - layerViewport.halfHeight)
                             - (bound.y - bound.halfHeight)));
 
-            // Determining the scale factor for mapping the bitmap onto this
+            // Determining the scale factor for mapping the source onto this
             // Rect and set the sourceRect value.
 
-            float sourceScaleWidth = (float) bitmap.getWidth()
+            float sourceScaleWidth = (float) sourceWidth
                     / (2 * bound.halfWidth);
-            float sourceScaleHeight = (float) bitmap.getHeight()
+            float sourceScaleHeight = (float) sourceHeight
                     / (2 * bound.halfHeight);
 
             sourceRect.set((int) (sourceX * sourceScaleWidth),
                     (int) (sourceY * sourceScaleHeight),
-                    (int) ((sourceX + sourceWidth) * sourceScaleWidth),
-                    (int) ((sourceY + sourceHeight) * sourceScaleHeight));
+                    (int) ((sourceX + clippedWidth) * sourceScaleWidth),
+                    (int) ((sourceY + clippedHeight) * sourceScaleHeight));
 
             // Determine =which region of the screen viewport (relative to the
             // canvas) we will be drawing to.
@@ -190,8 +215,8 @@ public final class GraphicsHelper {
 
             // Set the region to the canvas to which we will draw
             screenRect.set((int) screenX, (int) screenY,
-                    (int) (screenX + sourceWidth * screenXScale),
-                    (int) (screenY + sourceHeight * screenYScale));
+                    (int) (screenX + clippedWidth * screenXScale),
+                    (int) (screenY + clippedHeight * screenYScale));
 
             return true;
         }
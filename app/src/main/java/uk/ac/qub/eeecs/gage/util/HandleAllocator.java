@@ -0,0 +1,254 @@
+package uk.ac.qub.eeecs.gage.util;
+
+/**
+ * Allocator of generational integer handles.
+ * <p>
+ * Each handle packs a slot index (the low 20 bits) alongside the generation
+ * of the slot (the high 12 bits). Whenever a handle is released the
+ * generation of its slot is incremented, so any copies of the released
+ * handle are detected as stale, even once the slot has been reused. Slot
+ * indices are dense (0 to getCapacity()-1), so can be used to index arrays.
+ * <p>
+ * Generations start at 1, so handle 0 is never allocated and can be used to
+ * represent 'no handle'. Released slots are reused in the order they were
+ * released (first in, first out), and only once more than MIN_FREE_SLOTS
+ * slots are waiting, so reuse is spread across slots rather than repeatedly
+ * hitting the most recently released slot.
+ * <p>
+ * Once a slot's generation reaches 4095 it wraps back to 1, so slots can be
+ * reused indefinitely. A stale handle could hence only be mistaken for a live
+ * handle if it were kept whilst its slot was reused another 4095 times. As
+ * slots are reused in order, that needs at least 4095 * (MIN_FREE_SLOTS + 1)
+ * releases, far longer than a stale handle should be held.
+ *
+ * @version 1.0
+ */
+public class HandleAllocator {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Handle layout
+     */
+    public static final int INDEX_BITS = 20;
+    public static final int GENERATION_BITS = 12;
+    public static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    public static final int GENERATION_MASK = (1 << GENERATION_BITS) - 1;
+
+    /**
+     * Maximum number of slots (and hence live handles)
+     */
+    public static final int MAX_HANDLES = 1 << INDEX_BITS;
+
+    /**
+     * Handle value that is never allocated
+     */
+    public static final int INVALID_HANDLE = 0;
+
+    /**
+     * Number of released slots that must be waiting before a released slot
+     * is reused (unless the handle limit has been reached)
+     */
+    public static final int MIN_FREE_SLOTS = 64;
+
+    /**
+     * Current generation of each slot
+     */
+    private int[] mGenerations;
+
+    /**
+     * Flag identifying if each slot holds a live handle
+     */
+    private boolean[] mLive;
+
+    /**
+     * Queue (held as a ring buffer) of released slots available for reuse
+     */
+    private int[] mFreeSlots;
+    private int mFreeSlotHead = 0;
+    private int mFreeSlotCount = 0;
+
+    /**
+     * Number of slots that have been used, alongside the number of live
+     * handles
+     */
+    private int mSlotCount = 0;
+    private int mCount = 0;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new handle allocator
+     *
+     * @param initialCapacity Number of slots that can be used before the
+     *                        allocator needs to grow
+     */
+    public HandleAllocator(int initialCapacity) {
+        int capacity = Math.min(Math.max(initialCapacity, 1), MAX_HANDLES);
+        mGenerations = new int[capacity];
+        mLive = new boolean[capacity];
+        mFreeSlots = new int[capacity];
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Handle Layout
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the slot index of the specified handle
+     *
+     * @param handle Handle
+     * @return Slot index
+     */
+    public static int getIndex(int handle) {
+        return handle & INDEX_MASK;
+    }
+
+    /**
+     * Get the generation of the specified handle
+     *
+     * @param handle Handle
+     * @return Generation
+     */
+    public static int getGeneration(int handle) {
+        return (handle >>> INDEX_BITS) & GENERATION_MASK;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Allocation
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Allocate a new handle, reusing the earliest released slot if enough
+     * released slots are waiting
+     *
+     * @return Handle
+     */
+    public int allocate() {
+        int index;
+        if (mFreeSlotCount > MIN_FREE_SLOTS
+                || (mFreeSlotCount > 0 && mSlotCount == MAX_HANDLES)) {
+            index = mFreeSlots[mFreeSlotHead];
+            mFreeSlotHead = (mFreeSlotHead + 1) % mFreeSlots.length;
+            mFreeSlotCount--;
+        } else {
+            if (mSlotCount == MAX_HANDLES)
+                throw new RuntimeException(
+                        "HandleAllocator.allocate: Handle limit reached [" + MAX_HANDLES + "]");
+            if (mSlotCount == mGenerations.length)
+                grow(Math.min(mGenerations.length * 2, MAX_HANDLES));
+            index = mSlotCount++;
+            mGenerations[index] = 1;
+        }
+
+        mLive[index] = true;
+        mCount++;
+        return (mGenerations[index] << INDEX_BITS) | index;
+    }
+
+    /**
+     * Release the specified handle, making it (and any copies) stale
+     *
+     * @param handle Handle to release
+     */
+    public void release(int handle) {
+        if (!isValid(handle))
+            throw new RuntimeException(
+                    "HandleAllocator.release: Stale or unknown handle [" + handle + "]");
+
+        int index = getIndex(handle);
+        mLive[index] = false;
+        freeSlot(index);
+        mCount--;
+    }
+
+    /**
+     * Release all handles
+     */
+    public void clear() {
+        mFreeSlotHead = 0;
+        mFreeSlotCount = 0;
+        for (int index = 0; index < mSlotCount; index++) {
+            if (mLive[index]) {
+                mLive[index] = false;
+                freeSlot(index);
+            } else {
+                queueFreeSlot(index);
+            }
+        }
+        mCount = 0;
+    }
+
+    /**
+     * Advance the generation of a released slot, wrapping back to 1 (so
+     * handle 0 is never allocated), and queue it for reuse
+     */
+    private void freeSlot(int index) {
+        mGenerations[index] = mGenerations[index] == GENERATION_MASK
+                ? 1 : mGenerations[index] + 1;
+        queueFreeSlot(index);
+    }
+
+    private void queueFreeSlot(int index) {
+        mFreeSlots[(mFreeSlotHead + mFreeSlotCount) % mFreeSlots.length] = index;
+        mFreeSlotCount++;
+    }
+
+    /**
+     * Determine if the specified handle is live, i.e. it has been allocated
+     * and not yet released
+     *
+     * @param handle Handle
+     * @return True if the handle is live
+     */
+    public boolean isValid(int handle) {
+        int index = handle & INDEX_MASK;
+        return index < mSlotCount && mLive[index]
+                && mGenerations[index] == getGeneration(handle);
+    }
+
+    /**
+     * Get the number of live handles
+     *
+     * @return Number of live handles
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Get the number of slots that can currently be used. Slot indices are
+     * always below this value.
+     *
+     * @return Slot capacity
+     */
+    public int getCapacity() {
+        return mGenerations.length;
+    }
+
+    /**
+     * Grow the slot arrays
+     *
+     * @param capacity New capacity
+     */
+    private void grow(int capacity) {
+        int[] generations = new int[capacity];
+        System.arraycopy(mGenerations, 0, generations, 0, mSlotCount);
+        mGenerations = generations;
+
+        boolean[] live = new boolean[capacity];
+        System.arraycopy(mLive, 0, live, 0, mSlotCount);
+        mLive = live;
+
+        // Unwrap the free slot queue into the start of the grown array
+        int[] freeSlots = new int[capacity];
+        for (int idx = 0; idx < mFreeSlotCount; idx++)
+            freeSlots[idx] = mFreeSlots[(mFreeSlotHead + idx) % mFreeSlots.length];
+        mFreeSlots = freeSlots;
+        mFreeSlotHead = 0;
+    }
+}
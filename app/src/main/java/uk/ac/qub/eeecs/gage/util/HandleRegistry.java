@@ -0,0 +1,138 @@
+package uk.ac.qub.eeecs.gage.util;
+
+/**
+ * Registry mapping generational handles (see HandleAllocator) to objects.
+ * <p>
+ * Objects are held within an array indexed by the handle's slot, so lookups
+ * are O(1). Looking up a released (stale) handle returns null rather than
+ * whatever object has since reused the slot, so handles can be safely held
+ * in place of references to objects that are pooled or moved.
+ *
+ * @version 1.0
+ */
+public class HandleRegistry<T> {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Allocator used to create handles
+     */
+    private final HandleAllocator mAllocator;
+
+    /**
+     * Object registered within each slot
+     */
+    private Object[] mObjects;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new handle registry
+     *
+     * @param initialCapacity Number of objects that can be registered before
+     *                        the registry needs to grow
+     */
+    public HandleRegistry(int initialCapacity) {
+        mAllocator = new HandleAllocator(initialCapacity);
+        mObjects = new Object[mAllocator.getCapacity()];
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Register an object, returning a new handle for the object
+     *
+     * @param object Object to register
+     * @return Handle
+     */
+    public int add(T object) {
+        int handle = mAllocator.allocate();
+        if (mObjects.length < mAllocator.getCapacity()) {
+            Object[] objects = new Object[mAllocator.getCapacity()];
+            System.arraycopy(mObjects, 0, objects, 0, mObjects.length);
+            mObjects = objects;
+        }
+        mObjects[HandleAllocator.getIndex(handle)] = object;
+        return handle;
+    }
+
+    /**
+     * Get the object registered against the specified handle
+     *
+     * @param handle Handle
+     * @return Registered object, or null if the handle is stale
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int handle) {
+        if (!mAllocator.isValid(handle))
+            return null;
+        return (T) mObjects[HandleAllocator.getIndex(handle)];
+    }
+
+    /**
+     * Replace the object registered against the specified handle, e.g. if
+     * the object has been moved
+     *
+     * @param handle Handle
+     * @param object Object to register
+     */
+    public void set(int handle, T object) {
+        if (!mAllocator.isValid(handle))
+            throw new RuntimeException(
+                    "HandleRegistry.set: Stale or unknown handle [" + handle + "]");
+        mObjects[HandleAllocator.getIndex(handle)] = object;
+    }
+
+    /**
+     * Remove the object registered against the specified handle, making the
+     * handle stale
+     *
+     * @param handle Handle
+     * @return Removed object, or null if the handle was already stale
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(int handle) {
+        if (!mAllocator.isValid(handle))
+            return null;
+
+        int index = HandleAllocator.getIndex(handle);
+        T object = (T) mObjects[index];
+        mObjects[index] = null;
+        mAllocator.release(handle);
+        return object;
+    }
+
+    /**
+     * Remove all registered objects, making all handles stale
+     */
+    public void clear() {
+        mAllocator.clear();
+        for (int idx = 0; idx < mObjects.length; idx++)
+            mObjects[idx] = null;
+    }
+
+    /**
+     * Determine if the specified handle is live
+     *
+     * @param handle Handle
+     * @return True if the handle is live
+     */
+    public boolean isValid(int handle) {
+        return mAllocator.isValid(handle);
+    }
+
+    /**
+     * Get the number of registered objects
+     *
+     * @return Number of registered objects
+     */
+    public int getCount() {
+        return mAllocator.getCount();
+    }
+}
@@ -0,0 +1,59 @@
+package uk.ac.qub.eeecs.gage.util;
+
+/**
+ * The pool interface defines the operations supported by each object pool,
+ * alongside the usage statistics recorded by the pool.
+ *
+ * @version 1.0
+ */
+public interface IPool<T> {
+
+    /**
+     * Get an object instance, either taken from the pool or newly created
+     * if the pool is empty.
+     * <p>
+     * Note: A pooled instance may contain 'dirty' data from its last use and
+     * should be adequately initialised by the callee.
+     *
+     * @return Object instance (potentially dirty)
+     */
+    T get();
+
+    /**
+     * Add the object to the pool. If the pool is full the object is dropped.
+     * <p>
+     * Note: When added to the pool the callee should ensure that the object is
+     * not further accessed through whatever reference was being used.
+     *
+     * @param object instance to be added to the pool
+     */
+    void add(T object);
+
+    /**
+     * Pre-warm the pool, creating objects until it holds the specified
+     * number of objects (or is full)
+     *
+     * @param count Number of objects the pool should hold
+     */
+    void prewarm(int count);
+
+    /**
+     * Get the maximum number of objects that can be held within the pool
+     *
+     * @return Maximum pool size
+     */
+    int getMaxSize();
+
+    /**
+     * Store a snapshot of the pool's usage statistics
+     *
+     * @param stats Snapshot into which the statistics are stored
+     */
+    void getStats(PoolStats stats);
+
+    /**
+     * Reset the pool's hit, miss and drop counts and set the high-water mark
+     * to the current number of pooled objects
+     */
+    void resetStats();
+}
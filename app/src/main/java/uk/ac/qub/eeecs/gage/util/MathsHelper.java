@@ -5,6 +5,42 @@ package uk.ac.qub.eeecs.gage.util;
  */
 public class MathsHelper {
 
+    /**
+     * Number of entries within the direction lookup tables (a power of two),
+     * covering a full turn
+     */
+    private static final int DIRECTION_TABLE_SIZE = 4096;
+    private static final int DIRECTION_TABLE_MASK = DIRECTION_TABLE_SIZE - 1;
+    private static final float DIRECTION_TABLE_SCALE = DIRECTION_TABLE_SIZE / 360.0f;
+
+    /**
+     * Cosine and sine lookup tables, indexed by angle
+     */
+    private static final float[] sCosTable = new float[DIRECTION_TABLE_SIZE];
+    private static final float[] sSinTable = new float[DIRECTION_TABLE_SIZE];
+
+    static {
+        for (int idx = 0; idx < DIRECTION_TABLE_SIZE; idx++) {
+            double radians = idx * 2.0 * Math.PI / DIRECTION_TABLE_SIZE;
+            sCosTable[idx] = (float) Math.cos(radians);
+            sSinTable[idx] = (float) Math.sin(radians);
+        }
+    }
+
+    /**
+     * Store the unit direction vector for the specified angle, using lookup
+     * tables rather than trigonometric functions. The angle is rounded to
+     * the nearest table entry (to within 0.05 degrees).
+     *
+     * @param degrees Angle in degrees (+ve counterclockwise from the x axis)
+     * @param output  Direction vector
+     */
+    public static void directionFromDegrees(float degrees, Vector2 output) {
+        int idx = Math.round(degrees * DIRECTION_TABLE_SCALE) & DIRECTION_TABLE_MASK;
+        output.x = sCosTable[idx];
+        output.y = sSinTable[idx];
+    }
+
     /**
      * Rotate the specified relative offset point around the centre point
      * returning the result in output.
@@ -0,0 +1,226 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Splits a loop over a range of indices into contiguous sub-ranges that
+ * are processed in parallel using a fixed pool of worker threads.
+ * <p>
+ * The calling thread processes the first sub-range itself and then blocks
+ * until all other sub-ranges have completed. Range tasks should only write
+ * to array elements within their sub-range. If any sub-range fails, then
+ * the first failure is rethrown on the calling thread once all sub-ranges
+ * have completed.
+ * <p>
+ * The worker runnables are created once and reused to reduce temporary
+ * object creation. A parallel for instance should only be executed from
+ * one thread at a time.
+ *
+ * @version 1.0
+ */
+public class ParallelFor {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Range Task
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Task that processes a contiguous range of indices
+     */
+    public interface RangeTask {
+        /**
+         * Process the specified range of indices
+         *
+         * @param start First index to process (inclusive)
+         * @param end   Last index to process (exclusive)
+         */
+        void run(int start, int end);
+    }
+
+    /**
+     * Reusable runnable used to process one sub-range on a worker thread
+     */
+    private class RangeRunnable implements Runnable {
+        RangeTask task;
+        int start;
+        int end;
+
+        @Override
+        public void run() {
+            Throwable failure = null;
+            try {
+                task.run(start, end);
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            } finally {
+                task = null;
+                rangeCompleted(failure);
+            }
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Executor providing the worker threads
+     */
+    private final ExecutorService mExecutor;
+
+    /**
+     * Runnables used to process sub-ranges on the worker threads
+     */
+    private final RangeRunnable[] mRangeRunnables;
+
+    /**
+     * Number of sub-ranges still being processed by worker threads, alongside
+     * the lock used to wait for their completion
+     */
+    private int mPendingRanges = 0;
+    private final Object mCompletionLock = new Object();
+
+    /**
+     * First failure thrown by a sub-range during the current execution
+     */
+    private Throwable mFailure;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new parallel for using one worker thread per available
+     * processor, excluding the calling thread
+     */
+    public ParallelFor() {
+        this(Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    /**
+     * Create a new parallel for
+     *
+     * @param numWorkerThreads Number of worker threads. The calling thread
+     *                         also processes part of each range.
+     */
+    public ParallelFor(int numWorkerThreads) {
+        numWorkerThreads = Math.max(numWorkerThreads, 0);
+
+        mRangeRunnables = new RangeRunnable[numWorkerThreads];
+        for (int idx = 0; idx < numWorkerThreads; idx++)
+            mRangeRunnables[idx] = new RangeRunnable();
+
+        mExecutor = numWorkerThreads == 0 ? null :
+                Executors.newFixedThreadPool(numWorkerThreads, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "ParallelFor");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the maximum number of sub-ranges a range can be split into
+     *
+     * @return Maximum number of sub-ranges
+     */
+    public int getParallelism() {
+        return mRangeRunnables.length + 1;
+    }
+
+    /**
+     * Run the specified task over indices 0 to count-1, splitting the range
+     * across the worker threads. Ranges smaller than the specified minimum
+     * are not split, avoiding the overhead of handing small amounts of work
+     * to other threads. If any sub-range fails then the first failure is
+     * rethrown once all sub-ranges have completed.
+     *
+     * @param count        Number of indices to process
+     * @param minRangeSize Minimum number of indices in each sub-range
+     * @param task         Task to run
+     */
+    public void execute(int count, int minRangeSize, RangeTask task) {
+        int numRanges = Math.min(getParallelism(),
+                count / Math.max(minRangeSize, 1));
+        if (numRanges <= 1) {
+            if (count > 0)
+                task.run(0, count);
+            return;
+        }
+
+        int rangeSize = (count + numRanges - 1) / numRanges;
+
+        // Hand all but the first sub-range to the worker threads
+        synchronized (mCompletionLock) {
+            mPendingRanges = numRanges - 1;
+            mFailure = null;
+        }
+        for (int range = 1; range < numRanges; range++) {
+            RangeRunnable runnable = mRangeRunnables[range - 1];
+            runnable.task = task;
+            runnable.start = range * rangeSize;
+            runnable.end = Math.min(count, runnable.start + rangeSize);
+            mExecutor.execute(runnable);
+        }
+
+        // Process the first sub-range on this thread and wait for the others
+        Throwable failure = null;
+        try {
+            task.run(0, Math.min(count, rangeSize));
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+
+        synchronized (mCompletionLock) {
+            boolean interrupted = false;
+            while (mPendingRanges > 0) {
+                try {
+                    mCompletionLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+
+            if (failure == null)
+                failure = mFailure;
+            mFailure = null;
+        }
+
+        if (failure instanceof RuntimeException)
+            throw (RuntimeException) failure;
+        if (failure instanceof Error)
+            throw (Error) failure;
+    }
+
+    /**
+     * Record the completion of a sub-range by a worker thread
+     *
+     * @param failure Failure thrown by the sub-range, or null
+     */
+    private void rangeCompleted(Throwable failure) {
+        synchronized (mCompletionLock) {
+            if (failure != null && mFailure == null)
+                mFailure = failure;
+            if (--mPendingRanges == 0)
+                mCompletionLock.notifyAll();
+        }
+    }
+
+    /**
+     * Stop the worker threads. The parallel for should not be used afterwards.
+     */
+    public void shutdown() {
+        if (mExecutor != null)
+            mExecutor.shutdown();
+    }
+}
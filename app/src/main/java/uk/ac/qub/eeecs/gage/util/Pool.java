@@ -1,15 +1,19 @@
 package uk.ac.qub.eeecs.gage.util;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Object pool class, providing a reusable collection of objects of a specified
  * type
+ * <p>
+ * The pool's storage grows as objects are added, up to the maximum pool
+ * size, so a pool with a generous maximum size only holds storage for the
+ * objects actually pooled. The pool is not thread safe and should only be
+ * accessed by one thread at a time (or be externally synchronised). See
+ * ConcurrentPool and ThreadLocalPool for pools that can be shared across
+ * threads.
  *
  * @version 1.0
  */
-public class Pool<T> {
+public class Pool<T> implements IPool<T> {
 
     /**
      * Factor that can provide instances of the objects managed within this
@@ -19,17 +23,31 @@ public class Pool<T> {
         T createObject();
     }
 
+    /**
+     * Initial capacity of the pool's storage
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
     /**
      * Object factory used to populate this pool
      */
     private final ObjectFactory<T> mFactory;
 
     /**
-     * Object pool and maximum pool size constant
+     * Object pool, held as a stack, and maximum pool size constant
      */
-    private final List<T> mPool;
+    private Object[] mPool;
+    private int mSize = 0;
     private final int mMaxPoolSize;
 
+    /**
+     * Usage statistics
+     */
+    private long mHits = 0L;
+    private long mMisses = 0L;
+    private long mDrops = 0L;
+    private int mHighWaterMark = 0;
+
     /**
      * Create an object pool using the specified factory and maximum pool size.
      *
@@ -37,9 +55,13 @@ public class Pool<T> {
      * @param maxPoolSize Maximum number of objects that can be stored in the pool
      */
     public Pool(ObjectFactory<T> factory, int maxPoolSize) {
+        if (maxPoolSize < 0)
+            throw new RuntimeException(
+                    "Pool.constructor: Invalid maximum pool size [" + maxPoolSize + "]");
+
         mFactory = factory;
         mMaxPoolSize = maxPoolSize;
-        mPool = new ArrayList<>(mMaxPoolSize);
+        mPool = new Object[Math.min(mMaxPoolSize, INITIAL_CAPACITY)];
     }
 
     /**
@@ -52,27 +74,114 @@ public class Pool<T> {
      *
      * @return Object instance (potentially dirty)
      */
+    @SuppressWarnings("unchecked")
+    @Override
     public T get() {
-        T object;
-
-        if (mPool.isEmpty())
-            object = mFactory.createObject();
-        else
-            object = mPool.remove(mPool.size() - 1);
+        if (mSize == 0) {
+            mMisses++;
+            return mFactory.createObject();
+        }
 
+        mHits++;
+        T object = (T) mPool[--mSize];
+        mPool[mSize] = null;
         return object;
     }
 
     /**
-     * Add the object to the pool.
+     * Add the object to the pool. If the pool is full the object is dropped.
      * <p>
      * Note: When added to the pool the callee should ensure that the object is
      * not further accessed through whatever reference was being used.
      *
      * @param object instance to be added to the pool
      */
+    @Override
     public void add(T object) {
-        if (mPool.size() < mMaxPoolSize)
-            mPool.add(object);
+        if (mSize < mMaxPoolSize) {
+            if (mSize == mPool.length)
+                grow(mSize + 1);
+            mPool[mSize++] = object;
+            if (mSize > mHighWaterMark)
+                mHighWaterMark = mSize;
+        } else {
+            mDrops++;
+        }
+    }
+
+    /**
+     * Pre-warm the pool, creating objects until it holds the specified
+     * number of objects (or is full)
+     *
+     * @param count Number of objects the pool should hold
+     */
+    @Override
+    public void prewarm(int count) {
+        int target = Math.min(count, mMaxPoolSize);
+        if (target > mPool.length)
+            grow(target);
+        while (mSize < target)
+            mPool[mSize++] = mFactory.createObject();
+        if (mSize > mHighWaterMark)
+            mHighWaterMark = mSize;
+    }
+
+    /**
+     * Grow the pool's storage to hold at least the specified number of
+     * objects, doubling the capacity up to the maximum pool size
+     */
+    private void grow(int minCapacity) {
+        int capacity = Math.max(mPool.length * 2, INITIAL_CAPACITY);
+        capacity = Math.min(Math.max(capacity, minCapacity), mMaxPoolSize);
+
+        Object[] pool = new Object[capacity];
+        System.arraycopy(mPool, 0, pool, 0, mSize);
+        mPool = pool;
+    }
+
+    /**
+     * Get the number of objects currently held within the pool
+     *
+     * @return Number of pooled objects
+     */
+    public int getSize() {
+        return mSize;
+    }
+
+    /**
+     * Get the maximum number of objects that can be held within the pool
+     *
+     * @return Maximum pool size
+     */
+    @Override
+    public int getMaxSize() {
+        return mMaxPoolSize;
+    }
+
+    /**
+     * Store a snapshot of the pool's usage statistics
+     *
+     * @param stats Snapshot into which the statistics are stored
+     */
+    @Override
+    public void getStats(PoolStats stats) {
+        stats.hits = mHits;
+        stats.misses = mMisses;
+        stats.drops = mDrops;
+        stats.highWaterMark = mHighWaterMark;
+        stats.size = mSize;
+        stats.maxSize = mMaxPoolSize;
+    }
+
+    /**
+     * Reset the pool's hit, miss and drop counts and set the high-water mark
+     * to the current number of pooled objects
+     */
+    @Override
+    public void resetStats() {
+        mHits = 0L;
+        mMisses = 0L;
+        mDrops = 0L;
+        mHighWaterMark = mSize;
     }
-}
\ No newline at end of file
+}
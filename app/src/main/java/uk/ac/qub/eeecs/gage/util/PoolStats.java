@@ -0,0 +1,81 @@
+package uk.ac.qub.eeecs.gage.util;
+
+/**
+ * Snapshot of the usage statistics recorded by an object pool.
+ * <p>
+ * The statistics can be used to size a pool from real data: a high miss
+ * count suggests the pool should be pre-warmed with more objects, a high
+ * drop count that the maximum pool size is too small, whilst a high-water
+ * mark well below the maximum size that the pool could be made smaller.
+ *
+ * @version 1.0
+ */
+public class PoolStats {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Number of gets satisfied by a pooled object
+     */
+    public long hits;
+
+    /**
+     * Number of gets that found the pool empty and created a new object
+     */
+    public long misses;
+
+    /**
+     * Number of objects added to the pool that were discarded as the pool
+     * was full
+     */
+    public long drops;
+
+    /**
+     * Largest number of objects held within the pool at any one time
+     */
+    public int highWaterMark;
+
+    /**
+     * Number of objects held within the pool when the snapshot was taken
+     */
+    public int size;
+
+    /**
+     * Maximum number of objects that can be held within the pool
+     */
+    public int maxSize;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the fraction of gets satisfied by a pooled object
+     *
+     * @return Hit rate (0 to 1), or 1 if no gets have been made
+     */
+    public float getHitRate() {
+        long gets = hits + misses;
+        return gets == 0 ? 1.0f : (float) hits / gets;
+    }
+
+    /**
+     * Reset the statistics held within this snapshot
+     */
+    public void clear() {
+        hits = 0L;
+        misses = 0L;
+        drops = 0L;
+        highWaterMark = 0;
+        size = 0;
+        maxSize = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + " misses=" + misses + " drops=" + drops
+                + " highWaterMark=" + highWaterMark + " size=" + size + "/" + maxSize;
+    }
+}
@@ -0,0 +1,62 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of seeds for the game's random number generators.
+ * <p>
+ * Seeds are drawn in turn from a master seed, which defaults to the time
+ * at which the game started. Setting the master seed (e.g. when a replay is
+ * recorded or replayed) means generators created afterwards, in the same
+ * order, receive the same seeds, so random behaviour is repeated. Random
+ * number generators should hence be seeded using nextSeed, for example
+ * new Random(SeedSource.nextSeed()).
+ *
+ * @version 1.0
+ */
+public final class SeedSource {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Increment applied to the state when each seed is drawn (the golden
+     * ratio)
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * State from which seeds are drawn
+     */
+    private static final AtomicLong sState = new AtomicLong(System.nanoTime());
+
+    private SeedSource() {
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Set the master seed from which subsequent seeds are drawn
+     *
+     * @param seed Master seed
+     */
+    public static void setMasterSeed(long seed) {
+        sState.set(seed);
+    }
+
+    /**
+     * Draw the next seed. Successive seeds are well mixed, so generators
+     * created one after another receive unrelated sequences.
+     *
+     * @return Seed
+     */
+    public static long nextSeed() {
+        long z = sState.addAndGet(GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
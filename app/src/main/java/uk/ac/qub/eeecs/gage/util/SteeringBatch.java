@@ -0,0 +1,121 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import java.util.List;
+
+import uk.ac.qub.eeecs.gage.engine.jobs.JobParallelFor;
+import uk.ac.qub.eeecs.gage.world.Sprite;
+
+/**
+ * Runs a steering behaviour for each sprite within a list, splitting the
+ * list into chunks that are steered in parallel on the worker threads of
+ * the job system. The batch can be run from within a job.
+ * <p>
+ * The behaviour is run concurrently for different sprites. It should only
+ * write to the sprite it is steering (e.g. its acceleration) or to scratch
+ * values owned by that sprite, and should only read shared state (e.g. a
+ * target position or an updated SwarmSteering) that is not modified whilst
+ * the batch runs.
+ *
+ * @version 1.0
+ */
+public class SteeringBatch<T extends Sprite> {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Behaviour
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Steering behaviour run for each sprite
+     */
+    public interface Behaviour<T extends Sprite> {
+        /**
+         * Steer the specified sprite
+         *
+         * @param sprite Sprite to steer
+         */
+        void steer(T sprite);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Default minimum number of sprites steered within each chunk
+     */
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 64;
+
+    /**
+     * Job parallel for used to split the list into chunks
+     */
+    private final JobParallelFor mParallelFor;
+
+    /**
+     * Behaviour run for each sprite
+     */
+    private final Behaviour<T> mBehaviour;
+
+    /**
+     * Minimum number of sprites steered within each chunk
+     */
+    private int mMinChunkSize = DEFAULT_MIN_CHUNK_SIZE;
+
+    /**
+     * Sprites being steered by the current run, alongside the range task,
+     * defined as class members to reduce temporary object creation.
+     */
+    private List<? extends T> mSprites;
+    private final ParallelFor.RangeTask mSteerTask = new ParallelFor.RangeTask() {
+        @Override
+        public void run(int start, int end) {
+            List<? extends T> sprites = mSprites;
+            for (int idx = start; idx < end; idx++)
+                mBehaviour.steer(sprites.get(idx));
+        }
+    };
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new steering batch
+     *
+     * @param parallelFor Job parallel for used to split the sprites into chunks
+     * @param behaviour   Behaviour run for each sprite
+     */
+    public SteeringBatch(JobParallelFor parallelFor, Behaviour<T> behaviour) {
+        mParallelFor = parallelFor;
+        mBehaviour = behaviour;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Set the minimum number of sprites steered within each chunk. Lists
+     * smaller than this are steered on the calling thread.
+     *
+     * @param minChunkSize Minimum chunk size
+     */
+    public void setMinChunkSize(int minChunkSize) {
+        mMinChunkSize = Math.max(minChunkSize, 1);
+    }
+
+    /**
+     * Run the behaviour for each of the specified sprites, returning once
+     * all sprites have been steered. The list should not be modified whilst
+     * the batch runs.
+     *
+     * @param sprites Sprites to steer
+     */
+    public void run(List<? extends T> sprites) {
+        mSprites = sprites;
+        try {
+            mParallelFor.execute(sprites.size(), mMinChunkSize, mSteerTask);
+        } finally {
+            mSprites = null;
+        }
+    }
+}
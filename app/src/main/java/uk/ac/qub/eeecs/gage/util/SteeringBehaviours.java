@@ -5,7 +5,12 @@ import java.util.List;
 import uk.ac.qub.eeecs.gage.world.Sprite;
 
 /**
- * Collection of steering behaviours that can be used to help sprites move
+ * Collection of steering behaviours that can be used to help sprites move.
+ * <p>
+ * The behaviours only write to the supplied output values (and do not hold
+ * any shared scratch state), so they can be safely called from several
+ * threads, e.g. using a SteeringBatch, provided each thread writes to
+ * different outputs.
  */
 public class SteeringBehaviours {
 
@@ -65,12 +70,6 @@ public class SteeringBehaviours {
     // Arrive
     // /////////////////////////////////////////////////////////////////////////
 
-    /**
-     * Private variables use to facilitate the arrive functionality
-     */
-    private static Vector2 arriveDirection = new Vector2();
-    private static Vector2 arriveSpeed = new Vector2();
-
     /**
      * Output an acceleration vector for the specified sprite that will cause it
      * to arrive with a stopping velocity at the specified target.
@@ -83,27 +82,25 @@ public class SteeringBehaviours {
                               Vector2 arriveAcceleration) {
 
         // Determine the current separation and target direction
-        arriveDirection.set(targetPosition.x - arrivingSprite.position.x,
-                targetPosition.y - arrivingSprite.position.y);
-        float distance = arriveDirection.length();
-        arriveDirection.divide(distance);
+        float directionX = targetPosition.x - arrivingSprite.position.x;
+        float directionY = targetPosition.y - arrivingSprite.position.y;
+        float distance = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+        directionX /= distance;
+        directionY /= distance;
 
         // Determining the slow down radius
         float slowDownRadius = arrivingSprite.maxVelocity
                 * arrivingSprite.maxVelocity / arrivingSprite.maxAcceleration;
 
         // Determine the target speed
-        if (distance > slowDownRadius) {
-            arriveSpeed.set(arriveDirection);
-            arriveSpeed.multiply(arrivingSprite.maxVelocity);
-        } else {
-            arriveSpeed.set(arriveDirection);
-            arriveSpeed.multiply(arrivingSprite.maxVelocity * distance
-                    / slowDownRadius);
-        }
+        float speed;
+        if (distance > slowDownRadius)
+            speed = arrivingSprite.maxVelocity;
+        else
+            speed = arrivingSprite.maxVelocity * distance / slowDownRadius;
 
         // Determine the arrival acceleration
-        arriveAcceleration.set(arriveSpeed);
+        arriveAcceleration.set(directionX * speed, directionY * speed);
         arriveAcceleration.subtract(arrivingSprite.velocity);
 
         if (arriveAcceleration.lengthSquared() > arrivingSprite.maxAcceleration
@@ -222,11 +219,6 @@ public class SteeringBehaviours {
     // Separate
     // /////////////////////////////////////////////////////////////////////////
 
-    /**
-     * Private variable used within the separate algorithms
-     */
-    private static Vector2 separateAcceleration = new Vector2();
-
     /**
      * Separate the specified sprite from the list of other sprites.
      *
@@ -263,13 +255,9 @@ public class SteeringBehaviours {
                 if (repulsiveStrength > separatingSprite.maxAcceleration)
                     repulsiveStrength = separatingSprite.maxAcceleration;
 
-                // Build the repulsive force
-                separateAcceleration.set(separationX, separationY);
-                separateAcceleration.normalise();
-                separateAcceleration.multiply(repulsiveStrength);
-
-                // Update the output acceleration
-                outputAcceleration.add(separateAcceleration);
+                // Build the repulsive force and update the output acceleration
+                float scale = repulsiveStrength / (float) Math.sqrt(separationPow2);
+                outputAcceleration.add(separationX * scale, separationY * scale);
             }
         }
     }
@@ -308,13 +296,9 @@ public class SteeringBehaviours {
             if (repulsiveStrength > separatingSprite.maxAcceleration)
                 repulsiveStrength = separatingSprite.maxAcceleration;
 
-            // Build the repulsive force
-            separateAcceleration.set(separationX, separationY);
-            separateAcceleration.normalise();
-            separateAcceleration.multiply(repulsiveStrength);
-
-            // Update the output acceleration
-            outputAcceleration.add(separateAcceleration);
+            // Build the repulsive force and update the output acceleration
+            float scale = repulsiveStrength / (float) Math.sqrt(separationPow2);
+            outputAcceleration.add(separationX * scale, separationY * scale);
         }
     }
 }
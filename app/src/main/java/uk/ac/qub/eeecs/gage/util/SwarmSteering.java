@@ -0,0 +1,287 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import java.util.List;
+
+import uk.ac.qub.eeecs.gage.world.Sprite;
+
+/**
+ * Shared steering computation for large groups (swarms) of sprites.
+ * <p>
+ * Once per frame, update should be called to:
+ * <p>
+ * 1. Sort the swarm's sprites into a uniform neighbour grid (a linear
+ * counting sort), so separation only considers the sprites within nearby
+ * cells rather than every sprite.
+ * <p>
+ * 2. Build a target field holding, for each grid cell, the normalised
+ * direction from the cell centre towards the target. Seeking then becomes
+ * a lookup, with the exact direction only computed near the target.
+ * <p>
+ * Once updated, the seek and separate queries do not modify the swarm
+ * steering, and so can be safely called from several threads. Positions
+ * are read from the sprites when queried; however, a sprite's cell is
+ * only updated on each update.
+ *
+ * @version 1.0
+ */
+public class SwarmSteering {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Location of the bottom-left corner of the grid, alongside the size
+     * and number of cells. Sprites outside of the grid are placed within
+     * the edge cells.
+     */
+    private final float mLeft;
+    private final float mBottom;
+    private final float mCellSize;
+    private final int mNumColumns;
+    private final int mNumRows;
+
+    /**
+     * Sprites sorted by cell, alongside the index of the first sprite and
+     * the number of sprites within each cell
+     */
+    private Sprite[] mSortedSprites = new Sprite[64];
+    private final int[] mCellStart;
+    private final int[] mCellCount;
+
+    /**
+     * Cell of each sprite, in the order supplied to the last update
+     */
+    private int[] mSpriteCells = new int[64];
+
+    /**
+     * Target field: normalised direction from each cell centre to the
+     * target, alongside the target position and the cell holding it
+     */
+    private final float[] mFieldX;
+    private final float[] mFieldY;
+    private float mTargetX;
+    private float mTargetY;
+    private int mTargetColumn;
+    private int mTargetRow;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new swarm steering grid. The cell size should be at least
+     * as large as the separation threshold that will be used, in which case
+     * separation only considers the neighbouring cells.
+     *
+     * @param left     Left edge of the grid
+     * @param bottom   Bottom edge of the grid
+     * @param width    Width of the grid
+     * @param height   Height of the grid
+     * @param cellSize Width and height of each cell
+     */
+    public SwarmSteering(float left, float bottom, float width, float height, float cellSize) {
+        if (cellSize <= 0.0f)
+            throw new RuntimeException(
+                    "SwarmSteering.constructor: Invalid cell size [" + cellSize + "]");
+
+        mLeft = left;
+        mBottom = bottom;
+        mCellSize = cellSize;
+        mNumColumns = Math.max(1, (int) Math.ceil(width / cellSize));
+        mNumRows = Math.max(1, (int) Math.ceil(height / cellSize));
+
+        int numCells = mNumColumns * mNumRows;
+        mCellStart = new int[numCells];
+        mCellCount = new int[numCells];
+        mFieldX = new float[numCells];
+        mFieldY = new float[numCells];
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Update
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Update the neighbour grid using the current sprite positions and
+     * rebuild the target field
+     *
+     * @param sprites        Sprites within the swarm (those that will be
+     *                       separated from)
+     * @param targetPosition Target towards which sprites will seek
+     */
+    public void update(List<? extends Sprite> sprites, Vector2 targetPosition) {
+        updateNeighbourGrid(sprites);
+        updateTargetField(targetPosition);
+    }
+
+    /**
+     * Sort the sprites into the neighbour grid
+     *
+     * @param sprites Sprites to sort
+     */
+    private void updateNeighbourGrid(List<? extends Sprite> sprites) {
+        int numSprites = sprites.size();
+        if (mSortedSprites.length < numSprites) {
+            mSortedSprites = new Sprite[Math.max(numSprites, mSortedSprites.length * 2)];
+            mSpriteCells = new int[mSortedSprites.length];
+        }
+
+        // Count the sprites within each cell
+        for (int cell = 0; cell < mCellCount.length; cell++)
+            mCellCount[cell] = 0;
+        for (int idx = 0; idx < numSprites; idx++) {
+            Vector2 position = sprites.get(idx).position;
+            int cell = getRow(position.y) * mNumColumns + getColumn(position.x);
+            mSpriteCells[idx] = cell;
+            mCellCount[cell]++;
+        }
+
+        // Determine where each cell's sprites start
+        int start = 0;
+        for (int cell = 0; cell < mCellStart.length; cell++) {
+            mCellStart[cell] = start;
+            start += mCellCount[cell];
+            mCellCount[cell] = 0;
+        }
+
+        // Place the sprites, restoring the cell counts
+        for (int idx = 0; idx < numSprites; idx++) {
+            int cell = mSpriteCells[idx];
+            mSortedSprites[mCellStart[cell] + mCellCount[cell]++] = sprites.get(idx);
+        }
+        for (int idx = numSprites; idx < mSortedSprites.length
+                && mSortedSprites[idx] != null; idx++)
+            mSortedSprites[idx] = null;
+    }
+
+    /**
+     * Rebuild the target field for the specified target
+     *
+     * @param targetPosition Target position
+     */
+    private void updateTargetField(Vector2 targetPosition) {
+        mTargetX = targetPosition.x;
+        mTargetY = targetPosition.y;
+        mTargetColumn = getColumn(mTargetX);
+        mTargetRow = getRow(mTargetY);
+
+        for (int row = 0; row < mNumRows; row++) {
+            float dy = mTargetY - (mBottom + (row + 0.5f) * mCellSize);
+            for (int column = 0; column < mNumColumns; column++) {
+                float dx = mTargetX - (mLeft + (column + 0.5f) * mCellSize);
+                float length = (float) Math.sqrt(dx * dx + dy * dy);
+                int cell = row * mNumColumns + column;
+                if (length > 0.0f) {
+                    mFieldX[cell] = dx / length;
+                    mFieldY[cell] = dy / length;
+                } else {
+                    mFieldX[cell] = 0.0f;
+                    mFieldY[cell] = 0.0f;
+                }
+            }
+        }
+    }
+
+    private int getColumn(float x) {
+        int column = (int) Math.floor((x - mLeft) / mCellSize);
+        return column < 0 ? 0 : (column >= mNumColumns ? mNumColumns - 1 : column);
+    }
+
+    private int getRow(float y) {
+        int row = (int) Math.floor((y - mBottom) / mCellSize);
+        return row < 0 ? 0 : (row >= mNumRows ? mNumRows - 1 : row);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Steering
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Store an acceleration vector for the specified sprite towards the
+     * target (see SteeringBehaviours.seek). Away from the target the
+     * direction is taken from the target field, whilst within the cells
+     * next to the target the exact direction is determined.
+     *
+     * @param seekingSprite Seeking sprite
+     * @param acceleration  Output seek acceleration
+     */
+    public void seek(Sprite seekingSprite, Vector2 acceleration) {
+        Vector2 position = seekingSprite.position;
+        int column = getColumn(position.x);
+        int row = getRow(position.y);
+
+        if (Math.abs(column - mTargetColumn) <= 1 && Math.abs(row - mTargetRow) <= 1) {
+            float dx = mTargetX - position.x;
+            float dy = mTargetY - position.y;
+            float length = (float) Math.sqrt(dx * dx + dy * dy);
+            if (length == 0.0f) {
+                acceleration.set(0.0f, 0.0f);
+            } else {
+                float scale = seekingSprite.maxAcceleration / length;
+                acceleration.set(dx * scale, dy * scale);
+            }
+        } else {
+            int cell = row * mNumColumns + column;
+            acceleration.set(mFieldX[cell] * seekingSprite.maxAcceleration,
+                    mFieldY[cell] * seekingSprite.maxAcceleration);
+        }
+    }
+
+    /**
+     * Separate the specified sprite from the nearby sprites within the swarm
+     * (see SteeringBehaviours.separate). Only sprites within the cells
+     * that may lie within the separate threshold are considered.
+     *
+     * @param separatingSprite     Sprite that should be separated
+     * @param separateThreshold    Distance within which the sprite should separate
+     * @param repulsionDecayFactor How strongly should the sprite separate based on distance
+     * @param outputAcceleration   Acceleration needed to separate the sprite
+     */
+    public void separate(Sprite separatingSprite, float separateThreshold,
+                         float repulsionDecayFactor, Vector2 outputAcceleration) {
+        float positionX = separatingSprite.position.x;
+        float positionY = separatingSprite.position.y;
+        float separateThresholdPow2 = separateThreshold * separateThreshold;
+        float maxAcceleration = separatingSprite.maxAcceleration;
+
+        // Determine the range of cells that may hold sprites within the threshold
+        int startColumn = getColumn(positionX - separateThreshold);
+        int endColumn = getColumn(positionX + separateThreshold);
+        int startRow = getRow(positionY - separateThreshold);
+        int endRow = getRow(positionY + separateThreshold);
+
+        float accelerationX = 0.0f;
+        float accelerationY = 0.0f;
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                int cell = row * mNumColumns + column;
+                int end = mCellStart[cell] + mCellCount[cell];
+                for (int idx = mCellStart[cell]; idx < end; idx++) {
+                    Sprite targetSprite = mSortedSprites[idx];
+                    if (targetSprite == separatingSprite)
+                        continue;
+
+                    float separationX = positionX - targetSprite.position.x;
+                    float separationY = positionY - targetSprite.position.y;
+                    float separationPow2 = separationX * separationX
+                            + separationY * separationY;
+
+                    if (separationPow2 < separateThresholdPow2 && separationPow2 > 0.0f) {
+                        // Determine the repulsive strength and scale the
+                        // separation to this length
+                        float repulsiveStrength = repulsionDecayFactor * separationPow2;
+                        if (repulsiveStrength > maxAcceleration)
+                            repulsiveStrength = maxAcceleration;
+                        float scale = repulsiveStrength / (float) Math.sqrt(separationPow2);
+
+                        accelerationX += separationX * scale;
+                        accelerationY += separationY * scale;
+                    }
+                }
+            }
+        }
+
+        outputAcceleration.set(accelerationX, accelerationY);
+    }
+}
@@ -0,0 +1,235 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Object pool holding a small cache of objects for each thread, backed by a
+ * shared (lock-free) overflow pool.
+ * <p>
+ * Gets and adds are first satisfied by the calling thread's cache, which
+ * needs no synchronisation. When the cache is empty an object is taken from
+ * the shared pool (or created), whilst objects added to a full cache are
+ * placed into the shared pool (or dropped if it is also full). Objects
+ * released on one thread can hence be reused by another once they spill
+ * into the shared pool.
+ * <p>
+ * Statistics are summed across the per-thread caches. Each cache's counts
+ * are only written by its own thread, so statistics gathered whilst other
+ * threads use the pool may be slightly out of date. The high-water mark is
+ * the sum of the individual high-water marks, i.e. an upper bound.
+ * <p>
+ * Note: A cache is retained for each thread that has used the pool, so the
+ * pool is intended for long-lived threads (e.g. the game loop and worker
+ * threads).
+ *
+ * @version 1.0
+ */
+public class ThreadLocalPool<T> implements IPool<T> {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Local Cache
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Objects cached for a single thread alongside the thread's statistics
+     */
+    private static class LocalCache {
+        final Object[] objects;
+        int size = 0;
+
+        long hits = 0L;
+        long misses = 0L;
+        long drops = 0L;
+        int highWaterMark = 0;
+
+        LocalCache(int capacity) {
+            objects = new Object[capacity];
+        }
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Object factory used to populate this pool
+     */
+    private final Pool.ObjectFactory<T> mFactory;
+
+    /**
+     * Shared overflow pool
+     */
+    private final ConcurrentPool<T> mShared;
+
+    /**
+     * Number of objects cached for each thread
+     */
+    private final int mLocalCapacity;
+
+    /**
+     * Cache belonging to each thread, alongside all created caches (used
+     * to gather statistics)
+     */
+    private final ThreadLocal<LocalCache> mLocalCache;
+    private final List<LocalCache> mLocalCaches = new ArrayList<>();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a thread local object pool
+     *
+     * @param factory        Object factory used to populate the pool
+     * @param localCapacity  Maximum number of objects cached for each thread
+     * @param sharedCapacity Maximum number of objects held within the shared
+     *                       overflow pool (rounded up to a power of two)
+     */
+    public ThreadLocalPool(Pool.ObjectFactory<T> factory, int localCapacity, int sharedCapacity) {
+        if (localCapacity < 1)
+            throw new RuntimeException(
+                    "ThreadLocalPool.constructor: Invalid local capacity [" + localCapacity + "]");
+
+        mFactory = factory;
+        mLocalCapacity = localCapacity;
+        mShared = new ConcurrentPool<>(factory, sharedCapacity);
+        mLocalCache = new ThreadLocal<LocalCache>() {
+            @Override
+            protected LocalCache initialValue() {
+                LocalCache cache = new LocalCache(mLocalCapacity);
+                synchronized (mLocalCaches) {
+                    mLocalCaches.add(cache);
+                }
+                return cache;
+            }
+        };
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Pooling
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get an object instance.
+     * <p>
+     * Note: The object instance may be either a new instance or a 'reused'
+     * instance taken from the pool. The callee should ensure that the object is
+     * adequately initialised taking into account the object may contain 'dirty'
+     * data.
+     *
+     * @return Object instance (potentially dirty)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get() {
+        LocalCache cache = mLocalCache.get();
+        if (cache.size > 0) {
+            cache.hits++;
+            T object = (T) cache.objects[--cache.size];
+            cache.objects[cache.size] = null;
+            return object;
+        }
+
+        T object = mShared.poll();
+        if (object != null) {
+            cache.hits++;
+            return object;
+        }
+
+        cache.misses++;
+        return mFactory.createObject();
+    }
+
+    /**
+     * Add the object to the pool.
+     * <p>
+     * Note: When added to the pool the callee should ensure that the object is
+     * not further accessed through whatever reference was being used.
+     *
+     * @param object instance to be added to the pool
+     */
+    @Override
+    public void add(T object) {
+        LocalCache cache = mLocalCache.get();
+        if (cache.size < mLocalCapacity) {
+            cache.objects[cache.size++] = object;
+            if (cache.size > cache.highWaterMark)
+                cache.highWaterMark = cache.size;
+        } else if (!mShared.offer(object)) {
+            cache.drops++;
+        }
+    }
+
+    /**
+     * Pre-warm the shared overflow pool, creating objects until it holds the
+     * specified number of objects (or is full). The objects are available to
+     * all threads.
+     *
+     * @param count Number of objects the shared pool should hold
+     */
+    @Override
+    public void prewarm(int count) {
+        mShared.prewarm(count);
+    }
+
+    /**
+     * Get the number of objects cached for each thread
+     *
+     * @return Local cache capacity
+     */
+    public int getLocalCapacity() {
+        return mLocalCapacity;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Statistics
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the maximum number of objects that can be held by the shared pool
+     * and the caches of the threads that have so far used the pool
+     *
+     * @return Maximum pool size
+     */
+    @Override
+    public int getMaxSize() {
+        synchronized (mLocalCaches) {
+            return mShared.getMaxSize() + mLocalCaches.size() * mLocalCapacity;
+        }
+    }
+
+    @Override
+    public void getStats(PoolStats stats) {
+        mShared.getStats(stats);
+        stats.hits = 0L;
+        stats.misses = 0L;
+        stats.drops = 0L;
+
+        synchronized (mLocalCaches) {
+            for (int idx = 0; idx < mLocalCaches.size(); idx++) {
+                LocalCache cache = mLocalCaches.get(idx);
+                stats.hits += cache.hits;
+                stats.misses += cache.misses;
+                stats.drops += cache.drops;
+                stats.highWaterMark += cache.highWaterMark;
+                stats.size += cache.size;
+                stats.maxSize += mLocalCapacity;
+            }
+        }
+    }
+
+    @Override
+    public void resetStats() {
+        mShared.resetStats();
+        synchronized (mLocalCaches) {
+            for (int idx = 0; idx < mLocalCaches.size(); idx++) {
+                LocalCache cache = mLocalCaches.get(idx);
+                cache.hits = 0L;
+                cache.misses = 0L;
+                cache.drops = 0L;
+                cache.highWaterMark = cache.size;
+            }
+        }
+    }
+}
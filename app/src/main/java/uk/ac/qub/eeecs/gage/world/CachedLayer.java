@@ -0,0 +1,250 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.graphics.CanvasGraphics2D;
+import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+
+/**
+ * Layer of static game objects that is pre-composited into a cached
+ * offscreen bitmap.
+ * <p>
+ * The cached bitmap covers the layer viewport extended by a margin, drawn at
+ * the current layer to screen scale. Whilst the layer viewport scrolls within
+ * the cached region, drawing the layer is reduced to a single blit of the
+ * visible part of the cache. The cache is only re-rendered if the layer
+ * content is changed (see invalidate), the layer to screen scale changes or
+ * the layer viewport scrolls outside of the cached region.
+ * <p>
+ * Game objects added to a cached layer are assumed not to move or animate.
+ *
+ * @version 1.0
+ */
+public class CachedLayer {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Game screen to which this layer belongs
+     */
+    protected GameScreen mGameScreen;
+
+    /**
+     * Game objects that will be drawn into the cache
+     */
+    protected List<GameObject> mGameObjects = new ArrayList<>();
+
+    /**
+     * Horizontal and vertical margin (expressed as a fraction of the layer
+     * viewport width and height) added to each side of the cached region.
+     * Larger margins result in less frequent re-renders at the cost of a
+     * larger cache bitmap.
+     */
+    protected float mHorizontalMargin;
+    protected float mVerticalMargin;
+
+    /**
+     * Cached bitmap, alongside the canvas and graphics used to render into it
+     */
+    private Bitmap mCacheBitmap;
+    private Canvas mCacheCanvas;
+    private CanvasGraphics2D mCacheGraphics2D;
+
+    /**
+     * Layer region held within the cache and the corresponding screen
+     * viewport covering the full cache bitmap
+     */
+    private LayerViewport mCachedRegion = new LayerViewport();
+    private ScreenViewport mCacheScreenViewport = new ScreenViewport();
+
+    /**
+     * Layer to screen scale used when the cache was rendered
+     */
+    private float mCachedScaleX = 0.0f;
+    private float mCachedScaleY = 0.0f;
+
+    /**
+     * Flag indicating the cache needs to be re-rendered
+     */
+    private boolean mDirty = true;
+
+    /**
+     * Source and screen rects used to blit the cache, defined as class
+     * members to reduce temporary object creation.
+     */
+    private Rect mSourceRect = new Rect();
+    private Rect mScreenRect = new Rect();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new cached layer
+     *
+     * @param horizontalMargin Cached margin to each side of the viewport,
+     *                         expressed as a fraction of the viewport width
+     * @param verticalMargin   Cached margin above and below the viewport,
+     *                         expressed as a fraction of the viewport height
+     * @param gameScreen       Gamescreen to which this layer belongs
+     */
+    public CachedLayer(float horizontalMargin, float verticalMargin, GameScreen gameScreen) {
+        mHorizontalMargin = horizontalMargin;
+        mVerticalMargin = verticalMargin;
+        mGameScreen = gameScreen;
+
+        mCacheCanvas = new Canvas();
+        mCacheGraphics2D = new CanvasGraphics2D(
+                gameScreen.getGame().getActivity().getAssets());
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Content
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add a game object to this layer
+     *
+     * @param gameObject Game object to add
+     */
+    public void add(GameObject gameObject) {
+        mGameObjects.add(gameObject);
+        mDirty = true;
+    }
+
+    /**
+     * Remove a game object from this layer
+     *
+     * @param gameObject Game object to remove
+     */
+    public void remove(GameObject gameObject) {
+        if (mGameObjects.remove(gameObject))
+            mDirty = true;
+    }
+
+    /**
+     * Get the game objects held in this layer. If the returned list or any
+     * of the contained game objects are changed, then invalidate should be
+     * called.
+     *
+     * @return Game objects held in this layer
+     */
+    public List<GameObject> getGameObjects() {
+        return mGameObjects;
+    }
+
+    /**
+     * Request the cache is re-rendered the next time the layer is drawn
+     */
+    public void invalidate() {
+        mDirty = true;
+    }
+
+    /**
+     * Release the cached bitmap. It will be recreated if the layer is drawn.
+     */
+    public void dispose() {
+        if (mCacheBitmap != null) {
+            mCacheBitmap.recycle();
+            mCacheBitmap = null;
+        }
+        mDirty = true;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Draw
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Draw the layer, re-rendering the cache if needed
+     *
+     * @param elapsedTime    Elapsed time information
+     * @param graphics2D     Graphics instance
+     * @param layerViewport  Layer viewport
+     * @param screenViewport Screen viewport
+     */
+    public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
+                     LayerViewport layerViewport, ScreenViewport screenViewport) {
+
+        // Determine the current layer to screen scale
+        float scaleX = screenViewport.width / layerViewport.getWidth();
+        float scaleY = screenViewport.height / layerViewport.getHeight();
+
+        // Re-render the cache if needed
+        if (mDirty || mCacheBitmap == null
+                || Math.abs(scaleX - mCachedScaleX) > 0.0001f
+                || Math.abs(scaleY - mCachedScaleY) > 0.0001f
+                || layerViewport.getLeft() < mCachedRegion.getLeft()
+                || layerViewport.getRight() > mCachedRegion.getRight()
+                || layerViewport.getBottom() < mCachedRegion.getBottom()
+                || layerViewport.getTop() > mCachedRegion.getTop()) {
+            renderCache(elapsedTime, layerViewport, scaleX, scaleY);
+        }
+
+        // Blit the region of the cache covered by the layer viewport
+        int sourceLeft = Math.round(
+                (layerViewport.getLeft() - mCachedRegion.getLeft()) * scaleX);
+        int sourceTop = Math.round(
+                (mCachedRegion.getTop() - layerViewport.getTop()) * scaleY);
+        mSourceRect.set(sourceLeft, sourceTop,
+                sourceLeft + screenViewport.width, sourceTop + screenViewport.height);
+        mScreenRect.set(screenViewport.left, screenViewport.top,
+                screenViewport.right, screenViewport.bottom);
+
+        graphics2D.drawBitmap(mCacheBitmap, mSourceRect, mScreenRect, null);
+    }
+
+    /**
+     * Render the layer content into the cache, centring the cached region on
+     * the specified layer viewport
+     *
+     * @param elapsedTime   Elapsed time information
+     * @param layerViewport Layer viewport
+     * @param scaleX        Layer to screen scale along the x-axis
+     * @param scaleY        Layer to screen scale along the y-axis
+     */
+    private void renderCache(ElapsedTime elapsedTime, LayerViewport layerViewport,
+                             float scaleX, float scaleY) {
+
+        // Determine the cached region and the size of the required bitmap
+        mCachedRegion.set(layerViewport.x, layerViewport.y,
+                layerViewport.halfWidth * (1.0f + 2.0f * mHorizontalMargin),
+                layerViewport.halfHeight * (1.0f + 2.0f * mVerticalMargin));
+        int cacheWidth = (int) Math.ceil(mCachedRegion.getWidth() * scaleX);
+        int cacheHeight = (int) Math.ceil(mCachedRegion.getHeight() * scaleY);
+
+        // Create a new bitmap if the size has changed, otherwise reuse
+        // the existing bitmap
+        if (mCacheBitmap == null || mCacheBitmap.getWidth() != cacheWidth
+                || mCacheBitmap.getHeight() != cacheHeight) {
+            if (mCacheBitmap != null)
+                mCacheBitmap.recycle();
+            mCacheBitmap = Bitmap.createBitmap(
+                    cacheWidth, cacheHeight, Bitmap.Config.ARGB_8888);
+        } else {
+            mCacheBitmap.eraseColor(Color.TRANSPARENT);
+        }
+
+        mCacheCanvas.setBitmap(mCacheBitmap);
+        mCacheGraphics2D.setCanvas(mCacheCanvas);
+        mCacheScreenViewport.set(0, 0, cacheWidth, cacheHeight);
+
+        // Draw each game object into the cache
+        for (int idx = 0; idx < mGameObjects.size(); idx++)
+            mGameObjects.get(idx).draw(elapsedTime, mCacheGraphics2D,
+                    mCachedRegion, mCacheScreenViewport);
+
+        mCachedScaleX = scaleX;
+        mCachedScaleY = scaleY;
+        mDirty = false;
+    }
+}
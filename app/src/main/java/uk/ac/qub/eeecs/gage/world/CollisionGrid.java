@@ -0,0 +1,274 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+
+/**
+ * Uniform grid broadphase for static game objects.
+ * <p>
+ * Each game object is registered within every grid cell its bound overlaps.
+ * A region query then only needs to consider the objects registered within
+ * the cells covered by the region, rather than every object in the world.
+ * Objects (or regions) extending beyond the grid are clamped to the edge
+ * cells.
+ * <p>
+ * Game objects are assumed not to move once added. If an object is moved
+ * then it should be removed and re-added.
+ *
+ * @version 1.0
+ */
+public class CollisionGrid<T extends GameObject> {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Initial number of object slots held within each cell
+     */
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    /**
+     * Location of the bottom-left corner of the grid, alongside the size
+     * and number of cells
+     */
+    private final float mLeft;
+    private final float mBottom;
+    private final float mCellSize;
+    private final int mNumColumns;
+    private final int mNumRows;
+
+    /**
+     * Objects held within the grid. Cells refer to objects by their index
+     * within this list.
+     */
+    private final List<T> mObjects = new ArrayList<>();
+
+    /**
+     * Object indices held within each cell, alongside the number of
+     * indices within each cell
+     */
+    private final int[][] mCellObjects;
+    private final int[] mCellCounts;
+
+    /**
+     * Query stamp recorded against each object when it is returned by a
+     * query, used to ensure objects spanning several cells are only
+     * returned once per query
+     */
+    private int[] mObjectStamps = new int[16];
+    private int mQueryStamp = 0;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new collision grid
+     *
+     * @param left     Left edge of the grid
+     * @param bottom   Bottom edge of the grid
+     * @param width    Width of the grid
+     * @param height   Height of the grid
+     * @param cellSize Width and height of each cell
+     */
+    public CollisionGrid(float left, float bottom, float width, float height, float cellSize) {
+        if (cellSize <= 0.0f)
+            throw new RuntimeException(
+                    "CollisionGrid.constructor: Invalid cell size [" + cellSize + "]");
+
+        mLeft = left;
+        mBottom = bottom;
+        mCellSize = cellSize;
+        mNumColumns = Math.max(1, (int) Math.ceil(width / cellSize));
+        mNumRows = Math.max(1, (int) Math.ceil(height / cellSize));
+
+        mCellObjects = new int[mNumColumns * mNumRows][];
+        mCellCounts = new int[mNumColumns * mNumRows];
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Content
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add a game object to the grid
+     *
+     * @param gameObject Game object to add
+     */
+    public void add(T gameObject) {
+        int objectIdx = mObjects.size();
+        mObjects.add(gameObject);
+        if (objectIdx == mObjectStamps.length) {
+            int[] stamps = new int[mObjectStamps.length * 2];
+            System.arraycopy(mObjectStamps, 0, stamps, 0, mObjectStamps.length);
+            mObjectStamps = stamps;
+        }
+        mObjectStamps[objectIdx] = mQueryStamp;
+
+        BoundingBox bound = gameObject.getBound();
+        int startColumn = getColumn(bound.getLeft());
+        int endColumn = getColumn(bound.getRight());
+        int startRow = getRow(bound.getBottom());
+        int endRow = getRow(bound.getTop());
+
+        for (int row = startRow; row <= endRow; row++)
+            for (int column = startColumn; column <= endColumn; column++)
+                addToCell(row * mNumColumns + column, objectIdx);
+    }
+
+    /**
+     * Add all of the specified game objects to the grid
+     *
+     * @param gameObjects Game objects to add
+     */
+    public void addAll(List<? extends T> gameObjects) {
+        for (int idx = 0; idx < gameObjects.size(); idx++)
+            add(gameObjects.get(idx));
+    }
+
+    /**
+     * Remove a game object from the grid
+     *
+     * @param gameObject Game object to remove
+     */
+    public void remove(T gameObject) {
+        int objectIdx = mObjects.indexOf(gameObject);
+        if (objectIdx == -1)
+            return;
+
+        // Remove the last object and then, if needed, move it into the
+        // slot of the removed object
+        int lastIdx = mObjects.size() - 1;
+        T lastObject = mObjects.remove(lastIdx);
+        for (int cell = 0; cell < mCellCounts.length; cell++) {
+            int[] cellObjects = mCellObjects[cell];
+            int count = mCellCounts[cell];
+            for (int idx = count - 1; idx >= 0; idx--)
+                if (cellObjects[idx] == objectIdx)
+                    cellObjects[idx] = cellObjects[--count];
+            for (int idx = 0; idx < count; idx++)
+                if (cellObjects[idx] == lastIdx)
+                    cellObjects[idx] = objectIdx;
+            mCellCounts[cell] = count;
+        }
+        if (objectIdx != lastIdx) {
+            mObjects.set(objectIdx, lastObject);
+            mObjectStamps[objectIdx] = mObjectStamps[lastIdx];
+        }
+    }
+
+    /**
+     * Remove all game objects from the grid
+     */
+    public void clear() {
+        mObjects.clear();
+        for (int cell = 0; cell < mCellCounts.length; cell++)
+            mCellCounts[cell] = 0;
+    }
+
+    /**
+     * Get the game objects held within the grid
+     *
+     * @return Game objects held within the grid
+     */
+    public List<T> getGameObjects() {
+        return mObjects;
+    }
+
+    /**
+     * Add the specified object index to a cell, growing the cell if needed
+     */
+    private void addToCell(int cell, int objectIdx) {
+        int[] cellObjects = mCellObjects[cell];
+        int count = mCellCounts[cell];
+        if (cellObjects == null) {
+            cellObjects = new int[INITIAL_CELL_CAPACITY];
+            mCellObjects[cell] = cellObjects;
+        } else if (count == cellObjects.length) {
+            int[] grown = new int[cellObjects.length * 2];
+            System.arraycopy(cellObjects, 0, grown, 0, count);
+            cellObjects = grown;
+            mCellObjects[cell] = cellObjects;
+        }
+        cellObjects[count] = objectIdx;
+        mCellCounts[cell] = count + 1;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Query
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the grid column containing the specified x location, clamped to
+     * the grid
+     *
+     * @param x Layer x location
+     * @return Column index
+     */
+    private int getColumn(float x) {
+        int column = (int) Math.floor((x - mLeft) / mCellSize);
+        return column < 0 ? 0 : (column >= mNumColumns ? mNumColumns - 1 : column);
+    }
+
+    /**
+     * Get the grid row containing the specified y location, clamped to
+     * the grid
+     *
+     * @param y Layer y location
+     * @return Row index
+     */
+    private int getRow(float y) {
+        int row = (int) Math.floor((y - mBottom) / mCellSize);
+        return row < 0 ? 0 : (row >= mNumRows ? mNumRows - 1 : row);
+    }
+
+    /**
+     * Add each game object registered within the cells overlapped by the
+     * specified region to the results list. Each object is added at most
+     * once; however, objects may not themselves overlap the region.
+     * <p>
+     * The results list is not cleared before use.
+     *
+     * @param left    Left edge of the query region
+     * @param bottom  Bottom edge of the query region
+     * @param right   Right edge of the query region
+     * @param top     Top edge of the query region
+     * @param results List to which candidate objects are added
+     */
+    public void query(float left, float bottom, float right, float top, List<T> results) {
+        int stamp = ++mQueryStamp;
+
+        int startColumn = getColumn(left);
+        int endColumn = getColumn(right);
+        int startRow = getRow(bottom);
+        int endRow = getRow(top);
+
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                int cell = row * mNumColumns + column;
+                int[] cellObjects = mCellObjects[cell];
+                for (int idx = 0; idx < mCellCounts[cell]; idx++) {
+                    int objectIdx = cellObjects[idx];
+                    if (mObjectStamps[objectIdx] != stamp) {
+                        mObjectStamps[objectIdx] = stamp;
+                        results.add(mObjects.get(objectIdx));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Add each game object registered within the cells overlapped by the
+     * specified bound to the results list
+     *
+     * @param bound   Query region
+     * @param results List to which candidate objects are added
+     */
+    public void query(BoundingBox bound, List<T> results) {
+        query(bound.getLeft(), bound.getBottom(), bound.getRight(), bound.getTop(), results);
+    }
+}
@@ -0,0 +1,89 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import android.graphics.Bitmap;
+import android.graphics.Matrix;
+import android.graphics.Rect;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+import uk.ac.qub.eeecs.gage.util.GraphicsHelper;
+
+/**
+ * Draws all entities holding transform, bounds and render components in the
+ * same manner as Sprite.draw, i.e. scaled to the entity bound and rotated
+ * about the entity centre.
+ *
+ * @version 1.0
+ */
+public class EntityRenderSystem {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Components required for an entity to be drawn by this system
+     */
+    private static final int REQUIRED_COMPONENTS =
+            EntityWorld.TRANSFORM | EntityWorld.BOUNDS | EntityWorld.RENDER;
+
+    /**
+     * Bound, source/screen rects and matrix used when drawing, defined as
+     * class members to reduce temporary object creation.
+     */
+    private BoundingBox mDrawBound = new BoundingBox();
+    private Rect mDrawSourceRect = new Rect();
+    private Rect mDrawScreenRect = new Rect();
+    private Matrix mDrawMatrix = new Matrix();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Draw the visible entities held within the specified world
+     *
+     * @param elapsedTime    Elapsed time information
+     * @param graphics2D     Graphics instance
+     * @param layerViewport  Layer viewport
+     * @param screenViewport Screen viewport
+     * @param world          Entity world to draw
+     */
+    public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
+                     LayerViewport layerViewport, ScreenViewport screenViewport,
+                     EntityWorld world) {
+
+        int[] componentMask = world.componentMask;
+        float[] orientation = world.orientation;
+        Bitmap[] bitmaps = world.bitmap;
+
+        int entityCount = world.getEntityCount();
+        for (int idx = 0; idx < entityCount; idx++) {
+            Bitmap bitmap = bitmaps[idx];
+            if ((componentMask[idx] & REQUIRED_COMPONENTS) != REQUIRED_COMPONENTS
+                    || bitmap == null)
+                continue;
+
+            world.getBound(idx, mDrawBound);
+            if (GraphicsHelper.getSourceAndScreenRect(mDrawBound, bitmap,
+                    layerViewport, screenViewport, mDrawSourceRect, mDrawScreenRect)) {
+
+                float scaleX = (float) mDrawScreenRect.width()
+                        / (float) mDrawSourceRect.width();
+                float scaleY = (float) mDrawScreenRect.height()
+                        / (float) mDrawSourceRect.height();
+
+                // Build an appropriate transformation matrix
+                mDrawMatrix.reset();
+                mDrawMatrix.postScale(scaleX, scaleY);
+                mDrawMatrix.postRotate(orientation[idx], scaleX * bitmap.getWidth()
+                        / 2.0f, scaleY * bitmap.getHeight() / 2.0f);
+                mDrawMatrix.postTranslate(mDrawScreenRect.left, mDrawScreenRect.top);
+
+                // Draw the image
+                graphics2D.drawBitmap(bitmap, mDrawMatrix, null);
+            }
+        }
+    }
+}
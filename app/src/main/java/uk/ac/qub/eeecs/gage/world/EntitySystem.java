@@ -0,0 +1,21 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+
+/**
+ * An entity system processes the component arrays of an entity world,
+ * typically iterating linearly over all entities holding the components
+ * it requires.
+ *
+ * @version 1.0
+ */
+public interface EntitySystem {
+
+    /**
+     * Update the entities held within the specified world
+     *
+     * @param elapsedTime Elapsed time information
+     * @param world       Entity world to update
+     */
+    void update(ElapsedTime elapsedTime, EntityWorld world);
+}
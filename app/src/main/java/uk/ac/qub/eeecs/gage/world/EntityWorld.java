@@ -0,0 +1,493 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+import uk.ac.qub.eeecs.gage.util.HandleAllocator;
+
+/**
+ * Entity-component-system world.
+ * <p>
+ * Provides an opt-in alternative to the GameObject/Sprite hierarchy for
+ * large numbers of simple entities. Entity state is held in packed,
+ * primitive, component arrays (transform, kinematics, bounds and render)
+ * that are processed linearly by entity systems, rather than held within
+ * individual heap objects updated via virtual calls.
+ * <p>
+ * Entities are referred to using an entity id that remains valid until the
+ * entity is destroyed. Ids are generational handles (see HandleAllocator),
+ * so an id retained after its entity is destroyed is detected as stale
+ * rather than referring to a later entity. The component arrays are indexed by a dense entity
+ * index, with live entities always occupying indices 0 to getEntityCount()-1.
+ * An entity's index can change when another entity is destroyed, so indices
+ * should only be held for the duration of a system update.
+ * <p>
+ * The component arrays are public for speed of access. Component array
+ * references change if the world needs to grow, so they should not be
+ * cached across entity creation.
+ *
+ * @version 1.0
+ */
+public class EntityWorld {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties: Component Types
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Component flags. An entity's component mask identifies the components
+     * that systems should consider for the entity.
+     */
+    public static final int TRANSFORM = 1;
+    public static final int KINEMATICS = 1 << 1;
+    public static final int BOUNDS = 1 << 2;
+    public static final int RENDER = 1 << 3;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties: Component Arrays
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Component mask of each entity
+     */
+    public int[] componentMask;
+
+    /**
+     * Transform component: position and orientation (degrees)
+     */
+    public float[] positionX;
+    public float[] positionY;
+    public float[] orientation;
+
+    /**
+     * Kinematics component: linear and angular acceleration and velocity,
+     * alongside maximum values
+     */
+    public float[] velocityX;
+    public float[] velocityY;
+    public float[] accelerationX;
+    public float[] accelerationY;
+    public float[] maxAcceleration;
+    public float[] maxVelocity;
+    public float[] angularVelocity;
+    public float[] angularAcceleration;
+    public float[] maxAngularAcceleration;
+    public float[] maxAngularVelocity;
+
+    /**
+     * Bounds component: half width and height of the entity
+     */
+    public float[] halfWidth;
+    public float[] halfHeight;
+
+    /**
+     * Render component: bitmap used to draw the entity
+     */
+    public Bitmap[] bitmap;
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties: Entity Management
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Number of live entities
+     */
+    private int mEntityCount = 0;
+
+    /**
+     * Allocator of entity ids
+     */
+    private HandleAllocator mIdAllocator;
+
+    /**
+     * Mapping from entity id slot to dense entity index (-1 if the slot is
+     * not in use) and from dense entity index back to entity id
+     */
+    private int[] mIdToIndex;
+    private int[] mIndexToId;
+
+    /**
+     * Systems that will be run, in order, on each update
+     */
+    private List<EntitySystem> mSystems = new ArrayList<>();
+
+    /**
+     * System used to draw entities
+     */
+    private EntityRenderSystem mRenderSystem = new EntityRenderSystem();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new entity world
+     *
+     * @param initialCapacity Number of entities that can be held before the
+     *                        world needs to grow
+     */
+    public EntityWorld(int initialCapacity) {
+        mIdAllocator = new HandleAllocator(initialCapacity);
+        allocate(Math.max(initialCapacity, 1));
+        growIdToIndex(mIdAllocator.getCapacity());
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Storage
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Allocate (or grow) the component and entity arrays
+     *
+     * @param capacity New capacity
+     */
+    private void allocate(int capacity) {
+        componentMask = grow(componentMask, capacity);
+
+        positionX = grow(positionX, capacity);
+        positionY = grow(positionY, capacity);
+        orientation = grow(orientation, capacity);
+
+        velocityX = grow(velocityX, capacity);
+        velocityY = grow(velocityY, capacity);
+        accelerationX = grow(accelerationX, capacity);
+        accelerationY = grow(accelerationY, capacity);
+        maxAcceleration = grow(maxAcceleration, capacity);
+        maxVelocity = grow(maxVelocity, capacity);
+        angularVelocity = grow(angularVelocity, capacity);
+        angularAcceleration = grow(angularAcceleration, capacity);
+        maxAngularAcceleration = grow(maxAngularAcceleration, capacity);
+        maxAngularVelocity = grow(maxAngularVelocity, capacity);
+
+        halfWidth = grow(halfWidth, capacity);
+        halfHeight = grow(halfHeight, capacity);
+
+        Bitmap[] bitmaps = new Bitmap[capacity];
+        if (bitmap != null)
+            System.arraycopy(bitmap, 0, bitmaps, 0, bitmap.length);
+        bitmap = bitmaps;
+
+        mIndexToId = grow(mIndexToId, capacity);
+    }
+
+    /**
+     * Grow the id slot to entity index mapping
+     *
+     * @param capacity New capacity
+     */
+    private void growIdToIndex(int capacity) {
+        int oldCapacity = mIdToIndex == null ? 0 : mIdToIndex.length;
+        mIdToIndex = grow(mIdToIndex, capacity);
+        for (int idx = oldCapacity; idx < capacity; idx++)
+            mIdToIndex[idx] = -1;
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        float[] grown = new float[capacity];
+        if (array != null)
+            System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static int[] grow(int[] array, int capacity) {
+        int[] grown = new int[capacity];
+        if (array != null)
+            System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    /**
+     * Copy all component values from one entity index to another
+     */
+    private void copyEntity(int fromIdx, int toIdx) {
+        componentMask[toIdx] = componentMask[fromIdx];
+
+        positionX[toIdx] = positionX[fromIdx];
+        positionY[toIdx] = positionY[fromIdx];
+        orientation[toIdx] = orientation[fromIdx];
+
+        velocityX[toIdx] = velocityX[fromIdx];
+        velocityY[toIdx] = velocityY[fromIdx];
+        accelerationX[toIdx] = accelerationX[fromIdx];
+        accelerationY[toIdx] = accelerationY[fromIdx];
+        maxAcceleration[toIdx] = maxAcceleration[fromIdx];
+        maxVelocity[toIdx] = maxVelocity[fromIdx];
+        angularVelocity[toIdx] = angularVelocity[fromIdx];
+        angularAcceleration[toIdx] = angularAcceleration[fromIdx];
+        maxAngularAcceleration[toIdx] = maxAngularAcceleration[fromIdx];
+        maxAngularVelocity[toIdx] = maxAngularVelocity[fromIdx];
+
+        halfWidth[toIdx] = halfWidth[fromIdx];
+        halfHeight[toIdx] = halfHeight[fromIdx];
+
+        bitmap[toIdx] = bitmap[fromIdx];
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Entities
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the number of live entities
+     *
+     * @return Number of live entities
+     */
+    public int getEntityCount() {
+        return mEntityCount;
+    }
+
+    /**
+     * Create a new entity with the specified components. All component
+     * values are reset, with maximum values set to the Sprite defaults.
+     *
+     * @param components Component mask
+     * @return Entity id
+     */
+    public int createEntity(int components) {
+        if (mEntityCount == componentMask.length)
+            allocate(componentMask.length * 2);
+
+        // Id slots can exceed the entity capacity, as released slots are
+        // only reused once enough are waiting
+        int id = mIdAllocator.allocate();
+        if (mIdToIndex.length < mIdAllocator.getCapacity())
+            growIdToIndex(mIdAllocator.getCapacity());
+        int idx = mEntityCount++;
+        mIdToIndex[HandleAllocator.getIndex(id)] = idx;
+        mIndexToId[idx] = id;
+
+        componentMask[idx] = components;
+
+        positionX[idx] = positionY[idx] = orientation[idx] = 0.0f;
+
+        velocityX[idx] = velocityY[idx] = 0.0f;
+        accelerationX[idx] = accelerationY[idx] = 0.0f;
+        maxAcceleration[idx] = Sprite.DEFAULT_MAX_ACCELERATION;
+        maxVelocity[idx] = Sprite.DEFAULT_MAX_VELOCITY;
+        angularVelocity[idx] = angularAcceleration[idx] = 0.0f;
+        maxAngularAcceleration[idx] = Sprite.DEFAULT_MAX_ANGULAR_ACCELERATION;
+        maxAngularVelocity[idx] = Sprite.DEFAULT_MAX_ANGULAR_VELOCITY;
+
+        halfWidth[idx] = halfHeight[idx] = 0.0f;
+
+        bitmap[idx] = null;
+
+        return id;
+    }
+
+    /**
+     * Create a new entity with transform, kinematics, bounds and render
+     * components
+     *
+     * @param x      Centre x location of the entity
+     * @param y      Centre y location of the entity
+     * @param width  Width of the entity
+     * @param height Height of the entity
+     * @param bitmap Bitmap used to represent the entity
+     * @return Entity id
+     */
+    public int createEntity(float x, float y, float width, float height, Bitmap bitmap) {
+        int id = createEntity(TRANSFORM | KINEMATICS | BOUNDS | RENDER);
+        int idx = getIndex(id);
+        positionX[idx] = x;
+        positionY[idx] = y;
+        halfWidth[idx] = width / 2.0f;
+        halfHeight[idx] = height / 2.0f;
+        this.bitmap[idx] = bitmap;
+        return id;
+    }
+
+    /**
+     * Destroy the specified entity. The last entity is moved into the
+     * destroyed entity's index to keep the component arrays packed.
+     *
+     * @param id Entity id
+     */
+    public void destroyEntity(int id) {
+        int idx = getIndex(id);
+
+        int lastIdx = --mEntityCount;
+        if (idx != lastIdx) {
+            copyEntity(lastIdx, idx);
+            int movedId = mIndexToId[lastIdx];
+            mIdToIndex[HandleAllocator.getIndex(movedId)] = idx;
+            mIndexToId[idx] = movedId;
+        }
+        bitmap[lastIdx] = null;
+
+        mIdToIndex[HandleAllocator.getIndex(id)] = -1;
+        mIdAllocator.release(id);
+    }
+
+    /**
+     * Determine if the specified entity id refers to a live entity. Ids of
+     * destroyed entities are reported as not existing, even once their slot
+     * has been reused.
+     *
+     * @param id Entity id
+     * @return True if the entity exists
+     */
+    public boolean exists(int id) {
+        return mIdAllocator.isValid(id);
+    }
+
+    /**
+     * Get the current dense index of the specified entity
+     *
+     * @param id Entity id
+     * @return Entity index
+     */
+    public int getIndex(int id) {
+        if (!exists(id))
+            throw new RuntimeException("EntityWorld.getIndex: Unknown entity [" + id + "]");
+        return mIdToIndex[HandleAllocator.getIndex(id)];
+    }
+
+    /**
+     * Get the entity id held at the specified dense index
+     *
+     * @param idx Entity index
+     * @return Entity id
+     */
+    public int getId(int idx) {
+        return mIndexToId[idx];
+    }
+
+    /**
+     * Get the bound of the entity at the specified index
+     *
+     * @param idx   Entity index
+     * @param bound Bounding box to store the entity bound in
+     */
+    public void getBound(int idx, BoundingBox bound) {
+        bound.x = positionX[idx];
+        bound.y = positionY[idx];
+        bound.halfWidth = halfWidth[idx];
+        bound.halfHeight = halfHeight[idx];
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Sprite Interoperation
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new entity holding the current state of the specified sprite
+     *
+     * @param sprite Sprite to copy
+     * @return Entity id
+     */
+    public int createEntity(Sprite sprite) {
+        int id = createEntity(TRANSFORM | KINEMATICS | BOUNDS | RENDER);
+        copyFromSprite(id, sprite);
+        return id;
+    }
+
+    /**
+     * Copy the state of the specified sprite into an entity
+     *
+     * @param id     Entity id
+     * @param sprite Sprite to copy from
+     */
+    public void copyFromSprite(int id, Sprite sprite) {
+        int idx = getIndex(id);
+
+        positionX[idx] = sprite.position.x;
+        positionY[idx] = sprite.position.y;
+        orientation[idx] = sprite.orientation;
+
+        velocityX[idx] = sprite.velocity.x;
+        velocityY[idx] = sprite.velocity.y;
+        accelerationX[idx] = sprite.acceleration.x;
+        accelerationY[idx] = sprite.acceleration.y;
+        maxAcceleration[idx] = sprite.maxAcceleration;
+        maxVelocity[idx] = sprite.maxVelocity;
+        angularVelocity[idx] = sprite.angularVelocity;
+        angularAcceleration[idx] = sprite.angularAcceleration;
+        maxAngularAcceleration[idx] = sprite.maxAngularAcceleration;
+        maxAngularVelocity[idx] = sprite.maxAngularVelocity;
+
+        halfWidth[idx] = sprite.getWidth() / 2.0f;
+        halfHeight[idx] = sprite.getHeight() / 2.0f;
+
+        bitmap[idx] = sprite.getBitmap();
+    }
+
+    /**
+     * Copy the state of an entity into the specified sprite, e.g. to use
+     * existing sprite based code with the entity
+     *
+     * @param id     Entity id
+     * @param sprite Sprite to copy to
+     */
+    public void copyToSprite(int id, Sprite sprite) {
+        int idx = getIndex(id);
+
+        sprite.position.set(positionX[idx], positionY[idx]);
+        sprite.orientation = orientation[idx];
+
+        sprite.velocity.set(velocityX[idx], velocityY[idx]);
+        sprite.acceleration.set(accelerationX[idx], accelerationY[idx]);
+        sprite.maxAcceleration = maxAcceleration[idx];
+        sprite.maxVelocity = maxVelocity[idx];
+        sprite.angularVelocity = angularVelocity[idx];
+        sprite.angularAcceleration = angularAcceleration[idx];
+        sprite.maxAngularAcceleration = maxAngularAcceleration[idx];
+        sprite.maxAngularVelocity = maxAngularVelocity[idx];
+
+        sprite.setWidth(halfWidth[idx] * 2.0f);
+        sprite.setHeight(halfHeight[idx] * 2.0f);
+
+        sprite.setBitmap(bitmap[idx]);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Systems
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add a system that will be run on each update. Systems are run in the
+     * order in which they are added.
+     *
+     * @param system System to add
+     */
+    public void addSystem(EntitySystem system) {
+        mSystems.add(system);
+    }
+
+    /**
+     * Remove the specified system
+     *
+     * @param system System to remove
+     */
+    public void removeSystem(EntitySystem system) {
+        mSystems.remove(system);
+    }
+
+    /**
+     * Update the world by running each system in turn
+     *
+     * @param elapsedTime Elapsed time information
+     */
+    public void update(ElapsedTime elapsedTime) {
+        for (int idx = 0; idx < mSystems.size(); idx++)
+            mSystems.get(idx).update(elapsedTime, this);
+    }
+
+    /**
+     * Draw all entities with transform, bounds and render components
+     *
+     * @param elapsedTime    Elapsed time information
+     * @param graphics2D     Graphics instance
+     * @param layerViewport  Layer viewport
+     * @param screenViewport Screen viewport
+     */
+    public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
+                     LayerViewport layerViewport, ScreenViewport screenViewport) {
+        mRenderSystem.draw(elapsedTime, graphics2D, layerViewport, screenViewport, this);
+    }
+}
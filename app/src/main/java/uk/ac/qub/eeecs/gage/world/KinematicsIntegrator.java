@@ -0,0 +1,339 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import uk.ac.qub.eeecs.gage.engine.jobs.JobParallelFor;
+import uk.ac.qub.eeecs.gage.util.ParallelFor;
+
+/**
+ * Bulk kinematics integrator.
+ * <p>
+ * Holds the kinematic state of many sprites in packed primitive arrays and
+ * steps them together, performing the same clamped semi-implicit Euler
+ * update as Sprite.update. The update loops avoid per-element branches and
+ * method calls (clamps are applied as a multiply by a selected scale
+ * factor) so they can be readily optimised, and possibly auto-vectorised,
+ * by the compiler. The step can optionally be split across the worker
+ * threads of the game's job system using a JobParallelFor.
+ * <p>
+ * The motion state of gathered sprites is honoured: static sprites only
+ * rotate and sleeping sprites are left unchanged. This is achieved by
+ * scaling the time step of the linear and angular passes by a per-element
+ * factor of zero or one. Putting sprites to sleep remains the job of
+ * Sprite.update.
+ * <p>
+ * Sprites can be gathered into the integrator, stepped and scattered back.
+ * Alternatively, state can be held permanently within the arrays (as done
+ * by the entity world), using the static integrate method.
+ * <p>
+ * The state arrays are public for speed of access. Array references change
+ * if the integrator needs to grow.
+ *
+ * @version 1.0
+ */
+public class KinematicsIntegrator {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Minimum number of elements handed to each thread when integrating
+     * in parallel
+     */
+    public static final int MIN_PARALLEL_RANGE_SIZE = 1024;
+
+    /**
+     * Packed kinematic state
+     */
+    public float[] positionX;
+    public float[] positionY;
+    public float[] orientation;
+    public float[] velocityX;
+    public float[] velocityY;
+    public float[] accelerationX;
+    public float[] accelerationY;
+    public float[] maxAcceleration;
+    public float[] maxVelocity;
+    public float[] angularVelocity;
+    public float[] angularAcceleration;
+    public float[] maxAngularAcceleration;
+    public float[] maxAngularVelocity;
+
+    /**
+     * Per-element scale applied to the time step of the linear and angular
+     * updates (one if the element moves or rotates, zero if not)
+     */
+    public float[] linearTimeScale;
+    public float[] angularTimeScale;
+
+    /**
+     * Number of elements to be integrated
+     */
+    private int mCount = 0;
+
+    /**
+     * Time step and range task used for parallel integration, defined as
+     * class members to reduce temporary object creation.
+     */
+    private float mStepTime;
+    private final ParallelFor.RangeTask mIntegrateTask = new ParallelFor.RangeTask() {
+        @Override
+        public void run(int start, int end) {
+            integrate(mStepTime, start, end);
+        }
+    };
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new kinematics integrator
+     *
+     * @param initialCapacity Initial number of elements that can be held
+     */
+    public KinematicsIntegrator(int initialCapacity) {
+        allocate(Math.max(initialCapacity, 1));
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Storage
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Allocate (or grow) the state arrays
+     *
+     * @param capacity New capacity
+     */
+    private void allocate(int capacity) {
+        positionX = grow(positionX, capacity);
+        positionY = grow(positionY, capacity);
+        orientation = grow(orientation, capacity);
+        velocityX = grow(velocityX, capacity);
+        velocityY = grow(velocityY, capacity);
+        accelerationX = grow(accelerationX, capacity);
+        accelerationY = grow(accelerationY, capacity);
+        maxAcceleration = grow(maxAcceleration, capacity);
+        maxVelocity = grow(maxVelocity, capacity);
+        angularVelocity = grow(angularVelocity, capacity);
+        angularAcceleration = grow(angularAcceleration, capacity);
+        maxAngularAcceleration = grow(maxAngularAcceleration, capacity);
+        maxAngularVelocity = grow(maxAngularVelocity, capacity);
+        linearTimeScale = grow(linearTimeScale, capacity);
+        angularTimeScale = grow(angularTimeScale, capacity);
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        float[] grown = new float[capacity];
+        if (array != null)
+            System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    /**
+     * Set the number of elements to be integrated, growing the state
+     * arrays if needed
+     *
+     * @param count Number of elements
+     */
+    public void setCount(int count) {
+        if (count > positionX.length)
+            allocate(Math.max(count, positionX.length * 2));
+        mCount = count;
+    }
+
+    /**
+     * Get the number of elements to be integrated
+     *
+     * @return Number of elements
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Sprite Interoperation
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Copy the kinematic state of the specified sprite into an element
+     *
+     * @param idx    Element index
+     * @param sprite Sprite to copy from
+     */
+    public void load(int idx, Sprite sprite) {
+        positionX[idx] = sprite.position.x;
+        positionY[idx] = sprite.position.y;
+        orientation[idx] = sprite.orientation;
+        velocityX[idx] = sprite.velocity.x;
+        velocityY[idx] = sprite.velocity.y;
+        accelerationX[idx] = sprite.acceleration.x;
+        accelerationY[idx] = sprite.acceleration.y;
+        maxAcceleration[idx] = sprite.maxAcceleration;
+        maxVelocity[idx] = sprite.maxVelocity;
+        angularVelocity[idx] = sprite.angularVelocity;
+        angularAcceleration[idx] = sprite.angularAcceleration;
+        maxAngularAcceleration[idx] = sprite.maxAngularAcceleration;
+        maxAngularVelocity[idx] = sprite.maxAngularVelocity;
+
+        Sprite.MotionState motionState = sprite.getMotionState();
+        linearTimeScale[idx] = motionState == Sprite.MotionState.Awake ? 1.0f : 0.0f;
+        angularTimeScale[idx] = motionState == Sprite.MotionState.Sleeping ? 0.0f : 1.0f;
+    }
+
+    /**
+     * Copy the state of an element back into the specified sprite. Only
+     * values changed by the integration are copied.
+     *
+     * @param idx    Element index
+     * @param sprite Sprite to copy to
+     */
+    public void store(int idx, Sprite sprite) {
+        sprite.position.set(positionX[idx], positionY[idx]);
+        sprite.orientation = orientation[idx];
+        sprite.velocity.set(velocityX[idx], velocityY[idx]);
+        sprite.acceleration.set(accelerationX[idx], accelerationY[idx]);
+        sprite.angularVelocity = angularVelocity[idx];
+        sprite.angularAcceleration = angularAcceleration[idx];
+    }
+
+    /**
+     * Gather the kinematic state of the specified sprites into this
+     * integrator, replacing any existing elements
+     *
+     * @param sprites Sprites to gather
+     */
+    public void gather(Sprite[] sprites) {
+        setCount(sprites.length);
+        for (int idx = 0; idx < sprites.length; idx++)
+            load(idx, sprites[idx]);
+    }
+
+    /**
+     * Scatter the integrated state back into the specified sprites, which
+     * should be the sprites previously gathered
+     *
+     * @param sprites Sprites to update
+     */
+    public void scatter(Sprite[] sprites) {
+        for (int idx = 0; idx < mCount; idx++)
+            store(idx, sprites[idx]);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Integration
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Integrate all elements on the calling thread
+     *
+     * @param dt Time step in seconds
+     */
+    public void integrate(float dt) {
+        integrate(dt, 0, mCount);
+    }
+
+    /**
+     * Integrate all elements, splitting the work across the worker threads
+     * of the specified job parallel for if there are enough elements to
+     * warrant it
+     *
+     * @param dt          Time step in seconds
+     * @param parallelFor Job parallel for used to split the work
+     */
+    public void integrate(float dt, JobParallelFor parallelFor) {
+        mStepTime = dt;
+        parallelFor.execute(mCount, MIN_PARALLEL_RANGE_SIZE, mIntegrateTask);
+    }
+
+    /**
+     * Integrate the specified range of elements
+     *
+     * @param dt    Time step in seconds
+     * @param start First element index (inclusive)
+     * @param end   Last element index (exclusive)
+     */
+    public void integrate(float dt, int start, int end) {
+        integrate(dt, start, end,
+                positionX, positionY, orientation, velocityX, velocityY,
+                accelerationX, accelerationY, maxAcceleration, maxVelocity,
+                angularVelocity, angularAcceleration,
+                maxAngularAcceleration, maxAngularVelocity,
+                linearTimeScale, angularTimeScale);
+    }
+
+    /**
+     * Integrate the specified range of elements held within the specified
+     * packed arrays, performing the same clamped semi-implicit Euler step
+     * as Sprite.update.
+     * <p>
+     * Linear and angular state are updated in separate passes to keep the
+     * number of arrays touched by each loop small.
+     * <p>
+     * The time step of each element's linear and angular update is scaled by
+     * the corresponding time scale, if provided. If a time scale array is
+     * null, then all elements are updated using the full time step.
+     *
+     * @param dt    Time step in seconds
+     * @param start First element index (inclusive)
+     * @param end   Last element index (exclusive)
+     */
+    public static void integrate(float dt, int start, int end,
+                                 float[] positionX, float[] positionY, float[] orientation,
+                                 float[] velocityX, float[] velocityY,
+                                 float[] accelerationX, float[] accelerationY,
+                                 float[] maxAcceleration, float[] maxVelocity,
+                                 float[] angularVelocity, float[] angularAcceleration,
+                                 float[] maxAngularAcceleration, float[] maxAngularVelocity,
+                                 float[] linearTimeScale, float[] angularTimeScale) {
+
+        // Linear pass: clamp the acceleration, update and clamp the velocity
+        // and update the position. Each clamp is a multiply by a selected
+        // scale, with the square root only taken if needed.
+        for (int idx = start; idx < end; idx++) {
+            float linearDt = linearTimeScale == null ? dt : dt * linearTimeScale[idx];
+
+            float ax = accelerationX[idx];
+            float ay = accelerationY[idx];
+            float maxAcc = maxAcceleration[idx];
+            float accLengthSquared = ax * ax + ay * ay;
+            float accScale = accLengthSquared > maxAcc * maxAcc
+                    ? maxAcc / (float) Math.sqrt(accLengthSquared) : 1.0f;
+            ax *= accScale;
+            ay *= accScale;
+            accelerationX[idx] = ax;
+            accelerationY[idx] = ay;
+
+            float vx = velocityX[idx] + ax * linearDt;
+            float vy = velocityY[idx] + ay * linearDt;
+            float maxVel = maxVelocity[idx];
+            float velLengthSquared = vx * vx + vy * vy;
+            float velScale = velLengthSquared > maxVel * maxVel
+                    ? maxVel / (float) Math.sqrt(velLengthSquared) : 1.0f;
+            vx *= velScale;
+            vy *= velScale;
+            velocityX[idx] = vx;
+            velocityY[idx] = vy;
+
+            positionX[idx] += vx * linearDt;
+            positionY[idx] += vy * linearDt;
+        }
+
+        // Angular pass: clamp the angular acceleration, update and clamp
+        // the angular velocity and update the orientation
+        for (int idx = start; idx < end; idx++) {
+            float angularDt = angularTimeScale == null ? dt : dt * angularTimeScale[idx];
+
+            float maxAngAcc = maxAngularAcceleration[idx];
+            float angAcc = Math.max(-maxAngAcc,
+                    Math.min(maxAngAcc, angularAcceleration[idx]));
+            angularAcceleration[idx] = angAcc;
+
+            float maxAngVel = maxAngularVelocity[idx];
+            float angVel = Math.max(-maxAngVel,
+                    Math.min(maxAngVel, angularVelocity[idx] + angAcc * angularDt));
+            angularVelocity[idx] = angVel;
+
+            orientation[idx] += angVel * angularDt;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.jobs.JobParallelFor;
+import uk.ac.qub.eeecs.gage.util.ParallelFor;
+
+/**
+ * Entity system that updates the position and orientation of all entities
+ * holding transform and kinematics components.
+ * <p>
+ * The update follows that performed by Sprite.update, i.e. linear and
+ * angular acceleration and velocity are clamped to the entity's maximum
+ * values before a semi-implicit Euler step is taken. The step itself is
+ * performed by the bulk kinematics integrator, optionally split across the
+ * worker threads of the game's job system.
+ *
+ * @version 1.0
+ */
+public class KinematicsSystem implements EntitySystem {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Components required for an entity to be updated by this system
+     */
+    private static final int REQUIRED_COMPONENTS =
+            EntityWorld.TRANSFORM | EntityWorld.KINEMATICS;
+
+    /**
+     * Job parallel for used to split the update across threads (null if the
+     * update is carried out on the calling thread)
+     */
+    private JobParallelFor mParallelFor;
+
+    /**
+     * World and time step used by the parallel update, alongside the range
+     * task, defined as class members to reduce temporary object creation.
+     */
+    private EntityWorld mWorld;
+    private float mStepTime;
+    private final ParallelFor.RangeTask mUpdateTask = new ParallelFor.RangeTask() {
+        @Override
+        public void run(int start, int end) {
+            update(mStepTime, mWorld, start, end);
+        }
+    };
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new kinematics system that updates entities on the calling
+     * thread
+     */
+    public KinematicsSystem() {
+        this(null);
+    }
+
+    /**
+     * Create a new kinematics system that splits the update across the
+     * worker threads of the specified job parallel for
+     *
+     * @param parallelFor Job parallel for used to split the update
+     */
+    public KinematicsSystem(JobParallelFor parallelFor) {
+        mParallelFor = parallelFor;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see uk.ac.qub.eeecs.gage.world.EntitySystem#update(uk.ac.qub.eeecs.gage.engine.ElapsedTime,
+     * uk.ac.qub.eeecs.gage.world.EntityWorld)
+     */
+    @Override
+    public void update(ElapsedTime elapsedTime, EntityWorld world) {
+        float dt = (float) elapsedTime.stepTime;
+
+        if (mParallelFor == null) {
+            update(dt, world, 0, world.getEntityCount());
+        } else {
+            mWorld = world;
+            mStepTime = dt;
+            mParallelFor.execute(world.getEntityCount(),
+                    KinematicsIntegrator.MIN_PARALLEL_RANGE_SIZE, mUpdateTask);
+            mWorld = null;
+        }
+    }
+
+    /**
+     * Update the specified range of entities. Contiguous runs of entities
+     * holding the required components are handed to the bulk integrator.
+     *
+     * @param dt    Time step in seconds
+     * @param world Entity world to update
+     * @param start First entity index (inclusive)
+     * @param end   Last entity index (exclusive)
+     */
+    private static void update(float dt, EntityWorld world, int start, int end) {
+        int[] componentMask = world.componentMask;
+
+        int idx = start;
+        while (idx < end) {
+            // Skip entities without the required components
+            while (idx < end
+                    && (componentMask[idx] & REQUIRED_COMPONENTS) != REQUIRED_COMPONENTS)
+                idx++;
+
+            // Find the end of the run of entities with the required components
+            int runStart = idx;
+            while (idx < end
+                    && (componentMask[idx] & REQUIRED_COMPONENTS) == REQUIRED_COMPONENTS)
+                idx++;
+
+            if (idx > runStart)
+                KinematicsIntegrator.integrate(dt, runStart, idx,
+                        world.positionX, world.positionY, world.orientation,
+                        world.velocityX, world.velocityY,
+                        world.accelerationX, world.accelerationY,
+                        world.maxAcceleration, world.maxVelocity,
+                        world.angularVelocity, world.angularAcceleration,
+                        world.maxAngularAcceleration, world.maxAngularVelocity,
+                        null, null);
+        }
+    }
+}
@@ -31,6 +31,15 @@ public class Sprite extends GameObject {
     public static float DEFAULT_MAX_ANGULAR_ACCELERATION = Float.MAX_VALUE;
     public static float DEFAULT_MAX_ANGULAR_VELOCITY = Float.MAX_VALUE;
 
+    /**
+     * Default linear and angular velocity (and acceleration) thresholds below
+     * which a sprite is considered to be at rest, alongside the time (in
+     * seconds) a sprite must remain at rest before being put to sleep
+     */
+    public static final float DEFAULT_SLEEP_LINEAR_THRESHOLD = 1.0f;
+    public static final float DEFAULT_SLEEP_ANGULAR_THRESHOLD = 1.0f;
+    public static final float DEFAULT_SLEEP_TIME = 0.5f;
+
     // /////////////////////////////////////////////////////////////////////////
     // Properties
     // /////////////////////////////////////////////////////////////////////////
@@ -56,6 +65,39 @@ public class Sprite extends GameObject {
     public float maxAngularAcceleration = DEFAULT_MAX_ANGULAR_ACCELERATION;
     public float maxAngularVelocity = DEFAULT_MAX_ANGULAR_VELOCITY;
 
+    /**
+     * Motion state of a sprite:
+     * <p>
+     * Static - the sprite never moves (although it may still rotate), e.g.
+     * scenery or fixed turrets. Static sprites are not moved by impulses.
+     * <p>
+     * Sleeping - the sprite is at rest and is not updated until woken, e.g.
+     * by an impulse or contact with an awake sprite.
+     * <p>
+     * Awake - the sprite is updated as normal. If permitted, an awake sprite
+     * that remains at rest will be put to sleep.
+     */
+    public enum MotionState {
+        Static, Sleeping, Awake
+    }
+
+    /**
+     * Current motion state of the sprite
+     */
+    protected MotionState mMotionState = MotionState.Awake;
+
+    /**
+     * Flag indicating if the sprite can be put to sleep when at rest. By
+     * default, sprites are not put to sleep, as sprites that are moved
+     * directly (rather than via velocity or impulses) would not be woken.
+     */
+    protected boolean mCanSleep = false;
+
+    /**
+     * Length of time (in seconds) the sprite has been at rest
+     */
+    protected float mRestTime = 0.0f;
+
     /**
      * Internal matrix use to support draw requests
      */
@@ -106,6 +148,95 @@ public class Sprite extends GameObject {
     // Configuration Methods
     // /////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Get the motion state of the sprite
+     *
+     * @return Motion state
+     */
+    public MotionState getMotionState() {
+        return mMotionState;
+    }
+
+    /**
+     * Set the motion state of the sprite. Velocities are zeroed if the
+     * sprite is made static or put to sleep.
+     *
+     * @param motionState Motion state
+     */
+    public void setMotionState(MotionState motionState) {
+        mMotionState = motionState;
+        mRestTime = 0.0f;
+
+        switch (motionState) {
+            case Static:
+                velocity.set(0.0f, 0.0f);
+                acceleration.set(0.0f, 0.0f);
+                break;
+            case Sleeping:
+                velocity.set(0.0f, 0.0f);
+                acceleration.set(0.0f, 0.0f);
+                angularVelocity = 0.0f;
+                angularAcceleration = 0.0f;
+                break;
+            case Awake:
+                break;
+        }
+    }
+
+    /**
+     * Determine if the sprite is static
+     *
+     * @return True if the sprite is static
+     */
+    public boolean isStatic() {
+        return mMotionState == MotionState.Static;
+    }
+
+    /**
+     * Determine if the sprite is sleeping
+     *
+     * @return True if the sprite is sleeping
+     */
+    public boolean isSleeping() {
+        return mMotionState == MotionState.Sleeping;
+    }
+
+    /**
+     * Set if the sprite can be put to sleep when at rest
+     *
+     * @param canSleep True if the sprite can sleep
+     */
+    public void setCanSleep(boolean canSleep) {
+        mCanSleep = canSleep;
+        mRestTime = 0.0f;
+    }
+
+    /**
+     * Wake the sprite if it is sleeping
+     */
+    public void wake() {
+        if (mMotionState == MotionState.Sleeping) {
+            mMotionState = MotionState.Awake;
+            mRestTime = 0.0f;
+        }
+    }
+
+    /**
+     * Apply an impulse to the sprite, waking it if sleeping. Sprites are
+     * assumed to have unit mass, i.e. the impulse is directly added to the
+     * velocity. Static sprites are unaffected.
+     *
+     * @param impulseX Impulse along the x-axis
+     * @param impulseY Impulse along the y-axis
+     */
+    public void applyImpulse(float impulseX, float impulseY) {
+        if (mMotionState == MotionState.Static)
+            return;
+
+        wake();
+        velocity.add(impulseX, impulseY);
+    }
+
     // /////////////////////////////////////////////////////////////////////////
     // Update and Draw
     // /////////////////////////////////////////////////////////////////////////
@@ -120,25 +251,15 @@ public class Sprite extends GameObject {
     @Override
     public void update(ElapsedTime elapsedTime) {
 
-        float dt = (float) elapsedTime.stepTime;
+        // Sleeping sprites are not updated
+        if (mMotionState == MotionState.Sleeping)
+            return;
 
-        // Ensure the maximum acceleration isn't exceeded
-        if (acceleration.lengthSquared() > maxAcceleration * maxAcceleration) {
-            acceleration.normalise();
-            acceleration.multiply(maxAcceleration);
-        }
-
-        // Update the velocity using the acceleration and ensure the
-        // maximum velocity has not been exceeded
-        velocity.add(acceleration.x * dt, acceleration.y * dt);
-
-        if (velocity.lengthSquared() > maxVelocity * maxVelocity) {
-            velocity.normalise();
-            velocity.multiply(maxVelocity);
-        }
+        float dt = (float) elapsedTime.stepTime;
 
-        // Update the position using the velocity
-        position.add(velocity.x * dt, velocity.y * dt);
+        // Static sprites only rotate
+        if (mMotionState != MotionState.Static)
+            updateLinearMotion(dt);
 
         // Ensure the maximum angular acceleration isn't exceeded
         if (angularAcceleration < -maxAngularAcceleration
@@ -158,6 +279,57 @@ public class Sprite extends GameObject {
 
         // Update the orientation using the angular velocity
         orientation += angularVelocity * dt;
+
+        // Put the sprite to sleep if it has been at rest for long enough
+        if (mCanSleep && mMotionState == MotionState.Awake) {
+            if (isAtRest()) {
+                mRestTime += dt;
+                if (mRestTime > DEFAULT_SLEEP_TIME)
+                    setMotionState(MotionState.Sleeping);
+            } else {
+                mRestTime = 0.0f;
+            }
+        }
+    }
+
+    /**
+     * Update the velocity and position of the sprite
+     *
+     * @param dt Step time in seconds
+     */
+    private void updateLinearMotion(float dt) {
+        // Ensure the maximum acceleration isn't exceeded
+        if (acceleration.lengthSquared() > maxAcceleration * maxAcceleration) {
+            acceleration.normalise();
+            acceleration.multiply(maxAcceleration);
+        }
+
+        // Update the velocity using the acceleration and ensure the
+        // maximum velocity has not been exceeded
+        velocity.add(acceleration.x * dt, acceleration.y * dt);
+
+        if (velocity.lengthSquared() > maxVelocity * maxVelocity) {
+            velocity.normalise();
+            velocity.multiply(maxVelocity);
+        }
+
+        // Update the position using the velocity
+        position.add(velocity.x * dt, velocity.y * dt);
+    }
+
+    /**
+     * Determine if the sprite is currently at rest, i.e. its linear and
+     * angular velocity and acceleration are below the sleep thresholds
+     *
+     * @return True if the sprite is at rest
+     */
+    protected boolean isAtRest() {
+        float linearThresholdSquared =
+                DEFAULT_SLEEP_LINEAR_THRESHOLD * DEFAULT_SLEEP_LINEAR_THRESHOLD;
+        return velocity.lengthSquared() < linearThresholdSquared
+                && acceleration.lengthSquared() < linearThresholdSquared
+                && Math.abs(angularVelocity) < DEFAULT_SLEEP_ANGULAR_THRESHOLD
+                && Math.abs(angularAcceleration) < DEFAULT_SLEEP_ANGULAR_THRESHOLD;
     }
 
     /*
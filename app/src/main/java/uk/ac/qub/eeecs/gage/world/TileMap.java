@@ -0,0 +1,360 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import android.graphics.Bitmap;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
+import uk.ac.qub.eeecs.gage.util.GraphicsHelper;
+
+/**
+ * Grid of fixed size tiles.
+ * <p>
+ * Tiles are stored as short tile type identifiers, held in square chunks of
+ * CHUNK_SIZE x CHUNK_SIZE tiles. Chunks are only created once a non-empty
+ * tile is placed within them, so large sparse levels occupy little memory.
+ * A tile type of EMPTY_TILE denotes an empty cell.
+ * <p>
+ * Only tiles within the layer viewport are considered when drawing, and
+ * solidity queries for a cell are constant time, so the per-frame cost does
+ * not depend on the overall size of the map.
+ * <p>
+ * Column 0, row 0 is the bottom-left tile of the map (the layer y-axis
+ * points upwards).
+ *
+ * @version 1.0
+ */
+public class TileMap extends GameObject {
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Properties
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Tile type used to denote an empty cell
+     */
+    public static final short EMPTY_TILE = 0;
+
+    /**
+     * Chunk size (in tiles) along each axis, defined as a power of two so
+     * cells can be mapped onto chunks using shifts and masks
+     */
+    private static final int CHUNK_SHIFT = 4;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Number of tile columns and rows in the map
+     */
+    protected int mNumColumns;
+    protected int mNumRows;
+
+    /**
+     * Width and height of each tile in layer units
+     */
+    protected float mTileWidth;
+    protected float mTileHeight;
+
+    /**
+     * Number of chunks along the x and y axis and the chunk storage (indexed
+     * by chunk row * chunks across + chunk column). A null chunk is empty.
+     */
+    private int mNumChunksAcross;
+    private int mNumChunksDown;
+    private short[][] mChunks;
+
+    /**
+     * Bitmap and solidity of each tile type, indexed by tile type
+     */
+    private Bitmap[] mTileBitmaps = new Bitmap[8];
+    private boolean[] mTileSolid = new boolean[8];
+
+    /**
+     * Number of defined tile types (including the empty tile)
+     */
+    private int mNumTileTypes = 1;
+
+    /**
+     * Private helper variable used to provide a layer bound for the tile
+     * being drawn.
+     */
+    private BoundingBox mTileBound = new BoundingBox();
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Constructors
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Create a new, empty, tile map
+     *
+     * @param left       Left edge of the map in layer units
+     * @param bottom     Bottom edge of the map in layer units
+     * @param numColumns Number of tile columns
+     * @param numRows    Number of tile rows
+     * @param tileWidth  Width of each tile
+     * @param tileHeight Height of each tile
+     * @param gameScreen Gamescreen to which this tile map belongs
+     */
+    public TileMap(float left, float bottom, int numColumns, int numRows,
+                   float tileWidth, float tileHeight, GameScreen gameScreen) {
+        super(left + numColumns * tileWidth / 2.0f, bottom + numRows * tileHeight / 2.0f,
+                numColumns * tileWidth, numRows * tileHeight, null, gameScreen);
+
+        mNumColumns = numColumns;
+        mNumRows = numRows;
+        mTileWidth = tileWidth;
+        mTileHeight = tileHeight;
+
+        mNumChunksAcross = (numColumns + CHUNK_MASK) >> CHUNK_SHIFT;
+        mNumChunksDown = (numRows + CHUNK_MASK) >> CHUNK_SHIFT;
+        mChunks = new short[mNumChunksAcross * mNumChunksDown][];
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Tile Types
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Define a new tile type
+     *
+     * @param bitmap Bitmap used to draw the tile
+     * @param solid  True if the tile should block movement
+     * @return Tile type identifier
+     */
+    public short addTileType(Bitmap bitmap, boolean solid) {
+        if (mNumTileTypes > Short.MAX_VALUE)
+            throw new RuntimeException("TileMap.addTileType: Too many tile types defined");
+
+        if (mNumTileTypes == mTileBitmaps.length) {
+            Bitmap[] bitmaps = new Bitmap[mTileBitmaps.length * 2];
+            System.arraycopy(mTileBitmaps, 0, bitmaps, 0, mTileBitmaps.length);
+            mTileBitmaps = bitmaps;
+            boolean[] solids = new boolean[mTileSolid.length * 2];
+            System.arraycopy(mTileSolid, 0, solids, 0, mTileSolid.length);
+            mTileSolid = solids;
+        }
+
+        mTileBitmaps[mNumTileTypes] = bitmap;
+        mTileSolid[mNumTileTypes] = solid;
+        return (short) mNumTileTypes++;
+    }
+
+    /**
+     * Define a new tile type using a bitmap held by the asset manager
+     *
+     * @param bitmapName Name of the bitmap used to draw the tile
+     * @param solid      True if the tile should block movement
+     * @return Tile type identifier
+     */
+    public short addTileType(String bitmapName, boolean solid) {
+        return addTileType(
+                mGameScreen.getGame().getAssetManager().getBitmap(bitmapName), solid);
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Tiles
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get the number of tile columns
+     *
+     * @return Number of tile columns
+     */
+    public int getNumColumns() {
+        return mNumColumns;
+    }
+
+    /**
+     * Get the number of tile rows
+     *
+     * @return Number of tile rows
+     */
+    public int getNumRows() {
+        return mNumRows;
+    }
+
+    /**
+     * Get the width of each tile
+     *
+     * @return Tile width
+     */
+    public float getTileWidth() {
+        return mTileWidth;
+    }
+
+    /**
+     * Get the height of each tile
+     *
+     * @return Tile height
+     */
+    public float getTileHeight() {
+        return mTileHeight;
+    }
+
+    /**
+     * Set the tile type of the specified cell
+     *
+     * @param column   Tile column
+     * @param row      Tile row
+     * @param tileType Tile type identifier
+     */
+    public void setTile(int column, int row, short tileType) {
+        if (column < 0 || column >= mNumColumns || row < 0 || row >= mNumRows)
+            throw new RuntimeException("TileMap.setTile: Cell out of range ["
+                    + column + ", " + row + "]");
+        if (tileType < 0 || tileType >= mNumTileTypes)
+            throw new RuntimeException("TileMap.setTile: Unknown tile type [" + tileType + "]");
+
+        int chunkIdx = (row >> CHUNK_SHIFT) * mNumChunksAcross + (column >> CHUNK_SHIFT);
+        short[] chunk = mChunks[chunkIdx];
+        if (chunk == null) {
+            if (tileType == EMPTY_TILE)
+                return;
+            chunk = mChunks[chunkIdx] = new short[CHUNK_SIZE * CHUNK_SIZE];
+        }
+        chunk[((row & CHUNK_MASK) << CHUNK_SHIFT) + (column & CHUNK_MASK)] = tileType;
+    }
+
+    /**
+     * Set the tile type of all cells within the specified (inclusive) range
+     *
+     * @param startColumn First tile column
+     * @param startRow    First tile row
+     * @param endColumn   Last tile column
+     * @param endRow      Last tile row
+     * @param tileType    Tile type identifier
+     */
+    public void fill(int startColumn, int startRow, int endColumn, int endRow, short tileType) {
+        for (int row = startRow; row <= endRow; row++)
+            for (int column = startColumn; column <= endColumn; column++)
+                setTile(column, row, tileType);
+    }
+
+    /**
+     * Get the tile type of the specified cell. Cells outside of the map are
+     * considered to be empty.
+     *
+     * @param column Tile column
+     * @param row    Tile row
+     * @return Tile type identifier
+     */
+    public short getTile(int column, int row) {
+        if (column < 0 || column >= mNumColumns || row < 0 || row >= mNumRows)
+            return EMPTY_TILE;
+
+        short[] chunk = mChunks[(row >> CHUNK_SHIFT) * mNumChunksAcross + (column >> CHUNK_SHIFT)];
+        return chunk == null ? EMPTY_TILE
+                : chunk[((row & CHUNK_MASK) << CHUNK_SHIFT) + (column & CHUNK_MASK)];
+    }
+
+    /**
+     * Determine if the specified cell is solid
+     *
+     * @param column Tile column
+     * @param row    Tile row
+     * @return True if the cell holds a solid tile
+     */
+    public boolean isSolid(int column, int row) {
+        return mTileSolid[getTile(column, row)];
+    }
+
+    /**
+     * Determine if the specified layer location lies within a solid tile
+     *
+     * @param x Layer x location
+     * @param y Layer y location
+     * @return True if the location lies within a solid tile
+     */
+    public boolean isSolidAt(float x, float y) {
+        return isSolid(getColumn(x), getRow(y));
+    }
+
+    /**
+     * Get the column containing the specified layer x location. The returned
+     * column may lie outside of the map.
+     *
+     * @param x Layer x location
+     * @return Tile column
+     */
+    public int getColumn(float x) {
+        return (int) Math.floor((x - (position.x - mBound.halfWidth)) / mTileWidth);
+    }
+
+    /**
+     * Get the row containing the specified layer y location. The returned
+     * row may lie outside of the map.
+     *
+     * @param y Layer y location
+     * @return Tile row
+     */
+    public int getRow(float y) {
+        return (int) Math.floor((y - (position.y - mBound.halfHeight)) / mTileHeight);
+    }
+
+    /**
+     * Get the layer bound of the specified cell
+     *
+     * @param column Tile column
+     * @param row    Tile row
+     * @param bound  Bounding box to store the cell bound in
+     */
+    public void getTileBound(int column, int row, BoundingBox bound) {
+        bound.halfWidth = mTileWidth / 2.0f;
+        bound.halfHeight = mTileHeight / 2.0f;
+        bound.x = (position.x - mBound.halfWidth) + (column + 0.5f) * mTileWidth;
+        bound.y = (position.y - mBound.halfHeight) + (row + 0.5f) * mTileHeight;
+    }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods: Draw
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Draw the tiles lying within the layer viewport
+     *
+     * @param elapsedTime    Elapsed time information
+     * @param graphics2D     Graphics instance
+     * @param layerViewport  Game layer viewport
+     * @param screenViewport Screen viewport
+     */
+    @Override
+    public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
+                     LayerViewport layerViewport, ScreenViewport screenViewport) {
+
+        // Determine the range of visible cells
+        int startColumn = Math.max(0, getColumn(layerViewport.getLeft()));
+        int endColumn = Math.min(mNumColumns - 1, getColumn(layerViewport.getRight()));
+        int startRow = Math.max(0, getRow(layerViewport.getBottom()));
+        int endRow = Math.min(mNumRows - 1, getRow(layerViewport.getTop()));
+
+        // Consider each visible chunk, skipping empty chunks
+        for (int chunkRow = startRow >> CHUNK_SHIFT; chunkRow <= endRow >> CHUNK_SHIFT; chunkRow++)
+            for (int chunkColumn = startColumn >> CHUNK_SHIFT;
+                 chunkColumn <= endColumn >> CHUNK_SHIFT; chunkColumn++) {
+
+                short[] chunk = mChunks[chunkRow * mNumChunksAcross + chunkColumn];
+                if (chunk == null)
+                    continue;
+
+                // Draw each visible, non-empty, tile in the chunk
+                int firstRow = Math.max(startRow, chunkRow << CHUNK_SHIFT);
+                int lastRow = Math.min(endRow, ((chunkRow + 1) << CHUNK_SHIFT) - 1);
+                int firstColumn = Math.max(startColumn, chunkColumn << CHUNK_SHIFT);
+                int lastColumn = Math.min(endColumn, ((chunkColumn + 1) << CHUNK_SHIFT) - 1);
+
+                for (int row = firstRow; row <= lastRow; row++)
+                    for (int column = firstColumn; column <= lastColumn; column++) {
+                        short tileType = chunk[((row & CHUNK_MASK) << CHUNK_SHIFT)
+                                + (column & CHUNK_MASK)];
+                        if (tileType == EMPTY_TILE)
+                            continue;
+
+                        Bitmap tileBitmap = mTileBitmaps[tileType];
+                        getTileBound(column, row, mTileBound);
+                        if (GraphicsHelper.getClippedSourceAndScreenRect(mTileBound, tileBitmap,
+                                layerViewport, screenViewport, drawSourceRect, drawScreenRect))
+                            graphics2D.drawBitmap(tileBitmap, drawSourceRect, drawScreenRect, null);
+                    }
+            }
+    }
+}
@@ -1,5 +1,6 @@
 package uk.ac.qub.eeecs.game;
 
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -32,6 +33,13 @@ public class DemoGame extends Game {
 
         // Go with a default 20 UPS/FPS
         setTargetFramesPerSecond(20);
+
+        // In debuggable builds emit the profiled sections to the system trace
+        // and periodically log the profiler results
+        if ((getActivity().getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            getProfiler().setSystemTraceEnabled(true);
+            setProfilerLogInterval(5.0f);
+        }
     }
 
     @Override
@@ -5,11 +5,14 @@ import android.graphics.Color;
 import java.util.Random;
 
 import uk.ac.qub.eeecs.gage.Game;
+import uk.ac.qub.eeecs.gage.engine.AssetManager;
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.animation.AnimationCrowd;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
 import uk.ac.qub.eeecs.gage.ui.PushButton;
 import uk.ac.qub.eeecs.gage.util.BoundingBox;
 import uk.ac.qub.eeecs.gage.util.CollisionDetector;
+import uk.ac.qub.eeecs.gage.util.SeedSource;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
 
 /**
@@ -36,6 +39,11 @@ public class AnimationDemoScreen extends GameScreen {
     private final static int NUM_ROWS = 6;
     private final static int NUM_ZOMBIES_IN_ROW = 3;
 
+    /**
+     * Settings file (and asset name) of the zombie animations
+     */
+    private final static String ZOMBIE_ANIMATIONS_JSON = "txt/animation/ZombieAnimations.JSON";
+
     /**
      * Create an array to hold the zombie objects. Each zombie will
      * be held as a separate object (with it's own position, animation
@@ -44,6 +52,13 @@ public class AnimationDemoScreen extends GameScreen {
     private AnimationDemoZombie[][] mZombies
             = new AnimationDemoZombie[NUM_ROWS][NUM_ZOMBIES_IN_ROW];
 
+    /**
+     * Animation crowd shared by all of the zombies. The zombie animations
+     * are held once and the animation playback of every zombie is updated
+     * in a single pass.
+     */
+    private AnimationCrowd mZombieAnimations;
+
 
     // /////////////////////////////////////////////////////////////////////////
     // Constructors
@@ -75,14 +90,21 @@ public class AnimationDemoScreen extends GameScreen {
         float zombieWidth = zombieHeight * 0.66f;
         float zombieSpacing = mDefaultLayerViewport.getWidth() / (NUM_ZOMBIES_IN_ROW + 1);
 
-        Random random = new Random();
+        // Load the zombie animations (walking, idle and attacking) and create
+        // the animation crowd into which each zombie will be added.
+        AssetManager assetManager = mGame.getAssetManager();
+        assetManager.loadAndAddAnimation(ZOMBIE_ANIMATIONS_JSON, ZOMBIE_ANIMATIONS_JSON);
+        mZombieAnimations = new AnimationCrowd(
+                assetManager.getAnimation(ZOMBIE_ANIMATIONS_JSON), NUM_ROWS * NUM_ZOMBIES_IN_ROW);
+
+        Random random = new Random(SeedSource.nextSeed());
         for (int rowIdx = 0; rowIdx < NUM_ROWS; rowIdx++)
             for (int zombieIdx = 0; zombieIdx < NUM_ZOMBIES_IN_ROW; zombieIdx++) {
                 // Create a new zombie instance with a random left/right facing.
                 AnimationDemoZombie zombie = new AnimationDemoZombie(
                         zombieSpacing * (zombieIdx + 1),
                         zombieHeight * (0.5f + rowIdx),
-                        zombieWidth, zombieHeight, this);
+                        zombieWidth, zombieHeight, this, mZombieAnimations);
                 zombie.setFacing(random.nextBoolean() ?
                         AnimationDemoZombie.ZombieFacing.LEFT :
                         AnimationDemoZombie.ZombieFacing.RIGHT);
@@ -106,8 +128,11 @@ public class AnimationDemoScreen extends GameScreen {
 
         // Update the back button. If triggered then return to the demo menu.
         mBackButton.update(elapsedTime);
-        if (mBackButton.isPushTriggered())
+        if (mBackButton.isPushTriggered()) {
             mGame.getScreenManager().removeScreen(this);
+            dispose();
+            return;
+        }
 
         // Update all of the zombies and ensure they do not collide or leave the screen
         for (int rowIdx = 0; rowIdx < NUM_ROWS; rowIdx++) {
@@ -153,6 +178,10 @@ public class AnimationDemoScreen extends GameScreen {
                 }
             }
         }
+
+        // Select the current animation frame of every zombie, based on the
+        // zombie's current animation and how long it has been playing.
+        mZombieAnimations.update(elapsedTime);
     }
 
     /**
@@ -176,4 +205,12 @@ public class AnimationDemoScreen extends GameScreen {
         // Draw the back button
         mBackButton.draw(elapsedTime, graphics2D, mDefaultLayerViewport, mDefaultScreenViewport);
     }
+
+    /**
+     * Dispose of the animation demo, releasing the decoded zombie animations
+     */
+    @Override
+    public void dispose() {
+        mGame.getAssetManager().unloadAnimation(ZOMBIE_ANIMATIONS_JSON);
+    }
 }
\ No newline at end of file
@@ -6,8 +6,9 @@ import java.util.Random;
 
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
 import uk.ac.qub.eeecs.gage.engine.animation.Animation;
-import uk.ac.qub.eeecs.gage.engine.animation.AnimationManager;
+import uk.ac.qub.eeecs.gage.engine.animation.AnimationCrowd;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+import uk.ac.qub.eeecs.gage.util.SeedSource;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
 import uk.ac.qub.eeecs.gage.world.LayerViewport;
 import uk.ac.qub.eeecs.gage.world.ScreenViewport;
@@ -63,10 +64,16 @@ public class AnimationDemoZombie extends Sprite {
     private ZombieFacing mCurrentFacing = ZombieFacing.RIGHT;
 
     /**
-     * Each zombie will use an animation manager to control the playback of it's
-     * current animation.
+     * The zombies share an animation crowd that holds the zombie animations
+     * once and updates the animation playback of every zombie in a single
+     * pass. Each zombie holds the index of its instance within the crowd,
+     * alongside the indices of the idle, walking and attacking animations.
      */
-    private AnimationManager mAnimationManager;
+    private AnimationCrowd mAnimationCrowd;
+    private int mAnimationInstance;
+    private int mIdleClip;
+    private int mWalkClip;
+    private int mAttackClip;
 
 
     // /////////////////////////////////////////////////////////////////////////
@@ -81,9 +88,10 @@ public class AnimationDemoZombie extends Sprite {
      * @param width      Width of the zombie
      * @param height     Height of the zombie*
      * @param gameScreen Game screen to which the zombie belongs
+     * @param animationCrowd Animation crowd holding the zombie animations
      */
-    public AnimationDemoZombie(
-            float startX, float startY, float width, float height, GameScreen gameScreen) {
+    public AnimationDemoZombie(float startX, float startY, float width, float height,
+                               GameScreen gameScreen, AnimationCrowd animationCrowd) {
         super(startX, startY, width, height, null, gameScreen);
 
         // Define a set of somewhat arbitrary state transition probabilities
@@ -91,15 +99,17 @@ public class AnimationDemoZombie extends Sprite {
         stateTransitionProbability.put(ZombieState.WALKING, 0.5f);
         stateTransitionProbability.put(ZombieState.ATTACKING, 1.0f);
 
-        // Create the animation manager that will be used by this zombie to manage
-        // the playback of animations. The animation manager will be asked to load
-        // in the set of zombie animation parameters from the specified JSON file.
-        // The file details a total of three animations (walking, idle and attacking).
-        // By default, all zombies start of using the idle animation.
-
-        mAnimationManager = new AnimationManager(this);
-        mAnimationManager.addAnimation("txt/animation/ZombieAnimations.JSON");
-        mAnimationManager.setCurrentAnimation("ZombieIdle");
+        // Add this zombie to the animation crowd that will be used to manage the
+        // playback of animations. The crowd holds the three zombie animations
+        // (walking, idle and attacking). The animations are looked up once here,
+        // avoiding name lookups whenever the zombie's state changes. By default,
+        // all zombies start of using the idle animation.
+
+        mAnimationCrowd = animationCrowd;
+        mIdleClip = animationCrowd.getClipIndex("ZombieIdle");
+        mWalkClip = animationCrowd.getClipIndex("ZombieWalk");
+        mAttackClip = animationCrowd.getClipIndex("ZombieAttack");
+        mAnimationInstance = animationCrowd.add(mIdleClip);
     }
 
 
@@ -115,12 +125,12 @@ public class AnimationDemoZombie extends Sprite {
     public void setFacing(ZombieFacing facing) {
 
         // Store the current facing which will be used by this class to control
-        // the direction of travel when walking. Importantly, the animation manager
+        // the direction of travel when walking. Importantly, the animation crowd
         // also needs to be updated so it will draw the current animation with an
         // appropriate facing direction.
 
         mCurrentFacing = facing;
-        mAnimationManager.setFacing(facing == ZombieFacing.LEFT ?
+        mAnimationCrowd.setFacing(mAnimationInstance, facing == ZombieFacing.LEFT ?
                 Animation.Facing.Left : Animation.Facing.Right);
     }
 
@@ -138,10 +148,13 @@ public class AnimationDemoZombie extends Sprite {
     /**
      * Explicitly declare an internal random variable to avoid object creation costs
      */
-    private Random random = new Random();
+    private Random random = new Random(SeedSource.nextSeed());
 
     /**
-     * Update the zombie
+     * Update the zombie.
+     * <p>
+     * Note: The zombie's animation frame is selected when the animation
+     * crowd is updated.
      *
      * @param elapsedTime Elapsed time information
      */
@@ -168,28 +181,20 @@ public class AnimationDemoZombie extends Sprite {
             switch (currentState) {
                 case IDLE:
                     velocity.x = 0;
-                    mAnimationManager.setCurrentAnimation("ZombieIdle");
-                    mAnimationManager.play(elapsedTime);
+                    mAnimationCrowd.play(mAnimationInstance, mIdleClip, elapsedTime);
                     break;
                 case WALKING:
                     float WALK_VELOCITY = 40.0f;
                     velocity.x = mCurrentFacing == ZombieFacing.RIGHT ? WALK_VELOCITY : -WALK_VELOCITY;
-                    mAnimationManager.setCurrentAnimation("ZombieWalk");
-                    mAnimationManager.play(elapsedTime);
+                    mAnimationCrowd.play(mAnimationInstance, mWalkClip, elapsedTime);
                     break;
                 case ATTACKING:
                     velocity.x = 0;
-                    mAnimationManager.setCurrentAnimation("ZombieAttack");
-                    mAnimationManager.play(elapsedTime);
+                    mAnimationCrowd.play(mAnimationInstance, mAttackClip, elapsedTime);
                     break;
             }
         }
 
-        // Update the animation manager. This will ensure that the correct
-        // animation frame is selected, based on the current animation and
-        // the length of time this animation has been playing.
-        mAnimationManager.update(elapsedTime);
-
         // Call the sprite's update method to ensure the zombie's velocity value
         // will be used to update the zombie's position if moving.
         super.update(elapsedTime);
@@ -207,7 +212,8 @@ public class AnimationDemoZombie extends Sprite {
     public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
                      LayerViewport layerViewport, ScreenViewport screenViewport) {
 
-        // Get the animation manager to draw the current animation frame.
-        mAnimationManager.draw(elapsedTime, graphics2D, layerViewport, screenViewport);
+        // Get the animation crowd to draw the current animation frame.
+        mAnimationCrowd.draw(mAnimationInstance, graphics2D, getBound(),
+                layerViewport, screenViewport);
     }
 }
@@ -11,10 +11,12 @@ import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
 import uk.ac.qub.eeecs.gage.engine.input.Input;
 import uk.ac.qub.eeecs.gage.ui.PushButton;
+import uk.ac.qub.eeecs.gage.util.SeedSource;
 import uk.ac.qub.eeecs.gage.util.Vector2;
 import uk.ac.qub.eeecs.gage.util.ViewportHelper;
 import uk.ac.qub.eeecs.gage.world.GameObject;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
+import uk.ac.qub.eeecs.gage.world.KinematicsIntegrator;
 import uk.ac.qub.eeecs.gage.world.Sprite;
 
 /**
@@ -56,6 +58,12 @@ public class GameObjectDemoScreen extends GameScreen {
     private final static float JUMP_STRENGTH_MAX = 400.0f;
     private final static float JUMP_TRIGGER_DISTANCE = 5.0f;
 
+    /**
+     * Integrator used to step all of the ball sprites in bulk
+     */
+    private KinematicsIntegrator mBallIntegrator =
+            new KinematicsIntegrator(GAMEOBJECT_DENSITY);
+
 
     // /////////////////////////////////////////////////////////////////////////
     // Constructors
@@ -115,7 +123,7 @@ public class GameObjectDemoScreen extends GameScreen {
      * Create internal random and Vector2 instance, defined externally to reduce
      * object creation costs.
      */
-    private Random random = new Random();
+    private Random random = new Random(SeedSource.nextSeed());
     private Vector2 touchLocation = new Vector2();
 
     /**
@@ -179,12 +187,15 @@ public class GameObjectDemoScreen extends GameScreen {
         float groundHeight = (mDefaultLayerViewport.getWidth()
                 - mDefaultLayerViewport.getHeight() * 0.10f) / GAMEOBJECT_DENSITY;
 
-        // Update each ball sprite
-        for (Sprite ball : mSprites) {
-
-            // Apply gravity and update the ball's position
+        // Apply gravity to each ball and update the ball positions in bulk
+        for (Sprite ball : mSprites)
             ball.acceleration.y = GRAVITY;
-            ball.update(elapsedTime);
+
+        mBallIntegrator.gather(mSprites);
+        mBallIntegrator.integrate((float) elapsedTime.stepTime);
+        mBallIntegrator.scatter(mSprites);
+
+        for (Sprite ball : mSprites) {
 
             // If the ball have move under the ground height then reposition
             // and change the direction of the velocity (subject to dampening)
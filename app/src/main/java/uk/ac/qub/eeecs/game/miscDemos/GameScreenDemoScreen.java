@@ -6,6 +6,7 @@ import android.graphics.Paint;
 import uk.ac.qub.eeecs.gage.Game;
 import uk.ac.qub.eeecs.gage.engine.AssetManager;
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.graphics.BitmapFont;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
 import uk.ac.qub.eeecs.gage.ui.PushButton;
 import uk.ac.qub.eeecs.gage.util.ViewportHelper;
@@ -40,6 +41,11 @@ public class GameScreenDemoScreen extends GameScreen {
     private PushButton mLeftScreenTrigger;
     private PushButton mRightScreenTrigger;
 
+    /**
+     * Bitmap font used to draw the (frequently redrawn) screen values
+     * without creating new strings each frame
+     */
+    private BitmapFont mScreenValueFont;
 
     // /////////////////////////////////////////////////////////////////////////
     // Constructors
@@ -82,6 +88,14 @@ public class GameScreenDemoScreen extends GameScreen {
                 layerWidth * 0.15f, layerHeight * 0.2f,
                 "RightArrow", "RightArrowSelected", this);
 
+        // Create a bitmap font used to draw the screen values. Sized so fives
+        // lines of text could be drawn in a dark grey colour.
+        assetManager.loadAndAddBitmapFont("ScreenValueFont", null,
+                ViewportHelper.convertXDistanceFromLayerToScreen(
+                        layerHeight * 0.2f, mDefaultLayerViewport, mDefaultScreenViewport),
+                Color.DKGRAY);
+        mScreenValueFont = assetManager.getBitmapFont("ScreenValueFont");
+
         // Finally, create the game screens instances that this demo will use
         mLeftScreen = new GameScreenDemoSubScreen("LeftScreen", game);
         mRightScreen = new GameScreenDemoSubScreen("RightScreen", game);
@@ -102,8 +116,11 @@ public class GameScreenDemoScreen extends GameScreen {
 
         // Update the back button. If triggered then return to the demo menu.
         mBackButton.update(elapsedTime);
-        if (mBackButton.isPushTriggered())
+        if (mBackButton.isPushTriggered()) {
             mGame.getScreenManager().removeScreen(this);
+            dispose();
+            return;
+        }
 
         // Update the left and right buttons. If either are triggered then
         // add in the relevant game screen to the game's screen manager. This
@@ -167,31 +184,17 @@ public class GameScreenDemoScreen extends GameScreen {
                 mDefaultScreenViewport.centerX(),
                 mDefaultScreenViewport.centerY() + 7.0f * textSize, textPaint);
 
-        // Update the paint instance to draw the larger text values.
-        // Sized so fives lines of text can be drawn in a dark grey colour.
-
-        textSize =
-                ViewportHelper.convertXDistanceFromLayerToScreen(
-                        mDefaultLayerViewport.getHeight() * 0.2f,
-                        mDefaultLayerViewport, mDefaultScreenViewport);
-        textPaint.setTextSize(textSize);
-        textPaint.setColor(Color.DKGRAY);
-
         // Draw the left and right screen values. The values drawn depend
         // on the values stored in each game screen. The code assumes that
         // if the game screen has yet to update its value then -1 will be
         // return from the getScreenValue method.
 
-        textPaint.setTextAlign(Paint.Align.LEFT);
-        graphics2D.drawText(
-                mLeftScreen.getScreenValue() == -1 ? "NA" : "" + mLeftScreen.getScreenValue(),
-                mDefaultScreenViewport.left,
-                mDefaultScreenViewport.centerY(), textPaint);
-        textPaint.setTextAlign(Paint.Align.RIGHT);
-        graphics2D.drawText(
-                mRightScreen.getScreenValue() == -1 ? "NA" : "" + mRightScreen.getScreenValue(),
-                mDefaultScreenViewport.right,
-                mDefaultScreenViewport.centerY(), textPaint);
+        mScreenValueFont.setTextAlign(Paint.Align.LEFT);
+        drawScreenValue(graphics2D, mLeftScreen.getScreenValue(),
+                mDefaultScreenViewport.left, mDefaultScreenViewport.centerY());
+        mScreenValueFont.setTextAlign(Paint.Align.RIGHT);
+        drawScreenValue(graphics2D, mRightScreen.getScreenValue(),
+                mDefaultScreenViewport.right, mDefaultScreenViewport.centerY());
 
         // Draw the left/right screen trigger buttons
         mLeftScreenTrigger.draw(elapsedTime, graphics2D,
@@ -203,4 +206,27 @@ public class GameScreenDemoScreen extends GameScreen {
         mBackButton.draw(elapsedTime, graphics2D,
                 mDefaultLayerViewport, mDefaultScreenViewport);
     }
+
+    /**
+     * Dispose of the game screen demo, releasing the screen value font
+     */
+    @Override
+    public void dispose() {
+        mGame.getAssetManager().unloadBitmapFont("ScreenValueFont");
+    }
+
+    /**
+     * Draw the specified screen value using the screen value font
+     *
+     * @param graphics2D  Graphics instance
+     * @param screenValue Screen value (-1 if not available)
+     * @param x           Location of text on x-axis
+     * @param y           Location of text on y-axis
+     */
+    private void drawScreenValue(IGraphics2D graphics2D, int screenValue, float x, float y) {
+        if (screenValue == -1)
+            mScreenValueFont.drawText(graphics2D, "NA", x, y, null);
+        else
+            mScreenValueFont.drawNumber(graphics2D, screenValue, x, y, null);
+    }
 }
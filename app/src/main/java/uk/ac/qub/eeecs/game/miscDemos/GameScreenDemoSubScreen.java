@@ -9,6 +9,7 @@ import uk.ac.qub.eeecs.gage.Game;
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
 import uk.ac.qub.eeecs.gage.ui.PushButton;
+import uk.ac.qub.eeecs.gage.util.SeedSource;
 import uk.ac.qub.eeecs.gage.util.ViewportHelper;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
 
@@ -99,7 +100,7 @@ public class GameScreenDemoSubScreen extends GameScreen {
         // between 0 and 999 will be selected).
         mTimeToChange += elapsedTime.stepTime;
         if (mTimeToChange >= 0.0f) {
-            Random random = new Random();
+            Random random = new Random(SeedSource.nextSeed());
             mScreenValue = random.nextInt(1000);
             mTimeToChange -= CHANGE_DELAY;
         }
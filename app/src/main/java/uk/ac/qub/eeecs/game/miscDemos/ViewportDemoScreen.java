@@ -11,6 +11,7 @@ import uk.ac.qub.eeecs.gage.engine.AssetManager;
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
 import uk.ac.qub.eeecs.gage.ui.PushButton;
+import uk.ac.qub.eeecs.gage.util.SeedSource;
 import uk.ac.qub.eeecs.gage.util.Vector2;
 import uk.ac.qub.eeecs.gage.world.GameObject;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
@@ -169,7 +170,7 @@ public class ViewportDemoScreen extends GameScreen {
         AssetManager assetManager = mGame.getAssetManager();
         assetManager.loadAndAddBitmap("Platform", "img/Platform1.png");
 
-        Random random = new Random();
+        Random random = new Random(SeedSource.nextSeed());
         for (int idx = 0; idx < NUM_GAMEOBJECTS; idx++) {
             GameObject platform = new GameObject(
                     random.nextInt((int) WORLD_WIDTH), random.nextInt((int) WORLD_HEIGHT),
@@ -250,7 +251,7 @@ public class ViewportDemoScreen extends GameScreen {
      * Create a new random target within the world for the seeker object to reach
      */
     private void createNewTarget() {
-        Random random = new Random();
+        Random random = new Random(SeedSource.nextSeed());
         mSeekerTarget = new Vector2(
                 random.nextInt((int) WORLD_WIDTH), random.nextInt((int) WORLD_HEIGHT));
     }
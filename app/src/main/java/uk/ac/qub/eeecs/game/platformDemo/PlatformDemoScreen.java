@@ -11,8 +11,12 @@ import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
 import uk.ac.qub.eeecs.gage.ui.PushButton;
 import uk.ac.qub.eeecs.gage.util.BoundingBox;
+import uk.ac.qub.eeecs.gage.util.SeedSource;
+import uk.ac.qub.eeecs.gage.world.CachedLayer;
+import uk.ac.qub.eeecs.gage.world.CollisionGrid;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
 import uk.ac.qub.eeecs.gage.world.LayerViewport;
+import uk.ac.qub.eeecs.gage.world.TileMap;
 
 /**
  * A simple platform-style demo that generates a number of platforms and
@@ -48,11 +52,28 @@ public class PlatformDemoScreen extends GameScreen {
     private PushButton moveLeft, moveRight, jumpUp;
     private List<PushButton> mControls;
 
+    /**
+     * Define a tile map holding the ground tiles
+     */
+    private TileMap mTileMap;
+
     /**
      * Define an array of sprites to populate the game world
      */
     private ArrayList<Platform> mPlatforms;
 
+    /**
+     * Collision grid holding the platforms, used to quickly find the
+     * platforms near to the player
+     */
+    private CollisionGrid<Platform> mPlatformGrid;
+
+    /**
+     * Cached layer holding the (static) ground tiles and platforms. As the level only scrolls
+     * horizontally, the cache is only extended along the x-axis.
+     */
+    private CachedLayer mPlatformLayer;
+
     /**
      * Define the player
      */
@@ -101,21 +122,22 @@ public class PlatformDemoScreen extends GameScreen {
         // Create the player
         mPlayer = new Player(100.0f, 100.0f, this);
 
+        // Create a tile map covering the level, with a row of ground tiles
+        int groundTileWidth = 64, groundTileHeight = 35, groundTiles = 50;
+        mTileMap = new TileMap(0.0f, 0.0f, groundTiles,
+                (int) Math.ceil(LEVEL_HEIGHT / groundTileHeight),
+                groundTileWidth, groundTileHeight, this);
+        short groundTile = mTileMap.addTileType("Ground", true);
+        mTileMap.fill(0, 0, groundTiles - 1, 0, groundTile);
+
         // Create the platforms
         mPlatforms = new ArrayList<>();
 
-        // Add a wide platform for the ground tile
-        int groundTileWidth = 64, groundTileHeight = 35, groundTiles = 50;
-        mPlatforms.add(
-                new Platform(groundTileWidth * groundTiles / 2, groundTileHeight / 2,
-                        groundTileWidth * groundTiles, groundTileHeight,
-                        "Ground", groundTiles, 1, this));
-
         // Add a number of randomly positioned platforms. They are not added in
         // the first 200 units of the level to avoid overlap with the player.
         // A simple (but not that useful) approach is used to position the platforms
         // to avoid overlapping.
-        Random random = new Random();
+        Random random = new Random(SeedSource.nextSeed());
         int numPlatforms = 30, platformOffset = 200;
         float platformWidth = 70, platformHeight = 70, platformX, platformY = platformHeight;
         for (int idx = 0; idx < numPlatforms; idx++) {
@@ -127,6 +149,16 @@ public class PlatformDemoScreen extends GameScreen {
             platformOffset += (random.nextFloat() > 0.5f ?
                     platformWidth : platformWidth + random.nextFloat()*platformWidth);
         }
+
+        // Register the platforms within a collision grid
+        mPlatformGrid = new CollisionGrid<>(0.0f, 0.0f, LEVEL_WIDTH, LEVEL_HEIGHT, 160.0f);
+        mPlatformGrid.addAll(mPlatforms);
+
+        // Pre-composite the ground tiles and platforms into a cached layer
+        mPlatformLayer = new CachedLayer(0.5f, 0.0f, this);
+        mPlatformLayer.add(mTileMap);
+        for (Platform platform : mPlatforms)
+            mPlatformLayer.add(platform);
     }
 
     // /////////////////////////////////////////////////////////////////////////
@@ -147,7 +179,7 @@ public class PlatformDemoScreen extends GameScreen {
 
         // Update the player
         mPlayer.update(elapsedTime, moveLeft.isPushed(),
-                moveRight.isPushed(), jumpUp.isPushed(), mPlatforms);
+                moveRight.isPushed(), jumpUp.isPushed(), mTileMap, mPlatformGrid);
 
         // Ensure the player cannot leave the confines of the world
         BoundingBox playerBound = mPlayer.getBound();
@@ -190,9 +222,8 @@ public class PlatformDemoScreen extends GameScreen {
         // Draw the player
         mPlayer.draw(elapsedTime, graphics2D, mPlatformLayerViewport, mDefaultScreenViewport);
 
-        // Draw each of the platforms
-        for (Platform platform : mPlatforms)
-            platform.draw(elapsedTime, graphics2D, mPlatformLayerViewport, mDefaultScreenViewport);
+        // Draw the platforms
+        mPlatformLayer.draw(elapsedTime, graphics2D, mPlatformLayerViewport, mDefaultScreenViewport);
 
         // Draw the controls last of all
         for (PushButton control : mControls)
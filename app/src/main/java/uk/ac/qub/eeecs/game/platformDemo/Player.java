@@ -1,17 +1,24 @@
 package uk.ac.qub.eeecs.game.platformDemo;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
 import uk.ac.qub.eeecs.gage.engine.animation.Animation;
 import uk.ac.qub.eeecs.gage.engine.animation.AnimationManager;
+import uk.ac.qub.eeecs.gage.engine.animation.AnimationStateMachine;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+import uk.ac.qub.eeecs.gage.util.BoundingBox;
 import uk.ac.qub.eeecs.gage.util.CollisionDetector;
 import uk.ac.qub.eeecs.gage.util.CollisionDetector.CollisionType;
+import uk.ac.qub.eeecs.gage.util.CollisionDetector.SweepResult;
+import uk.ac.qub.eeecs.gage.util.Vector2;
+import uk.ac.qub.eeecs.gage.world.CollisionGrid;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
 import uk.ac.qub.eeecs.gage.world.LayerViewport;
 import uk.ac.qub.eeecs.gage.world.ScreenViewport;
 import uk.ac.qub.eeecs.gage.world.Sprite;
+import uk.ac.qub.eeecs.gage.world.TileMap;
 
 /**
  * Simple controllable player sprite.
@@ -74,11 +81,41 @@ public class Player extends Sprite {
     private static final float PLAYER_WIDTH = 50.0f;
     private static final float PLAYER_HEIGHT = 75.0f;
 
+    /**
+     * Maximum number of times the player's movement will be swept and
+     * redirected (e.g. sliding along a surface) within a single update
+     */
+    private static final int MAX_SWEEP_ITERATIONS = 3;
+
     /**
      * Animation manager used by the player to control the animated playback
      */
     private AnimationManager mAnimationManager;
 
+    /**
+     * State machine selecting the player's animation, alongside the idle,
+     * running and jumping states
+     */
+    private AnimationStateMachine mAnimationStateMachine;
+    private int mIdleState;
+    private int mRunningState;
+    private int mJumpingState;
+
+    /**
+     * Duration (in seconds) over which animations are cross-faded
+     */
+    private static final float ANIMATION_FADE_DURATION = 0.1f;
+
+    /**
+     * Flag indicating that a jump has been triggered during the current update
+     */
+    private boolean mJumpTriggered = false;
+
+    /**
+     * Position of the player prior to the current update
+     */
+    private Vector2 mPreviousPosition = new Vector2();
+
 
     // /////////////////////////////////////////////////////////////////////////
     // Constructors
@@ -100,6 +137,48 @@ public class Player extends Sprite {
         mAnimationManager.addAnimation("txt/animation/AdventurerRunning.JSON");
         mAnimationManager.addAnimation("txt/animation/AdventurerJumping.JSON");
         mAnimationManager.setCurrentAnimation("AdventurerIdle");
+
+        // Create the state machine used to select the animation. Jumping can
+        // start from any state (a jump whilst jumping restarts the jump
+        // animation), but the jump animation is allowed to complete before
+        // moving to a running or idle animation (depending upon the movement
+        // speed).
+        mAnimationStateMachine = new AnimationStateMachine(mAnimationManager);
+        mIdleState = mAnimationStateMachine.addState("AdventurerIdle");
+        mRunningState = mAnimationStateMachine.addState("AdventurerRunning");
+        mJumpingState = mAnimationStateMachine.addState("AdventurerJumping");
+
+        AnimationStateMachine.Condition jumping = new AnimationStateMachine.Condition() {
+            @Override
+            public boolean isMet() {
+                return mJumpTriggered;
+            }
+        };
+        AnimationStateMachine.Condition running = new AnimationStateMachine.Condition() {
+            @Override
+            public boolean isMet() {
+                return Math.abs(velocity.x) > MAX_STANDING_VELOCITY;
+            }
+        };
+        AnimationStateMachine.Condition standing = new AnimationStateMachine.Condition() {
+            @Override
+            public boolean isMet() {
+                return Math.abs(velocity.x) <= MAX_STANDING_VELOCITY;
+            }
+        };
+
+        mAnimationStateMachine.addTransition(AnimationStateMachine.ANY_STATE, mJumpingState,
+                jumping, ANIMATION_FADE_DURATION, false);
+        mAnimationStateMachine.addTransition(mJumpingState, mJumpingState,
+                jumping, 0.0f, false);
+        mAnimationStateMachine.addTransition(mIdleState, mRunningState,
+                running, ANIMATION_FADE_DURATION, false);
+        mAnimationStateMachine.addTransition(mRunningState, mIdleState,
+                standing, ANIMATION_FADE_DURATION, false);
+        mAnimationStateMachine.addTransition(mJumpingState, mRunningState,
+                running, ANIMATION_FADE_DURATION, true);
+        mAnimationStateMachine.addTransition(mJumpingState, mIdleState,
+                standing, ANIMATION_FADE_DURATION, true);
     }
 
     // /////////////////////////////////////////////////////////////////////////
@@ -113,10 +192,12 @@ public class Player extends Sprite {
      * @param moveLeft    True if the player should move left
      * @param moveRight   True if the player should move right
      * @param jumpUp      True if the player should consider jumping
-     * @param platforms   Array of platforms in the world
+     * @param tileMap     Tile map holding the level tiles
+     * @param platforms   Collision grid holding the platforms in the world
      */
     public void update(ElapsedTime elapsedTime, boolean moveLeft,
-                       boolean moveRight, boolean jumpUp, List<Platform> platforms) {
+                       boolean moveRight, boolean jumpUp,
+                       TileMap tileMap, CollisionGrid<Platform> platforms) {
 
         // Apply gravity to the y-axis acceleration
         acceleration.y = GRAVITY;
@@ -140,79 +221,181 @@ public class Player extends Sprite {
             velocity.y = JUMP_Y_VELOCITY;
             velocity.x *= JUMP_X_MULTIPLIER;
 
-            // Play the jump animation
-            mAnimationManager.play("AdventurerJumping", elapsedTime);
+            // Trigger the jump animation
+            mJumpTriggered = true;
         }
 
         // Call the sprite's update method to apply the defined accelerations
         // and velocities to provide a new position.
+        mPreviousPosition.set(position);
         super.update(elapsedTime);
 
         // The player is constrained by a max x-velocity, test this is not exceeded.
         if (Math.abs(velocity.x) > MAX_X_VELOCITY)
             velocity.x = Math.signum(velocity.x) * MAX_X_VELOCITY;
 
+        // Sweep the player from their previous to their new position,
+        // stopping at the first solid tile or platform that is hit. This
+        // ensures the player cannot pass through thin objects following a
+        // long update.
+        sweepAndResolveCollisions(tileMap, platforms);
+
         // Check that our new position has not collided with any of
-        // the defined platforms. If so, then remove any overlap and
-        // ensure a valid velocity.
+        // the solid tiles or defined platforms. If so, then remove any
+        // overlap and ensure a valid velocity.
+        checkForAndResolveCollisions(tileMap);
         checkForAndResolveCollisions(platforms);
 
-        // Ensure we select a suitable animation based on the movement.
-        // If currently jumping then let the jump animation complete.
-        Animation currentAnimation = mAnimationManager.getCurrentAnimation();
-        if (!(currentAnimation.getName().equals("AdventurerJumping") &&
-                currentAnimation.isPlaying())) {
-            // If not jumping, then pick the animation based on the movement speed
-            if (velocity.x < -MAX_STANDING_VELOCITY) {
-                // Play a moving left animation
-                mAnimationManager.play("AdventurerRunning", elapsedTime);
-                mAnimationManager.setFacing(Animation.Facing.Left);
-            } else if (velocity.x > MAX_STANDING_VELOCITY) {
-                // Play a moving right animation
-                mAnimationManager.play("AdventurerRunning", elapsedTime);
-                mAnimationManager.setFacing(Animation.Facing.Right);
-            } else {
-                // Play an idle animation
-                mAnimationManager.play("AdventurerIdle", elapsedTime);
-            }
+        // Ensure we select a suitable animation based on the movement. The
+        // state machine lets the jump animation complete.
+        mAnimationStateMachine.update(elapsedTime);
+        mJumpTriggered = false;
+
+        // If running, then face in the direction of movement
+        if (mAnimationStateMachine.getCurrentState() == mRunningState)
+            mAnimationManager.setFacing(velocity.x < 0.0f ?
+                    Animation.Facing.Left : Animation.Facing.Right);
+    }
+
+    /**
+     * Private helper variables used to provide a layer bound for the tile
+     * being tested, the platforms that are candidates for collision and
+     * the result of a swept collision test.
+     */
+    private BoundingBox mTileBound = new BoundingBox();
+    private List<Platform> mCandidatePlatforms = new ArrayList<>();
+    private SweepResult mSweepResult = new SweepResult();
+
+    /**
+     * Move the player from their previous position to their current position,
+     * stopping at the first solid tile or platform that would be hit and
+     * then sliding along it using the remaining movement.
+     *
+     * @param tileMap   Tile map to test for collision against
+     * @param platforms Collision grid holding the platforms to test against
+     */
+    private void sweepAndResolveCollisions(TileMap tileMap, CollisionGrid<Platform> platforms) {
+
+        // Determine the movement and return to the previous position
+        float dx = position.x - mPreviousPosition.x;
+        float dy = position.y - mPreviousPosition.y;
+        position.set(mPreviousPosition);
+
+        for (int iteration = 0;
+             iteration < MAX_SWEEP_ITERATIONS && (dx != 0.0f || dy != 0.0f); iteration++) {
+
+            // Determine the region swept by the player's movement
+            BoundingBox bound = getBound();
+            float left = bound.getLeft() + Math.min(dx, 0.0f);
+            float right = bound.getRight() + Math.max(dx, 0.0f);
+            float bottom = bound.getBottom() + Math.min(dy, 0.0f);
+            float top = bound.getTop() + Math.max(dy, 0.0f);
+
+            mSweepResult.reset();
+
+            // Sweep against the solid tiles within the swept region
+            int startColumn = Math.max(tileMap.getColumn(left), 0);
+            int endColumn = Math.min(tileMap.getColumn(right), tileMap.getNumColumns() - 1);
+            int startRow = Math.max(tileMap.getRow(bottom), 0);
+            int endRow = Math.min(tileMap.getRow(top), tileMap.getNumRows() - 1);
+            for (int row = startRow; row <= endRow; row++)
+                for (int column = startColumn; column <= endColumn; column++)
+                    if (tileMap.isSolid(column, row)) {
+                        tileMap.getTileBound(column, row, mTileBound);
+                        CollisionDetector.sweep(bound, dx, dy, mTileBound, mSweepResult);
+                    }
+
+            // Sweep against the candidate platforms within the swept region
+            mCandidatePlatforms.clear();
+            platforms.query(left, bottom, right, top, mCandidatePlatforms);
+            for (int idx = 0; idx < mCandidatePlatforms.size(); idx++)
+                CollisionDetector.sweep(bound, dx, dy,
+                        mCandidatePlatforms.get(idx).getBound(), mSweepResult);
+
+            // Move up to the time of impact (or the full movement if
+            // nothing was hit)
+            float time = mSweepResult.time;
+            position.add(dx * time, dy * time);
+            if (mSweepResult.collisionType == CollisionType.None)
+                break;
+
+            // Update the velocity and slide along the hit surface using the
+            // remaining movement
+            resolveCollision(mSweepResult.collisionType);
+            dx *= 1.0f - time;
+            dy *= 1.0f - time;
+            if (mSweepResult.collisionType == CollisionType.Top
+                    || mSweepResult.collisionType == CollisionType.Bottom)
+                dy = 0.0f;
+            else
+                dx = 0.0f;
         }
+    }
 
-        // Update the current animation
-        mAnimationManager.update(elapsedTime);
+    /**
+     * Check for and then resolve any collision between the player and the
+     * solid tiles of the tile map. Only the cells overlapped by the player
+     * are considered.
+     *
+     * @param tileMap Tile map to test for collision against
+     */
+    private void checkForAndResolveCollisions(TileMap tileMap) {
+
+        // Determine the range of cells overlapped by the player
+        BoundingBox bound = getBound();
+        int startColumn = tileMap.getColumn(bound.getLeft());
+        int endColumn = tileMap.getColumn(bound.getRight());
+        int startRow = tileMap.getRow(bound.getBottom());
+        int endRow = tileMap.getRow(bound.getTop());
+
+        // Consider each solid cell for collision
+        for (int row = startRow; row <= endRow; row++)
+            for (int column = startColumn; column <= endColumn; column++)
+                if (tileMap.isSolid(column, row)) {
+                    tileMap.getTileBound(column, row, mTileBound);
+                    resolveCollision(
+                            CollisionDetector.determineAndResolveCollision(this, mTileBound));
+                }
     }
 
     /**
      * Check for and then resolve any collision between the player and the
-     * platforms.
+     * platforms. Only the platforms near to the player are considered.
      *
-     * @param platforms Array of platforms to test for collision against
-     */
-    private void checkForAndResolveCollisions(List<Platform> platforms) {
-
-        CollisionType collisionType;
-
-        // Consider each platform for collision
-        for (Platform platform : platforms) {
-            collisionType =
-                    CollisionDetector.determineAndResolveCollision(this, platform);
-
-            // Current the player doesn't 'bounce' following any collision - they just stop
-            switch (collisionType) {
-                case Top:
-                    velocity.y = -0.0f * velocity.y;
-                    break;
-                case Bottom:
-                    velocity.y = -0.0f * velocity.y;
-                    break;
-                case Left:
-                    velocity.x = -0.0f * velocity.x;
-                    break;
-                case Right:
-                    velocity.x = -0.0f * velocity.x;
-                    break;
-                case None:
-                    break;
-            }
+     * @param platforms Collision grid holding the platforms to test against
+     */
+    private void checkForAndResolveCollisions(CollisionGrid<Platform> platforms) {
+
+        // Consider each candidate platform for collision
+        mCandidatePlatforms.clear();
+        platforms.query(getBound(), mCandidatePlatforms);
+        for (int idx = 0; idx < mCandidatePlatforms.size(); idx++)
+            resolveCollision(CollisionDetector.determineAndResolveCollision(
+                    this, mCandidatePlatforms.get(idx)));
+    }
+
+    /**
+     * Update the player's velocity following a collision
+     *
+     * @param collisionType Type of collision
+     */
+    private void resolveCollision(CollisionType collisionType) {
+        // Current the player doesn't 'bounce' following any collision - they just stop
+        switch (collisionType) {
+            case Top:
+                velocity.y = -0.0f * velocity.y;
+                break;
+            case Bottom:
+                velocity.y = -0.0f * velocity.y;
+                break;
+            case Left:
+                velocity.x = -0.0f * velocity.x;
+                break;
+            case Right:
+                velocity.x = -0.0f * velocity.x;
+                break;
+            case None:
+                break;
         }
     }
 
@@ -227,7 +410,8 @@ public class Player extends Sprite {
     @Override
     public void draw(ElapsedTime elapsedTime, IGraphics2D graphics2D,
                      LayerViewport layerViewport, ScreenViewport screenViewport) {
-        // Get the animation manager to draw the current animation
-        mAnimationManager.draw(elapsedTime, graphics2D, layerViewport, screenViewport);
+        // Get the animation state machine to draw the current animation,
+        // cross-faded with any outgoing animation
+        mAnimationStateMachine.draw(elapsedTime, graphics2D, layerViewport, screenViewport);
     }
 }
@@ -2,6 +2,7 @@ package uk.ac.qub.eeecs.game.spaceDemo;
 
 import java.util.Random;
 
+import uk.ac.qub.eeecs.gage.util.SeedSource;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
 import uk.ac.qub.eeecs.gage.world.Sprite;
 
@@ -38,7 +39,7 @@ public class Asteroid extends SpaceEntity {
     public Asteroid(float startX, float startY, GameScreen gameScreen) {
         super(startX, startY, DEFAULT_RADIUS*2.0f, DEFAULT_RADIUS*2.0f, null, gameScreen);
 
-        Random random = new Random();
+        Random random = new Random(SeedSource.nextSeed());
 
         mBitmap = gameScreen.getGame().getAssetManager()
                 .getBitmap(random.nextBoolean() ? "Asteroid1" : "Asteroid2");
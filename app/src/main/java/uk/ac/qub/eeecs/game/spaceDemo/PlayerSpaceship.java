@@ -3,6 +3,7 @@ package uk.ac.qub.eeecs.game.spaceDemo;
 import uk.ac.qub.eeecs.gage.util.SteeringBehaviours;
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
 import uk.ac.qub.eeecs.gage.engine.particle.Emitter;
+import uk.ac.qub.eeecs.gage.engine.particle.EmitterSettings;
 import uk.ac.qub.eeecs.gage.engine.particle.ParticleSystemManager;
 import uk.ac.qub.eeecs.gage.ui.ThumbStick;
 import uk.ac.qub.eeecs.gage.util.MathsHelper;
@@ -82,6 +83,7 @@ public class PlayerSpaceship extends SpaceEntity {
         mMovementEmitterLeft = new Emitter(
                 particleSystemManager, "txt/particle/ThrusterEmitter.JSON",
                 mMovementEmitterLocation);
+        mMovementEmitterLeft.setPriority(EmitterSettings.Priority.High);
         particleSystemManager.addEmitter(mMovementEmitterLeft);
 
         // Create and add the right emitter
@@ -90,6 +92,7 @@ public class PlayerSpaceship extends SpaceEntity {
         mMovementEmitterRight = new Emitter(
                 particleSystemManager, "txt/particle/ThrusterEmitter.JSON",
                 mMovementEmitterLocation);
+        mMovementEmitterRight.setPriority(EmitterSettings.Priority.High);
         particleSystemManager.addEmitter(mMovementEmitterRight);
     }
 
@@ -123,7 +126,14 @@ public class PlayerSpaceship extends SpaceEntity {
 
         // Apply the determined accelerations
         super.update(elapsedTime);
+    }
 
+    /**
+     * Update the particle emitters associated with this ship. The emitters
+     * are not updated by update(), as the particle systems may be updated
+     * in parallel with the spaceship.
+     */
+    public void updateEmitters() {
         // Update the particle emitters associated with this ship to rhe new position,
         // calculating an offset so the steam comes from the rear of the ship
         MathsHelper.rotateOffsetAboutCentre(
@@ -5,6 +5,7 @@ import uk.ac.qub.eeecs.gage.engine.particle.Emitter;
 import uk.ac.qub.eeecs.gage.engine.particle.ParticleSystemManager;
 import uk.ac.qub.eeecs.gage.util.MathsHelper;
 import uk.ac.qub.eeecs.gage.util.SteeringBehaviours;
+import uk.ac.qub.eeecs.gage.util.SwarmSteering;
 import uk.ac.qub.eeecs.gage.util.Vector2;
 
 /**
@@ -29,7 +30,7 @@ public class Seeker extends SpaceEntity {
     /**
      * Distance at which the spaceship should avoid other game objects
      */
-    private float mSeparateThreshold = 75.0f;
+    public static final float SEPARATE_THRESHOLD = 75.0f;
 
     /**
      * Accumulators used to build up the net steering outcome
@@ -94,28 +95,27 @@ public class Seeker extends SpaceEntity {
     // /////////////////////////////////////////////////////////////////////////
 
     /**
-     * Update the AI Spaceship
-     *
-     * @param elapsedTime Elapsed time information
+     * Determine the steering accelerations of the AI spaceship.
+     * <p>
+     * Steering only reads shared state (the player and the swarm steering)
+     * and only writes to this seeker, so the seekers can be steered in
+     * parallel. Steering should be carried out before each update.
      */
-    @Override
-    public void update(ElapsedTime elapsedTime) {
+    public void steer() {
+        SpaceshipDemoScreen spaceshipDemoScreen = (SpaceshipDemoScreen) mGameScreen;
+        SwarmSteering swarmSteering = spaceshipDemoScreen.getSwarmSteering();
 
         // Seek towards the player
-        SteeringBehaviours.seek(this,
-                ((SpaceshipDemoScreen) mGameScreen).getPlayerSpaceship().position,
-                acceleration);
+        swarmSteering.seek(this, acceleration);
 
         // Try to avoid a collision with the player ship
         SteeringBehaviours.separate(this,
-                ((SpaceshipDemoScreen) mGameScreen).getPlayerSpaceship(),
-                mSeparateThreshold, 1.0f, mAccComponent);
+                spaceshipDemoScreen.getPlayerSpaceship(),
+                SEPARATE_THRESHOLD, 1.0f, mAccComponent);
         mAccAccumulator.set(mAccComponent);
 
-        // Try to avoid a collision with the other space entities
-        SteeringBehaviours.separate(this,
-                ((SpaceshipDemoScreen) mGameScreen).getSpaceEntities(),
-                mSeparateThreshold, 1.0f, mAccComponent);
+        // Try to avoid a collision with the nearby space entities
+        swarmSteering.separate(this, SEPARATE_THRESHOLD, 1.0f, mAccComponent);
         mAccAccumulator.add(mAccComponent);
 
         // If we are trying to avoid a collision then combine
@@ -128,10 +128,26 @@ public class Seeker extends SpaceEntity {
 
         // Make sure we point in the direction of travel.
         angularAcceleration = SteeringBehaviours.alignWithMovement(this);
+    }
+
+    /**
+     * Update the AI Spaceship
+     *
+     * @param elapsedTime Elapsed time information
+     */
+    @Override
+    public void update(ElapsedTime elapsedTime) {
 
         // Call the sprite's superclass to apply the determined accelerations
         super.update(elapsedTime);
+    }
 
+    /**
+     * Update the particle emitter associated with this ship. The emitter is
+     * not updated by update(), as the particle systems may be updated in
+     * parallel with the ship.
+     */
+    public void updateEmitter() {
         // Update the particle emitter associated with this ship to rhe new position,
         // calculating an offset so the particles emerge from the rear of the ship
         MathsHelper.rotateOffsetAboutCentre(
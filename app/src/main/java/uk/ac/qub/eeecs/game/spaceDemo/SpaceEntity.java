@@ -39,4 +39,20 @@ public class SpaceEntity extends Sprite {
                        float width, float height, Bitmap bitmap, GameScreen gameScreen) {
         super(startX, startY, width, height, bitmap, gameScreen);
     }
+
+    // /////////////////////////////////////////////////////////////////////////
+    // Methods
+    // /////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Apply an impulse to the entity, with the resulting change in velocity
+     * based on the entity's mass
+     *
+     * @param impulseX Impulse along the x-axis
+     * @param impulseY Impulse along the y-axis
+     */
+    @Override
+    public void applyImpulse(float impulseX, float impulseY) {
+        super.applyImpulse(impulseX / mMass, impulseY / mMass);
+    }
 }
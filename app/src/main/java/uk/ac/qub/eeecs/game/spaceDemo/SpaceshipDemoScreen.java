@@ -12,11 +12,23 @@ import uk.ac.qub.eeecs.gage.engine.AssetManager;
 import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
 import uk.ac.qub.eeecs.gage.engine.audio.AudioManager;
 import uk.ac.qub.eeecs.gage.engine.graphics.IGraphics2D;
+import uk.ac.qub.eeecs.gage.engine.jobs.Job;
+import uk.ac.qub.eeecs.gage.engine.jobs.JobGraph;
+import uk.ac.qub.eeecs.gage.engine.jobs.JobParallelFor;
+import uk.ac.qub.eeecs.gage.engine.particle.ParticleQualityController;
 import uk.ac.qub.eeecs.gage.engine.particle.ParticleSystemManager;
+import uk.ac.qub.eeecs.gage.physics.CircleShape;
+import uk.ac.qub.eeecs.gage.physics.PhysicsScheduler;
+import uk.ac.qub.eeecs.gage.physics.PhysicsWorld;
+import uk.ac.qub.eeecs.gage.physics.RigidBody;
 import uk.ac.qub.eeecs.gage.ui.Bar;
 import uk.ac.qub.eeecs.gage.ui.ThumbStick;
 import uk.ac.qub.eeecs.gage.util.BoundingBox;
+import uk.ac.qub.eeecs.gage.util.SeedSource;
+import uk.ac.qub.eeecs.gage.util.SteeringBatch;
+import uk.ac.qub.eeecs.gage.util.SwarmSteering;
 import uk.ac.qub.eeecs.gage.util.Vector2;
+import uk.ac.qub.eeecs.gage.world.CachedLayer;
 import uk.ac.qub.eeecs.gage.world.GameObject;
 import uk.ac.qub.eeecs.gage.world.GameScreen;
 import uk.ac.qub.eeecs.gage.world.LayerViewport;
@@ -51,6 +63,11 @@ public class SpaceshipDemoScreen extends GameScreen {
      */
     private GameObject mSpaceBackground;
 
+    /**
+     * Cached layer holding the space background
+     */
+    private CachedLayer mSpaceBackgroundLayer;
+
     /**
      * Define the player's spaceship
      */
@@ -68,6 +85,39 @@ public class SpaceshipDemoScreen extends GameScreen {
      */
     private List<SpaceEntity> mSpaceEntities;
 
+    /**
+     * Physics world used to resolve collisions between the space entities
+     * (including the player)
+     */
+    private PhysicsWorld mPhysicsWorld;
+
+    /**
+     * Shared steering computation used by the seekers, holding a neighbour
+     * grid of the space entities and a target field towards the player
+     */
+    private SwarmSteering mSwarmSteering;
+
+    /**
+     * Seekers held within the space entities, alongside the steering batch
+     * used to steer the seekers in parallel
+     */
+    private List<Seeker> mSeekers;
+    private SteeringBatch<Seeker> mSeekerSteering;
+
+    /**
+     * Scheduler running the space entity updates and collision resolution
+     * at a fixed substep rate, alongside the substep listener
+     */
+    private PhysicsScheduler mPhysicsScheduler;
+    private PhysicsScheduler.SubstepListener mPhysicsSubstep;
+
+    /**
+     * Restitution applied to collisions between space entities, alongside
+     * the linear damping applied to (otherwise undamped) asteroids
+     */
+    private final float ENTITY_RESTITUTION = 0.3f;
+    private final float ASTEROID_LINEAR_DAMPING = 1.0f;
+
     /**
      * Define a particle system manager
      */
@@ -87,6 +137,20 @@ public class SpaceshipDemoScreen extends GameScreen {
      */
     private Bar mMovementSpeedBar;
 
+    /**
+     * Job graph used to run the space entity, particle and GUI updates
+     * across the available processors
+     */
+    private JobGraph mUpdateJobs;
+
+    /**
+     * Layer viewport and player speed as of the end of the previous update,
+     * used by the particle and GUI jobs which run alongside (and so cannot
+     * read the values being changed by) the space entity update
+     */
+    private LayerViewport mParticleLayerViewport = new LayerViewport();
+    private float mPlayerSpeed = 0.0f;
+
     // /////////////////////////////////////////////////////////////////////////
     // Constructors
     // /////////////////////////////////////////////////////////////////////////
@@ -114,6 +178,9 @@ public class SpaceshipDemoScreen extends GameScreen {
 
         // Create HUD/control objects
         setupControlHUD();
+
+        // Create the jobs used to update the screen
+        setupUpdateJobs();
     }
 
     /**
@@ -143,13 +210,18 @@ public class SpaceshipDemoScreen extends GameScreen {
         // Load in the assets used by the steering demo
         mGame.getAssetManager().loadAssets("txt/assets/SpaceShipDemoSpaceAssets.JSON");
 
-        // Create the particle system manager
+        // Create the particle system manager, scaling the particle effects
+        // if needed to maintain the target frame rate
         mParticleSystemManager = new ParticleSystemManager(this.getGame());
+        mParticleSystemManager.setQualityController(
+                new ParticleQualityController(this.getGame()));
 
         // Create the space background
         mSpaceBackground = new GameObject(LEVEL_WIDTH / 2.0f,
                 LEVEL_HEIGHT / 2.0f, LEVEL_WIDTH, LEVEL_HEIGHT, getGame()
                 .getAssetManager().getBitmap("SpaceBackground"), this);
+        mSpaceBackgroundLayer = new CachedLayer(0.25f, 0.25f, this);
+        mSpaceBackgroundLayer.add(mSpaceBackground);
 
         // Create the player spaceship
         mPlayerSpaceship = new PlayerSpaceship(100, 100, this);
@@ -158,20 +230,66 @@ public class SpaceshipDemoScreen extends GameScreen {
         mSpaceEntities = new ArrayList<>(NUM_ASTEROIDS+NUM_SEEKERS+NUM_TURRETS);
 
         // Create a number of randomly positioned asteroids
-        Random random = new Random();
+        Random random = new Random(SeedSource.nextSeed());
         for (int idx = 0; idx < NUM_ASTEROIDS; idx++)
             mSpaceEntities.add(new Asteroid(random.nextFloat() * LEVEL_WIDTH,
                     random.nextFloat() * LEVEL_HEIGHT, this));
 
         // Create a number of randomly positioned AI controlled seekers
-        for (int idx = 0; idx < NUM_SEEKERS; idx++)
-            mSpaceEntities.add(new Seeker(random.nextFloat() * LEVEL_WIDTH,
-                    random.nextFloat() * LEVEL_HEIGHT, this));
+        mSeekers = new ArrayList<>(NUM_SEEKERS);
+        for (int idx = 0; idx < NUM_SEEKERS; idx++) {
+            Seeker seeker = new Seeker(random.nextFloat() * LEVEL_WIDTH,
+                    random.nextFloat() * LEVEL_HEIGHT, this);
+            mSeekers.add(seeker);
+            mSpaceEntities.add(seeker);
+        }
 
         // Create a number of randomly positioned AI controlled turrets
         for (int idx = 0; idx < NUM_TURRETS; idx++)
             mSpaceEntities.add(new Turret(random.nextFloat() * LEVEL_WIDTH,
                     random.nextFloat() * LEVEL_HEIGHT, this));
+
+        // Create a rigid body for each space entity, with a mass matching
+        // that of the entity. Static entities (turrets) are immovable.
+        mPhysicsWorld = new PhysicsWorld();
+        addRigidBody(mPlayerSpaceship);
+        for (SpaceEntity spaceEntity : mSpaceEntities)
+            addRigidBody(spaceEntity);
+
+        // Create the swarm steering used by the seekers. The cell size matches
+        // the distance at which seekers separate from other entities.
+        mSwarmSteering = new SwarmSteering(0.0f, 0.0f, LEVEL_WIDTH, LEVEL_HEIGHT,
+                Seeker.SEPARATE_THRESHOLD);
+        mSeekerSteering = new SteeringBatch<>(new JobParallelFor(mGame.getJobSystem()),
+                new SteeringBatch.Behaviour<Seeker>() {
+                    @Override
+                    public void steer(Seeker seeker) {
+                        seeker.steer();
+                    }
+                });
+
+        // Update the space entities and resolve collisions at a fixed rate
+        mPhysicsScheduler = new PhysicsScheduler(mGame.getProfiler());
+        mPhysicsSubstep = new PhysicsScheduler.SubstepListener() {
+            @Override
+            public void onSubstep(ElapsedTime substepTime) {
+                updateSpaceEntities(substepTime);
+            }
+        };
+    }
+
+    /**
+     * Add a rigid body for the specified space entity to the physics world
+     *
+     * @param spaceEntity Space entity
+     */
+    private void addRigidBody(SpaceEntity spaceEntity) {
+        RigidBody body = new RigidBody(spaceEntity,
+                new CircleShape(spaceEntity.mRadius), spaceEntity.mMass);
+        body.restitution = ENTITY_RESTITUTION;
+        if (spaceEntity instanceof Asteroid)
+            body.linearDamping = ASTEROID_LINEAR_DAMPING;
+        mPhysicsWorld.add(body);
     }
 
     /**
@@ -229,6 +347,16 @@ public class SpaceshipDemoScreen extends GameScreen {
      */
     public List<SpaceEntity> getSpaceEntities() { return mSpaceEntities; }
 
+    /**
+     * Return the swarm steering, updated once per frame, used to steer the
+     * seekers towards the player and away from other space entities
+     *
+     * @return Swarm steering
+     */
+    public SwarmSteering getSwarmSteering() {
+        return mSwarmSteering;
+    }
+
     /**
      * Return the particle system manager
      *
@@ -256,14 +384,50 @@ public class SpaceshipDemoScreen extends GameScreen {
         // Consider any user provided input
         mMovementThumbStick.update(elapsedTime, mDefaultLayerViewport, mDefaultScreenViewport);
 
-        // Update the space game objects
-        updateSpaceGameObjects(elapsedTime);
+        // Hand the emitters, particle viewport and GUI the state reached by
+        // the previous update, so the particle and GUI jobs do not depend on
+        // the space entity update
+        mPlayerSpaceship.updateEmitters();
+        for (int seekerIdx = 0; seekerIdx < mSeekers.size(); seekerIdx++)
+            mSeekers.get(seekerIdx).updateEmitter();
+        mParticleLayerViewport.set(mSpaceLayerViewport.x, mSpaceLayerViewport.y,
+                mSpaceLayerViewport.halfWidth, mSpaceLayerViewport.halfHeight);
+        mPlayerSpeed = mPlayerSpaceship.velocity.length();
+
+        // Update the space game objects, particle systems and GUI elements.
+        // The game waits for the jobs to complete before the screen is drawn.
+        mGame.getJobSystem().submit(mUpdateJobs, elapsedTime);
+    }
 
-        // Update all active particle systems
-        mParticleSystemManager.update(elapsedTime);
+    /**
+     * Create the job graph used to update the screen. The particle systems
+     * and GUI elements use the emitter locations, viewport and player speed
+     * from the previous update (lagging the space entities by a frame), so
+     * all three jobs are independent and run in parallel.
+     */
+    private void setupUpdateJobs() {
+        mUpdateJobs = new JobGraph();
+
+        mUpdateJobs.addJob("Space.entities", new Job() {
+            @Override
+            public void run(ElapsedTime elapsedTime) {
+                updateSpaceGameObjects(elapsedTime);
+            }
+        });
 
-        // Update the GUI elements
-        updateGUIGameObjects(elapsedTime);
+        mUpdateJobs.addJob("Space.particles", new Job() {
+            @Override
+            public void run(ElapsedTime elapsedTime) {
+                mParticleSystemManager.update(elapsedTime, mParticleLayerViewport);
+            }
+        });
+
+        mUpdateJobs.addJob("Space.gui", new Job() {
+            @Override
+            public void run(ElapsedTime elapsedTime) {
+                updateGUIGameObjects(elapsedTime);
+            }
+        });
     }
 
     /**
@@ -312,49 +476,33 @@ public class SpaceshipDemoScreen extends GameScreen {
         else if (mSpaceLayerViewport.getTop() > LEVEL_HEIGHT)
             mSpaceLayerViewport.y -= (mSpaceLayerViewport.getTop() - LEVEL_HEIGHT);
 
-        // Update each of the space entities
-        for (SpaceEntity spaceEntity : mSpaceEntities)
-            spaceEntity.update(elapsedTime);
-
-        // Check for and resolve collisions between the space entities
-        for(int entityIdx = 0; entityIdx < mSpaceEntities.size(); entityIdx++) {
-            SpaceEntity entity = mSpaceEntities.get(entityIdx);
-            checkForAndResolveCollisions(entity, mPlayerSpaceship);
-            for(int entityIdxOther = entityIdx+1;
-                    entityIdxOther < mSpaceEntities.size(); entityIdxOther++) {
-                checkForAndResolveCollisions(entity, mSpaceEntities.get(entityIdxOther));
-            }
-        }
-    }
+        // Update the shared steering information used by the seekers
+        mSwarmSteering.update(mSpaceEntities, mPlayerSpaceship.position);
 
-    /**
-     * Internal variable create to avoid object creation costs
-     */
-    private Vector2 separation = new Vector2();
+        // Update the space entities and resolve collisions using as many
+        // fixed length substeps as are due
+        mPhysicsScheduler.update(elapsedTime, mPhysicsSubstep);
+    }
 
     /**
-     * Check for collisions between space entities. If detected then
-     * move the objects apart.
+     * Update the space entities and resolve any collisions. Called for each
+     * physics substep.
+     *
+     * @param substepTime Substep timing information
      */
-    private void checkForAndResolveCollisions(SpaceEntity entityOne, SpaceEntity entityTwo) {
-        // Define the separation vector from the first to the second entity
-        separation.set(entityTwo.position.x - entityOne.position.x,
-                entityTwo.position.y - entityOne.position.y);
-
-        // Separate if the collision bounds overlap
-        if(separation.lengthSquared() <
-            (entityOne.mRadius+entityTwo.mRadius) * (entityOne.mRadius+entityTwo.mRadius)) {
-            // Determine the amount of overlap (to be corrected) and the separating vector
-            float overlap = entityOne.mRadius + entityTwo.mRadius - separation.length();
-            separation.normalise();
-
-            // Move the ship with the amount of movement based on the mass of the entities
-            float entityOneMovePercentage = 1.0f - entityOne.mMass / (entityOne.mMass+entityTwo.mMass);
-            entityOne.position.add( -overlap * separation.x * entityOneMovePercentage,
-                                -overlap * separation.y * entityOneMovePercentage);
-            entityTwo.position.add( overlap * separation.x * (1.0f-entityOneMovePercentage),
-                    overlap * separation.y * (1.0f-entityOneMovePercentage));
+    private void updateSpaceEntities(ElapsedTime substepTime) {
+        // Steer the seekers in parallel before any entity is moved
+        mSeekerSteering.run(mSeekers);
+
+        // Update each of the (non-sleeping) space entities
+        for (int entityIdx = 0; entityIdx < mSpaceEntities.size(); entityIdx++) {
+            SpaceEntity spaceEntity = mSpaceEntities.get(entityIdx);
+            if (!spaceEntity.isSleeping())
+                spaceEntity.update(substepTime);
         }
+
+        // Resolve collisions between the space entities (including the player)
+        mPhysicsWorld.step((float) substepTime.stepTime);
     }
 
     /**
@@ -364,8 +512,7 @@ public class SpaceshipDemoScreen extends GameScreen {
      */
     private void updateGUIGameObjects(ElapsedTime elapsedTime) {
         // Update the bar's value
-        float spaceShipPercentageSpeed =
-                mPlayerSpaceship.velocity.length() / mPlayerSpaceship.maxVelocity;
+        float spaceShipPercentageSpeed = mPlayerSpeed / mPlayerSpaceship.maxVelocity;
         mMovementSpeedBar.setValue(Math.round(
                 mMovementSpeedBar.getMaxValue() * spaceShipPercentageSpeed));
 
@@ -391,7 +538,7 @@ public class SpaceshipDemoScreen extends GameScreen {
         graphics2D.clipRect(mDefaultScreenViewport.toRect());
 
         // Draw the background first of all
-        mSpaceBackground.draw(elapsedTime, graphics2D, mSpaceLayerViewport,
+        mSpaceBackgroundLayer.draw(elapsedTime, graphics2D, mSpaceLayerViewport,
                 mDefaultScreenViewport);
 
         // Draw each of the space entities
@@ -49,6 +49,9 @@ public class Turret extends SpaceEntity {
 
         mRadius = DEFAULT_RADIUS;
         mMass = 10000.0f;
+
+        // Turrets never move, although they can rotate
+        setMotionState(MotionState.Static);
     }
 
     // /////////////////////////////////////////////////////////////////////////
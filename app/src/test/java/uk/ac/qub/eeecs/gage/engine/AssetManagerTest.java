@@ -0,0 +1,51 @@
+package uk.ac.qub.eeecs.gage.engine;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.qub.eeecs.gage.Game;
+import uk.ac.qub.eeecs.gage.engine.animation.AnimationSettings;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for the asset manager
+ */
+public class AssetManagerTest {
+
+    private AssetManager mAssetManager;
+
+    @Before
+    public void setUp() {
+        mAssetManager = new AssetManager(mock(Game.class));
+    }
+
+    @Test
+    public void unloadAnimation_LoadedAnimation_DisposedAndRemoved() {
+        AnimationSettings animationSettings = mock(AnimationSettings.class);
+        mAssetManager.add("Zombie", animationSettings);
+
+        assertTrue(mAssetManager.unloadAnimation("Zombie"));
+        verify(animationSettings).dispose();
+
+        // The asset name can be reused once unloaded
+        AnimationSettings reloadedSettings = mock(AnimationSettings.class);
+        assertTrue(mAssetManager.add("Zombie", reloadedSettings));
+        assertSame(reloadedSettings, mAssetManager.getAnimation("Zombie"));
+    }
+
+    @Test
+    public void unloadAnimation_UnknownAnimation_NotRemoved() {
+        AnimationSettings animationSettings = mock(AnimationSettings.class);
+        mAssetManager.add("Zombie", animationSettings);
+
+        assertFalse(mAssetManager.unloadAnimation("Skeleton"));
+        verify(animationSettings, times(0)).dispose();
+        assertSame(animationSettings, mAssetManager.getAnimation("Zombie"));
+    }
+}
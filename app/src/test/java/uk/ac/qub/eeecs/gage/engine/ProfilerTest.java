@@ -0,0 +1,141 @@
+package uk.ac.qub.eeecs.gage.engine;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the timing profiler
+ */
+public class ProfilerTest {
+
+    @Test
+    public void registerSection_SameName_SameHandle() {
+        Profiler profiler = new Profiler();
+        int section = profiler.registerSection("Update");
+        assertEquals(section, profiler.registerSection("Update"));
+        assertEquals(1, profiler.getSectionCount());
+    }
+
+    @Test
+    public void record_TracksLastAverageAndMax() {
+        Profiler profiler = new Profiler();
+        int section = profiler.registerSection("Update");
+        profiler.record(section, 2000000L);
+        profiler.record(section, 1000000L);
+
+        assertEquals(1.0f, profiler.getLastMillis(section), 0.0001f);
+        assertEquals(2.0f, profiler.getMaxMillis(section), 0.0001f);
+        assertEquals(1.9f, profiler.getAverageMillis(section), 0.0001f);
+        assertEquals(2, profiler.getSampleCount(section));
+    }
+
+    @Test
+    public void end_TimingDisabledWithinSection_SampleStillRecorded() {
+        Profiler profiler = new Profiler();
+        int section = profiler.registerSection("Update");
+        profiler.begin(section);
+        profiler.setEnabled(false);
+        profiler.end(section);
+
+        assertEquals(1, profiler.getSampleCount(section));
+
+        // Sections begun whilst disabled are not recorded
+        profiler.begin(section);
+        profiler.setEnabled(true);
+        profiler.end(section);
+
+        assertEquals(1, profiler.getSampleCount(section));
+    }
+
+    @Test
+    public void end_SystemTraceEnabledWithinSection_NoUnmatchedEndSection() {
+        // The system trace is not available on the JVM, so any trace call
+        // would fail. A section begun without tracing must not end a trace
+        // section once tracing is enabled.
+        Profiler profiler = new Profiler();
+        int section = profiler.registerSection("Update");
+        profiler.begin(section);
+        profiler.setSystemTraceEnabled(true);
+        profiler.end(section);
+
+        assertEquals(1, profiler.getSampleCount(section));
+
+        // A section begun whilst timing is disabled is not traced
+        profiler.setEnabled(false);
+        profiler.begin(section);
+        profiler.end(section);
+
+        assertEquals(1, profiler.getSampleCount(section));
+    }
+
+    @Test
+    public void appendResults_OnlySampledSectionsAppended() {
+        Profiler profiler = new Profiler();
+        int update = profiler.registerSection("Update");
+        profiler.registerSection("Draw");
+        profiler.record(update, 2000000L);
+
+        StringBuilder results = new StringBuilder();
+        profiler.appendResults(results);
+
+        assertEquals("Update: last 2.0 ms, avg 2.0 ms, max 2.0 ms (1 samples)\n",
+                results.toString());
+        assertFalse(results.toString().contains("Draw"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void registerSection_TooMany_Throws() {
+        Profiler profiler = new Profiler();
+        for (int idx = 0; idx <= Profiler.MAX_SECTIONS; idx++)
+            profiler.registerSection("Section" + idx);
+    }
+
+    @Test
+    public void registerSection_ConcurrentRegistration_DistinctHandles() throws Exception {
+        final Profiler profiler = new Profiler();
+        final int sectionsPerThread = Profiler.MAX_SECTIONS / 4;
+        final CountDownLatch start = new CountDownLatch(1);
+        final int[][] handles = new int[4][sectionsPerThread];
+
+        Thread[] threads = new Thread[4];
+        for (int threadIdx = 0; threadIdx < threads.length; threadIdx++) {
+            final int threadId = threadIdx;
+            threads[threadIdx] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int idx = 0; idx < sectionsPerThread; idx++) {
+                        int section = profiler.registerSection("T" + threadId + "S" + idx);
+                        profiler.record(section, 1000L);
+                        handles[threadId][idx] = section;
+                    }
+                }
+            });
+            threads[threadIdx].start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(Profiler.MAX_SECTIONS, profiler.getSectionCount());
+        boolean[] seen = new boolean[Profiler.MAX_SECTIONS];
+        for (int threadId = 0; threadId < 4; threadId++) {
+            for (int idx = 0; idx < sectionsPerThread; idx++) {
+                int section = handles[threadId][idx];
+                assertTrue(!seen[section]);
+                seen[section] = true;
+                assertEquals("T" + threadId + "S" + idx, profiler.getName(section));
+                assertEquals(1, profiler.getSampleCount(section));
+            }
+        }
+    }
+}
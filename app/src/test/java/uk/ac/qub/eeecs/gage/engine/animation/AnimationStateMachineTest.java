@@ -0,0 +1,189 @@
+package uk.ac.qub.eeecs.gage.engine.animation;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the animation state machine, driven through a mock animation
+ * manager
+ */
+public class AnimationStateMachineTest {
+
+    private static final int IDLE_ANIMATION = 10;
+    private static final int JUMP_ANIMATION = 11;
+
+    /**
+     * Condition whose result is set by the test
+     */
+    private static class Flag implements AnimationStateMachine.Condition {
+        boolean value;
+
+        @Override
+        public boolean isMet() {
+            return value;
+        }
+    }
+
+    private AnimationManager mAnimationManager;
+    private Animation mAnimation;
+    private AnimationStateMachine mStateMachine;
+    private ElapsedTime mElapsedTime;
+
+    private int mIdleState;
+    private int mJumpState;
+
+    @Before
+    public void setUp() {
+        mAnimation = mock(Animation.class);
+        mAnimationManager = mock(AnimationManager.class);
+        when(mAnimationManager.getAnimationHandle("Idle")).thenReturn(IDLE_ANIMATION);
+        when(mAnimationManager.getAnimationHandle("Jump")).thenReturn(JUMP_ANIMATION);
+        when(mAnimationManager.getCurrentAnimation()).thenReturn(mAnimation);
+
+        mStateMachine = new AnimationStateMachine(mAnimationManager);
+        mIdleState = mStateMachine.addState("Idle");
+        mJumpState = mStateMachine.addState("Jump");
+
+        mElapsedTime = new ElapsedTime();
+        mElapsedTime.stepTime = 1.0 / 30.0;
+    }
+
+    private void update() {
+        mElapsedTime.totalTime += mElapsedTime.stepTime;
+        mStateMachine.update(mElapsedTime);
+    }
+
+    @Test
+    public void update_FirstUpdate_EntersInitialState() {
+        update();
+
+        assertEquals(mIdleState, mStateMachine.getCurrentState());
+        verify(mAnimationManager).play(eq(IDLE_ANIMATION), any(ElapsedTime.class));
+    }
+
+    @Test
+    public void update_ConditionMet_TransitionTaken() {
+        Flag jump = new Flag();
+        mStateMachine.addTransition(mIdleState, mJumpState, jump, 0.0f, false);
+
+        update();
+        assertEquals(mIdleState, mStateMachine.getCurrentState());
+
+        jump.value = true;
+        update();
+        assertEquals(mJumpState, mStateMachine.getCurrentState());
+        verify(mAnimationManager).play(eq(JUMP_ANIMATION), any(ElapsedTime.class));
+    }
+
+    @Test
+    public void update_AwaitsCompletion_NotTakenWhilstPlaying() {
+        Flag land = new Flag();
+        land.value = true;
+        mStateMachine.addTransition(mJumpState, mIdleState, land, 0.0f, true);
+        mStateMachine.setState(mJumpState, mElapsedTime);
+
+        when(mAnimationManager.isAnimationPlaying()).thenReturn(true);
+        update();
+        assertEquals(mJumpState, mStateMachine.getCurrentState());
+
+        when(mAnimationManager.isAnimationPlaying()).thenReturn(false);
+        update();
+        assertEquals(mIdleState, mStateMachine.getCurrentState());
+    }
+
+    @Test
+    public void update_AnyStateIntoCurrentState_AnimationNotRestarted() {
+        Flag jump = new Flag();
+        jump.value = true;
+        mStateMachine.addTransition(AnimationStateMachine.ANY_STATE, mJumpState,
+                jump, 0.0f, false);
+
+        update();
+        update();
+        update();
+
+        assertEquals(mJumpState, mStateMachine.getCurrentState());
+        verify(mAnimationManager, times(1)).play(eq(JUMP_ANIMATION), any(ElapsedTime.class));
+        verify(mAnimationManager, never()).stop();
+    }
+
+    @Test
+    public void update_SelfTransition_AnimationRestarted() {
+        Flag jump = new Flag();
+        mStateMachine.addTransition(AnimationStateMachine.ANY_STATE, mJumpState,
+                jump, 0.1f, false);
+        mStateMachine.addTransition(mJumpState, mJumpState, jump, 0.0f, false);
+
+        // Jump from idle, then jump again whilst the jump animation plays
+        update();
+        jump.value = true;
+        update();
+        jump.value = false;
+        update();
+        jump.value = true;
+        when(mAnimationManager.isAnimationPlaying()).thenReturn(true);
+        update();
+
+        assertEquals(mJumpState, mStateMachine.getCurrentState());
+        InOrder order = inOrder(mAnimationManager);
+        order.verify(mAnimationManager).play(eq(JUMP_ANIMATION), any(ElapsedTime.class));
+        order.verify(mAnimationManager).stop();
+        order.verify(mAnimationManager).play(eq(JUMP_ANIMATION), any(ElapsedTime.class));
+    }
+
+    @Test
+    public void setState_CurrentState_AnimationRestarted() {
+        mStateMachine.setState(mIdleState, mElapsedTime);
+        verify(mAnimationManager, never()).stop();
+
+        mStateMachine.setState(mIdleState, mElapsedTime);
+        verify(mAnimationManager).stop();
+        verify(mAnimationManager, times(2)).play(eq(IDLE_ANIMATION), any(ElapsedTime.class));
+    }
+
+    @Test
+    public void update_FrameReached_EventReported() {
+        final int[] reported = new int[1];
+        mStateMachine.addFrameEvent(mIdleState, 2, 7);
+        mStateMachine.setEventListener(new AnimationStateMachine.EventListener() {
+            @Override
+            public void onAnimationEvent(int state, int eventId) {
+                assertEquals(mIdleState, state);
+                assertEquals(7, eventId);
+                reported[0]++;
+            }
+        });
+
+        // Frames 0, 1, 3 (skipping 2), 3, then loop round to 1
+        int[] frames = {0, 1, 3, 3, 1};
+        int[] expected = {0, 0, 1, 1, 1};
+        for (int idx = 0; idx < frames.length; idx++) {
+            when(mAnimation.getCurrentFrame()).thenReturn(frames[idx]);
+            update();
+            assertEquals(expected[idx], reported[0]);
+        }
+
+        // Looping round past frame 2 again reports the event again
+        when(mAnimation.getCurrentFrame()).thenReturn(2);
+        update();
+        assertEquals(2, reported[0]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void addTransition_InvalidState_Throws() {
+        mStateMachine.addTransition(mIdleState, 5, new Flag(), 0.0f, false);
+    }
+}
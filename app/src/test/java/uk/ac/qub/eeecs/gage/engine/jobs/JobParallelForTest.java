@@ -0,0 +1,126 @@
+package uk.ac.qub.eeecs.gage.engine.jobs;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.util.ParallelFor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the job parallel for, including its use from within jobs
+ */
+public class JobParallelForTest {
+
+    private static final int COUNT = 10000;
+
+    private JobSystem mJobSystem;
+
+    @Before
+    public void setUp() {
+        mJobSystem = new JobSystem(2);
+    }
+
+    @After
+    public void tearDown() {
+        mJobSystem.shutdown();
+    }
+
+    /**
+     * Create a range task that counts the number of times each index is
+     * processed
+     */
+    private static ParallelFor.RangeTask createCountingTask(final AtomicIntegerArray counts) {
+        return new ParallelFor.RangeTask() {
+            @Override
+            public void run(int start, int end) {
+                for (int idx = start; idx < end; idx++)
+                    counts.incrementAndGet(idx);
+            }
+        };
+    }
+
+    private static void assertProcessedOnce(AtomicIntegerArray counts) {
+        for (int idx = 0; idx < counts.length(); idx++)
+            assertEquals(1, counts.get(idx));
+    }
+
+    @Test
+    public void execute_FromOutsideJobSystem_ProcessesEachIndexOnce() {
+        AtomicIntegerArray counts = new AtomicIntegerArray(COUNT);
+        new JobParallelFor(mJobSystem).execute(COUNT, 16, createCountingTask(counts));
+        assertProcessedOnce(counts);
+    }
+
+    @Test
+    public void execute_SmallRange_RunOnCallingThread() {
+        final Thread caller = Thread.currentThread();
+        new JobParallelFor(mJobSystem).execute(10, 16, new ParallelFor.RangeTask() {
+            @Override
+            public void run(int start, int end) {
+                assertEquals(caller, Thread.currentThread());
+                assertEquals(0, start);
+                assertEquals(10, end);
+            }
+        });
+    }
+
+    @Test(timeout = 10000)
+    public void execute_FromEveryWorker_CompletesWithoutBlocking() {
+        // Each worker runs a job that splits a loop across the workers. If
+        // the waiting workers blocked, no worker would be free to process
+        // the other sub-ranges.
+        final AtomicIntegerArray countsA = new AtomicIntegerArray(COUNT);
+        final AtomicIntegerArray countsB = new AtomicIntegerArray(COUNT);
+        final JobParallelFor parallelForA = new JobParallelFor(mJobSystem);
+        final JobParallelFor parallelForB = new JobParallelFor(mJobSystem);
+        final ParallelFor.RangeTask taskA = createCountingTask(countsA);
+        final ParallelFor.RangeTask taskB = createCountingTask(countsB);
+
+        JobGraph graph = new JobGraph();
+        graph.addJob("A", new Job() {
+            @Override
+            public void run(ElapsedTime elapsedTime) {
+                for (int repeat = 0; repeat < 10; repeat++)
+                    parallelForA.execute(COUNT / 10, 16, taskA);
+            }
+        });
+        graph.addJob("B", new Job() {
+            @Override
+            public void run(ElapsedTime elapsedTime) {
+                parallelForB.execute(COUNT, 16, taskB);
+            }
+        });
+
+        for (int frame = 0; frame < 50; frame++) {
+            mJobSystem.submit(graph, new ElapsedTime());
+            mJobSystem.waitForCompletion();
+        }
+
+        for (int idx = 0; idx < COUNT / 10; idx++)
+            assertEquals(500, countsA.get(idx));
+        for (int idx = 0; idx < COUNT; idx++)
+            assertEquals(50, countsB.get(idx));
+    }
+
+    @Test
+    public void execute_RangeFails_FailureRethrown() {
+        try {
+            new JobParallelFor(mJobSystem).execute(COUNT, 16, new ParallelFor.RangeTask() {
+                @Override
+                public void run(int start, int end) {
+                    if (start > 0)
+                        throw new IllegalStateException("Range failed");
+                }
+            });
+            fail();
+        } catch (RuntimeException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package uk.ac.qub.eeecs.gage.engine.replay;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.input.Input;
+import uk.ac.qub.eeecs.gage.engine.input.InputSnapshot;
+import uk.ac.qub.eeecs.gage.engine.input.KeyEvent;
+import uk.ac.qub.eeecs.gage.engine.input.TouchEvent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests recording a known input sequence and replaying it
+ */
+public class ReplayTest {
+
+    private static final float EPSILON = 0.0001f;
+
+    private static final int NUM_FRAMES = 3;
+
+    private static final long SEED = 0x123456789ABCDEF0L;
+
+    private byte[] mLog;
+
+    /**
+     * Create a mock input holding the input of the specified frame: a touch
+     * on pointer 0 that moves each frame, a key held down on odd frames, a
+     * touch event on every frame and a key event on the last frame.
+     */
+    private static Input createFrameInput(int frame) {
+        Input input = mock(Input.class);
+        when(input.getAccelX()).thenReturn(0.1f * frame);
+        when(input.getAccelY()).thenReturn(-0.2f * frame);
+        when(input.getAccelZ()).thenReturn(9.8f);
+        when(input.getAzimuth()).thenReturn(45.0f + frame);
+
+        when(input.existsTouch(0)).thenReturn(true);
+        when(input.getTouchX(0)).thenReturn(100.0f + 10.0f * frame);
+        when(input.getTouchY(0)).thenReturn(200.0f);
+        when(input.isKeyPressed(100)).thenReturn(frame % 2 == 1);
+
+        List<TouchEvent> touchEvents = new ArrayList<>();
+        TouchEvent touchEvent = new TouchEvent();
+        touchEvent.type = frame == 0 ? TouchEvent.TOUCH_DOWN : TouchEvent.TOUCH_DRAGGED;
+        touchEvent.pointer = 0;
+        touchEvent.x = 100.0f + 10.0f * frame;
+        touchEvent.y = 200.0f;
+        touchEvent.dx = 10.0f;
+        touchEvents.add(touchEvent);
+        when(input.getTouchEvents()).thenReturn(touchEvents);
+
+        List<KeyEvent> keyEvents = new ArrayList<>();
+        if (frame == NUM_FRAMES - 1) {
+            KeyEvent keyEvent = new KeyEvent();
+            keyEvent.type = KeyEvent.KEY_UP;
+            keyEvent.keyCode = 100;
+            keyEvent.keyChar = 'x';
+            keyEvents.add(keyEvent);
+        }
+        when(input.getKeyEvents()).thenReturn(keyEvents);
+        return input;
+    }
+
+    @Before
+    public void setUp() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ReplayRecorder recorder = new ReplayRecorder(outputStream, SEED);
+
+        ElapsedTime elapsedTime = new ElapsedTime();
+        for (int frame = 0; frame < NUM_FRAMES; frame++) {
+            elapsedTime.stepTime = 0.016 + 0.001 * frame;
+            elapsedTime.totalTime += elapsedTime.stepTime;
+            recorder.recordFrame(elapsedTime, createFrameInput(frame));
+        }
+        assertEquals(NUM_FRAMES, recorder.getFrameCount());
+        recorder.close();
+
+        mLog = outputStream.toByteArray();
+    }
+
+    @Test
+    public void replay_RecordedSequence_InputAndTimingRestored() {
+        ReplayPlayer player = new ReplayPlayer(new ByteArrayInputStream(mLog));
+        Input input = mock(Input.class);
+        ElapsedTime elapsedTime = new ElapsedTime();
+        ArgumentCaptor<InputSnapshot> snapshotCaptor = ArgumentCaptor.forClass(InputSnapshot.class);
+
+        double totalTime = 0.0;
+        for (int frame = 0; frame < NUM_FRAMES; frame++) {
+            assertTrue(player.nextFrame(elapsedTime, input));
+
+            double stepTime = 0.016 + 0.001 * frame;
+            totalTime += stepTime;
+            assertEquals(stepTime, elapsedTime.stepTime, EPSILON);
+            assertEquals(totalTime, elapsedTime.totalTime, EPSILON);
+
+            verify(input, times(frame + 1)).setSnapshot(snapshotCaptor.capture());
+            InputSnapshot snapshot = snapshotCaptor.getValue();
+
+            assertEquals(0.1f * frame, snapshot.accelX, EPSILON);
+            assertEquals(-0.2f * frame, snapshot.accelY, EPSILON);
+            assertEquals(9.8f, snapshot.accelZ, EPSILON);
+            assertEquals(45.0f + frame, snapshot.azimuth, EPSILON);
+
+            assertTrue(snapshot.existsTouch[0]);
+            assertFalse(snapshot.existsTouch[1]);
+            assertEquals(100.0f + 10.0f * frame, snapshot.touchX[0], EPSILON);
+            assertEquals(200.0f, snapshot.touchY[0], EPSILON);
+            assertEquals(frame % 2 == 1, snapshot.pressedKeys[100]);
+            assertFalse(snapshot.pressedKeys[99]);
+
+            assertEquals(1, snapshot.touchEvents.size());
+            TouchEvent touchEvent = snapshot.touchEvents.get(0);
+            assertEquals(frame == 0 ? TouchEvent.TOUCH_DOWN : TouchEvent.TOUCH_DRAGGED,
+                    touchEvent.type);
+            assertEquals(100.0f + 10.0f * frame, touchEvent.x, EPSILON);
+            assertEquals(10.0f, touchEvent.dx, EPSILON);
+
+            if (frame == NUM_FRAMES - 1) {
+                assertEquals(1, snapshot.keyEvents.size());
+                KeyEvent keyEvent = snapshot.keyEvents.get(0);
+                assertEquals(KeyEvent.KEY_UP, keyEvent.type);
+                assertEquals(100, keyEvent.keyCode);
+                assertEquals('x', keyEvent.keyChar);
+            } else {
+                assertEquals(0, snapshot.keyEvents.size());
+            }
+
+            when(input.getSnapshot()).thenReturn(snapshot);
+        }
+
+        // The end of the log returns the input to device input
+        assertFalse(player.nextFrame(elapsedTime, input));
+        assertTrue(player.isFinished());
+        verify(input).setSnapshot(null);
+        assertEquals(NUM_FRAMES, player.getFrameCount());
+    }
+
+    @Test
+    public void constructor_RecordedSeed_SeedRestored() {
+        ReplayPlayer player = new ReplayPlayer(new ByteArrayInputStream(mLog));
+
+        assertEquals(SEED, player.getSeed());
+    }
+
+    @Test
+    public void replay_FrameTimes_RecordedWorkTimes() {
+        ReplayPlayer player = new ReplayPlayer(new ByteArrayInputStream(mLog));
+        Input input = mock(Input.class);
+        ElapsedTime elapsedTime = new ElapsedTime();
+
+        for (int frame = 0; frame < NUM_FRAMES; frame++) {
+            assertTrue(player.nextFrame(elapsedTime, input));
+            player.recordFrameTime((frame + 1) * 1000000L);
+            // A second report for the same frame is ignored
+            player.recordFrameTime(100000000L);
+        }
+        assertFalse(player.nextFrame(elapsedTime, input));
+        player.recordFrameTime(100000000L);
+
+        assertEquals(NUM_FRAMES, player.getTimedFrameCount());
+        assertEquals(1.0f, player.getFrameMillis(0), EPSILON);
+        assertEquals(3.0f, player.getFrameMillis(2), EPSILON);
+        assertEquals(2.0f, player.getAverageFrameMillis(), EPSILON);
+        assertEquals(3.0f, player.getMaxFrameMillis(), EPSILON);
+    }
+
+    @Test
+    public void close_MidFrame_LastFrameDropped() {
+        ReplayPlayer player = new ReplayPlayer(new ByteArrayInputStream(mLog));
+        Input input = mock(Input.class);
+        ElapsedTime elapsedTime = new ElapsedTime();
+
+        assertTrue(player.nextFrame(elapsedTime, input));
+        player.recordFrameTime(1000000L);
+        assertTrue(player.nextFrame(elapsedTime, input));
+        assertEquals(1, player.getTimedFrameCount());
+
+        ArgumentCaptor<InputSnapshot> snapshotCaptor = ArgumentCaptor.forClass(InputSnapshot.class);
+        verify(input, times(2)).setSnapshot(snapshotCaptor.capture());
+        when(input.getSnapshot()).thenReturn(snapshotCaptor.getValue());
+
+        player.close(input);
+
+        // The interrupted frame is not timed, even if reported late
+        player.recordFrameTime(1000000L);
+        assertEquals(1, player.getTimedFrameCount());
+        assertEquals(1.0f, player.getFrameMillis(0), EPSILON);
+        assertTrue(player.isFinished());
+        verify(input).setSnapshot(null);
+    }
+
+    @Test
+    public void close_AfterLastFrameTimed_NoExtraFrame() {
+        ReplayPlayer player = new ReplayPlayer(new ByteArrayInputStream(mLog));
+        Input input = mock(Input.class);
+
+        assertTrue(player.nextFrame(new ElapsedTime(), input));
+        player.recordFrameTime(1000000L);
+        player.close(input);
+
+        assertEquals(1, player.getTimedFrameCount());
+        assertEquals(1.0f, player.getFrameMillis(0), EPSILON);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void constructor_InvalidLog_Throws() {
+        new ReplayPlayer(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+}
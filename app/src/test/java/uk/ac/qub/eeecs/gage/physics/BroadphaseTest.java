@@ -0,0 +1,129 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.qub.eeecs.gage.world.GameScreen;
+import uk.ac.qub.eeecs.gage.world.Sprite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the sort and sweep broadphase
+ */
+public class BroadphaseTest {
+
+    private GameScreen mGameScreen;
+    private Broadphase mBroadphase;
+
+    @Before
+    public void setUp() {
+        mGameScreen = mock(GameScreen.class);
+        mBroadphase = new Broadphase();
+    }
+
+    /**
+     * Create a box body and add it to the broadphase
+     */
+    private RigidBody addBox(float x, float y, float size, float mass) {
+        Sprite sprite = new Sprite(x, y, size, size, null, mGameScreen);
+        RigidBody body = new RigidBody(sprite, new AABBShape(size / 2.0f, size / 2.0f), mass);
+        body.shape.computeBound(x, y, body.mBound);
+        mBroadphase.add(body);
+        return body;
+    }
+
+    private void moveBody(RigidBody body, float x, float y) {
+        body.sprite.position.set(x, y);
+        body.shape.computeBound(x, y, body.mBound);
+    }
+
+    @Test
+    public void update_OverlappingBounds_PairReported() {
+        // Added out of x order, so the sort must reorder the bodies
+        RigidBody far = addBox(100.0f, 0.0f, 10.0f, 1.0f);
+        RigidBody right = addBox(8.0f, 0.0f, 10.0f, 1.0f);
+        RigidBody left = addBox(0.0f, 0.0f, 10.0f, 1.0f);
+
+        mBroadphase.update();
+
+        assertEquals(1, mBroadphase.getPairCount());
+        assertSame(left, mBroadphase.getPairBodyA(0));
+        assertSame(right, mBroadphase.getPairBodyB(0));
+    }
+
+    @Test
+    public void update_OverlapOnXOnly_NoPair() {
+        addBox(0.0f, 0.0f, 10.0f, 1.0f);
+        addBox(5.0f, 20.0f, 10.0f, 1.0f);
+
+        mBroadphase.update();
+
+        assertEquals(0, mBroadphase.getPairCount());
+    }
+
+    @Test
+    public void update_BodiesMovePastEachOther_SortOrderUpdated() {
+        RigidBody first = addBox(0.0f, 0.0f, 10.0f, 1.0f);
+        RigidBody second = addBox(50.0f, 0.0f, 10.0f, 1.0f);
+        RigidBody third = addBox(100.0f, 0.0f, 10.0f, 1.0f);
+        mBroadphase.update();
+        assertEquals(0, mBroadphase.getPairCount());
+
+        // Move the first body beyond the third, overlapping it
+        moveBody(first, 105.0f, 0.0f);
+        mBroadphase.update();
+
+        assertEquals(1, mBroadphase.getPairCount());
+        assertSame(third, mBroadphase.getPairBodyA(0));
+        assertSame(first, mBroadphase.getPairBodyB(0));
+
+        // A removed body is no longer paired
+        mBroadphase.remove(third);
+        moveBody(second, 100.0f, 0.0f);
+        mBroadphase.update();
+        assertEquals(1, mBroadphase.getPairCount());
+        assertSame(second, mBroadphase.getPairBodyA(0));
+        assertSame(first, mBroadphase.getPairBodyB(0));
+    }
+
+    @Test
+    public void update_ImmovablePairs_Skipped() {
+        // Zero mass bodies overlapping each other
+        addBox(0.0f, 0.0f, 10.0f, 0.0f);
+        addBox(5.0f, 0.0f, 10.0f, 0.0f);
+
+        // A static sprite and a sleeping sprite overlapping each other
+        RigidBody staticBody = addBox(100.0f, 0.0f, 10.0f, 1.0f);
+        staticBody.sprite.setMotionState(Sprite.MotionState.Static);
+        RigidBody sleepingBody = addBox(105.0f, 0.0f, 10.0f, 1.0f);
+        sleepingBody.sprite.setMotionState(Sprite.MotionState.Sleeping);
+
+        mBroadphase.update();
+        assertEquals(0, mBroadphase.getPairCount());
+
+        // A movable body overlapping both immovable bodies pairs with each
+        RigidBody movable = addBox(102.0f, 0.0f, 10.0f, 1.0f);
+        mBroadphase.update();
+
+        assertEquals(2, mBroadphase.getPairCount());
+        assertSame(staticBody, mBroadphase.getPairBodyA(0));
+        assertSame(movable, mBroadphase.getPairBodyB(0));
+        assertSame(movable, mBroadphase.getPairBodyA(1));
+        assertSame(sleepingBody, mBroadphase.getPairBodyB(1));
+    }
+
+    @Test
+    public void update_ManyOverlappingBodies_AllPairsReported() {
+        // Every body overlaps every other, exceeding the initial pair storage
+        int numBodies = 20;
+        for (int idx = 0; idx < numBodies; idx++)
+            addBox(idx * 0.1f, 0.0f, 10.0f, 1.0f);
+
+        mBroadphase.update();
+
+        assertEquals(numBodies * (numBodies - 1) / 2, mBroadphase.getPairCount());
+    }
+}
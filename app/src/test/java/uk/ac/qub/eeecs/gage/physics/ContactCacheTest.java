@@ -0,0 +1,94 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.qub.eeecs.gage.world.GameScreen;
+import uk.ac.qub.eeecs.gage.world.Sprite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the contact cache and pair keys
+ */
+public class ContactCacheTest {
+
+    private ContactCache mCache;
+
+    @Before
+    public void setUp() {
+        mCache = new ContactCache();
+    }
+
+    private static RigidBody createBody(int id) {
+        Sprite sprite = new Sprite(0.0f, 0.0f, 1.0f, 1.0f, null, mock(GameScreen.class));
+        RigidBody body = new RigidBody(sprite, new CircleShape(1.0f), 1.0f);
+        body.mId = id;
+        return body;
+    }
+
+    @Test
+    public void getPairKey_EitherBodyOrder_SameKey() {
+        RigidBody bodyA = createBody(3);
+        RigidBody bodyB = createBody(70000);
+        RigidBody bodyC = createBody(4);
+
+        assertEquals(ContactManifold.getPairKey(bodyA, bodyB),
+                ContactManifold.getPairKey(bodyB, bodyA));
+        assertNotEquals(ContactManifold.getPairKey(bodyA, bodyB),
+                ContactManifold.getPairKey(bodyA, bodyC));
+    }
+
+    @Test
+    public void get_ContactStoredForSwappedPair_ContactFound() {
+        RigidBody bodyA = createBody(1);
+        RigidBody bodyB = createBody(2);
+        ContactManifold contact = new ContactManifold();
+        contact.set(bodyA, bodyB, 1.0f, 0.0f, 0.1f);
+        mCache.put(contact.getPairKey(), contact);
+
+        ContactManifold swapped = new ContactManifold();
+        swapped.set(bodyB, bodyA, -1.0f, 0.0f, 0.1f);
+
+        assertSame(contact, mCache.get(swapped.getPairKey()));
+    }
+
+    @Test
+    public void put_ManyContacts_AllFoundAfterGrowth() {
+        int numBodies = 40;
+        RigidBody[] bodies = new RigidBody[numBodies];
+        for (int idx = 0; idx < numBodies; idx++)
+            bodies[idx] = createBody(idx);
+
+        // Store a contact for every other pair, well beyond the initial capacity
+        ContactManifold[][] contacts = new ContactManifold[numBodies][numBodies];
+        for (int idxA = 0; idxA < numBodies; idxA++) {
+            for (int idxB = idxA + 1; idxB < numBodies; idxB += 2) {
+                contacts[idxA][idxB] = new ContactManifold();
+                mCache.put(ContactManifold.getPairKey(bodies[idxA], bodies[idxB]),
+                        contacts[idxA][idxB]);
+            }
+        }
+
+        for (int idxA = 0; idxA < numBodies; idxA++)
+            for (int idxB = idxA + 1; idxB < numBodies; idxB++)
+                assertSame(contacts[idxA][idxB],
+                        mCache.get(ContactManifold.getPairKey(bodies[idxB], bodies[idxA])));
+    }
+
+    @Test
+    public void clear_ContactsRemoved() {
+        RigidBody bodyA = createBody(1);
+        RigidBody bodyB = createBody(2);
+        long key = ContactManifold.getPairKey(bodyA, bodyB);
+        mCache.put(key, new ContactManifold());
+
+        mCache.clear();
+
+        assertNull(mCache.get(key));
+    }
+}
@@ -0,0 +1,107 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.qub.eeecs.gage.world.GameScreen;
+import uk.ac.qub.eeecs.gage.world.Sprite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the narrowphase shape tests
+ */
+public class NarrowphaseTest {
+
+    private static final float EPSILON = 0.0001f;
+
+    private GameScreen mGameScreen;
+    private ContactManifold mContact;
+
+    @Before
+    public void setUp() {
+        mGameScreen = mock(GameScreen.class);
+        mContact = new ContactManifold();
+    }
+
+    private RigidBody createBody(float x, float y, Shape shape) {
+        return new RigidBody(new Sprite(x, y, 1.0f, 1.0f, null, mGameScreen), shape, 1.0f);
+    }
+
+    @Test
+    public void collide_OverlappingCircles_NormalFromAToB() {
+        RigidBody bodyA = createBody(0.0f, 0.0f, new CircleShape(5.0f));
+        RigidBody bodyB = createBody(6.0f, 8.0f, new CircleShape(6.0f));
+
+        assertTrue(Narrowphase.collide(bodyA, bodyB, mContact));
+
+        assertSame(bodyA, mContact.bodyA);
+        assertSame(bodyB, mContact.bodyB);
+        assertEquals(0.6f, mContact.normalX, EPSILON);
+        assertEquals(0.8f, mContact.normalY, EPSILON);
+        assertEquals(1.0f, mContact.penetration, EPSILON);
+    }
+
+    @Test
+    public void collide_SeparateCircles_NoContact() {
+        RigidBody bodyA = createBody(0.0f, 0.0f, new CircleShape(5.0f));
+        RigidBody bodyB = createBody(10.0f, 0.0f, new CircleShape(5.0f));
+
+        assertFalse(Narrowphase.collide(bodyA, bodyB, mContact));
+    }
+
+    @Test
+    public void collide_CircleAboveBox_NormalReversedWithBodyOrder() {
+        RigidBody box = createBody(0.0f, 0.0f, new AABBShape(10.0f, 2.0f));
+        RigidBody circle = createBody(3.0f, 5.0f, new CircleShape(4.0f));
+
+        assertTrue(Narrowphase.collide(circle, box, mContact));
+        assertEquals(0.0f, mContact.normalX, EPSILON);
+        assertEquals(-1.0f, mContact.normalY, EPSILON);
+        assertEquals(1.0f, mContact.penetration, EPSILON);
+
+        assertTrue(Narrowphase.collide(box, circle, mContact));
+        assertSame(box, mContact.bodyA);
+        assertSame(circle, mContact.bodyB);
+        assertEquals(0.0f, mContact.normalX, EPSILON);
+        assertEquals(1.0f, mContact.normalY, EPSILON);
+        assertEquals(1.0f, mContact.penetration, EPSILON);
+    }
+
+    @Test
+    public void collide_CircleCentreInsideBox_SeparatedThroughNearestFace() {
+        RigidBody circle = createBody(8.0f, 0.0f, new CircleShape(1.0f));
+        RigidBody box = createBody(0.0f, 0.0f, new AABBShape(10.0f, 5.0f));
+
+        assertTrue(Narrowphase.collide(circle, box, mContact));
+
+        // The circle is pushed out through the right face
+        assertEquals(-1.0f, mContact.normalX, EPSILON);
+        assertEquals(0.0f, mContact.normalY, EPSILON);
+        assertEquals(3.0f, mContact.penetration, EPSILON);
+    }
+
+    @Test
+    public void collide_OverlappingBoxes_SeparatedAlongLeastPenetration() {
+        RigidBody bodyA = createBody(0.0f, 0.0f, new AABBShape(5.0f, 5.0f));
+        RigidBody bodyB = createBody(-2.0f, 9.0f, new AABBShape(5.0f, 5.0f));
+
+        assertTrue(Narrowphase.collide(bodyA, bodyB, mContact));
+
+        assertEquals(0.0f, mContact.normalX, EPSILON);
+        assertEquals(1.0f, mContact.normalY, EPSILON);
+        assertEquals(1.0f, mContact.penetration, EPSILON);
+    }
+
+    @Test
+    public void collide_TouchingBoxes_NoContact() {
+        RigidBody bodyA = createBody(0.0f, 0.0f, new AABBShape(5.0f, 5.0f));
+        RigidBody bodyB = createBody(10.0f, 0.0f, new AABBShape(5.0f, 5.0f));
+
+        assertFalse(Narrowphase.collide(bodyA, bodyB, mContact));
+    }
+}
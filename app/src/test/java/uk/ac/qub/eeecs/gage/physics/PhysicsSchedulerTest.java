@@ -0,0 +1,134 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+import uk.ac.qub.eeecs.gage.engine.Profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the fixed rate physics scheduler
+ */
+public class PhysicsSchedulerTest {
+
+    private static final double EPSILON = 0.000001;
+
+    /**
+     * Listener that counts the substeps run and the time simulated
+     */
+    private static class CountingListener implements PhysicsScheduler.SubstepListener {
+        int substeps = 0;
+        double simulatedTime = 0.0;
+
+        @Override
+        public void onSubstep(ElapsedTime substepTime) {
+            substeps++;
+            simulatedTime += substepTime.stepTime;
+        }
+    }
+
+    private PhysicsScheduler mScheduler;
+    private CountingListener mListener;
+    private ElapsedTime mElapsedTime;
+
+    @Before
+    public void setUp() {
+        mScheduler = new PhysicsScheduler(100.0f, 4, null);
+        mListener = new CountingListener();
+        mElapsedTime = new ElapsedTime();
+    }
+
+    private int update(double stepTime) {
+        mElapsedTime.stepTime = stepTime;
+        mElapsedTime.totalTime += stepTime;
+        return mScheduler.update(mElapsedTime, mListener);
+    }
+
+    @Test
+    public void update_ShortFrame_NoSubstep() {
+        assertEquals(0, update(0.005));
+        assertEquals(0.5f, mScheduler.getInterpolationAlpha(), EPSILON);
+    }
+
+    @Test
+    public void update_TimeAccumulatesAcrossFrames() {
+        assertEquals(0, update(0.006));
+        assertEquals(1, update(0.006));
+        assertEquals(0.2f, mScheduler.getInterpolationAlpha(), 0.0001f);
+    }
+
+    @Test
+    public void update_FixedSubstepLength() {
+        assertEquals(3, update(0.035));
+        assertEquals(0.03, mListener.simulatedTime, EPSILON);
+        assertEquals(3, mScheduler.getLastSubstepCount());
+    }
+
+    @Test
+    public void update_VaryingFrames_SimulatedTimeMatchesElapsed() {
+        double elapsed = 0.0;
+        for (int frame = 0; frame < 100; frame++) {
+            double stepTime = 0.004 + (frame % 7) * 0.003;
+            update(stepTime);
+            elapsed += stepTime;
+        }
+
+        double remainder = mScheduler.getInterpolationAlpha() * mScheduler.getSubstepPeriod();
+        assertEquals(elapsed, mListener.simulatedTime + remainder, 0.0001);
+        assertEquals(0.0, mScheduler.getDroppedTime(), EPSILON);
+    }
+
+    @Test
+    public void update_LongFrame_CappedAndTimeDropped() {
+        assertEquals(4, update(0.1));
+        assertEquals(0.06, mScheduler.getDroppedTime(), EPSILON);
+        assertEquals(0.0f, mScheduler.getInterpolationAlpha(), 0.0001f);
+    }
+
+    @Test
+    public void reset_DiscardsAccumulatedTime() {
+        update(0.009);
+        mScheduler.reset();
+        assertEquals(0, update(0.002));
+    }
+
+    @Test
+    public void update_SubstepsProfiled() {
+        Profiler profiler = new Profiler();
+        PhysicsScheduler scheduler = new PhysicsScheduler(100.0f, 4, profiler);
+        mElapsedTime.stepTime = 0.025;
+        scheduler.update(mElapsedTime, mListener);
+
+        int section = profiler.registerSection("Physics.substep");
+        assertEquals(2, profiler.getSampleCount(section));
+    }
+
+    @Test
+    public void update_SubstepThrows_SectionStillEnded() {
+        Profiler profiler = new Profiler();
+        PhysicsScheduler scheduler = new PhysicsScheduler(100.0f, 4, profiler);
+        mElapsedTime.stepTime = 0.025;
+        try {
+            scheduler.update(mElapsedTime, new PhysicsScheduler.SubstepListener() {
+                @Override
+                public void onSubstep(ElapsedTime substepTime) {
+                    throw new IllegalStateException("Substep failed");
+                }
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+
+        int section = profiler.registerSection("Physics.substep");
+        assertEquals(1, profiler.getSampleCount(section));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void setSubstepRate_Invalid_Throws() {
+        mScheduler.setSubstepRate(0.0f);
+    }
+}
@@ -0,0 +1,168 @@
+package uk.ac.qub.eeecs.gage.physics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.qub.eeecs.gage.world.GameScreen;
+import uk.ac.qub.eeecs.gage.world.Sprite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the physics world step
+ */
+public class PhysicsWorldTest {
+
+    private static final float EPSILON = 0.0001f;
+
+    private static final float DT = 1.0f / 60.0f;
+
+    private GameScreen mGameScreen;
+
+    @Before
+    public void setUp() {
+        mGameScreen = mock(GameScreen.class);
+    }
+
+    /**
+     * Create a box body and add it to the specified world
+     */
+    private RigidBody addBox(PhysicsWorld world, float x, float y,
+                             float halfWidth, float halfHeight, float mass) {
+        Sprite sprite = new Sprite(x, y, 2.0f * halfWidth, 2.0f * halfHeight, null, mGameScreen);
+        RigidBody body = new RigidBody(sprite, new AABBShape(halfWidth, halfHeight), mass);
+        body.friction = 0.0f;
+        world.add(body);
+        return body;
+    }
+
+    /**
+     * Create a single iteration world holding a static ground with two
+     * boxes stacked upon it, overlapping by less than the slop. The upper
+     * box is offset along x by the specified amount.
+     */
+    private RigidBody[] createStack(PhysicsWorld world, float upperOffsetX) {
+        world.setVelocityIterations(1);
+        RigidBody ground = addBox(world, 0.0f, 0.0f, 100.0f, 5.0f, 0.0f);
+        RigidBody lower = addBox(world, 0.0f, 9.9f, 5.0f, 5.0f, 1.0f);
+        RigidBody upper = addBox(world, upperOffsetX, 19.8f, 5.0f, 5.0f, 1.0f);
+        return new RigidBody[]{ground, lower, upper};
+    }
+
+    /**
+     * Drop the upper box of a stack onto the resting lower box and step
+     */
+    private static void dropAndStep(PhysicsWorld world, RigidBody[] stack) {
+        stack[1].sprite.velocity.set(0.0f, 0.0f);
+        stack[2].sprite.velocity.set(0.0f, -10.0f);
+        world.step(DT);
+    }
+
+    @Test
+    public void step_PersistentContact_WarmStartedFromPreviousStep() {
+        // With a single iteration the first step leaves the lower box still
+        // moving into the ground. Warm starting the second step with the
+        // previous impulses brings the stack closer to rest.
+        PhysicsWorld coldWorld = new PhysicsWorld();
+        RigidBody[] coldStack = createStack(coldWorld, 0.001f);
+        dropAndStep(coldWorld, coldStack);
+        assertEquals(-5.0f, coldStack[2].sprite.velocity.y, EPSILON);
+
+        PhysicsWorld warmWorld = new PhysicsWorld();
+        RigidBody[] warmStack = createStack(warmWorld, 0.001f);
+        dropAndStep(warmWorld, warmStack);
+        dropAndStep(warmWorld, warmStack);
+
+        assertEquals(-2.5f, warmStack[2].sprite.velocity.y, EPSILON);
+        assertEquals(2, warmWorld.getContacts().size());
+    }
+
+    @Test
+    public void step_PairOrderSwapped_WarmStartStillFound() {
+        PhysicsWorld world = new PhysicsWorld();
+        RigidBody[] stack = createStack(world, 0.001f);
+        dropAndStep(world, stack);
+        ContactManifold boxContact = world.getContacts().get(1);
+        assertTrue(boxContact.bodyA == stack[1] && boxContact.bodyB == stack[2]);
+
+        // Nudge the upper box so its left edge sorts before the lower box,
+        // reversing the order of the bodies within their contact
+        stack[2].sprite.position.x = -0.001f;
+        dropAndStep(world, stack);
+
+        boxContact = world.getContacts().get(1);
+        assertTrue(boxContact.bodyA == stack[2] && boxContact.bodyB == stack[1]);
+        assertEquals(-1.0f, boxContact.normalY, EPSILON);
+        assertEquals(-2.5f, stack[2].sprite.velocity.y, EPSILON);
+        assertEquals(7.5f, boxContact.normalImpulse, EPSILON);
+    }
+
+    @Test
+    public void step_SleepingBodyHitByMovingBody_Woken() {
+        PhysicsWorld world = new PhysicsWorld();
+        RigidBody sleeping = addBox(world, 0.0f, 0.0f, 5.0f, 5.0f, 1.0f);
+        sleeping.sprite.setMotionState(Sprite.MotionState.Sleeping);
+        RigidBody moving = addBox(world, 9.9f, 0.0f, 5.0f, 5.0f, 1.0f);
+        moving.sprite.velocity.set(-10.0f, 0.0f);
+
+        world.step(DT);
+
+        assertFalse(sleeping.sprite.isSleeping());
+        assertEquals(Sprite.MotionState.Awake, sleeping.sprite.getMotionState());
+    }
+
+    @Test
+    public void step_SleepingBodyTouchingStaticBody_StaysAsleep() {
+        PhysicsWorld world = new PhysicsWorld();
+        RigidBody sleeping = addBox(world, 0.0f, 9.9f, 5.0f, 5.0f, 1.0f);
+        sleeping.sprite.setMotionState(Sprite.MotionState.Sleeping);
+        addBox(world, 0.0f, 0.0f, 100.0f, 5.0f, 0.0f);
+
+        world.step(DT);
+
+        assertTrue(sleeping.sprite.isSleeping());
+        assertEquals(0, world.getContacts().size());
+    }
+
+    @Test
+    public void step_PenetrationWithinSlop_NotCorrected() {
+        PhysicsWorld world = new PhysicsWorld();
+        RigidBody bodyA = addBox(world, 0.0f, 0.0f, 5.0f, 5.0f, 1.0f);
+        RigidBody bodyB = addBox(world, 10.0f - PhysicsWorld.PENETRATION_SLOP + 0.01f,
+                0.0f, 5.0f, 5.0f, 1.0f);
+        float startB = bodyB.sprite.position.x;
+
+        world.step(DT);
+
+        assertEquals(1, world.getContacts().size());
+        assertEquals(0.0f, bodyA.sprite.position.x, EPSILON);
+        assertEquals(startB, bodyB.sprite.position.x, EPSILON);
+    }
+
+    @Test
+    public void step_PenetrationBeyondSlop_CorrectedInProportionToInverseMass() {
+        // Penetration of 1.5 leaves 1.0 beyond the slop, of which 0.8 is
+        // corrected, shared equally between bodies of equal mass
+        PhysicsWorld world = new PhysicsWorld();
+        RigidBody bodyA = addBox(world, 0.0f, 0.0f, 5.0f, 5.0f, 1.0f);
+        RigidBody bodyB = addBox(world, 8.5f, 0.0f, 5.0f, 5.0f, 1.0f);
+
+        world.step(DT);
+
+        assertEquals(-0.4f, bodyA.sprite.position.x, EPSILON);
+        assertEquals(8.9f, bodyB.sprite.position.x, EPSILON);
+
+        // Against an immovable body the movable body takes the whole correction
+        PhysicsWorld staticWorld = new PhysicsWorld();
+        RigidBody ground = addBox(staticWorld, 0.0f, 0.0f, 100.0f, 5.0f, 0.0f);
+        RigidBody box = addBox(staticWorld, 0.0f, 8.5f, 5.0f, 5.0f, 1.0f);
+
+        staticWorld.step(DT);
+
+        assertEquals(0.0f, ground.sprite.position.y, EPSILON);
+        assertEquals(9.3f, box.sprite.position.y, EPSILON);
+    }
+}
@@ -0,0 +1,141 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the swept collision test within the collision detector
+ */
+public class CollisionDetectorTest {
+
+    private static final float EPSILON = 0.0001f;
+
+    private CollisionDetector.SweepResult mResult;
+
+    @Before
+    public void setUp() {
+        mResult = new CollisionDetector.SweepResult();
+    }
+
+    @Test
+    public void sweep_MovingRightIntoBox_ImpactOnRight() {
+        BoundingBox moving = new BoundingBox(0.0f, 0.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(10.0f, 0.0f, 1.0f, 1.0f);
+
+        assertTrue(CollisionDetector.sweep(moving, 16.0f, 0.0f, fixed, mResult));
+        assertEquals(0.5f, mResult.time, EPSILON);
+        assertEquals(CollisionDetector.CollisionType.Right, mResult.collisionType);
+    }
+
+    @Test
+    public void sweep_MovingLeftIntoBox_ImpactOnLeft() {
+        BoundingBox moving = new BoundingBox(10.0f, 0.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(0.0f, 0.0f, 1.0f, 1.0f);
+
+        assertTrue(CollisionDetector.sweep(moving, -16.0f, 0.0f, fixed, mResult));
+        assertEquals(0.5f, mResult.time, EPSILON);
+        assertEquals(CollisionDetector.CollisionType.Left, mResult.collisionType);
+    }
+
+    @Test
+    public void sweep_FallingOntoBox_ImpactOnTop() {
+        BoundingBox moving = new BoundingBox(0.0f, 10.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(0.0f, 0.0f, 4.0f, 1.0f);
+
+        assertTrue(CollisionDetector.sweep(moving, 0.0f, -32.0f, fixed, mResult));
+        assertEquals(0.25f, mResult.time, EPSILON);
+        assertEquals(CollisionDetector.CollisionType.Top, mResult.collisionType);
+    }
+
+    @Test
+    public void sweep_RisingIntoBox_ImpactOnBottom() {
+        BoundingBox moving = new BoundingBox(0.0f, 0.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(0.0f, 10.0f, 4.0f, 1.0f);
+
+        assertTrue(CollisionDetector.sweep(moving, 0.0f, 16.0f, fixed, mResult));
+        assertEquals(0.5f, mResult.time, EPSILON);
+        assertEquals(CollisionDetector.CollisionType.Bottom, mResult.collisionType);
+    }
+
+    @Test
+    public void sweep_PassesThroughThinBox_ImpactDetected() {
+        // A displacement that carries the box entirely past a thin platform
+        BoundingBox moving = new BoundingBox(0.0f, 10.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(0.0f, 0.0f, 4.0f, 0.1f);
+
+        assertTrue(CollisionDetector.sweep(moving, 0.0f, -100.0f, fixed, mResult));
+        assertEquals(8.9f / 100.0f, mResult.time, EPSILON);
+        assertEquals(CollisionDetector.CollisionType.Top, mResult.collisionType);
+    }
+
+    @Test
+    public void sweep_DiagonalEntry_LatestAxisDeterminesType() {
+        // Reaches the box's x extent first, but only overlaps along y later
+        BoundingBox moving = new BoundingBox(0.0f, 10.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(5.0f, 0.0f, 2.0f, 1.0f);
+
+        assertTrue(CollisionDetector.sweep(moving, 10.0f, -10.0f, fixed, mResult));
+        assertEquals(0.8f, mResult.time, EPSILON);
+        assertEquals(CollisionDetector.CollisionType.Top, mResult.collisionType);
+    }
+
+    @Test
+    public void sweep_MissesBox_NoImpact() {
+        BoundingBox moving = new BoundingBox(0.0f, 5.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(10.0f, 0.0f, 1.0f, 1.0f);
+
+        assertFalse(CollisionDetector.sweep(moving, 20.0f, 0.0f, fixed, mResult));
+        assertEquals(1.0f, mResult.time, EPSILON);
+        assertEquals(CollisionDetector.CollisionType.None, mResult.collisionType);
+    }
+
+    @Test
+    public void sweep_MovingAway_NoImpact() {
+        BoundingBox moving = new BoundingBox(0.0f, 0.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(10.0f, 0.0f, 1.0f, 1.0f);
+
+        assertFalse(CollisionDetector.sweep(moving, -5.0f, 0.0f, fixed, mResult));
+    }
+
+    @Test
+    public void sweep_StopsShort_NoImpact() {
+        BoundingBox moving = new BoundingBox(0.0f, 0.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(10.0f, 0.0f, 1.0f, 1.0f);
+
+        assertFalse(CollisionDetector.sweep(moving, 7.0f, 0.0f, fixed, mResult));
+    }
+
+    @Test
+    public void sweep_RestingInContact_ImpactAtZero() {
+        BoundingBox moving = new BoundingBox(0.0f, 2.0f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(0.0f, 0.0f, 4.0f, 1.0f);
+
+        assertTrue(CollisionDetector.sweep(moving, 0.0f, -1.0f, fixed, mResult));
+        assertEquals(0.0f, mResult.time, EPSILON);
+        assertEquals(CollisionDetector.CollisionType.Top, mResult.collisionType);
+    }
+
+    @Test
+    public void sweep_AlreadyOverlapping_NoImpact() {
+        BoundingBox moving = new BoundingBox(0.0f, 1.5f, 1.0f, 1.0f);
+        BoundingBox fixed = new BoundingBox(0.0f, 0.0f, 4.0f, 1.0f);
+
+        assertFalse(CollisionDetector.sweep(moving, 0.0f, -1.0f, fixed, mResult));
+    }
+
+    @Test
+    public void sweep_MultipleBoxes_EarliestImpactKept() {
+        BoundingBox moving = new BoundingBox(0.0f, 0.0f, 1.0f, 1.0f);
+        BoundingBox near = new BoundingBox(5.0f, 0.0f, 1.0f, 1.0f);
+        BoundingBox far = new BoundingBox(9.0f, 0.0f, 1.0f, 1.0f);
+
+        assertTrue(CollisionDetector.sweep(moving, 10.0f, 0.0f, far, mResult));
+        assertTrue(CollisionDetector.sweep(moving, 10.0f, 0.0f, near, mResult));
+        assertFalse(CollisionDetector.sweep(moving, 10.0f, 0.0f, far, mResult));
+        assertEquals(0.3f, mResult.time, EPSILON);
+    }
+}
@@ -0,0 +1,221 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the lock-free object pool, including producer and consumer
+ * threads sharing a pool
+ */
+public class ConcurrentPoolTest {
+
+    private static final int NUM_THREADS = 4;
+
+    /**
+     * Pooled object identified by a unique id, which records if it is held
+     */
+    private static class Token {
+        final int id;
+        final AtomicBoolean held = new AtomicBoolean();
+
+        Token(int id) {
+            this.id = id;
+        }
+    }
+
+    private AtomicInteger mCreatedCount;
+    private Pool.ObjectFactory<Token> mFactory;
+    private PoolStats mStats;
+
+    @Before
+    public void setUp() {
+        mCreatedCount = new AtomicInteger();
+        mFactory = new Pool.ObjectFactory<Token>() {
+            public Token createObject() {
+                return new Token(-1 - mCreatedCount.getAndIncrement());
+            }
+        };
+        mStats = new PoolStats();
+    }
+
+    private static void startAndJoin(Thread[] threads, CountDownLatch start)
+            throws InterruptedException {
+        for (Thread thread : threads)
+            thread.start();
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+    }
+
+    @Test
+    public void get_AddedObjects_ReusedFirstInFirstOut() {
+        ConcurrentPool<Token> pool = new ConcurrentPool<>(mFactory, 4);
+        Token first = new Token(0);
+        Token second = new Token(1);
+
+        pool.add(first);
+        pool.add(second);
+
+        assertSame(first, pool.get());
+        assertSame(second, pool.get());
+        assertEquals(0, mCreatedCount.get());
+        assertNull(pool.poll());
+    }
+
+    @Test
+    public void add_FullPool_ObjectDropped() {
+        ConcurrentPool<Token> pool = new ConcurrentPool<>(mFactory, 3);
+        for (int idx = 0; idx < 6; idx++)
+            pool.add(new Token(idx));
+
+        // The maximum size is rounded up to a power of two
+        assertEquals(4, pool.getMaxSize());
+        assertEquals(4, pool.getSize());
+        pool.getStats(mStats);
+        assertEquals(2L, mStats.drops);
+        assertEquals(4, mStats.highWaterMark);
+    }
+
+    @Test
+    public void get_EmptyPool_NewObjectCreated() {
+        ConcurrentPool<Token> pool = new ConcurrentPool<>(mFactory, 4);
+
+        pool.get();
+        pool.prewarm(2);
+        pool.get();
+
+        assertEquals(3, mCreatedCount.get());
+        pool.getStats(mStats);
+        assertEquals(1L, mStats.hits);
+        assertEquals(1L, mStats.misses);
+        assertEquals(1, mStats.size);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void constructor_InvalidMaximumSize_Throws() {
+        new ConcurrentPool<>(mFactory, 0);
+    }
+
+    @Test(timeout = 20000)
+    public void offerAndPoll_ProducersAndConsumers_NoObjectLostOrDuplicated()
+            throws InterruptedException {
+        // Producers push unique tokens through a small pool, retrying when it
+        // is full, whilst consumers drain it. Every token must be taken
+        // exactly once.
+        final int tokensPerProducer = 50000;
+        final int numTokens = tokensPerProducer * NUM_THREADS;
+        final ConcurrentPool<Token> pool = new ConcurrentPool<>(mFactory, 64);
+        final AtomicIntegerArray taken = new AtomicIntegerArray(numTokens);
+        final AtomicInteger takenCount = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[2 * NUM_THREADS];
+        for (int threadIdx = 0; threadIdx < NUM_THREADS; threadIdx++) {
+            final int firstId = threadIdx * tokensPerProducer;
+            threads[threadIdx] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int id = firstId; id < firstId + tokensPerProducer; id++) {
+                        Token token = new Token(id);
+                        while (!pool.offer(token))
+                            Thread.yield();
+                    }
+                }
+            });
+            threads[NUM_THREADS + threadIdx] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (takenCount.get() < numTokens) {
+                        Token token = pool.poll();
+                        if (token == null) {
+                            Thread.yield();
+                            continue;
+                        }
+                        taken.incrementAndGet(token.id);
+                        takenCount.incrementAndGet();
+                    }
+                }
+            });
+        }
+        startAndJoin(threads, start);
+
+        for (int id = 0; id < numTokens; id++)
+            assertEquals(1, taken.get(id));
+        assertEquals(numTokens, takenCount.get());
+        assertEquals(0, pool.getSize());
+        assertNull(pool.poll());
+    }
+
+    @Test(timeout = 20000)
+    public void getAndAdd_SharedByThreads_ObjectsNeverHeldTwiceAndStatsConsistent()
+            throws InterruptedException {
+        // Each thread repeatedly gets objects, marks them as held and returns
+        // them. An object handed to two threads at once would be seen as
+        // already held.
+        final int cyclesPerThread = 50000;
+        final ConcurrentPool<Token> pool = new ConcurrentPool<>(mFactory, 16);
+        final AtomicInteger doubleHolds = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[NUM_THREADS];
+        for (int threadIdx = 0; threadIdx < threads.length; threadIdx++) {
+            threads[threadIdx] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Token[] held = new Token[8];
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int cycle = 0; cycle < cyclesPerThread; cycle++) {
+                        int count = 1 + cycle % held.length;
+                        for (int idx = 0; idx < count; idx++) {
+                            held[idx] = pool.get();
+                            if (!held[idx].held.compareAndSet(false, true))
+                                doubleHolds.incrementAndGet();
+                        }
+                        for (int idx = 0; idx < count; idx++) {
+                            held[idx].held.set(false);
+                            pool.add(held[idx]);
+                        }
+                    }
+                }
+            });
+        }
+        startAndJoin(threads, start);
+
+        assertEquals(0, doubleHolds.get());
+
+        // Each get is a hit or a miss, and every added object is either
+        // pooled, dropped or has since been taken by a hit
+        pool.getStats(mStats);
+        long numGets = 0L;
+        for (int cycle = 0; cycle < cyclesPerThread; cycle++)
+            numGets += 1 + cycle % 8;
+        numGets *= NUM_THREADS;
+        assertEquals(numGets, mStats.hits + mStats.misses);
+        assertEquals(mCreatedCount.get(), mStats.misses);
+        assertEquals(numGets - mStats.drops - mStats.hits, (long) mStats.size);
+        assertEquals(pool.getSize(), mStats.size);
+    }
+}
@@ -0,0 +1,114 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the fast pseudo random number generator
+ */
+public class FastRandomTest {
+
+    private static final int NUM_SAMPLES = 100000;
+
+    @Test
+    public void nextLong_SeedZero_MatchesSplitMix64Reference() {
+        FastRandom random = new FastRandom(0L);
+
+        assertEquals(0xE220A8397B1DCDAFL, random.nextLong());
+        assertEquals(0x6E789E6AA1B965F4L, random.nextLong());
+        assertEquals(0x06C45D188009454FL, random.nextLong());
+    }
+
+    @Test
+    public void nextLong_SameSeed_SameSequence() {
+        FastRandom first = new FastRandom(1234L);
+        FastRandom second = new FastRandom(1234L);
+
+        for (int idx = 0; idx < 100; idx++)
+            assertEquals(first.nextLong(), second.nextLong());
+    }
+
+    @Test
+    public void setSeed_RestartsSequence() {
+        FastRandom random = new FastRandom(42L);
+        long firstValue = random.nextLong();
+        random.nextLong();
+
+        random.setSeed(42L);
+
+        assertEquals(firstValue, random.nextLong());
+    }
+
+    @Test
+    public void constructor_DefaultSeeds_DifferentSequences() {
+        FastRandom first = new FastRandom();
+        FastRandom second = new FastRandom();
+
+        assertNotEquals(first.nextLong(), second.nextLong());
+    }
+
+    @Test
+    public void constructor_DefaultSeeds_FollowMasterSeed() {
+        SeedSource.setMasterSeed(1234L);
+        FastRandom first = new FastRandom();
+
+        SeedSource.setMasterSeed(1234L);
+        FastRandom second = new FastRandom();
+
+        for (int idx = 0; idx < 100; idx++)
+            assertEquals(first.nextLong(), second.nextLong());
+    }
+
+    @Test
+    public void nextFloat_ValuesWithinUnitRangeAndUniform() {
+        FastRandom random = new FastRandom(7L);
+        int[] buckets = new int[10];
+
+        for (int idx = 0; idx < NUM_SAMPLES; idx++) {
+            float value = random.nextFloat();
+            assertTrue(value >= 0.0f && value < 1.0f);
+            buckets[(int) (value * buckets.length)]++;
+        }
+
+        // Each bucket should hold close to a tenth of the samples
+        int expected = NUM_SAMPLES / buckets.length;
+        for (int count : buckets)
+            assertTrue(Math.abs(count - expected) < expected / 20);
+    }
+
+    @Test
+    public void nextFloat_Range_ValuesWithinRange() {
+        FastRandom random = new FastRandom(7L);
+        float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+
+        for (int idx = 0; idx < NUM_SAMPLES; idx++) {
+            float value = random.nextFloat(-5.0f, 15.0f);
+            assertTrue(value >= -5.0f && value < 15.0f);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        assertTrue(min < -4.9f);
+        assertTrue(max > 14.9f);
+    }
+
+    @Test
+    public void nextInt_BitsBalanced() {
+        FastRandom random = new FastRandom(99L);
+        int[] setCounts = new int[32];
+
+        for (int idx = 0; idx < NUM_SAMPLES; idx++) {
+            int value = random.nextInt();
+            for (int bit = 0; bit < 32; bit++)
+                if ((value & (1 << bit)) != 0)
+                    setCounts[bit]++;
+        }
+
+        // Each bit should be set in close to half of the samples
+        for (int count : setCounts)
+            assertTrue(Math.abs(count - NUM_SAMPLES / 2) < NUM_SAMPLES / 50);
+    }
+}
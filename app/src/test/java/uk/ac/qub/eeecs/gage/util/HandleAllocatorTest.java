@@ -0,0 +1,172 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the generational handle allocator
+ */
+public class HandleAllocatorTest {
+
+    private HandleAllocator mAllocator;
+
+    @Before
+    public void setUp() {
+        mAllocator = new HandleAllocator(4);
+    }
+
+    @Test
+    public void allocate_NewHandles_ValidAndDistinct() {
+        int first = mAllocator.allocate();
+        int second = mAllocator.allocate();
+
+        assertNotEquals(HandleAllocator.INVALID_HANDLE, first);
+        assertNotEquals(first, second);
+        assertTrue(mAllocator.isValid(first));
+        assertTrue(mAllocator.isValid(second));
+        assertEquals(0, HandleAllocator.getIndex(first));
+        assertEquals(1, HandleAllocator.getIndex(second));
+        assertEquals(1, HandleAllocator.getGeneration(first));
+        assertEquals(2, mAllocator.getCount());
+    }
+
+    @Test
+    public void release_Handle_BecomesStale() {
+        int handle = mAllocator.allocate();
+
+        mAllocator.release(handle);
+
+        assertFalse(mAllocator.isValid(handle));
+        assertFalse(mAllocator.isValid(HandleAllocator.INVALID_HANDLE));
+        assertEquals(0, mAllocator.getCount());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void release_StaleHandle_Throws() {
+        int handle = mAllocator.allocate();
+        mAllocator.release(handle);
+        mAllocator.release(handle);
+    }
+
+    @Test
+    public void allocate_FewReleasedSlots_NewSlotUsed() {
+        int handle = mAllocator.allocate();
+        mAllocator.release(handle);
+
+        int next = mAllocator.allocate();
+
+        assertNotEquals(HandleAllocator.getIndex(handle), HandleAllocator.getIndex(next));
+    }
+
+    @Test
+    public void allocate_ManyReleasedSlots_EarliestReleasedReused() {
+        int[] handles = new int[HandleAllocator.MIN_FREE_SLOTS + 2];
+        for (int idx = 0; idx < handles.length; idx++)
+            handles[idx] = mAllocator.allocate();
+        for (int idx = handles.length - 1; idx >= 0; idx--)
+            mAllocator.release(handles[idx]);
+
+        int first = mAllocator.allocate();
+        int second = mAllocator.allocate();
+
+        assertEquals(HandleAllocator.getIndex(handles[handles.length - 1]),
+                HandleAllocator.getIndex(first));
+        assertEquals(HandleAllocator.getIndex(handles[handles.length - 2]),
+                HandleAllocator.getIndex(second));
+        assertEquals(2, HandleAllocator.getGeneration(first));
+        assertFalse(mAllocator.isValid(handles[handles.length - 1]));
+        assertTrue(mAllocator.isValid(first));
+    }
+
+    @Test
+    public void allocate_SingleSlotChurn_StaleHandlesNotRevivedBeforeWrap() {
+        // Repeatedly allocate and release one handle, whilst holding a copy
+        // of every released handle. Until a slot's generation wraps no handle
+        // value may be repeated and none may become valid.
+        int numCycles = HandleAllocator.GENERATION_MASK * (HandleAllocator.MIN_FREE_SLOTS + 1);
+        Set<Integer> released = new HashSet<>();
+        int[] staleCopies = new int[numCycles];
+
+        for (int cycle = 0; cycle < numCycles; cycle++) {
+            int handle = mAllocator.allocate();
+            assertTrue(released.add(handle));
+            assertTrue(mAllocator.isValid(handle));
+            mAllocator.release(handle);
+            staleCopies[cycle] = handle;
+        }
+
+        for (int handle : staleCopies)
+            assertFalse(mAllocator.isValid(handle));
+        assertEquals(0, mAllocator.getCount());
+    }
+
+    @Test
+    public void release_ExhaustedGeneration_GenerationWrapsAndSlotReused() {
+        // Drive slot 0 through every generation, churning other handles
+        // until slot 0 is reused each time
+        int handle = mAllocator.allocate();
+        for (int generation = 1; generation <= HandleAllocator.GENERATION_MASK; generation++) {
+            assertEquals(generation, HandleAllocator.getGeneration(handle));
+            mAllocator.release(handle);
+            handle = mAllocator.allocate();
+            while (HandleAllocator.getIndex(handle) != 0) {
+                mAllocator.release(handle);
+                handle = mAllocator.allocate();
+            }
+        }
+
+        // Slot 0 is reused with its generation wrapped back to 1
+        assertEquals(1, HandleAllocator.getGeneration(handle));
+        assertNotEquals(HandleAllocator.INVALID_HANDLE, handle);
+        assertTrue(mAllocator.isValid(handle));
+    }
+
+    @Test
+    public void allocate_MillionsOfChurnCycles_CapacityBounded() {
+        // Keep a window of live handles, repeatedly releasing the oldest and
+        // allocating a replacement, as pooled particles are spawned and
+        // expire. Slots must keep being reused rather than leaking.
+        int[] live = new int[1000];
+        for (int idx = 0; idx < live.length; idx++)
+            live[idx] = mAllocator.allocate();
+
+        for (int cycle = 0; cycle < 5000000; cycle++) {
+            int idx = cycle % live.length;
+            int stale = live[idx];
+            mAllocator.release(stale);
+            assertFalse(mAllocator.isValid(stale));
+            live[idx] = mAllocator.allocate();
+        }
+
+        for (int handle : live)
+            assertTrue(mAllocator.isValid(handle));
+        assertEquals(live.length, mAllocator.getCount());
+        assertTrue(mAllocator.getCapacity() <= 2 * (live.length + HandleAllocator.MIN_FREE_SLOTS));
+
+        for (int handle : live)
+            mAllocator.release(handle);
+        assertEquals(0, mAllocator.getCount());
+    }
+
+    @Test
+    public void clear_AllHandlesStale() {
+        int[] handles = new int[10];
+        for (int idx = 0; idx < handles.length; idx++)
+            handles[idx] = mAllocator.allocate();
+
+        mAllocator.clear();
+
+        for (int handle : handles)
+            assertFalse(mAllocator.isValid(handle));
+        assertEquals(0, mAllocator.getCount());
+        assertTrue(mAllocator.getCapacity() >= handles.length);
+    }
+}
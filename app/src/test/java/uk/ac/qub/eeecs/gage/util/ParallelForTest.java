@@ -0,0 +1,109 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the parallel for
+ */
+public class ParallelForTest {
+
+    private static final int COUNT = 1000;
+
+    private ParallelFor mParallelFor;
+
+    @Before
+    public void setUp() {
+        mParallelFor = new ParallelFor(3);
+    }
+
+    @After
+    public void tearDown() {
+        mParallelFor.shutdown();
+    }
+
+    private ParallelFor.RangeTask createCountingTask(final AtomicIntegerArray visits) {
+        return new ParallelFor.RangeTask() {
+            @Override
+            public void run(int start, int end) {
+                for (int idx = start; idx < end; idx++)
+                    visits.incrementAndGet(idx);
+            }
+        };
+    }
+
+    @Test
+    public void execute_EachIndexProcessedOnce() {
+        AtomicIntegerArray visits = new AtomicIntegerArray(COUNT);
+
+        mParallelFor.execute(COUNT, 10, createCountingTask(visits));
+
+        for (int idx = 0; idx < COUNT; idx++)
+            assertEquals(1, visits.get(idx));
+    }
+
+    @Test
+    public void execute_WorkerRangeFails_FailureRethrown() {
+        final int failingIndex = COUNT - 1;
+        try {
+            mParallelFor.execute(COUNT, 10, new ParallelFor.RangeTask() {
+                @Override
+                public void run(int start, int end) {
+                    if (failingIndex >= start && failingIndex < end)
+                        throw new IllegalStateException("Range failed");
+                }
+            });
+            fail("Expected the worker failure to be rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("Range failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void execute_CallingThreadRangeFails_FailureRethrownAfterOtherRanges() {
+        final AtomicIntegerArray visits = new AtomicIntegerArray(COUNT);
+        try {
+            mParallelFor.execute(COUNT, 10, new ParallelFor.RangeTask() {
+                @Override
+                public void run(int start, int end) {
+                    if (start == 0)
+                        throw new IllegalStateException("First range failed");
+                    for (int idx = start; idx < end; idx++)
+                        visits.incrementAndGet(idx);
+                }
+            });
+            fail("Expected the failure to be rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("First range failed", e.getMessage());
+        }
+
+        // The other sub-ranges completed before the failure was rethrown
+        assertEquals(1, visits.get(COUNT - 1));
+    }
+
+    @Test
+    public void execute_AfterFailure_StillUsable() {
+        try {
+            mParallelFor.execute(COUNT, 10, new ParallelFor.RangeTask() {
+                @Override
+                public void run(int start, int end) {
+                    throw new IllegalStateException("Range failed");
+                }
+            });
+            fail("Expected the failure to be rethrown");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+
+        AtomicIntegerArray visits = new AtomicIntegerArray(COUNT);
+        mParallelFor.execute(COUNT, 10, createCountingTask(visits));
+        for (int idx = 0; idx < COUNT; idx++)
+            assertEquals(1, visits.get(idx));
+    }
+}
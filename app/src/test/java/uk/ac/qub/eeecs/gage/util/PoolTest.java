@@ -0,0 +1,142 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the object pool
+ */
+public class PoolTest {
+
+    private int mCreatedCount;
+    private Pool.ObjectFactory<Object> mFactory;
+    private PoolStats mStats;
+
+    @Before
+    public void setUp() {
+        mCreatedCount = 0;
+        mFactory = new Pool.ObjectFactory<Object>() {
+            public Object createObject() {
+                mCreatedCount++;
+                return new Object();
+            }
+        };
+        mStats = new PoolStats();
+    }
+
+    @Test
+    public void get_EmptyPool_NewObjectCreated() {
+        Pool<Object> pool = new Pool<>(mFactory, 10);
+
+        pool.get();
+
+        assertEquals(1, mCreatedCount);
+        pool.getStats(mStats);
+        assertEquals(0L, mStats.hits);
+        assertEquals(1L, mStats.misses);
+    }
+
+    @Test
+    public void get_AddedObjects_ReusedMostRecentFirst() {
+        Pool<Object> pool = new Pool<>(mFactory, 10);
+        Object first = new Object();
+        Object second = new Object();
+
+        pool.add(first);
+        pool.add(second);
+
+        assertSame(second, pool.get());
+        assertSame(first, pool.get());
+        assertEquals(0, mCreatedCount);
+        pool.getStats(mStats);
+        assertEquals(2L, mStats.hits);
+        assertEquals(0L, mStats.misses);
+    }
+
+    @Test
+    public void add_FullPool_ObjectDropped() {
+        Pool<Object> pool = new Pool<>(mFactory, 2);
+        for (int idx = 0; idx < 5; idx++)
+            pool.add(new Object());
+
+        assertEquals(2, pool.getSize());
+        pool.getStats(mStats);
+        assertEquals(3L, mStats.drops);
+        assertEquals(2, mStats.highWaterMark);
+        assertEquals(2, mStats.maxSize);
+    }
+
+    @Test
+    public void add_BeyondInitialCapacity_StorageGrows() {
+        Pool<Object> pool = new Pool<>(mFactory, 1000);
+        List<Object> objects = new ArrayList<>();
+        for (int idx = 0; idx < 1000; idx++) {
+            Object object = new Object();
+            objects.add(object);
+            pool.add(object);
+        }
+        pool.add(new Object());
+
+        assertEquals(1000, pool.getSize());
+        for (int idx = objects.size() - 1; idx >= 0; idx--)
+            assertSame(objects.get(idx), pool.get());
+        assertNotSame(objects.get(0), pool.get());
+        assertEquals(1, mCreatedCount);
+    }
+
+    @Test
+    public void constructor_LargeMaximumSize_StorageNotPreallocated() {
+        // An eagerly allocated pool of this size could not be created
+        Pool<Object> pool = new Pool<>(mFactory, Integer.MAX_VALUE);
+        pool.add(new Object());
+
+        assertEquals(1, pool.getSize());
+        assertEquals(Integer.MAX_VALUE, pool.getMaxSize());
+    }
+
+    @Test
+    public void prewarm_CreatesObjectsUpToMaximumSize() {
+        Pool<Object> pool = new Pool<>(mFactory, 50);
+
+        pool.prewarm(20);
+        assertEquals(20, pool.getSize());
+        assertEquals(20, mCreatedCount);
+
+        pool.prewarm(100);
+        assertEquals(50, pool.getSize());
+        assertEquals(50, mCreatedCount);
+
+        pool.getStats(mStats);
+        assertEquals(50, mStats.highWaterMark);
+    }
+
+    @Test
+    public void resetStats_CountsClearedAndHighWaterMarkReset() {
+        Pool<Object> pool = new Pool<>(mFactory, 10);
+        pool.prewarm(5);
+        pool.get();
+        pool.get();
+        pool.add(new Object());
+
+        pool.resetStats();
+        pool.getStats(mStats);
+
+        assertEquals(0L, mStats.hits);
+        assertEquals(0L, mStats.misses);
+        assertEquals(0L, mStats.drops);
+        assertEquals(4, mStats.highWaterMark);
+        assertEquals(4, mStats.size);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void constructor_NegativeMaximumSize_Throws() {
+        new Pool<>(mFactory, -1);
+    }
+}
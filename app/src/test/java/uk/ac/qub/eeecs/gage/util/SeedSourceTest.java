@@ -0,0 +1,43 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests for the seed source
+ */
+public class SeedSourceTest {
+
+    @Test
+    public void nextSeed_SameMasterSeed_SameSeeds() {
+        SeedSource.setMasterSeed(1234L);
+        long[] first = {SeedSource.nextSeed(), SeedSource.nextSeed(), SeedSource.nextSeed()};
+
+        SeedSource.setMasterSeed(1234L);
+        for (long seed : first)
+            assertEquals(seed, SeedSource.nextSeed());
+    }
+
+    @Test
+    public void nextSeed_SuccessiveSeeds_Different() {
+        SeedSource.setMasterSeed(0L);
+
+        assertNotEquals(SeedSource.nextSeed(), SeedSource.nextSeed());
+    }
+
+    @Test
+    public void nextSeed_SeededGenerators_SameSequences() {
+        SeedSource.setMasterSeed(42L);
+        Random first = new Random(SeedSource.nextSeed());
+
+        SeedSource.setMasterSeed(42L);
+        Random second = new Random(SeedSource.nextSeed());
+
+        for (int idx = 0; idx < 100; idx++)
+            assertEquals(first.nextInt(), second.nextInt());
+    }
+}
@@ -0,0 +1,233 @@
+package uk.ac.qub.eeecs.gage.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the thread local object pool, including producer and consumer
+ * threads sharing a pool
+ */
+public class ThreadLocalPoolTest {
+
+    private static final int NUM_THREADS = 4;
+
+    /**
+     * Pooled object identified by a unique id, which records if it is held
+     */
+    private static class Token {
+        final int id;
+        final AtomicBoolean held = new AtomicBoolean();
+
+        Token(int id) {
+            this.id = id;
+        }
+    }
+
+    private AtomicInteger mCreatedCount;
+    private Pool.ObjectFactory<Token> mFactory;
+    private PoolStats mStats;
+
+    @Before
+    public void setUp() {
+        mCreatedCount = new AtomicInteger();
+        mFactory = new Pool.ObjectFactory<Token>() {
+            public Token createObject() {
+                return new Token(-1 - mCreatedCount.getAndIncrement());
+            }
+        };
+        mStats = new PoolStats();
+    }
+
+    private static void startAndJoin(Thread[] threads, CountDownLatch start)
+            throws InterruptedException {
+        for (Thread thread : threads)
+            thread.start();
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+    }
+
+    @Test
+    public void get_SameThread_LocalCacheReusedMostRecentFirst() {
+        ThreadLocalPool<Token> pool = new ThreadLocalPool<>(mFactory, 4, 16);
+        Token first = new Token(0);
+        Token second = new Token(1);
+
+        pool.add(first);
+        pool.add(second);
+
+        assertSame(second, pool.get());
+        assertSame(first, pool.get());
+        assertEquals(0, mCreatedCount.get());
+    }
+
+    @Test
+    public void get_OtherThread_SpilledObjectsReused() throws InterruptedException {
+        final ThreadLocalPool<Token> pool = new ThreadLocalPool<>(mFactory, 2, 16);
+        final Token[] tokens = new Token[5];
+        for (int idx = 0; idx < tokens.length; idx++) {
+            tokens[idx] = new Token(idx);
+            pool.add(tokens[idx]);
+        }
+
+        // The first two tokens stay in this thread's cache, the rest spill
+        // into the shared pool where another thread can take them
+        final Token[] taken = new Token[4];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int idx = 0; idx < taken.length; idx++)
+                    taken[idx] = pool.get();
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertSame(tokens[2], taken[0]);
+        assertSame(tokens[3], taken[1]);
+        assertSame(tokens[4], taken[2]);
+        assertEquals(-1, taken[3].id);
+        assertSame(tokens[1], pool.get());
+
+        pool.getStats(mStats);
+        assertEquals(4L, mStats.hits);
+        assertEquals(1L, mStats.misses);
+        assertEquals(1, mStats.size);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void constructor_InvalidLocalCapacity_Throws() {
+        new ThreadLocalPool<>(mFactory, 0, 16);
+    }
+
+    @Test(timeout = 20000)
+    public void getAndAdd_ProducersAndConsumers_NoObjectLostOrDuplicated()
+            throws InterruptedException {
+        // Producers release unique tokens which, once their caches are full,
+        // spill into the shared pool. Consumers take them from the shared pool
+        // on other threads. Every spilled token must be taken exactly once.
+        final int localCapacity = 8;
+        final int tokensPerProducer = 20000;
+        final int numSpilled = (tokensPerProducer - localCapacity) * NUM_THREADS;
+        final ThreadLocalPool<Token> pool = new ThreadLocalPool<>(
+                mFactory, localCapacity, tokensPerProducer * NUM_THREADS);
+        final AtomicIntegerArray taken = new AtomicIntegerArray(tokensPerProducer * NUM_THREADS);
+        final AtomicInteger takenCount = new AtomicInteger();
+        final AtomicInteger takenTwice = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[2 * NUM_THREADS];
+        for (int threadIdx = 0; threadIdx < NUM_THREADS; threadIdx++) {
+            final int firstId = threadIdx * tokensPerProducer;
+            threads[threadIdx] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int id = firstId; id < firstId + tokensPerProducer; id++)
+                        pool.add(new Token(id));
+                }
+            });
+            threads[NUM_THREADS + threadIdx] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (takenCount.get() < numSpilled) {
+                        Token token = pool.get();
+                        if (token.id < 0) {
+                            // Nothing to take yet, so a new object was created
+                            Thread.yield();
+                            continue;
+                        }
+                        if (taken.incrementAndGet(token.id) > 1)
+                            takenTwice.incrementAndGet();
+                        takenCount.incrementAndGet();
+                    }
+                }
+            });
+        }
+        startAndJoin(threads, start);
+
+        assertEquals(0, takenTwice.get());
+        assertEquals(numSpilled, takenCount.get());
+
+        // Only the tokens left in the producers' own caches were not taken
+        int notTaken = 0;
+        for (int id = 0; id < taken.length(); id++)
+            if (taken.get(id) == 0)
+                notTaken++;
+        assertEquals(localCapacity * NUM_THREADS, notTaken);
+
+        pool.getStats(mStats);
+        assertEquals(numSpilled, mStats.hits);
+        assertEquals(0L, mStats.drops);
+        assertEquals(localCapacity * NUM_THREADS, mStats.size);
+    }
+
+    @Test(timeout = 20000)
+    public void getAndAdd_SharedByThreads_ObjectsNeverHeldTwiceAndStatsConsistent()
+            throws InterruptedException {
+        // Each thread gets more objects than its cache holds and returns them,
+        // so objects move between threads through the shared pool
+        final int cyclesPerThread = 20000;
+        final int heldPerCycle = 12;
+        final ThreadLocalPool<Token> pool = new ThreadLocalPool<>(mFactory, 4, 16);
+        final AtomicInteger doubleHolds = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[NUM_THREADS];
+        for (int threadIdx = 0; threadIdx < threads.length; threadIdx++) {
+            threads[threadIdx] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Token[] held = new Token[heldPerCycle];
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int cycle = 0; cycle < cyclesPerThread; cycle++) {
+                        for (int idx = 0; idx < held.length; idx++) {
+                            held[idx] = pool.get();
+                            if (!held[idx].held.compareAndSet(false, true))
+                                doubleHolds.incrementAndGet();
+                        }
+                        for (int idx = 0; idx < held.length; idx++) {
+                            held[idx].held.set(false);
+                            pool.add(held[idx]);
+                        }
+                    }
+                }
+            });
+        }
+        startAndJoin(threads, start);
+
+        assertEquals(0, doubleHolds.get());
+
+        // Each get is a hit or a miss, and every added object is either
+        // pooled, dropped or has since been taken by a hit
+        long numOperations = (long) cyclesPerThread * heldPerCycle * NUM_THREADS;
+        pool.getStats(mStats);
+        assertEquals(numOperations, mStats.hits + mStats.misses);
+        assertEquals(mCreatedCount.get(), mStats.misses);
+        assertEquals(numOperations - mStats.drops - mStats.hits, (long) mStats.size);
+        assertTrue(mStats.size <= mStats.maxSize);
+        assertEquals(16 + 4 * NUM_THREADS, mStats.maxSize);
+    }
+}
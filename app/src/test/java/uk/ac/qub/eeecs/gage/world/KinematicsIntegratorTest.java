@@ -0,0 +1,118 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.qub.eeecs.gage.engine.jobs.JobParallelFor;
+import uk.ac.qub.eeecs.gage.engine.jobs.JobSystem;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the bulk kinematics integrator
+ */
+public class KinematicsIntegratorTest {
+
+    private static final float EPSILON = 0.0001f;
+
+    private KinematicsIntegrator mIntegrator;
+
+    @Before
+    public void setUp() {
+        mIntegrator = new KinematicsIntegrator(1);
+        mIntegrator.setCount(3);
+        for (int idx = 0; idx < 3; idx++) {
+            mIntegrator.velocityX[idx] = 10.0f;
+            mIntegrator.accelerationY[idx] = 20.0f;
+            mIntegrator.angularVelocity[idx] = 30.0f;
+            mIntegrator.maxAcceleration[idx] = Float.MAX_VALUE;
+            mIntegrator.maxVelocity[idx] = Float.MAX_VALUE;
+            mIntegrator.maxAngularAcceleration[idx] = Float.MAX_VALUE;
+            mIntegrator.maxAngularVelocity[idx] = Float.MAX_VALUE;
+            mIntegrator.linearTimeScale[idx] = 1.0f;
+            mIntegrator.angularTimeScale[idx] = 1.0f;
+        }
+    }
+
+    @Test
+    public void integrate_Awake_MovesAndRotates() {
+        mIntegrator.integrate(0.5f);
+
+        assertEquals(5.0f, mIntegrator.positionX[0], EPSILON);
+        assertEquals(10.0f, mIntegrator.velocityY[0], EPSILON);
+        assertEquals(5.0f, mIntegrator.positionY[0], EPSILON);
+        assertEquals(15.0f, mIntegrator.orientation[0], EPSILON);
+    }
+
+    @Test
+    public void integrate_Static_RotatesOnly() {
+        mIntegrator.linearTimeScale[1] = 0.0f;
+
+        mIntegrator.integrate(0.5f);
+
+        assertEquals(0.0f, mIntegrator.positionX[1], EPSILON);
+        assertEquals(0.0f, mIntegrator.positionY[1], EPSILON);
+        assertEquals(0.0f, mIntegrator.velocityY[1], EPSILON);
+        assertEquals(15.0f, mIntegrator.orientation[1], EPSILON);
+        assertEquals(5.0f, mIntegrator.positionX[0], EPSILON);
+    }
+
+    @Test
+    public void integrate_Sleeping_Unchanged() {
+        mIntegrator.linearTimeScale[2] = 0.0f;
+        mIntegrator.angularTimeScale[2] = 0.0f;
+
+        mIntegrator.integrate(0.5f);
+
+        assertEquals(0.0f, mIntegrator.positionX[2], EPSILON);
+        assertEquals(0.0f, mIntegrator.positionY[2], EPSILON);
+        assertEquals(0.0f, mIntegrator.orientation[2], EPSILON);
+        assertEquals(30.0f, mIntegrator.angularVelocity[2], EPSILON);
+    }
+
+    @Test
+    public void integrate_VelocityClamped() {
+        mIntegrator.maxVelocity[0] = 5.0f;
+
+        mIntegrator.integrate(0.5f);
+
+        float velocityX = mIntegrator.velocityX[0];
+        float velocityY = mIntegrator.velocityY[0];
+        assertEquals(5.0f, (float) Math.sqrt(velocityX * velocityX + velocityY * velocityY), EPSILON);
+    }
+
+    @Test
+    public void integrate_JobParallelFor_MatchesSerialIntegration() {
+        int count = 20 * KinematicsIntegrator.MIN_PARALLEL_RANGE_SIZE;
+        KinematicsIntegrator serial = new KinematicsIntegrator(count);
+        KinematicsIntegrator parallel = new KinematicsIntegrator(count);
+        for (KinematicsIntegrator integrator : new KinematicsIntegrator[]{serial, parallel}) {
+            integrator.setCount(count);
+            for (int idx = 0; idx < count; idx++) {
+                integrator.velocityX[idx] = idx;
+                integrator.accelerationY[idx] = -idx;
+                integrator.angularVelocity[idx] = 2.0f * idx;
+                integrator.maxAcceleration[idx] = Float.MAX_VALUE;
+                integrator.maxVelocity[idx] = Float.MAX_VALUE;
+                integrator.maxAngularAcceleration[idx] = Float.MAX_VALUE;
+                integrator.maxAngularVelocity[idx] = Float.MAX_VALUE;
+                integrator.linearTimeScale[idx] = 1.0f;
+                integrator.angularTimeScale[idx] = idx % 2;
+            }
+        }
+
+        JobSystem jobSystem = new JobSystem(3);
+        try {
+            serial.integrate(0.5f);
+            parallel.integrate(0.5f, new JobParallelFor(jobSystem));
+        } finally {
+            jobSystem.shutdown();
+        }
+
+        for (int idx = 0; idx < count; idx++) {
+            assertEquals(serial.positionX[idx], parallel.positionX[idx], 0.0f);
+            assertEquals(serial.positionY[idx], parallel.positionY[idx], 0.0f);
+            assertEquals(serial.orientation[idx], parallel.orientation[idx], 0.0f);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package uk.ac.qub.eeecs.gage.world;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.qub.eeecs.gage.engine.ElapsedTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the sprite motion states
+ */
+public class SpriteTest {
+
+    private static final float EPSILON = 0.0001f;
+
+    private static final double STEP_TIME = 0.1;
+
+    private Sprite mSprite;
+    private ElapsedTime mElapsedTime;
+
+    @Before
+    public void setUp() {
+        mSprite = new Sprite(0.0f, 0.0f, 10.0f, 10.0f, null, mock(GameScreen.class));
+        mElapsedTime = new ElapsedTime();
+        mElapsedTime.stepTime = STEP_TIME;
+    }
+
+    /**
+     * Update the sprite for the specified number of steps
+     */
+    private void update(int steps) {
+        for (int step = 0; step < steps; step++) {
+            mElapsedTime.totalTime += mElapsedTime.stepTime;
+            mSprite.update(mElapsedTime);
+        }
+    }
+
+    /**
+     * Number of steps after which a sprite at rest must have been put to sleep
+     */
+    private static int stepsToSleep() {
+        return (int) (Sprite.DEFAULT_SLEEP_TIME / STEP_TIME) + 2;
+    }
+
+    @Test
+    public void update_AtRestForSleepTime_PutToSleep() {
+        mSprite.setCanSleep(true);
+        mSprite.velocity.set(0.5f * Sprite.DEFAULT_SLEEP_LINEAR_THRESHOLD, 0.0f);
+
+        update((int) (Sprite.DEFAULT_SLEEP_TIME / STEP_TIME) - 1);
+        assertFalse(mSprite.isSleeping());
+
+        update(2);
+        assertTrue(mSprite.isSleeping());
+        assertEquals(0.0f, mSprite.velocity.x, EPSILON);
+
+        // A sleeping sprite is not moved
+        float sleepX = mSprite.position.x;
+        update(stepsToSleep());
+        assertEquals(sleepX, mSprite.position.x, EPSILON);
+    }
+
+    @Test
+    public void update_MovingSprite_StaysAwake() {
+        mSprite.setCanSleep(true);
+        mSprite.velocity.set(2.0f * Sprite.DEFAULT_SLEEP_LINEAR_THRESHOLD, 0.0f);
+
+        update(stepsToSleep());
+
+        assertFalse(mSprite.isSleeping());
+    }
+
+    @Test
+    public void update_SleepNotPermitted_StaysAwake() {
+        update(stepsToSleep());
+
+        assertFalse(mSprite.isSleeping());
+        assertEquals(Sprite.MotionState.Awake, mSprite.getMotionState());
+    }
+
+    @Test
+    public void applyImpulse_SleepingSprite_WokenAndMoved() {
+        mSprite.setCanSleep(true);
+        update(stepsToSleep());
+        assertTrue(mSprite.isSleeping());
+
+        mSprite.applyImpulse(10.0f, 0.0f);
+        assertEquals(Sprite.MotionState.Awake, mSprite.getMotionState());
+
+        update(1);
+        assertEquals(1.0f, mSprite.position.x, EPSILON);
+
+        // Once back at rest the sprite sleeps again
+        mSprite.velocity.set(0.0f, 0.0f);
+        update(stepsToSleep());
+        assertTrue(mSprite.isSleeping());
+    }
+
+    @Test
+    public void applyImpulse_StaticSprite_Unaffected() {
+        mSprite.setMotionState(Sprite.MotionState.Static);
+        mSprite.angularVelocity = 10.0f;
+
+        mSprite.applyImpulse(10.0f, 0.0f);
+        update(1);
+
+        assertTrue(mSprite.isStatic());
+        assertEquals(0.0f, mSprite.position.x, EPSILON);
+        // Static sprites still rotate
+        assertEquals(1.0f, mSprite.orientation, EPSILON);
+    }
+}